@@ -12,15 +12,28 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.client.CachedSchemaKeeperClient;
 import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.client.compression.DictionaryCompression;
 import schemakeeper.exception.AvroDeserializationException;
+import schemakeeper.metrics.SerDeMetrics;
 import schemakeeper.schema.AvroSchemaUtils;
+import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.AbstractDeserializer;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.RecordStreamReader;
+import schemakeeper.serialization.SchemaWarmUp;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class AvroDeserializer extends AbstractDeserializer<Object> implements AvroSerDe {
     private static final Logger logger = LoggerFactory.getLogger(AvroDeserializer.class);
@@ -29,23 +42,41 @@ public class AvroDeserializer extends AbstractDeserializer<Object> implements Av
 
     private boolean useSpecificReaderSchema;
     private final Map<String, Schema> readerSchemaCache;
+    private final boolean useFastSerde;
+    private final Map<Schema, Optional<DatumReader<Object>>> fastReaders;
+    private final Map<String, Object> projections;
+    // projection or default reader per writer schema id
+    private final Map<Integer, DatumReader<Object>> readers;
+    private final ThreadLocal<BinaryDecoder> decoders;
+    private final DictionaryCompression compression;
+    // max number of concurrent registry calls on warm-up
+    private final int warmUpParallelism;
 
     public AvroDeserializer(SchemaKeeperClient client, AvroSerDeConfig config) {
+        this(client, config, SerDeMetrics.create(config, SerDeMetrics.DESERIALIZER));
+    }
+
+    public AvroDeserializer(SchemaKeeperClient client, AvroSerDeConfig config, SerDeMetrics metrics) {
+        super(metrics);
+
         this.client = client;
         this.decoderFactory = DecoderFactory.get();
         this.readerSchemaCache = new ConcurrentHashMap<>();
         this.useSpecificReaderSchema = config.useSpecificReader();
+        this.useFastSerde = config.useFastSerde();
+        this.fastReaders = new ConcurrentHashMap<>();
+        this.projections = new HashMap<>(config.projectionPerSubjectConfig());
+        this.readers = new ConcurrentHashMap<>();
+        this.decoders = new ThreadLocal<>();
+        this.compression = new DictionaryCompression(client);
+        this.warmUpParallelism = config.clientConnectionsPerRoute();
 
         readerSchemaCache.putAll(config.specificReaderPerSubjectConfig());
+        warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), SpecificRecord.class), SchemaWarmUp::recordNameSubject);
     }
 
     public AvroDeserializer(AvroSerDeConfig config) {
-        this.client = new CachedSchemaKeeperClient(config);
-        this.decoderFactory = DecoderFactory.get();
-        this.readerSchemaCache = new ConcurrentHashMap<>();
-        this.useSpecificReaderSchema = config.useSpecificReader();
-
-        readerSchemaCache.putAll(config.specificReaderPerSubjectConfig());
+        this(new CachedSchemaKeeperClient(config), config);
     }
 
     public AvroDeserializer(Map<String, Object> config) {
@@ -53,46 +84,142 @@ public class AvroDeserializer extends AbstractDeserializer<Object> implements Av
     }
 
     public Object deserialize(byte[] data) throws AvroDeserializationException {
+        return deserialize(data, null);
+    }
+
+    /**
+     * Decodes data into the given record if possible: nested records, arrays and utf8 strings of the record with the
+     * same schema are reused. Compiled readers ({@link AvroSerDeConfig#USE_FAST_SERDE_CONFIG}) always create new objects.
+     *
+     * @param reuse - previously deserialized value or null
+     */
+    public Object deserialize(byte[] data, Object reuse) throws AvroDeserializationException {
         if (data == null) {
             return null;
         }
 
+        long start = getMetrics().start();
+        int id = 0;
+
         try {
             ByteBuffer byteBuffer = ByteBuffer.wrap(data);
             byte b = readProtocolByte(byteBuffer);
+            boolean compressed = b == MessageHeader.COMPRESSED_BYTE;
+
+            if (compressed) {
+                b = readProtocolByte(byteBuffer);
+            }
+
             checkByte(b);
 
-            int id = byteBuffer.getInt();
+            id = readSchemaId(byteBuffer, b);
             Schema schema = client.getSchemaById(id);
 
             if (schema == null) {
                 throw new AvroDeserializationException(String.format("Schema with id: %s does not exist", id));
             }
 
-            int dataLength = byteBuffer.limit() - 5;
+            if (compressed) {
+                byteBuffer = compression.decompress(byteBuffer);
+            }
+
+            int dataLength = byteBuffer.remaining();
+
+            Object result;
 
             if (schema.getType() == Schema.Type.BYTES) {
-                return handleByteArray(byteBuffer, dataLength);
+                result = handleByteArray(byteBuffer, dataLength);
+            } else {
+                int offset = byteBuffer.position() + byteBuffer.arrayOffset();
+
+                BinaryDecoder binaryDecoder = binaryDecoder(byteBuffer.array(), offset, dataLength);
+                DatumReader<Object> reader = createDatumReader(id, schema);
+                result = reader.read(reuse, binaryDecoder);
+
+                if (schema.getType() == Schema.Type.STRING) {
+                    result = handleString(result);
+                }
             }
 
-            int start = byteBuffer.position() + byteBuffer.arrayOffset();
+            deserialized(id, data.length, start);
+            return result;
+        } catch (IOException e) {
+            throw deserializationFailed(id, new AvroDeserializationException(e));
+        } catch (RuntimeException e) {
+            throw deserializationFailed(id, e);
+        }
+    }
 
-            BinaryDecoder binaryDecoder = decoderFactory.binaryDecoder(byteBuffer.array(), start, dataLength, null);
-            DatumReader<Object> reader = createDatumReader(schema, null);
-            Object result = reader.read(null, binaryDecoder);
+    /**
+     * Deserializes values written by {@link AvroSerializer#serializeBatch(String, List)}. Schema is resolved once per batch.
+     *
+     * @return values in the same order or null if data is null
+     */
+    public List<Object> deserializeBatch(byte[] data) throws AvroDeserializationException {
+        if (data == null) {
+            return null;
+        }
 
-            if (schema.getType() == Schema.Type.STRING) {
-                return handleString(result);
+        long start = getMetrics().start();
+        int id = 0;
+
+        try {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+            byte b = readProtocolByte(byteBuffer);
+            checkBatchByte(b);
+
+            id = readSchemaId(byteBuffer, b);
+            Schema schema = client.getSchemaById(id);
+
+            if (schema == null) {
+                throw new AvroDeserializationException(String.format("Schema with id: %s does not exist", id));
+            }
+
+            List<Object> result = new ArrayList<>();
+            BinaryDecoder binaryDecoder = null;
+            DatumReader<Object> reader = schema.getType() == Schema.Type.BYTES ? null : createDatumReader(id, schema);
+
+            while (byteBuffer.hasRemaining()) {
+                int dataLength = readBatchRecordLength(byteBuffer);
+
+                if (schema.getType() == Schema.Type.BYTES) {
+                    result.add(handleByteArray(byteBuffer, dataLength));
+                    continue;
+                }
+
+                int offset = byteBuffer.position() + byteBuffer.arrayOffset();
+                binaryDecoder = decoderFactory.binaryDecoder(byteBuffer.array(), offset, dataLength, binaryDecoder);
+                Object value = reader.read(null, binaryDecoder);
+
+                if (schema.getType() == Schema.Type.STRING) {
+                    value = handleString(value);
+                }
+
+                result.add(value);
+                byteBuffer.position(byteBuffer.position() + dataLength);
             }
 
+            deserialized(id, data.length, start);
             return result;
-        } catch (AvroDeserializationException e) {
-            throw e;
         } catch (IOException e) {
-            throw new AvroDeserializationException(e);
+            throw deserializationFailed(id, new AvroDeserializationException(e));
+        } catch (RuntimeException e) {
+            throw deserializationFailed(id, e);
         }
     }
 
+    /**
+     * Reads messages from the stream of length-delimited records (see {@link RecordStreamReader}).
+     * Datum readers are created once per schema id and shared with the other methods.
+     */
+    public RecordStreamReader<Object> deserializeStream(InputStream in) {
+        return new RecordStreamReader<>(in, streamRecordReader());
+    }
+
+    public RecordStreamReader<Object> deserializeStream(ReadableByteChannel channel) {
+        return new RecordStreamReader<>(channel, streamRecordReader());
+    }
+
     public Optional<Object> deserializeSafe(byte[] data) {
         try {
             return Optional.of(deserialize(data));
@@ -102,9 +229,100 @@ public class AvroDeserializer extends AbstractDeserializer<Object> implements Av
         }
     }
 
+    /**
+     * Derives schemas of the specific record classes, resolves schema ids of the subjects and loads the schemas by id in parallel,
+     * so the first messages of these classes do not wait for the registry. Schemas are never registered.
+     * Called on creation for {@link AvroSerDeConfig#WARMUP_CLASSES_CONFIG} with the record names as subjects.
+     *
+     * @param subjects - subjects of the class schema
+     */
+    public void warmUp(List<Class<?>> classes, Function<Schema, List<String>> subjects) {
+        SchemaWarmUp.run(classes, warmUpParallelism, clazz -> {
+            Schema schema = SpecificData.get().getSchema(clazz);
+
+            if (useSpecificReaderSchema) {
+                readerSchemaCache.putIfAbsent(schema.getFullName(), schema);
+            }
+
+            for (String subject : subjects.apply(schema)) {
+                int id = client.getSchemaId(subject, schema, SchemaType.AVRO);
+                Schema writerSchema = id > 0 ? client.getSchemaById(id) : null;
+
+                if (writerSchema != null && useFastSerde && !useSpecificReaderSchema) {
+                    fastReaders.computeIfAbsent(writerSchema, FastDatumReader::forSchema);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the schemas by id, so the messages of a batch deserialized in parallel do not request the same schema concurrently.
+     */
+    public void preloadSchemas(Collection<Integer> schemaIds) {
+        for (int id : schemaIds) {
+            Schema writerSchema = client.getSchemaById(id);
+
+            if (writerSchema != null && useFastSerde && !useSpecificReaderSchema) {
+                fastReaders.computeIfAbsent(writerSchema, FastDatumReader::forSchema);
+            }
+        }
+    }
+
     @Override
     public void close() {
         client.close();
+        getMetrics().close();
+        compression.close();
+    }
+
+    private RecordStreamReader.RecordReader<Object> streamRecordReader() {
+        return (protocolByte, schemaId, messageLength, dataLength, decoder) -> {
+            long start = getMetrics().start();
+
+            try {
+                checkByte(protocolByte);
+                Schema schema = client.getSchemaById(schemaId);
+
+                if (schema == null) {
+                    throw new AvroDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
+                }
+
+                Object result;
+
+                if (schema.getType() == Schema.Type.BYTES) {
+                    byte[] bytes = new byte[dataLength];
+                    decoder.readFixed(bytes);
+                    result = bytes;
+                } else {
+                    result = createDatumReader(schemaId, schema).read(null, decoder);
+
+                    if (schema.getType() == Schema.Type.STRING) {
+                        result = handleString(result);
+                    }
+                }
+
+                deserialized(schemaId, messageLength, start);
+                return result;
+            } catch (IOException e) {
+                throw deserializationFailed(schemaId, new AvroDeserializationException(e));
+            } catch (RuntimeException e) {
+                throw deserializationFailed(schemaId, e);
+            }
+        };
+    }
+
+    /**
+     * Decoder is reused by the subsequent calls in the same thread.
+     */
+    private BinaryDecoder binaryDecoder(byte[] data, int offset, int length) {
+        BinaryDecoder reuse = decoders.get();
+        BinaryDecoder decoder = decoderFactory.binaryDecoder(data, offset, length, reuse);
+
+        if (decoder != reuse) {
+            decoders.set(decoder);
+        }
+
+        return decoder;
     }
 
     private Object handleByteArray(ByteBuffer byteBuffer, int dataLength) {
@@ -117,11 +335,69 @@ public class AvroDeserializer extends AbstractDeserializer<Object> implements Av
         return result.toString();
     }
 
+    /**
+     * Creates reader with the projection schema if projection is configured for the record, otherwise the default reader.
+     * Readers are cached per writer schema id: schema resolution of the generic and specific readers is not repeated per message.
+     */
+    private DatumReader<Object> createDatumReader(int schemaId, Schema writerSchema) throws AvroDeserializationException {
+        DatumReader<Object> reader = readers.get(schemaId);
+
+        if (reader != null) {
+            return reader;
+        }
+
+        return readers.computeIfAbsent(schemaId, id -> {
+            if (writerSchema.getType() == Schema.Type.RECORD && projections.containsKey(writerSchema.getFullName())) {
+                return new GenericDatumReader<>(writerSchema, getProjectionSchema(writerSchema));
+            }
+
+            return createDatumReader(writerSchema, null);
+        });
+    }
+
+    /**
+     * Fields which are not present in the projection schema are skipped by the resolving decoder without materialization.
+     */
+    private Schema getProjectionSchema(Schema writerSchema) throws AvroDeserializationException {
+        Object projection = projections.get(writerSchema.getFullName());
+
+        if (projection instanceof Schema) {
+            return (Schema) projection;
+        }
+
+        if (!(projection instanceof Collection)) {
+            throw new AvroDeserializationException(String.format("Projection for %s should be a schema or a list of field names", writerSchema.getFullName()));
+        }
+
+        List<Schema.Field> fields = new ArrayList<>();
+
+        for (Object name : (Collection<?>) projection) {
+            Schema.Field field = writerSchema.getField(name.toString());
+
+            if (field == null) {
+                throw new AvroDeserializationException(String.format("Field %s does not exist in schema %s", name, writerSchema.getFullName()));
+            }
+
+            fields.add(new Schema.Field(field, field.schema()));
+        }
+
+        return Schema.createRecord(writerSchema.getName(), writerSchema.getDoc(), writerSchema.getNamespace(), writerSchema.isError(), fields);
+    }
+
     private DatumReader<Object> createDatumReader(Schema writerSchema, Schema readerSchema) throws AvroDeserializationException {
         if (AvroSchemaUtils.isPrimitive(writerSchema)) {
             return new GenericDatumReader<>(writerSchema);
         }
 
+        // compiled reader is used only if data is read with the writer schema
+        if (useFastSerde && !useSpecificReaderSchema && readerSchema == null) {
+            Optional<DatumReader<Object>> reader = fastReaders.computeIfAbsent(writerSchema, FastDatumReader::forSchema);
+
+            if (reader.isPresent()) {
+                return reader.get();
+            }
+        }
+
         if (useSpecificReaderSchema) {
             if (readerSchema == null) {
                 readerSchema = getReaderSchema(writerSchema);
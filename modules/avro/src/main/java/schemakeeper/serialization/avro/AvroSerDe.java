@@ -1,5 +1,8 @@
 package schemakeeper.serialization.avro;
 
+import schemakeeper.serialization.MessageHeader;
+
 public interface AvroSerDe {
-    byte AVRO_BYTE = 0b1111001;
+    byte AVRO_BYTE = MessageHeader.AVRO_BYTE;
+    byte COMPACT_AVRO_BYTE = MessageHeader.COMPACT_AVRO_BYTE;
 }
@@ -9,6 +9,9 @@ import java.util.Map;
 public class AvroSerDeConfig extends SerDeConfig {
     public static final String USE_SPECIFIC_READER_CONFIG = "use.specific.reader";
     public static final String SPECIFIC_READER_SCHEMA_PER_SUBJECT_CONFIG = "specific.reader.schema.per.subject";
+    public static final String USE_FAST_SERDE_CONFIG = "use.fast.serde";
+    // record full name -> list of the top-level field names or reader schema with the subset of fields
+    public static final String PROJECTION_PER_SUBJECT_CONFIG = "projection.per.subject";
 
     public AvroSerDeConfig(Map<String, Object> config) {
         super(config);
@@ -23,4 +26,13 @@ public class AvroSerDeConfig extends SerDeConfig {
     public Map<String, Schema> specificReaderPerSubjectConfig() {
         return (Map<String, Schema>) config.getOrDefault(SPECIFIC_READER_SCHEMA_PER_SUBJECT_CONFIG, Collections.EMPTY_MAP);
     }
+
+    public boolean useFastSerde() {
+        return (boolean) config.getOrDefault(USE_FAST_SERDE_CONFIG, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> projectionPerSubjectConfig() {
+        return (Map<String, Object>) config.getOrDefault(PROJECTION_PER_SUBJECT_CONFIG, Collections.EMPTY_MAP);
+    }
 }
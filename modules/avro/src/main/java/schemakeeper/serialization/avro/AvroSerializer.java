@@ -5,23 +5,32 @@ import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.client.CachedSchemaKeeperClient;
 import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.client.compression.DictionaryCompression;
 import schemakeeper.exception.AvroSerializationException;
 import schemakeeper.exception.SerializationException;
+import schemakeeper.metrics.SerDeMetrics;
 import schemakeeper.schema.AvroSchemaUtils;
 import schemakeeper.schema.CompatibilityType;
 import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.AbstractSerializer;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.SchemaWarmUp;
+import schemakeeper.serialization.SubjectSchema;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class AvroSerializer extends AbstractSerializer<Object> implements AvroSerDe {
     private static final Logger logger = LoggerFactory.getLogger(AvroSerializer.class);
@@ -29,26 +38,51 @@ public class AvroSerializer extends AbstractSerializer<Object> implements AvroSe
     private final SchemaKeeperClient client;
     private final boolean allowForceSchemaRegister;
     private final CompatibilityType compatibilityType;
+    private final boolean useFastSerde;
+    private final Map<Schema, Optional<DatumWriter<Object>>> fastWriters;
+    private final Map<Schema, DatumWriter<Object>> specificWriters;
+    private final DictionaryCompression compression;
+    // default or compact protocol byte
+    private final byte protocolByte;
+    // max number of concurrent registry calls on warm-up
+    private final int warmUpParallelism;
 
     public AvroSerializer(SchemaKeeperClient client) {
         this.client = client;
         this.allowForceSchemaRegister = true;
         this.encoderFactory = EncoderFactory.get();
         this.compatibilityType = CompatibilityType.BACKWARD;
+        this.useFastSerde = false;
+        this.fastWriters = new ConcurrentHashMap<>();
+        this.specificWriters = new ConcurrentHashMap<>();
+        this.compression = null;
+        this.protocolByte = AVRO_BYTE;
+        this.warmUpParallelism = 1;
     }
 
     public AvroSerializer(SchemaKeeperClient client, AvroSerDeConfig config) {
+        this(client, config, SerDeMetrics.create(config, SerDeMetrics.SERIALIZER));
+    }
+
+    public AvroSerializer(SchemaKeeperClient client, AvroSerDeConfig config, SerDeMetrics metrics) {
+        super(metrics);
+
         this.client = client;
         this.encoderFactory = EncoderFactory.get();
         this.allowForceSchemaRegister = config.allowForceSchemaRegister();
         this.compatibilityType = config.compatibilityType();
+        this.useFastSerde = config.useFastSerde();
+        this.fastWriters = new ConcurrentHashMap<>();
+        this.specificWriters = new ConcurrentHashMap<>();
+        this.compression = config.compressionEnabled() ? new DictionaryCompression(client, config) : null;
+        this.protocolByte = config.compactHeader() ? COMPACT_AVRO_BYTE : AVRO_BYTE;
+        this.warmUpParallelism = config.clientConnectionsPerRoute();
+
+        warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), SpecificRecord.class), SchemaWarmUp::recordNameSubject);
     }
 
     public AvroSerializer(AvroSerDeConfig config) {
-        this.client = new CachedSchemaKeeperClient(config);
-        this.encoderFactory = EncoderFactory.get();
-        this.allowForceSchemaRegister = config.allowForceSchemaRegister();
-        this.compatibilityType = config.compatibilityType();
+        this(new CachedSchemaKeeperClient(config), config);
     }
 
     public AvroSerializer(Map<String, Object> config) {
@@ -60,35 +94,119 @@ public class AvroSerializer extends AbstractSerializer<Object> implements AvroSe
             return null;
         }
 
+        long start = getMetrics().start();
+        int id = 0;
+
         try {
             Schema schema = AvroSchemaUtils.getSchema(value);
-            int id;
+            id = getSchemaId(subject, schema);
 
-            if (allowForceSchemaRegister) {
-                id = client.registerNewSchema(subject, schema, SchemaType.AVRO, compatibilityType);
-            } else {
-                id = client.getSchemaId(subject, schema, SchemaType.AVRO);
-            }
+            return write(subject, schema, id, value, start);
+        } catch (IOException | SerializationException e) {
+            throw serializationFailed(subject, id, new AvroSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, id, e);
+        }
+    }
+
+    /**
+     * Serializes value with the schema resolved by {@link #resolveSchema(String, Schema)}: schema is not derived from
+     * the value and registry is not called.
+     *
+     * @param subjectSchema - resolved schema of the value
+     */
+    public byte[] serialize(SubjectSchema subjectSchema, Object value) throws AvroSerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        long start = getMetrics().start();
 
-            if (id <= 0) {
-                throw new IllegalArgumentException(String.format("Schema %s was not registered in registry", schema.toString()));
+        try {
+            return write(subjectSchema.getSubject(), subjectSchema.getSchema(), subjectSchema.getSchemaId(), value, start);
+        } catch (IOException | SerializationException e) {
+            throw serializationFailed(subjectSchema.getSubject(), subjectSchema.getSchemaId(), new AvroSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subjectSchema.getSubject(), subjectSchema.getSchemaId(), e);
+        }
+    }
+
+    /**
+     * Registers (or finds) the schema of the subject, so values with this schema can be serialized without lookups
+     * by {@link #serialize(SubjectSchema, Object)}.
+     */
+    public SubjectSchema resolveSchema(String subject, Schema schema) throws AvroSerializationException {
+        try {
+            return new SubjectSchema(subject, schema, getSchemaId(subject, schema));
+        } catch (SerializationException e) {
+            throw serializationFailed(subject, 0, new AvroSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, 0, e);
+        }
+    }
+
+    /**
+     * Serializes values with the same schema into one buffer: batch protocol byte and schema id are written once and followed by
+     * length-prefixed records. Schema is resolved once per batch. Result should be read by
+     * {@link AvroDeserializer#deserializeBatch(byte[])}.
+     *
+     * @return serialized batch or null if values are null or empty
+     */
+    public byte[] serializeBatch(String subject, List<?> values) throws AvroSerializationException {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+        int id = 0;
+
+        try {
+            Object first = values.get(0);
+
+            if (first == null) {
+                throw new IllegalArgumentException("Batch can't contain null values");
             }
 
+            Schema schema = AvroSchemaUtils.getSchema(first);
+            id = getSchemaId(subject, schema);
+
             ByteArrayOutputStream out = new ByteArrayOutputStream();
-            writeProtocolByte(out, AVRO_BYTE);
-            writeSchemaId(out, id);
+            writeHeader(out, MessageHeader.batchByteOf(protocolByte), id);
 
-            if (value instanceof byte[]) {
-                out.write((byte[]) value);
-            } else {
-                handleGeneric(out, value, schema);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            BinaryEncoder binaryEncoder = null;
+            DatumWriter<Object> writer = first instanceof byte[] ? null : createWriter(first instanceof SpecificRecord, schema);
+
+            for (Object value : values) {
+                if (value == null) {
+                    throw new IllegalArgumentException("Batch can't contain null values");
+                }
+
+                if (!schema.equals(AvroSchemaUtils.getSchema(value))) {
+                    throw new IllegalArgumentException("All values of the batch should have the same schema");
+                }
+
+                record.reset();
+
+                if (value instanceof byte[]) {
+                    record.write((byte[]) value);
+                } else {
+                    binaryEncoder = encoderFactory.directBinaryEncoder(record, binaryEncoder);
+                    writer.write(value, binaryEncoder);
+                    binaryEncoder.flush();
+                }
+
+                writeBatchRecord(out, record);
             }
 
             byte[] bytes = out.toByteArray();
             out.close();
+            serialized(subject, id, bytes.length, start);
             return bytes;
         } catch (IOException | SerializationException e) {
-            throw new AvroSerializationException(e);
+            throw serializationFailed(subject, id, new AvroSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, id, e);
         }
     }
 
@@ -101,21 +219,91 @@ public class AvroSerializer extends AbstractSerializer<Object> implements AvroSe
         }
     }
 
+    /**
+     * Derives schemas of the specific record classes, prebuilds their writers and resolves schema ids of the subjects
+     * in parallel, so the first messages of these classes do not wait for the registry. Schemas are never registered:
+     * the first message registers the schema if {@link AvroSerDeConfig#ALLOW_FORCE_SCHEMA_REGISTER_CONFIG} is enabled.
+     * Called on creation for {@link AvroSerDeConfig#WARMUP_CLASSES_CONFIG} with the record names as subjects.
+     *
+     * @param subjects - subjects of the class schema
+     */
+    public void warmUp(List<Class<?>> classes, Function<Schema, List<String>> subjects) {
+        SchemaWarmUp.run(classes, warmUpParallelism, clazz -> {
+            Schema schema = SpecificData.get().getSchema(clazz);
+            createWriter(true, schema);
+
+            for (String subject : subjects.apply(schema)) {
+                client.getSchemaId(subject, schema, SchemaType.AVRO);
+            }
+        });
+    }
+
     @Override
     public void close() {
         client.close();
+        getMetrics().close();
+
+        if (compression != null) {
+            compression.close();
+        }
+    }
+
+    private int getSchemaId(String subject, Schema schema) {
+        int id;
+
+        if (allowForceSchemaRegister) {
+            id = client.registerNewSchema(subject, schema, SchemaType.AVRO, compatibilityType);
+        } else {
+            id = client.getSchemaId(subject, schema, SchemaType.AVRO);
+        }
+
+        if (id <= 0) {
+            throw new IllegalArgumentException(String.format("Schema %s was not registered in registry", schema.toString()));
+        }
+
+        return id;
+    }
+
+    private byte[] write(String subject, Schema schema, int id, Object value, long start) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeHeader(out, protocolByte, id);
+
+        if (value instanceof byte[]) {
+            out.write((byte[]) value);
+        } else {
+            handleGeneric(out, value, schema);
+        }
+
+        byte[] bytes = out.toByteArray();
+        out.close();
+
+        if (compression != null) {
+            bytes = compression.compress(id, bytes);
+        }
+
+        serialized(subject, id, bytes.length, start);
+        return bytes;
     }
 
     private void handleGeneric(ByteArrayOutputStream out, Object value, Schema schema) throws IOException {
         BinaryEncoder binaryEncoder = encoderFactory.directBinaryEncoder(out, null);
-        DatumWriter<Object> writer = createWriter(value, schema);
+        DatumWriter<Object> writer = createWriter(value instanceof SpecificRecord, schema);
         writer.write(value, binaryEncoder);
         binaryEncoder.flush();
     }
 
-    private DatumWriter<Object> createWriter(Object value, Schema schema) {
-        if (value instanceof SpecificRecord) {
-            return new SpecificDatumWriter<>(schema);
+    private DatumWriter<Object> createWriter(boolean specific, Schema schema) {
+        if (useFastSerde) {
+            Optional<DatumWriter<Object>> writer = fastWriters.computeIfAbsent(schema, FastDatumWriter::forSchema);
+
+            if (writer.isPresent()) {
+                return writer.get();
+            }
+        }
+
+        // writers are thread-safe, so specific writer is created once per schema
+        if (specific) {
+            return specificWriters.computeIfAbsent(schema, s -> new SpecificDatumWriter<>(s));
         } else {
             return new GenericDatumWriter<>(schema);
         }
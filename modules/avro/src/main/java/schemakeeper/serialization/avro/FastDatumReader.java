@@ -0,0 +1,196 @@
+package schemakeeper.serialization.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generic reader compiled once for a single schema, used when data is read with the writer schema (no schema resolution).
+ * Type dispatch is resolved at construction time into a tree of per-field readers. Result is equal to the result of
+ * {@link org.apache.avro.generic.GenericDatumReader}. Instances are immutable and thread-safe.
+ */
+public class FastDatumReader implements DatumReader<Object> {
+    @FunctionalInterface
+    interface ValueReader {
+        Object read(Decoder in) throws IOException;
+    }
+
+    private final Schema schema;
+    private final ValueReader reader;
+
+    private FastDatumReader(Schema schema) {
+        this.schema = schema;
+        this.reader = compile(schema);
+    }
+
+    /**
+     * @return compiled reader or empty if schema is not supported (see {@link FastSchemaSupport})
+     */
+    public static Optional<DatumReader<Object>> forSchema(Schema schema) {
+        if (!FastSchemaSupport.isSupported(schema)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new FastDatumReader(schema));
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Compiled reader can't be switched to another schema: setting the same schema is a no-op.
+     *
+     * @throws IllegalArgumentException if schema differs from the compiled one
+     */
+    @Override
+    public void setSchema(Schema schema) {
+        if (!this.schema.equals(schema)) {
+            throw new IllegalArgumentException("Schema of the compiled reader can't be changed");
+        }
+    }
+
+    @Override
+    public Object read(Object reuse, Decoder in) throws IOException {
+        return reader.read(in);
+    }
+
+    private static ValueReader compile(Schema schema) {
+        switch (schema.getType()) {
+            case NULL:
+                return in -> {
+                    in.readNull();
+                    return null;
+                };
+            case BOOLEAN:
+                return Decoder::readBoolean;
+            case INT:
+                return Decoder::readInt;
+            case LONG:
+                return Decoder::readLong;
+            case FLOAT:
+                return Decoder::readFloat;
+            case DOUBLE:
+                return Decoder::readDouble;
+            case STRING:
+                return stringReader(schema);
+            case BYTES:
+                return in -> in.readBytes(null);
+            case ENUM:
+                return enumReader(schema);
+            case FIXED:
+                int size = schema.getFixedSize();
+                return in -> {
+                    GenericData.Fixed fixed = new GenericData.Fixed(schema);
+                    in.readFixed(fixed.bytes(), 0, size);
+                    return fixed;
+                };
+            case ARRAY:
+                return arrayReader(schema, compile(schema.getElementType()));
+            case MAP:
+                return mapReader(stringReader(schema), compile(schema.getValueType()));
+            case UNION:
+                return unionReader(schema);
+            case RECORD:
+                return recordReader(schema);
+            default:
+                throw new IllegalArgumentException("Unknown schema type: " + schema.getType());
+        }
+    }
+
+    /**
+     * Same as generic reader: java string if schema has avro.java.string=String property, otherwise utf8.
+     */
+    private static ValueReader stringReader(Schema schema) {
+        if (GenericData.StringType.String.name().equals(schema.getProp(GenericData.STRING_PROP))) {
+            return Decoder::readString;
+        }
+
+        return in -> in.readString(null);
+    }
+
+    private static ValueReader enumReader(Schema schema) {
+        List<String> symbols = schema.getEnumSymbols();
+        // enum symbols are immutable, so they are shared between records
+        GenericData.EnumSymbol[] values = new GenericData.EnumSymbol[symbols.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new GenericData.EnumSymbol(schema, symbols.get(i));
+        }
+
+        return in -> values[in.readEnum()];
+    }
+
+    private static ValueReader arrayReader(Schema schema, ValueReader element) {
+        return in -> {
+            long length = in.readArrayStart();
+            GenericData.Array<Object> array = new GenericData.Array<>((int) length, schema);
+
+            while (length > 0) {
+                for (long i = 0; i < length; i++) {
+                    array.add(element.read(in));
+                }
+
+                length = in.arrayNext();
+            }
+
+            return array;
+        };
+    }
+
+    private static ValueReader mapReader(ValueReader key, ValueReader value) {
+        return in -> {
+            long length = in.readMapStart();
+            Map<Object, Object> map = new HashMap<>();
+
+            while (length > 0) {
+                for (long i = 0; i < length; i++) {
+                    map.put(key.read(in), value.read(in));
+                }
+
+                length = in.mapNext();
+            }
+
+            return map;
+        };
+    }
+
+    private static ValueReader unionReader(Schema schema) {
+        List<Schema> types = schema.getTypes();
+        ValueReader[] readers = new ValueReader[types.size()];
+
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = compile(types.get(i));
+        }
+
+        return in -> readers[in.readIndex()].read(in);
+    }
+
+    private static ValueReader recordReader(Schema schema) {
+        List<Schema.Field> fields = schema.getFields();
+        ValueReader[] readers = new ValueReader[fields.size()];
+        int[] positions = new int[fields.size()];
+
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = compile(fields.get(i).schema());
+            positions[i] = fields.get(i).pos();
+        }
+
+        return in -> {
+            GenericData.Record record = new GenericData.Record(schema);
+
+            for (int i = 0; i < readers.length; i++) {
+                record.put(positions[i], readers[i].read(in));
+            }
+
+            return record;
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package schemakeeper.serialization.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.specific.SpecificData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writer compiled once for a single schema: type dispatch is resolved at construction time into a tree of
+ * per-field writers, so writing a value does not check field types. Output is the same as of
+ * {@link org.apache.avro.generic.GenericDatumWriter} / {@link org.apache.avro.specific.SpecificDatumWriter}.
+ * Generic and specific records are both supported. Instances are immutable and thread-safe.
+ */
+public class FastDatumWriter implements DatumWriter<Object> {
+    @FunctionalInterface
+    interface ValueWriter {
+        void write(Object value, Encoder out) throws IOException;
+    }
+
+    private final Schema schema;
+    private final ValueWriter writer;
+
+    private FastDatumWriter(Schema schema) {
+        this.schema = schema;
+        this.writer = compile(schema);
+    }
+
+    /**
+     * @return compiled writer or empty if schema is not supported (see {@link FastSchemaSupport})
+     */
+    public static Optional<DatumWriter<Object>> forSchema(Schema schema) {
+        if (!FastSchemaSupport.isSupported(schema)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new FastDatumWriter(schema));
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Compiled writer can't be switched to another schema: setting the same schema is a no-op.
+     *
+     * @throws IllegalArgumentException if schema differs from the compiled one
+     */
+    @Override
+    public void setSchema(Schema schema) {
+        if (!this.schema.equals(schema)) {
+            throw new IllegalArgumentException("Schema of the compiled writer can't be changed");
+        }
+    }
+
+    @Override
+    public void write(Object datum, Encoder out) throws IOException {
+        writer.write(datum, out);
+    }
+
+    private static ValueWriter compile(Schema schema) {
+        switch (schema.getType()) {
+            case NULL:
+                return (value, out) -> out.writeNull();
+            case BOOLEAN:
+                return (value, out) -> out.writeBoolean((Boolean) value);
+            case INT:
+                return (value, out) -> out.writeInt(((Number) value).intValue());
+            case LONG:
+                return (value, out) -> out.writeLong(((Number) value).longValue());
+            case FLOAT:
+                return (value, out) -> out.writeFloat(((Number) value).floatValue());
+            case DOUBLE:
+                return (value, out) -> out.writeDouble(((Number) value).doubleValue());
+            case STRING:
+                return (value, out) -> out.writeString((CharSequence) value);
+            case BYTES:
+                return (value, out) -> out.writeBytes((ByteBuffer) value);
+            case ENUM:
+                return (value, out) -> out.writeEnum(schema.getEnumOrdinal(value.toString()));
+            case FIXED:
+                int size = schema.getFixedSize();
+                return (value, out) -> out.writeFixed(((GenericFixed) value).bytes(), 0, size);
+            case ARRAY:
+                return arrayWriter(compile(schema.getElementType()));
+            case MAP:
+                return mapWriter(compile(schema.getValueType()));
+            case UNION:
+                return unionWriter(schema);
+            case RECORD:
+                return recordWriter(schema);
+            default:
+                throw new IllegalArgumentException("Unknown schema type: " + schema.getType());
+        }
+    }
+
+    private static ValueWriter arrayWriter(ValueWriter element) {
+        return (value, out) -> {
+            Collection<?> items = (Collection<?>) value;
+            out.writeArrayStart();
+            out.setItemCount(items.size());
+
+            for (Object item : items) {
+                out.startItem();
+                element.write(item, out);
+            }
+
+            out.writeArrayEnd();
+        };
+    }
+
+    private static ValueWriter mapWriter(ValueWriter valueWriter) {
+        return (value, out) -> {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeMapStart();
+            out.setItemCount(map.size());
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.startItem();
+                out.writeString(entry.getKey().toString());
+                valueWriter.write(entry.getValue(), out);
+            }
+
+            out.writeMapEnd();
+        };
+    }
+
+    private static ValueWriter unionWriter(Schema schema) {
+        List<Schema> types = schema.getTypes();
+        ValueWriter[] writers = new ValueWriter[types.size()];
+
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = compile(types.get(i));
+        }
+
+        int nullableIndex = FastSchemaSupport.nullableIndex(schema);
+
+        if (nullableIndex >= 0) {
+            int nullIndex = 1 - nullableIndex;
+            ValueWriter nullable = writers[nullableIndex];
+
+            return (value, out) -> {
+                if (value == null) {
+                    out.writeIndex(nullIndex);
+                    out.writeNull();
+                } else {
+                    out.writeIndex(nullableIndex);
+                    nullable.write(value, out);
+                }
+            };
+        }
+
+        // specific data resolves both generic and specific values (e.g. java enums)
+        SpecificData data = SpecificData.get();
+
+        return (value, out) -> {
+            int index = data.resolveUnion(schema, value);
+            out.writeIndex(index);
+            writers[index].write(value, out);
+        };
+    }
+
+    private static ValueWriter recordWriter(Schema schema) {
+        List<Schema.Field> fields = schema.getFields();
+        ValueWriter[] writers = new ValueWriter[fields.size()];
+        int[] positions = new int[fields.size()];
+
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = compile(fields.get(i).schema());
+            positions[i] = fields.get(i).pos();
+        }
+
+        return (value, out) -> {
+            IndexedRecord record = (IndexedRecord) value;
+
+            for (int i = 0; i < writers.length; i++) {
+                writers[i].write(record.get(positions[i]), out);
+            }
+        };
+    }
+}
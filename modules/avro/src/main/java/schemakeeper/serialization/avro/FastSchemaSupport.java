@@ -0,0 +1,82 @@
+package schemakeeper.serialization.avro;
+
+import org.apache.avro.Schema;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Schemas supported by {@link FastDatumWriter} and {@link FastDatumReader}. Logical types, custom java classes
+ * and recursive records are left to the generic avro implementation.
+ */
+final class FastSchemaSupport {
+    private static final String[] JAVA_CLASS_PROPS = {"java-class", "java-key-class", "java-element-class"};
+
+    private FastSchemaSupport() {
+    }
+
+    static boolean isSupported(Schema schema) {
+        return isSupported(schema, new HashSet<>());
+    }
+
+    private static boolean isSupported(Schema schema, Set<String> records) {
+        if (schema.getLogicalType() != null) {
+            return false;
+        }
+
+        for (String prop : JAVA_CLASS_PROPS) {
+            if (schema.getProp(prop) != null) {
+                return false;
+            }
+        }
+
+        switch (schema.getType()) {
+            case RECORD:
+                if (!records.add(schema.getFullName())) {
+                    return false;
+                }
+
+                for (Schema.Field field : schema.getFields()) {
+                    if (!isSupported(field.schema(), records)) {
+                        return false;
+                    }
+                }
+
+                records.remove(schema.getFullName());
+                return true;
+            case ARRAY:
+                return isSupported(schema.getElementType(), records);
+            case MAP:
+                return isSupported(schema.getValueType(), records);
+            case UNION:
+                for (Schema type : schema.getTypes()) {
+                    if (!isSupported(type, records)) {
+                        return false;
+                    }
+                }
+
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return index of the not null type if union is [null, T] or [T, null], otherwise -1
+     */
+    static int nullableIndex(Schema union) {
+        if (union.getTypes().size() != 2) {
+            return -1;
+        }
+
+        if (union.getTypes().get(0).getType() == Schema.Type.NULL) {
+            return 1;
+        }
+
+        if (union.getTypes().get(1).getType() == Schema.Type.NULL) {
+            return 0;
+        }
+
+        return -1;
+    }
+}
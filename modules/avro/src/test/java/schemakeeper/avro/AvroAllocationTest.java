@@ -0,0 +1,98 @@
+package schemakeeper.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Before;
+import org.junit.Test;
+import schemakeeper.client.MockSchemaKeeperClient;
+import schemakeeper.generated.avro.Message;
+import schemakeeper.schema.AvroSchemaUtils;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+import schemakeeper.serialization.AllocationMeter;
+import schemakeeper.serialization.SerDeConfig;
+import schemakeeper.serialization.avro.AvroDeserializer;
+import schemakeeper.serialization.avro.AvroSerDeConfig;
+import schemakeeper.serialization.avro.AvroSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static schemakeeper.serialization.AllocationMeter.MARGIN;
+import static schemakeeper.serialization.AllocationMeter.assertBudget;
+
+/**
+ * Allocation budgets (bytes per message) of the serde hot path: measured value (openjdk 17) plus
+ * {@link AllocationMeter#MARGIN}. Budgets should only be decreased. Tests are skipped on other java versions.
+ */
+public class AvroAllocationTest {
+    // measured 296 bytes
+    private static final long PRIMITIVE_SERIALIZE_BUDGET = 296 + MARGIN;
+    // measured 272 bytes
+    private static final long PRIMITIVE_DESERIALIZE_BUDGET = 272 + MARGIN;
+    // measured 466 bytes (generic), 440 bytes (specific)
+    private static final long RECORD_SERIALIZE_BUDGET = 466 + MARGIN;
+    // measured 304 bytes (generic and specific)
+    private static final long RECORD_DESERIALIZE_BUDGET = 304 + MARGIN;
+
+    private MockSchemaKeeperClient client;
+    private AvroSerializer serializer;
+    private AvroDeserializer deserializer;
+
+    @Before
+    public void set() {
+        Map<String, Object> config = new HashMap<>();
+        // schema is registered once, so the mock client does not affect measurements
+        config.put(SerDeConfig.ALLOW_FORCE_SCHEMA_REGISTER_CONFIG, false);
+
+        this.client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        this.serializer = new AvroSerializer(client, new AvroSerDeConfig(config));
+        this.deserializer = new AvroDeserializer(client, new AvroSerDeConfig(config));
+    }
+
+    @Test
+    public void primitive() throws Exception {
+        String value = "some value";
+        register(AvroSchemaUtils.getSchema(value));
+        byte[] data = serializer.serialize("test", value);
+
+        assertBudget("primitive serialization", PRIMITIVE_SERIALIZE_BUDGET, () -> serializer.serialize("test", value));
+        assertBudget("primitive deserialization", PRIMITIVE_DESERIALIZE_BUDGET, () -> deserializer.deserialize(data));
+    }
+
+    @Test
+    public void genericRecord() throws Exception {
+        GenericRecord record = new GenericData.Record(Message.getClassSchema());
+        record.put("f1", 1L);
+        record.put("f2", "some value");
+        record.put("f3", 3L);
+        record.put("f4", "optional value");
+
+        register(record.getSchema());
+        byte[] data = serializer.serialize("test", record);
+
+        assertBudget("record serialization", RECORD_SERIALIZE_BUDGET, () -> serializer.serialize("test", record));
+        assertBudget("record deserialization", RECORD_DESERIALIZE_BUDGET, () -> deserializer.deserialize(data));
+    }
+
+    @Test
+    public void specificRecord() throws Exception {
+        Message message = Message.newBuilder()
+                .setF1(1)
+                .setF2("some value")
+                .setF3(3)
+                .setF4("optional value")
+                .build();
+
+        register(message.getSchema());
+        byte[] data = serializer.serialize("test", message);
+
+        assertBudget("specific record serialization", RECORD_SERIALIZE_BUDGET, () -> serializer.serialize("test", message));
+        assertBudget("specific record deserialization", RECORD_DESERIALIZE_BUDGET, () -> deserializer.deserialize(data));
+    }
+
+    private void register(Schema schema) {
+        client.registerNewSchema("test", schema, SchemaType.AVRO, CompatibilityType.NONE);
+    }
+}
@@ -0,0 +1,221 @@
+package schemakeeper.avro;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.junit.Before;
+import org.junit.Test;
+import schemakeeper.client.MockSchemaKeeperClient;
+import schemakeeper.exception.SchemaKeeperException;
+import schemakeeper.generated.avro.Message;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.serialization.avro.AvroDeserializer;
+import schemakeeper.serialization.avro.AvroSerDeConfig;
+import schemakeeper.serialization.avro.AvroSerializer;
+import schemakeeper.serialization.avro.FastDatumReader;
+import schemakeeper.serialization.avro.FastDatumWriter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AvroFastSerDeTest {
+    private static final int HEADER_LENGTH = 5;
+
+    private MockSchemaKeeperClient client;
+    private AvroSerializer serializer;
+    private AvroDeserializer deserializer;
+    private AvroSerializer fastSerializer;
+    private AvroDeserializer fastDeserializer;
+
+    @Before
+    public void set() {
+        this.client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+
+        AvroSerDeConfig config = new AvroSerDeConfig(Collections.emptyMap());
+        AvroSerDeConfig fastConfig = new AvroSerDeConfig(Collections.singletonMap(AvroSerDeConfig.USE_FAST_SERDE_CONFIG, true));
+
+        this.serializer = new AvroSerializer(client, config);
+        this.deserializer = new AvroDeserializer(client, config);
+        this.fastSerializer = new AvroSerializer(client, fastConfig);
+        this.fastDeserializer = new AvroDeserializer(client, fastConfig);
+    }
+
+    @Test
+    public void primitiveData() throws SchemaKeeperException {
+        assertSameBytes(1);
+        assertSameBytes(1L);
+        assertSameBytes(1.0f);
+        assertSameBytes(1.0d);
+        assertSameBytes(true);
+        assertSameBytes("some value");
+
+        assertEquals("some value", fastDeserializer.deserialize(fastSerializer.serialize("test", "some value")));
+    }
+
+    @Test
+    public void genericData() throws SchemaKeeperException {
+        GenericRecord record = wideRecord();
+
+        byte[] result = assertSameBytes(record);
+
+        assertEquals(deserializer.deserialize(result), fastDeserializer.deserialize(result));
+    }
+
+    @Test
+    public void genericDataWithNullValues() throws SchemaKeeperException {
+        GenericRecord record = wideRecord();
+        record.put("optional", null);
+        record.put("union", 42L);
+
+        byte[] result = assertSameBytes(record);
+
+        assertEquals(deserializer.deserialize(result), fastDeserializer.deserialize(result));
+    }
+
+    @Test
+    public void specificData() throws SchemaKeeperException {
+        Message message = Message.newBuilder()
+                .setF1(1)
+                .setF2("2")
+                .setF3(3)
+                .setF4("4")
+                .build();
+
+        byte[] result = assertSameBytes(message);
+
+        assertEquals(deserializer.deserialize(result), fastDeserializer.deserialize(result));
+    }
+
+    @Test
+    public void logicalTypesAreNotCompiled() throws SchemaKeeperException {
+        Schema schema = SchemaBuilder.record("logical")
+                .fields()
+                .name("date").type(LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT))).noDefault()
+                .endRecord();
+
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("date", 1);
+
+        assertFalse(FastDatumWriter.forSchema(schema).isPresent());
+        assertFalse(FastDatumReader.forSchema(schema).isPresent());
+
+        byte[] result = assertSameBytes(record);
+        assertEquals(record, fastDeserializer.deserialize(result));
+    }
+
+    @Test
+    public void recursiveSchemasAreNotCompiled() throws SchemaKeeperException {
+        Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"node\",\"fields\":[" +
+                "{\"name\":\"value\",\"type\":\"int\"}," +
+                "{\"name\":\"next\",\"type\":[\"null\",\"node\"],\"default\":null}]}");
+
+        GenericRecord tail = new GenericData.Record(schema);
+        tail.put("value", 2);
+        tail.put("next", null);
+
+        GenericRecord head = new GenericData.Record(schema);
+        head.put("value", 1);
+        head.put("next", tail);
+
+        assertFalse(FastDatumWriter.forSchema(schema).isPresent());
+        assertFalse(FastDatumReader.forSchema(schema).isPresent());
+
+        byte[] result = assertSameBytes(head);
+        assertEquals(head, fastDeserializer.deserialize(result));
+    }
+
+    @Test
+    public void setSameSchemaToCompiledReaderAndWriter() {
+        Schema schema = SchemaBuilder.record("record").fields().requiredInt("id").endRecord();
+        Schema other = SchemaBuilder.record("record").fields().requiredLong("id").endRecord();
+
+        DatumWriter<Object> writer = FastDatumWriter.forSchema(schema).get();
+        DatumReader<Object> reader = FastDatumReader.forSchema(schema).get();
+
+        writer.setSchema(new Schema.Parser().parse(schema.toString()));
+        reader.setSchema(new Schema.Parser().parse(schema.toString()));
+
+        assertThrows(IllegalArgumentException.class, () -> writer.setSchema(other));
+        assertThrows(IllegalArgumentException.class, () -> reader.setSchema(other));
+    }
+
+    private byte[] assertSameBytes(Object value) throws SchemaKeeperException {
+        byte[] expected = serializer.serialize("test", value);
+        byte[] actual = fastSerializer.serialize("test", value);
+
+        // mock client registers every schema with the new id, so only payloads are compared
+        assertArrayEquals(
+                Arrays.copyOfRange(expected, HEADER_LENGTH, expected.length),
+                Arrays.copyOfRange(actual, HEADER_LENGTH, actual.length)
+        );
+
+        return actual;
+    }
+
+    private static GenericRecord wideRecord() {
+        Schema nested = SchemaBuilder.record("nested")
+                .fields()
+                .requiredInt("id")
+                .requiredString("name")
+                .endRecord();
+
+        Schema schema = SchemaBuilder.record("wide")
+                .namespace("schemakeeper.avro")
+                .fields()
+                .requiredBoolean("boolean")
+                .requiredInt("int")
+                .requiredLong("long")
+                .requiredFloat("float")
+                .requiredDouble("double")
+                .requiredString("string")
+                .requiredBytes("bytes")
+                .optionalString("optional")
+                .name("enum").type().enumeration("color").symbols("RED", "GREEN", "BLUE").noDefault()
+                .name("fixed").type().fixed("hash").size(4).noDefault()
+                .name("array").type().array().items(nested).noDefault()
+                .name("map").type().map().values().longType().noDefault()
+                .name("union").type().unionOf().stringType().and().longType().and().nullType().endUnion().noDefault()
+                .name("record").type(nested).noDefault()
+                .endRecord();
+
+        GenericRecord first = new GenericData.Record(nested);
+        first.put("id", 1);
+        first.put("name", "first");
+
+        GenericRecord second = new GenericData.Record(nested);
+        second.put("id", 2);
+        second.put("name", "second");
+
+        Map<String, Long> map = new HashMap<>();
+        map.put("a", 1L);
+        map.put("b", 2L);
+
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("boolean", true);
+        record.put("int", 1);
+        record.put("long", 2L);
+        record.put("float", 3.0f);
+        record.put("double", 4.0d);
+        record.put("string", "value");
+        record.put("bytes", ByteBuffer.wrap("bytes".getBytes(StandardCharsets.UTF_8)));
+        record.put("optional", "optional value");
+        record.put("enum", new GenericData.EnumSymbol(schema.getField("enum").schema(), "GREEN"));
+        record.put("fixed", new GenericData.Fixed(schema.getField("fixed").schema(), new byte[]{1, 2, 3, 4}));
+        record.put("array", Arrays.asList(first, second));
+        record.put("map", map);
+        record.put("union", "union value");
+        record.put("record", first);
+
+        return record;
+    }
+}
@@ -4,6 +4,7 @@ import org.apache.avro.Schema;
 import org.junit.Test;
 import schemakeeper.serialization.avro.AvroSerDeConfig;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,4 +35,28 @@ public class AvroSerDeConfigTest {
         assertEquals(Collections.singletonMap("fullClassName", Schema.create(Schema.Type.STRING)), avroSerDeConfig.specificReaderPerSubjectConfig());
         assertTrue(defaultAvroSerDeConfig.specificReaderPerSubjectConfig().isEmpty());
     }
+
+    @Test
+    public void useFastSerde() {
+        Map<String, Object> cfg = new HashMap<>();
+        cfg.put(AvroSerDeConfig.USE_FAST_SERDE_CONFIG, true);
+
+        AvroSerDeConfig avroSerDeConfig = new AvroSerDeConfig(cfg);
+        AvroSerDeConfig defaultAvroSerDeConfig = new AvroSerDeConfig(Collections.emptyMap());
+
+        assertTrue(avroSerDeConfig.useFastSerde());
+        assertFalse(defaultAvroSerDeConfig.useFastSerde());
+    }
+
+    @Test
+    public void projectionPerSubjectConfig() {
+        Map<String, Object> cfg = new HashMap<>();
+        cfg.put(AvroSerDeConfig.PROJECTION_PER_SUBJECT_CONFIG, Collections.singletonMap("fullClassName", Arrays.asList("f1", "f2")));
+
+        AvroSerDeConfig avroSerDeConfig = new AvroSerDeConfig(cfg);
+        AvroSerDeConfig defaultAvroSerDeConfig = new AvroSerDeConfig(Collections.emptyMap());
+
+        assertEquals(Collections.singletonMap("fullClassName", Arrays.asList("f1", "f2")), avroSerDeConfig.projectionPerSubjectConfig());
+        assertTrue(defaultAvroSerDeConfig.projectionPerSubjectConfig().isEmpty());
+    }
 }
@@ -7,17 +7,36 @@ import org.apache.avro.generic.GenericRecord;
 import org.junit.Before;
 import org.junit.Test;
 import schemakeeper.client.MockSchemaKeeperClient;
+import schemakeeper.exception.AvroDeserializationException;
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.exception.DeserializationException;
 import schemakeeper.exception.SchemaKeeperException;
 import schemakeeper.generated.avro.Message;
+import schemakeeper.metrics.JmxSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
 import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.RecordStreamReader;
+import schemakeeper.serialization.SubjectSchema;
 import schemakeeper.serialization.avro.AvroDeserializer;
 import schemakeeper.serialization.avro.AvroSerDeConfig;
 import schemakeeper.serialization.avro.AvroSerializer;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 public class AvroSerDeTest {
     private MockSchemaKeeperClient client;
@@ -140,4 +159,348 @@ public class AvroSerDeTest {
 
         assertEquals(message, d);
     }
+
+    @Test
+    public void collectMetrics() throws SchemaKeeperException {
+        JmxSerDeMetrics serializerMetrics = new JmxSerDeMetrics("avro-serializer-test", SerDeMetrics.SERIALIZER);
+        JmxSerDeMetrics deserializerMetrics = new JmxSerDeMetrics("avro-deserializer-test", SerDeMetrics.DESERIALIZER);
+        serializer = new AvroSerializer(client, config, serializerMetrics);
+        deserializer = new AvroDeserializer(client, config, deserializerMetrics);
+
+        byte[] result = serializer.serialize("test", "some value");
+        int schemaId = client.getSchemaId().get(Schema.create(Schema.Type.STRING));
+        deserializer.deserialize(result);
+
+        assertEquals(1, serializerMetrics.getSubjectStats("test").getCount());
+        assertEquals(result.length, serializerMetrics.getSubjectStats("test").getBytesTotal());
+        assertEquals(1, serializerMetrics.getSchemaIdStats(schemaId).getCount());
+        assertEquals(1, deserializerMetrics.getSchemaIdStats(schemaId).getCount());
+        assertEquals(0, deserializerMetrics.getSchemaIdStats(schemaId).getErrors());
+
+        byte[] truncated = Arrays.copyOf(result, result.length - 1);
+        assertThrows(AvroDeserializationException.class, () -> deserializer.deserialize(truncated));
+        assertEquals(1, deserializerMetrics.getSchemaIdStats(schemaId).getErrors());
+
+        assertSame(serializerMetrics, serializer.getMetrics());
+        assertSame(deserializerMetrics, deserializer.getMetrics());
+
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Test
+    public void batchGenericData() throws SchemaKeeperException {
+        Schema schema = SchemaBuilder.record("test")
+                .fields()
+                .requiredString("f")
+                .endRecord();
+
+        List<GenericRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            GenericRecord record = new GenericData.Record(schema);
+            record.put("f", "value " + i);
+            records.add(record);
+        }
+
+        byte[] result = serializer.serializeBatch("test", records);
+        List<Object> d = deserializer.deserializeBatch(result);
+
+        assertEquals(records, d);
+    }
+
+    @Test
+    public void batchPrimitiveData() throws SchemaKeeperException {
+        List<String> strings = Arrays.asList("1", "2", "3");
+        assertEquals(strings, deserializer.deserializeBatch(serializer.serializeBatch("test", strings)));
+
+        byte[] first = "first".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "second".getBytes(StandardCharsets.UTF_8);
+        List<Object> bytes = deserializer.deserializeBatch(serializer.serializeBatch("test", Arrays.asList(first, second)));
+
+        assertEquals(2, bytes.size());
+        assertArrayEquals(first, (byte[]) bytes.get(0));
+        assertArrayEquals(second, (byte[]) bytes.get(1));
+    }
+
+    @Test
+    public void batchWithDifferentSchemas() {
+        assertThrows(IllegalArgumentException.class, () -> serializer.serializeBatch("test", Arrays.asList("1", 2)));
+        assertThrows(IllegalArgumentException.class, () -> serializer.serializeBatch("test", Arrays.asList("1", null)));
+        assertNull(serializer.serializeBatch("test", Collections.emptyList()));
+    }
+
+    @Test
+    public void batchAndSingleMessageCanNotBeReadOneAsAnother() {
+        byte[] batch = serializer.serializeBatch("test", Arrays.asList("abc", "def"));
+        byte[] single = serializer.serialize("test", "abc");
+
+        assertTrue(MessageHeader.parse(batch).isBatch());
+        assertFalse(MessageHeader.parse(single).isBatch());
+        assertThrows(SchemaKeeperException.class, () -> deserializer.deserialize(batch));
+        assertThrows(SchemaKeeperException.class, () -> deserializer.deserializeBatch(single));
+    }
+
+    @Test
+    public void streamData() throws SchemaKeeperException, IOException {
+        Schema schema = SchemaBuilder.record("test")
+                .fields()
+                .requiredString("f")
+                .endRecord();
+
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("f", "some value");
+        byte[] bytes = "some data".getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+
+        for (Object value : Arrays.asList(record, "1", bytes, record, 2L)) {
+            byte[] message = serializer.serialize("test", value);
+            dataOut.writeInt(message.length);
+            dataOut.write(message);
+        }
+
+        List<Object> result = new ArrayList<>();
+
+        try (RecordStreamReader<Object> reader = deserializer.deserializeStream(new ByteArrayInputStream(out.toByteArray()))) {
+            reader.forEachRemaining(result::add);
+        }
+
+        assertEquals(5, result.size());
+        assertEquals(record, result.get(0));
+        assertEquals("1", result.get(1));
+        assertArrayEquals(bytes, (byte[]) result.get(2));
+        assertEquals(record, result.get(3));
+        assertEquals(2L, result.get(4));
+    }
+
+    @Test
+    public void projectionByFieldNames() throws SchemaKeeperException {
+        config = new AvroSerDeConfig(Collections.singletonMap(
+                AvroSerDeConfig.PROJECTION_PER_SUBJECT_CONFIG,
+                Collections.singletonMap("schemakeeper.avro.wide", Arrays.asList("f3", "f1"))
+        ));
+        deserializer = new AvroDeserializer(client, config);
+
+        GenericRecord record = new GenericData.Record(wideSchema());
+        record.put("f1", 1L);
+        record.put("f2", "2");
+        record.put("f3", 3);
+        record.put("f4", "4");
+
+        byte[] result = serializer.serialize("test", record);
+        GenericRecord d = (GenericRecord) deserializer.deserialize(result);
+
+        assertEquals(2, d.getSchema().getFields().size());
+        assertEquals(3, d.get("f3"));
+        assertEquals(1L, d.get("f1"));
+        assertNull(d.getSchema().getField("f2"));
+
+        // projection reader is cached per schema id
+        assertEquals(d, deserializer.deserialize(result));
+    }
+
+    @Test
+    public void projectionBySchema() throws SchemaKeeperException {
+        Schema projection = SchemaBuilder.record("wide")
+                .namespace("schemakeeper.avro")
+                .fields()
+                .requiredString("f4")
+                .endRecord();
+
+        config = new AvroSerDeConfig(Collections.singletonMap(
+                AvroSerDeConfig.PROJECTION_PER_SUBJECT_CONFIG,
+                Collections.singletonMap("schemakeeper.avro.wide", projection)
+        ));
+        deserializer = new AvroDeserializer(client, config);
+
+        GenericRecord record = new GenericData.Record(wideSchema());
+        record.put("f1", 1L);
+        record.put("f2", "2");
+        record.put("f3", 3);
+        record.put("f4", "4");
+
+        GenericRecord expected = new GenericData.Record(projection);
+        expected.put("f4", "4");
+
+        byte[] result = serializer.serialize("test", record);
+
+        assertEquals(expected, deserializer.deserialize(result));
+    }
+
+    @Test
+    public void projectionWithUnknownField() throws SchemaKeeperException {
+        config = new AvroSerDeConfig(Collections.singletonMap(
+                AvroSerDeConfig.PROJECTION_PER_SUBJECT_CONFIG,
+                Collections.singletonMap("schemakeeper.avro.wide", Collections.singletonList("unknown"))
+        ));
+        deserializer = new AvroDeserializer(client, config);
+
+        GenericRecord record = new GenericData.Record(wideSchema());
+        record.put("f1", 1L);
+        record.put("f2", "2");
+        record.put("f3", 3);
+        record.put("f4", "4");
+
+        byte[] result = serializer.serialize("test", record);
+
+        assertThrows(AvroDeserializationException.class, () -> deserializer.deserialize(result));
+    }
+
+    private static Schema wideSchema() {
+        return SchemaBuilder.record("wide")
+                .namespace("schemakeeper.avro")
+                .fields()
+                .requiredLong("f1")
+                .requiredString("f2")
+                .requiredInt("f3")
+                .requiredString("f4")
+                .endRecord();
+    }
+
+    @Test
+    public void reuseGenericData() throws SchemaKeeperException {
+        Schema schema = SchemaBuilder.record("test")
+                .fields()
+                .requiredString("f")
+                .name("values").type().array().items().longType().noDefault()
+                .endRecord();
+
+        GenericRecord first = new GenericData.Record(schema);
+        first.put("f", "first");
+        first.put("values", Arrays.asList(1L, 2L));
+
+        GenericRecord second = new GenericData.Record(schema);
+        second.put("f", "second");
+        second.put("values", Collections.singletonList(3L));
+
+        Object reuse = deserializer.deserialize(serializer.serialize("test", first));
+        Object array = ((GenericRecord) reuse).get("values");
+        Object result = deserializer.deserialize(serializer.serialize("test", second), reuse);
+
+        assertSame(reuse, result);
+        assertSame(array, ((GenericRecord) result).get("values"));
+        assertEquals(second, result);
+    }
+
+    @Test
+    public void compressedGenericData() throws SchemaKeeperException, IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put(AvroSerDeConfig.COMPRESSION_ENABLED_CONFIG, true);
+        map.put(AvroSerDeConfig.COMPRESSION_TRAINING_SAMPLES_CONFIG, 2);
+        map.put(AvroSerDeConfig.ALLOW_FORCE_SCHEMA_REGISTER_CONFIG, false);
+        config = new AvroSerDeConfig(map);
+        serializer = new AvroSerializer(client, config);
+        deserializer = new AvroDeserializer(client, config);
+
+        Schema schema = SchemaBuilder.record("test")
+                .fields()
+                .requiredString("f")
+                .endRecord();
+        client.registerNewSchema("test", schema, SchemaType.AVRO, CompatibilityType.NONE);
+
+        for (int i = 0; i < 5; i++) {
+            GenericRecord record = new GenericData.Record(schema);
+            record.put("f", "the quick brown fox jumps over the lazy dog: " + i);
+
+            byte[] result = serializer.serialize("test", record);
+
+            // first messages are used to train the dictionary
+            assertEquals(i >= 2, MessageHeader.parse(result).isCompressed());
+            assertEquals(record, deserializer.deserialize(result));
+
+            if (i == 4) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                DataOutputStream dataOut = new DataOutputStream(out);
+                dataOut.writeInt(result.length);
+                dataOut.write(result);
+
+                // compressed messages are rejected instead of being decoded as avro
+                try (RecordStreamReader<Object> reader = deserializer.deserializeStream(new ByteArrayInputStream(out.toByteArray()))) {
+                    assertThrows(DeserializationException.class, reader::next);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compactHeader() throws SchemaKeeperException, IOException {
+        AvroSerializer compactSerializer = new AvroSerializer(client, new AvroSerDeConfig(Collections.singletonMap(AvroSerDeConfig.COMPACT_HEADER_CONFIG, true)));
+
+        byte[] compact = compactSerializer.serialize("test", 1);
+        byte[] standard = serializer.serialize("test", 1);
+
+        // protocol byte, 1 byte of schema id and 1 byte of data
+        assertEquals(3, compact.length);
+        assertEquals(standard.length - 3, compact.length);
+        assertTrue(MessageHeader.parse(compact).isCompact());
+        assertEquals(1, deserializer.deserialize(compact));
+        assertEquals(1, deserializer.deserialize(standard));
+        assertEquals(Arrays.asList("a", "b"), deserializer.deserializeBatch(compactSerializer.serializeBatch("test", Arrays.asList("a", "b"))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+
+        for (byte[] message : Arrays.asList(compact, standard, compact)) {
+            dataOut.writeInt(message.length);
+            dataOut.write(message);
+        }
+
+        List<Object> result = new ArrayList<>();
+
+        try (RecordStreamReader<Object> reader = deserializer.deserializeStream(new ByteArrayInputStream(out.toByteArray()))) {
+            reader.forEachRemaining(result::add);
+        }
+
+        assertEquals(Arrays.asList(1, 1, 1), result);
+    }
+
+    @Test
+    public void warmUp() throws SchemaKeeperException {
+        String subject = Message.getClassSchema().getFullName();
+        Map<String, Object> map = new HashMap<>();
+        map.put(AvroSerDeConfig.WARMUP_CLASSES_CONFIG, Message.class.getName());
+        map.put(AvroSerDeConfig.USE_SPECIFIC_READER_CONFIG, true);
+        new AvroSerializer(client, new AvroSerDeConfig(map));
+
+        // schema is resolved under the record name on creation, but never registered
+        assertFalse(client.getSubjectSchemas().containsKey(subject));
+
+        Message message = Message.newBuilder()
+                .setF1(1)
+                .setF2("2")
+                .setF3(3)
+                .setF4(null)
+                .build();
+
+        serializer.serialize(subject, message);
+        map.put(AvroSerDeConfig.ALLOW_FORCE_SCHEMA_REGISTER_CONFIG, false);
+        config = new AvroSerDeConfig(map);
+        serializer = new AvroSerializer(client, config);
+        deserializer = new AvroDeserializer(client, config);
+
+        assertEquals(message, deserializer.deserialize(serializer.serialize(subject, message)));
+        assertEquals(Collections.singleton(Message.getClassSchema()), new HashSet<>(client.getSubjectSchemas().get(subject).values()));
+        assertThrows(ConfigurationException.class, () -> new AvroSerializer(client, new AvroSerDeConfig(Collections.singletonMap(AvroSerDeConfig.WARMUP_CLASSES_CONFIG, "schemakeeper.generated.avro.Unknown"))));
+        assertThrows(ConfigurationException.class, () -> new AvroSerializer(client, new AvroSerDeConfig(Collections.singletonMap(AvroSerDeConfig.WARMUP_CLASSES_CONFIG, String.class.getName()))));
+    }
+
+    @Test
+    public void resolvedSchema() throws SchemaKeeperException {
+        Schema schema = SchemaBuilder.record("test")
+                .fields()
+                .requiredString("f1")
+                .endRecord();
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("f1", "v");
+
+        SubjectSchema subjectSchema = serializer.resolveSchema("test", schema);
+        byte[] result = serializer.serialize(subjectSchema, record);
+
+        assertEquals("test", subjectSchema.getSubject());
+        assertEquals(subjectSchema.getSchemaId(), MessageHeader.parse(result).getSchemaId());
+        assertEquals(record, deserializer.deserialize(result));
+        assertNull(serializer.serialize(subjectSchema, null));
+    }
 }
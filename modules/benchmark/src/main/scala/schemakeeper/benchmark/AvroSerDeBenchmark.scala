@@ -0,0 +1,120 @@
+package schemakeeper.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import org.apache.avro.{Schema, SchemaBuilder}
+import org.apache.avro.generic.{GenericData, GenericRecord}
+import org.openjdk.jmh.annotations._
+import schemakeeper.client.MockSchemaKeeperClient
+import schemakeeper.generated.avro.Message
+import schemakeeper.schema.CompatibilityType
+import schemakeeper.serialization.avro.{AvroDeserializer, AvroSerDeConfig, AvroSerializer}
+
+import scala.collection.JavaConverters._
+
+import AvroSerDeBenchmark._
+
+/**
+ * Avro serde throughput against the in-memory client:
+ *  - primitive: string
+ *  - small: generated specific record (4 fields)
+ *  - wide: generic record with 50 primitive fields and an array of 10 nested records
+ *
+ * Run with `-prof gc` to get allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class AvroSerDeBenchmark {
+  @Param(Array("primitive", "small", "wide"))
+  var payload: String = _
+
+  private val subject = "benchmark"
+
+  private var serializer: AvroSerializer = _
+  private var deserializer: AvroDeserializer = _
+  private var value: AnyRef = _
+  private var bytes: Array[Byte] = _
+
+  @Setup
+  def setup(): Unit = {
+    val client = new MockSchemaKeeperClient(CompatibilityType.NONE)
+    val config = new AvroSerDeConfig(Map[String, AnyRef](AvroSerDeConfig.USE_SPECIFIC_READER_CONFIG -> java.lang.Boolean.TRUE).asJava)
+
+    serializer = new AvroSerializer(client, config)
+    deserializer = new AvroDeserializer(client, config)
+    value = payload match {
+      case "primitive" => "some primitive value"
+      case "small"     => Message.newBuilder().setF1(1L).setF2("some value").setF3(3L).setF4(null).build()
+      case "wide"      => wideRecord()
+    }
+    bytes = serializer.serialize(subject, value)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    serializer.close()
+    deserializer.close()
+  }
+
+  @Benchmark
+  def serialize(): Array[Byte] = serializer.serialize(subject, value)
+
+  @Benchmark
+  def deserialize(): AnyRef = deserializer.deserialize(bytes)
+}
+
+object AvroSerDeBenchmark {
+  private val WideFields = 50
+  private val NestedRecords = 10
+
+  val nestedSchema: Schema = SchemaBuilder
+    .record("nested")
+    .namespace("schemakeeper.benchmark")
+    .fields()
+    .requiredLong("id")
+    .requiredString("name")
+    .optionalDouble("value")
+    .endRecord()
+
+  val wideSchema: Schema = (0 until WideFields)
+    .foldLeft(SchemaBuilder.record("wide").namespace("schemakeeper.benchmark").fields()) { (builder, i) =>
+      i % 3 match {
+        case 0 => builder.requiredLong(s"long_$i")
+        case 1 => builder.requiredString(s"string_$i")
+        case _ => builder.requiredDouble(s"double_$i")
+      }
+    }
+    .name("nested")
+    .`type`()
+    .array()
+    .items(nestedSchema)
+    .noDefault()
+    .endRecord()
+
+  def wideRecord(): GenericRecord = {
+    val record = new GenericData.Record(wideSchema)
+
+    (0 until WideFields).foreach { i =>
+      i % 3 match {
+        case 0 => record.put(s"long_$i", java.lang.Long.valueOf(i.toLong))
+        case 1 => record.put(s"string_$i", s"value of field number $i")
+        case _ => record.put(s"double_$i", java.lang.Double.valueOf(i * 1.5))
+      }
+    }
+
+    val nested = (0 until NestedRecords).map { i =>
+      val r = new GenericData.Record(nestedSchema)
+      r.put("id", java.lang.Long.valueOf(i.toLong))
+      r.put("name", s"nested record $i")
+      r.put("value", java.lang.Double.valueOf(i * 0.5))
+      r
+    }
+
+    record.put("nested", new GenericData.Array[GenericRecord](wideSchema.getField("nested").schema(), nested.asJava))
+    record
+  }
+}
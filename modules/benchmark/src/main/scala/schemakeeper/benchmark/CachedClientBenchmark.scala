@@ -0,0 +1,120 @@
+package schemakeeper.benchmark
+
+import java.util.concurrent.{ThreadLocalRandom, TimeUnit}
+import java.util.concurrent.locks.LockSupport
+
+import org.apache.avro.{Schema, SchemaBuilder}
+import org.openjdk.jmh.annotations._
+import schemakeeper.client.CachedSchemaKeeperClient
+import schemakeeper.client.metrics.ClientMetrics
+import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.serialization.SerDeConfig
+
+import scala.collection.JavaConverters._
+
+/**
+ * Contention of the [[CachedSchemaKeeperClient]] caches. Server calls are replaced by a stub with a fixed latency.
+ *  - hot: few keys, all of them are loaded before measurement
+ *  - cold: many keys, caches are cleared before every iteration, so loads of the same key race with each other
+ *
+ * Thread count is set by the jmh `-t` option, e.g. `-t 1`, `-t 16`, `-t 64`.
+ * Sample time mode reports tail latency (p0.99, p0.999 etc.).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput, Mode.SampleTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class CachedClientBenchmark {
+  @Param(Array("hot", "cold"))
+  var keys: String = _
+
+  @Param(Array("0", "100"))
+  var latencyMicros: Long = _
+
+  private val subject = "benchmark"
+
+  private var schemas: Array[Schema] = _
+  private var client: CachedSchemaKeeperClient = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val count = if (keys == "hot") 16 else 65536
+    schemas = Array.tabulate(count)(CachedClientBenchmark.schema)
+  }
+
+  @Setup(Level.Iteration)
+  def createClient(): Unit = {
+    client = new CachedClientBenchmark.StubSchemaKeeperClient(schemas, TimeUnit.MICROSECONDS.toNanos(latencyMicros))
+
+    if (keys == "hot") {
+      schemas.indices.foreach { i =>
+        client.getSchemaById(i + 1)
+        client.getSchemaId(subject, schemas(i), SchemaType.AVRO)
+      }
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  def closeClient(): Unit = client.close()
+
+  @Benchmark
+  def getSchemaById: Schema = client.getSchemaById(nextIndex() + 1)
+
+  @Benchmark
+  def getSchemaId: Int = client.getSchemaId(subject, schemas(nextIndex()), SchemaType.AVRO)
+
+  @Benchmark
+  def registerNewSchema: Int = client.registerNewSchema(subject, schemas(nextIndex()), SchemaType.AVRO, CompatibilityType.BACKWARD)
+
+  private def nextIndex(): Int = ThreadLocalRandom.current().nextInt(schemas.length)
+}
+
+object CachedClientBenchmark {
+  private val config = new SerDeConfig(
+    Map[String, AnyRef](SerDeConfig.SCHEMAKEEPER_URL_CONFIG -> "http://localhost:9081").asJava
+  )
+
+  def schema(index: Int): Schema = SchemaBuilder
+    .record(s"record_$index")
+    .namespace("schemakeeper.benchmark")
+    .fields()
+    .requiredLong("id")
+    .requiredString("name")
+    .optionalDouble("value")
+    .endRecord()
+
+  /**
+   * Cached client without http calls: schema id is the schema index + 1, every load is delayed by the given latency.
+   */
+  final class StubSchemaKeeperClient(schemas: Array[Schema], latencyNanos: Long)
+      extends CachedSchemaKeeperClient(config, ClientMetrics.NOOP) {
+    override def getSchemaByIdRest(id: Int): Schema = {
+      pause()
+      schemas(id - 1)
+    }
+
+    override def registerNewSchemaRest(
+      subject: String,
+      schema: Schema,
+      schemaType: SchemaType,
+      compatibilityType: CompatibilityType
+    ): Int = {
+      pause()
+      schemaId(schema)
+    }
+
+    override def getSchemaIdRest(subject: String, schema: Schema, schemaType: SchemaType): Int = {
+      pause()
+      schemaId(schema)
+    }
+
+    private def schemaId(schema: Schema): Int = schema.getName.stripPrefix("record_").toInt + 1
+
+    private def pause(): Unit =
+      if (latencyNanos > 0) {
+        LockSupport.parkNanos(latencyNanos)
+      }
+  }
+}
@@ -0,0 +1,82 @@
+package schemakeeper.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import org.apache.avro.{Schema, SchemaBuilder}
+import org.openjdk.jmh.annotations._
+import schemakeeper.schema.{AvroSchemaCompatibility, CompatibilityCheckResult, CompatibilityType}
+
+import scala.collection.JavaConverters._
+
+/**
+ * Cost of the new schema registration depending on the subject history length. Every version adds a field (with
+ * default value, optional or union), so all versions are mutually compatible and transitive validators check the whole
+ * history. Parsing of the stored schemas (as the server does for every registration) is measured separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class CompatibilityBenchmark {
+  @Param(Array("1", "10", "100", "1000"))
+  var versions: Int = _
+
+  @Param(
+    Array(
+      "none",
+      "backward",
+      "forward",
+      "full",
+      "backward_transitive",
+      "forward_transitive",
+      "full_transitive"
+    )
+  )
+  var compatibilityType: String = _
+
+  private var validator: AvroSchemaCompatibility = _
+  private var texts: Array[String] = _
+  // the latest version first
+  private var previousSchemas: java.util.List[Schema] = _
+  private var newSchema: Schema = _
+
+  @Setup
+  def setup(): Unit = {
+    validator = AvroSchemaCompatibility.forCompatibilityType(CompatibilityType.findByName(compatibilityType))
+    texts = (1 to versions).reverse.map(version => CompatibilityBenchmark.schema(version).toString).toArray
+    previousSchemas = texts.map(text => new Schema.Parser().parse(text)).toList.asJava
+    newSchema = CompatibilityBenchmark.schema(versions + 1)
+
+    require(validator.check(newSchema, previousSchemas).isCompatible, "Generated schemas should be compatible")
+  }
+
+  @Benchmark
+  def parse(): java.util.List[Schema] = texts.map(text => new Schema.Parser().parse(text)).toList.asJava
+
+  @Benchmark
+  def validate(): CompatibilityCheckResult = validator.check(newSchema, previousSchemas)
+
+  @Benchmark
+  def parseAndValidate(): CompatibilityCheckResult = validator.check(newSchema, parse())
+}
+
+object CompatibilityBenchmark {
+
+  /**
+   * @param version
+   *   - version number starting from 1. Version n has n fields
+   */
+  def schema(version: Int): Schema =
+    (1 until version)
+      .foldLeft(SchemaBuilder.record("evolving").namespace("schemakeeper.benchmark").fields().requiredLong("id")) {
+        (fields, i) =>
+          i % 3 match {
+            case 0 => fields.optionalString(s"optional_$i")
+            case 1 => fields.name(s"default_$i").`type`().longType().longDefault(i.toLong)
+            case _ => fields.name(s"union_$i").`type`().unionOf().intType().and().stringType().endUnion().intDefault(i)
+          }
+      }
+      .endRecord()
+}
@@ -0,0 +1,62 @@
+package schemakeeper.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import schemakeeper.client.MockSchemaKeeperClient
+import schemakeeper.generated.protobuf.Message.ProtoMsgV4
+import schemakeeper.schema.CompatibilityType
+import schemakeeper.serialization.protobuf.{ProtobufDeserializer, ProtobufSerializer}
+
+/**
+ * Protobuf serde throughput against the in-memory client using the generated test message (3 string fields):
+ *  - small: short field values
+ *  - large: 1 KB field values
+ *
+ * Run with `-prof gc` to get allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class ProtobufSerDeBenchmark {
+  @Param(Array("small", "large"))
+  var payload: String = _
+
+  private val subject = "benchmark"
+
+  private var serializer: ProtobufSerializer = _
+  private var deserializer: ProtobufDeserializer = _
+  private var value: ProtoMsgV4 = _
+  private var bytes: Array[Byte] = _
+
+  @Setup
+  def setup(): Unit = {
+    val client = new MockSchemaKeeperClient(CompatibilityType.NONE)
+    val length = if (payload == "large") 1024 else 8
+
+    serializer = new ProtobufSerializer(client)
+    deserializer = new ProtobufDeserializer(client)
+    value = ProtoMsgV4
+      .newBuilder()
+      .setF1("1" * length)
+      .setF3("3" * length)
+      .setF4("4" * length)
+      .build()
+    bytes = serializer.serialize(subject, value)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    serializer.close()
+    deserializer.close()
+  }
+
+  @Benchmark
+  def serialize(): Array[Byte] = serializer.serialize(subject, value)
+
+  @Benchmark
+  def deserialize(): AnyRef = deserializer.deserialize(bytes)
+}
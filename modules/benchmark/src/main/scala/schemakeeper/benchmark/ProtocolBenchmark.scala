@@ -0,0 +1,65 @@
+package schemakeeper.benchmark
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.TimeUnit
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.module.SimpleModule
+import org.apache.avro.SchemaBuilder
+import org.openjdk.jmh.annotations._
+import schemakeeper.api.{BinaryProtocol, SchemaMetadata}
+import schemakeeper.client.protocol.SchemaMetadataDeserializer
+import schemakeeper.schema.SchemaType
+import schemakeeper.server.http.protocol.JsonProtocol._
+
+/**
+ * Compares json (server: circe, client: jackson) and binary protocol for the schema by id response.
+ * Encoding is measured on the server side, decoding - on the client side (both without avro schema parsing).
+ * Payload sizes are listed in the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class ProtocolBenchmark {
+  @Param(Array("10", "100", "1000"))
+  var fields: Int = _
+
+  private var mapper: ObjectMapper = _
+  private var schemaMetadata: SchemaMetadata = _
+  private var json: Array[Byte] = _
+  private var binary: Array[Byte] = _
+
+  @Setup
+  def setup(): Unit = {
+    mapper = new ObjectMapper()
+    val module = new SimpleModule()
+    module.addDeserializer(classOf[SchemaMetadata], new SchemaMetadataDeserializer())
+    mapper.registerModule(module)
+
+    val schema = (0 until fields)
+      .foldLeft(SchemaBuilder.builder().record("benchmark").namespace("schemakeeper.benchmark").fields()) {
+        (builder, i) => builder.name(s"field_$i").doc(s"field number $i").`type`().optional().stringType()
+      }
+      .endRecord()
+
+    schemaMetadata = SchemaMetadata.instance(1, schema.toString, "hash", SchemaType.AVRO)
+    json = encodeJson()
+    binary = encodeBinary()
+  }
+
+  @Benchmark
+  def encodeJson(): Array[Byte] =
+    schemaMetadataEncoder(schemaMetadata).noSpaces.getBytes(StandardCharsets.UTF_8)
+
+  @Benchmark
+  def encodeBinary(): Array[Byte] = BinaryProtocol.encodeSchemaMetadata(schemaMetadata)
+
+  @Benchmark
+  def decodeJson(): SchemaMetadata = mapper.readValue(json, classOf[SchemaMetadata])
+
+  @Benchmark
+  def decodeBinary(): SchemaMetadata = BinaryProtocol.decodeSchemaMetadata(binary)
+}
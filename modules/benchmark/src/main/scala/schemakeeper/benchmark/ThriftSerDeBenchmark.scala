@@ -0,0 +1,60 @@
+package schemakeeper.benchmark
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import schemakeeper.client.MockSchemaKeeperClient
+import schemakeeper.generated.thrift.ThriftMsgV5
+import schemakeeper.schema.CompatibilityType
+import schemakeeper.serialization.thrift.{ThriftDeserializer, ThriftSerializer}
+
+/**
+ * Thrift serde throughput against the in-memory client using the generated test message (4 string fields):
+ *  - small: short field values
+ *  - large: 1 KB field values
+ *
+ * Run with `-prof gc` to get allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class ThriftSerDeBenchmark {
+  @Param(Array("small", "large"))
+  var payload: String = _
+
+  private val subject = "benchmark"
+
+  private var serializer: ThriftSerializer = _
+  private var deserializer: ThriftDeserializer = _
+  private var value: ThriftMsgV5 = _
+  private var bytes: Array[Byte] = _
+
+  @Setup
+  def setup(): Unit = {
+    val client = new MockSchemaKeeperClient(CompatibilityType.NONE)
+    val length = if (payload == "large") 1024 else 8
+
+    serializer = new ThriftSerializer(client)
+    deserializer = new ThriftDeserializer(client)
+    value = new ThriftMsgV5("1" * length)
+    value.setF2("2" * length)
+    value.setF3("3" * length)
+    value.setF4("4" * length)
+    bytes = serializer.serialize(subject, value)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    serializer.close()
+    deserializer.close()
+  }
+
+  @Benchmark
+  def serialize(): Array[Byte] = serializer.serialize(subject, value)
+
+  @Benchmark
+  def deserialize(): AnyRef = deserializer.deserialize(bytes)
+}
@@ -0,0 +1,158 @@
+package schemakeeper.benchmark.load
+
+import java.util.concurrent.{Executors, ThreadLocalRandom, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.LockSupport
+
+import cats.effect.{Blocker, ExitCode, IO, IOApp}
+import org.apache.avro.{Schema, SchemaBuilder}
+import schemakeeper.client.{ClientConfig, DefaultSchemaKeeperClient}
+import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.serialization.SerDeConfig
+import schemakeeper.server.SchemaKeeper
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration.FiniteDuration
+
+/**
+ * Starts the server in the current jvm and sends requests at a fixed rate. Latency is measured from the moment the
+ * request was scheduled (not sent), so server stalls are not hidden by the client (coordinated omission).
+ *
+ * {{{
+ * sbt "benchmark/runMain schemakeeper.benchmark.load.LoadTest rate=1000 duration=60 mix=schemaById:90,registerSchema:10"
+ * }}}
+ *
+ * Report is written to `output` (target/load-test/report.json by default) and compared with `baseline` if it is set.
+ */
+object LoadTest extends IOApp {
+  override def run(args: List[String]): IO[ExitCode] = for {
+    settings <- IO(LoadTestSettings.parse(args))
+    report <- Blocker[IO].use { blocker =>
+      SchemaKeeper.resource[IO](settings.configuration).use { server =>
+        blocker.delay[IO, LoadTestReport](execute(settings, s"http://127.0.0.1:${server.address.getPort}"))
+      }
+    }
+    _ <- IO(printReport(settings, report))
+  } yield ExitCode.Success
+
+  private def execute(settings: LoadTestSettings, url: String): LoadTestReport = {
+    val client = new DefaultSchemaKeeperClient(
+      new SerDeConfig(
+        Map[String, AnyRef](
+          SerDeConfig.SCHEMAKEEPER_URL_CONFIG -> url,
+          ClientConfig.CLIENT_MAX_CONNECTIONS -> Int.box(settings.threads),
+          ClientConfig.CLIENT_CONNECTIONS_PER_ROUTE -> Int.box(settings.threads),
+          ClientConfig.CLIENT_BINARY_PROTOCOL -> Boolean.box(settings.binary)
+        ).asJava
+      )
+    )
+
+    try {
+      val workload = new Workload(client, settings.subjects)
+      phase(settings, workload, settings.warmup)
+      LoadTestReport(settings, phase(settings, workload, settings.duration))
+    } finally {
+      client.close()
+    }
+  }
+
+  private def phase(
+    settings: LoadTestSettings,
+    workload: Workload,
+    duration: FiniteDuration
+  ): Map[Operation, OperationStats] = {
+    val total = math.max(1L, settings.rate * duration.toSeconds).toInt
+    val periodNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate
+    val operations = settings.mix.filter(_._2 > 0).toVector
+    val weights = operations.map(_._2).sum
+    val recorders = operations.map { case (op, _) => op -> new LatencyRecorder(total) }.toMap
+    val executor = Executors.newFixedThreadPool(settings.threads)
+    val start = System.nanoTime()
+
+    (0 until total).foreach { i =>
+      val scheduled = start + i * periodNanos
+      val operation = pick(operations, ThreadLocalRandom.current().nextInt(weights))
+      val recorder = recorders(operation)
+
+      LockSupport.parkNanos(scheduled - System.nanoTime())
+      executor.execute { () =>
+        try {
+          workload.execute(operation)
+        } catch {
+          case _: Exception => recorder.error()
+        } finally {
+          recorder.record(System.nanoTime() - scheduled)
+        }
+      }
+    }
+
+    executor.shutdown()
+    executor.awaitTermination(Long.MaxValue, TimeUnit.NANOSECONDS)
+
+    val elapsed = System.nanoTime() - start
+    recorders.map { case (op, recorder) => op -> recorder.stats(elapsed) }
+  }
+
+  private def pick(operations: Vector[(Operation, Int)], value: Int): Operation = {
+    var remaining = value
+    operations.find { case (_, weight) =>
+      remaining -= weight
+      remaining < 0
+    }.get._1
+  }
+
+  private def printReport(settings: LoadTestSettings, report: LoadTestReport): Unit = {
+    report.operations.toList.sortBy(_._1.name).foreach { case (op, stats) =>
+      println(f"${op.name}%-28s $stats")
+    }
+
+    report.write(settings.output)
+    println(s"Report: ${settings.output.toAbsolutePath}")
+
+    settings.baseline.foreach { baseline =>
+      println(s"Compared with baseline: ${baseline.toAbsolutePath}")
+      report.compare(baseline).foreach(println)
+    }
+  }
+
+  /**
+   * Every subject has one schema registered before the test. Lookups use these schemas, registrations add a new
+   * (backward compatible) version to a random subject.
+   */
+  private final class Workload(client: DefaultSchemaKeeperClient, subjects: Int) {
+    private val schemas = Array.tabulate(subjects)(subject => schema(subject, 0))
+    private val ids = Array.tabulate(subjects)(subject =>
+      client.registerNewSchema(subjectName(subject), schemas(subject), SchemaType.AVRO, CompatibilityType.BACKWARD)
+    )
+    private val versions = Array.fill(subjects)(new AtomicInteger())
+
+    def execute(operation: Operation): Unit = {
+      val subject = ThreadLocalRandom.current().nextInt(subjects)
+
+      operation match {
+        case Operation.SchemaById =>
+          client.getSchemaById(ids(subject))
+        case Operation.SchemaIdBySubjectAndSchema =>
+          client.getSchemaId(subjectName(subject), schemas(subject), SchemaType.AVRO)
+        case Operation.RegisterSchema =>
+          val version = versions(subject).incrementAndGet()
+          client.registerNewSchema(
+            subjectName(subject),
+            schema(subject, version),
+            SchemaType.AVRO,
+            CompatibilityType.BACKWARD
+          )
+      }
+      ()
+    }
+
+    private def subjectName(subject: Int): String = s"load-test-$subject"
+
+    private def schema(subject: Int, version: Int): Schema =
+      (1 to version)
+        .foldLeft(SchemaBuilder.record(s"record_$subject").namespace("schemakeeper.load").fields().requiredLong("id")) {
+          (fields, field) => fields.optionalString(s"field_$field")
+        }
+        .endRecord()
+  }
+}
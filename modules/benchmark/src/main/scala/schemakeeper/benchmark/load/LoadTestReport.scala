@@ -0,0 +1,137 @@
+package schemakeeper.benchmark.load
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path}
+import java.time.Instant
+import java.util.concurrent.atomic.{AtomicInteger, LongAdder}
+
+import io.circe.{Json, JsonObject}
+import io.circe.parser.parse
+
+import scala.util.Try
+
+/**
+ * Latencies of a single operation. Every latency is stored, so percentiles are exact.
+ */
+final class LatencyRecorder(capacity: Int) {
+  private val latencies = new Array[Long](capacity)
+  private val count = new AtomicInteger()
+  private val errors = new LongAdder()
+
+  def record(latencyNanos: Long): Unit = {
+    val index = count.getAndIncrement()
+
+    if (index < capacity) {
+      latencies(index) = latencyNanos
+    }
+  }
+
+  def error(): Unit = errors.increment()
+
+  /**
+   * Should be called after all requests are completed.
+   */
+  def stats(elapsedNanos: Long): OperationStats = {
+    val sorted = latencies.take(math.min(count.get(), capacity)).sorted
+
+    def percentile(quantile: Double): Double =
+      if (sorted.isEmpty) 0.0 else millis(sorted(math.min(sorted.length - 1, (quantile * sorted.length).toInt)))
+
+    OperationStats(
+      count = sorted.length.toLong,
+      errors = errors.sum(),
+      throughput = sorted.length / (elapsedNanos / 1e9),
+      meanMs = if (sorted.isEmpty) 0.0 else millis(sorted.sum) / sorted.length,
+      p50Ms = percentile(0.5),
+      p90Ms = percentile(0.9),
+      p99Ms = percentile(0.99),
+      p999Ms = percentile(0.999),
+      maxMs = if (sorted.isEmpty) 0.0 else millis(sorted.last)
+    )
+  }
+
+  private def millis(nanos: Long): Double = nanos / 1e6
+}
+
+final case class OperationStats(
+  count: Long,
+  errors: Long,
+  throughput: Double,
+  meanMs: Double,
+  p50Ms: Double,
+  p90Ms: Double,
+  p99Ms: Double,
+  p999Ms: Double,
+  maxMs: Double
+) {
+  def toJson: Json = Json.obj(
+    "count" -> Json.fromLong(count),
+    "errors" -> Json.fromLong(errors),
+    "throughput" -> Json.fromDoubleOrNull(throughput),
+    "meanMs" -> Json.fromDoubleOrNull(meanMs),
+    "p50Ms" -> Json.fromDoubleOrNull(p50Ms),
+    "p90Ms" -> Json.fromDoubleOrNull(p90Ms),
+    "p99Ms" -> Json.fromDoubleOrNull(p99Ms),
+    "p999Ms" -> Json.fromDoubleOrNull(p999Ms),
+    "maxMs" -> Json.fromDoubleOrNull(maxMs)
+  )
+
+  override def toString: String =
+    f"count=$count%d errors=$errors%d throughput=$throughput%.1f/s mean=$meanMs%.3fms " +
+      f"p50=$p50Ms%.3fms p90=$p90Ms%.3fms p99=$p99Ms%.3fms p99.9=$p999Ms%.3fms max=$maxMs%.3fms"
+}
+
+final case class LoadTestReport(settings: LoadTestSettings, operations: Map[Operation, OperationStats]) {
+  def toJson: Json = Json.obj(
+    "label" -> Json.fromString(settings.label),
+    "commit" -> LoadTestReport.commit.fold(Json.Null)(Json.fromString),
+    "timestamp" -> Json.fromString(Instant.now().toString),
+    "settings" -> Json.obj(
+      "rate" -> Json.fromInt(settings.rate),
+      "durationSeconds" -> Json.fromLong(settings.duration.toSeconds),
+      "subjects" -> Json.fromInt(settings.subjects),
+      "threads" -> Json.fromInt(settings.threads),
+      "binary" -> Json.fromBoolean(settings.binary),
+      "storage" -> Json.fromString(settings.storage.url),
+      "mix" -> Json.fromJsonObject(JsonObject.fromIterable(settings.mix.map { case (op, weight) =>
+        op.name -> Json.fromInt(weight)
+      }))
+    ),
+    "operations" -> Json.fromJsonObject(JsonObject.fromIterable(operations.map { case (op, stats) =>
+      op.name -> stats.toJson
+    }))
+  )
+
+  def write(path: Path): Unit = {
+    Option(path.toAbsolutePath.getParent).foreach(parent => Files.createDirectories(parent))
+    Files.write(path, toJson.spaces2.getBytes(StandardCharsets.UTF_8))
+  }
+
+  /**
+   * @return throughput and p99 latency of every operation compared with the baseline report
+   */
+  def compare(baseline: Path): List[String] = {
+    val json = parse(new String(Files.readAllBytes(baseline), StandardCharsets.UTF_8)).toTry.get
+    val cursor = json.hcursor.downField("operations")
+
+    operations.toList.sortBy(_._1.name).map { case (op, stats) =>
+      val previous = cursor.downField(op.name)
+      val throughput = previous.get[Double]("throughput").toOption
+      val p99 = previous.get[Double]("p99Ms").toOption
+
+      f"${op.name}%-28s throughput: ${stats.throughput}%.1f/s (${change(throughput, stats.throughput)}), " +
+        f"p99: ${stats.p99Ms}%.3fms (${change(p99, stats.p99Ms)})"
+    }
+  }
+
+  private def change(previous: Option[Double], current: Double): String =
+    previous.filter(_ > 0).fold("no baseline")(p => f"${(current - p) / p * 100}%+.1f%%")
+}
+
+object LoadTestReport {
+  private def commit: Option[String] = {
+    import scala.sys.process._
+
+    Try("git rev-parse --short HEAD".!!.trim).toOption.filter(_.nonEmpty)
+  }
+}
@@ -0,0 +1,112 @@
+package schemakeeper.benchmark.load
+
+import java.nio.file.{Path, Paths}
+
+import schemakeeper.server.{Configuration, Server, Storage}
+
+import scala.concurrent.duration._
+
+sealed abstract class Operation(val name: String)
+
+object Operation {
+  case object SchemaById extends Operation("schemaById")
+  case object SchemaIdBySubjectAndSchema extends Operation("schemaIdBySubjectAndSchema")
+  // registers a new schema version the same way as serializers do (registerSchemaAndSubject endpoint)
+  case object RegisterSchema extends Operation("registerSchema")
+
+  val values: List[Operation] = List(SchemaById, SchemaIdBySubjectAndSchema, RegisterSchema)
+
+  def withName(name: String): Operation =
+    values.find(_.name == name).getOrElse(throw new IllegalArgumentException(s"Unknown operation: $name"))
+}
+
+/**
+ * @param rate
+ *   - requests per second (fixed arrival rate, requests are sent even if previous ones are not completed)
+ * @param duration
+ *   - measurement duration
+ * @param warmup
+ *   - warmup duration (results are discarded)
+ * @param subjects
+ *   - number of subjects. Every subject is registered with a single schema before the test
+ * @param threads
+ *   - number of client threads (and client connections)
+ * @param mix
+ *   - operation weights
+ * @param binary
+ *   - use binary protocol instead of json
+ * @param storage
+ *   - server storage. In-memory H2 by default, any supported (e.g. dockerized) database can be used instead
+ * @param label
+ *   - name of the run stored in the report
+ * @param output
+ *   - json report path
+ * @param baseline
+ *   - previous json report to compare with
+ */
+final case class LoadTestSettings(
+  rate: Int = 500,
+  duration: FiniteDuration = 30.seconds,
+  warmup: FiniteDuration = 5.seconds,
+  subjects: Int = 100,
+  threads: Int = 64,
+  mix: Map[Operation, Int] = Map(
+    Operation.SchemaById -> 70,
+    Operation.SchemaIdBySubjectAndSchema -> 25,
+    Operation.RegisterSchema -> 5
+  ),
+  binary: Boolean = false,
+  storage: Storage = LoadTestSettings.h2,
+  label: String = "load-test",
+  output: Path = Paths.get("target", "load-test", "report.json"),
+  baseline: Option[Path] = None
+) {
+  def configuration: Configuration = Configuration(storage, Server(port = 0, host = "127.0.0.1"))
+}
+
+object LoadTestSettings {
+  val h2: Storage = Storage(
+    url = "jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+    driver = "org.h2.Driver",
+    username = "",
+    schema = "public"
+  )
+
+  /**
+   * Parses `key=value` arguments, e.g. `rate=1000 duration=60 mix=schemaById:90,registerSchema:10`.
+   */
+  def parse(args: List[String]): LoadTestSettings =
+    args.foldLeft(LoadTestSettings()) { (settings, arg) =>
+      arg.split("=", 2) match {
+        case Array("rate", value)                   => settings.copy(rate = value.toInt)
+        case Array("duration", value)               => settings.copy(duration = value.toLong.seconds)
+        case Array("warmup", value)                 => settings.copy(warmup = value.toLong.seconds)
+        case Array("subjects", value)               => settings.copy(subjects = value.toInt)
+        case Array("threads", value)                => settings.copy(threads = value.toInt)
+        case Array("mix", value)                    => settings.copy(mix = parseMix(value))
+        case Array("binary", value)                 => settings.copy(binary = value.toBoolean)
+        case Array("storage.url", value)            => settings.copy(storage = settings.storage.copy(url = value))
+        case Array("storage.driver", value)         => settings.copy(storage = settings.storage.copy(driver = value))
+        case Array("storage.username", value)       => settings.copy(storage = settings.storage.copy(username = value))
+        case Array("storage.password", value)       => settings.copy(storage = settings.storage.copy(password = value))
+        case Array("storage.schema", value)         => settings.copy(storage = settings.storage.copy(schema = value))
+        case Array("storage.maxConnections", value) =>
+          settings.copy(storage = settings.storage.copy(maxConnections = value.toInt))
+        case Array("label", value)    => settings.copy(label = value)
+        case Array("output", value)   => settings.copy(output = Paths.get(value))
+        case Array("baseline", value) => settings.copy(baseline = Some(Paths.get(value)))
+        case _                        => throw new IllegalArgumentException(s"Unknown argument: $arg")
+      }
+    }
+
+  private def parseMix(value: String): Map[Operation, Int] =
+    value
+      .split(",")
+      .map { weight =>
+        weight.split(":") match {
+          case Array(name, w) => Operation.withName(name) -> w.toInt
+          case _              => throw new IllegalArgumentException(s"Wrong operation weight: $weight")
+        }
+      }
+      .toMap
+}
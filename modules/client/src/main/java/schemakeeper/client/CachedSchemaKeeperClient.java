@@ -1,6 +1,7 @@
 package schemakeeper.client;
 
 import org.apache.avro.Schema;
+import schemakeeper.client.metrics.ClientMetrics;
 import schemakeeper.schema.CompatibilityType;
 import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.SerDeConfig;
@@ -8,6 +9,8 @@ import schemakeeper.serialization.SerDeConfig;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class CachedSchemaKeeperClient extends DefaultSchemaKeeperClient {
     // used for write (Subject -> (Schema text -> schema id))
@@ -16,12 +19,28 @@ public class CachedSchemaKeeperClient extends DefaultSchemaKeeperClient {
     private final ConcurrentHashMap<Integer, Schema> idToSchema = new ConcurrentHashMap<>();
 
     public CachedSchemaKeeperClient(SerDeConfig config) {
-        super(config);
+        this(config, ClientMetrics.create(config));
+    }
+
+    public CachedSchemaKeeperClient(SerDeConfig config, ClientMetrics metrics) {
+        super(config, metrics);
+
+        metrics.cacheSize(ClientMetrics.ID_TO_SCHEMA_CACHE, idToSchema::size);
+        metrics.cacheSize(ClientMetrics.SUBJECT_SCHEMAS_CACHE, () -> subjectSchemas.values().stream().mapToLong(Map::size).sum());
     }
 
     @Override
     public Schema getSchemaById(int id) {
-        return idToSchema.computeIfAbsent(id, integer -> getSchemaByIdRest(id));
+        // plain get on hit: computeIfAbsent may lock the bin even if value is present
+        Schema schema = idToSchema.get(id);
+
+        if (schema != null) {
+            metrics.cacheHit(ClientMetrics.ID_TO_SCHEMA_CACHE);
+            return schema;
+        }
+
+        metrics.cacheMiss(ClientMetrics.ID_TO_SCHEMA_CACHE);
+        return idToSchema.computeIfAbsent(id, integer -> timed(ClientMetrics.ID_TO_SCHEMA_CACHE, () -> getSchemaByIdRest(id)));
     }
 
     public Schema getSchemaByIdRest(int id) {
@@ -31,9 +50,7 @@ public class CachedSchemaKeeperClient extends DefaultSchemaKeeperClient {
 
     @Override
     public int registerNewSchema(String subject, Schema schema, SchemaType schemaType, CompatibilityType compatibilityType) {
-        return subjectSchemas
-                .computeIfAbsent(subject, s -> new ConcurrentHashMap<>())
-                .computeIfAbsent(schema, schema1 -> registerNewSchemaRest(subject, schema1, schemaType, compatibilityType));
+        return cachedSchemaId(subject, schema, schema1 -> registerNewSchemaRest(subject, schema1, schemaType, compatibilityType));
     }
 
     public int registerNewSchemaRest(String subject, Schema schema, SchemaType schemaType, CompatibilityType compatibilityType) {
@@ -43,9 +60,7 @@ public class CachedSchemaKeeperClient extends DefaultSchemaKeeperClient {
 
     @Override
     public int getSchemaId(String subject, Schema schema, SchemaType schemaType) {
-        return subjectSchemas
-                .computeIfAbsent(subject, s -> new ConcurrentHashMap<>())
-                .computeIfAbsent(schema, schema1 -> getSchemaIdRest(subject, schema1, schemaType));
+        return cachedSchemaId(subject, schema, schema1 -> getSchemaIdRest(subject, schema1, schemaType));
     }
 
     public int getSchemaIdRest(String subject, Schema schema, SchemaType schemaType) {
@@ -53,6 +68,35 @@ public class CachedSchemaKeeperClient extends DefaultSchemaKeeperClient {
         return super.getSchemaId(subject, schema, schemaType);
     }
 
+    private int cachedSchemaId(String subject, Schema schema, Function<Schema, Integer> load) {
+        // plain get first: computeIfAbsent on the outer map locks the bin of the subject on every call
+        ConcurrentHashMap<Schema, Integer> schemas = subjectSchemas.get(subject);
+
+        if (schemas == null) {
+            schemas = subjectSchemas.computeIfAbsent(subject, s -> new ConcurrentHashMap<>());
+        }
+
+        Integer id = schemas.get(schema);
+
+        if (id != null) {
+            metrics.cacheHit(ClientMetrics.SUBJECT_SCHEMAS_CACHE);
+            return id;
+        }
+
+        metrics.cacheMiss(ClientMetrics.SUBJECT_SCHEMAS_CACHE);
+        return schemas.computeIfAbsent(schema, schema1 -> timed(ClientMetrics.SUBJECT_SCHEMAS_CACHE, () -> load.apply(schema1)));
+    }
+
+    private <T> T timed(String cache, Supplier<T> load) {
+        long start = System.nanoTime();
+
+        try {
+            return load.get();
+        } finally {
+            metrics.cacheLoad(cache, System.nanoTime() - start);
+        }
+    }
+
     public Map<String, ConcurrentHashMap<Schema, Integer>> getSubjectSchemas() {
         return Collections.unmodifiableMap(subjectSchemas);
     }
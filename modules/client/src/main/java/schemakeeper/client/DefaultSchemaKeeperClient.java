@@ -1,5 +1,6 @@
 package schemakeeper.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import kong.unirest.Config;
@@ -7,10 +8,12 @@ import kong.unirest.HttpResponse;
 import kong.unirest.Unirest;
 import kong.unirest.UnirestInstance;
 import org.apache.avro.Schema;
+import schemakeeper.api.BinaryProtocol;
 import schemakeeper.api.SchemaId;
 import schemakeeper.api.SchemaMetadata;
 import schemakeeper.api.SchemaText;
 import schemakeeper.api.SubjectAndSchemaRequest;
+import schemakeeper.client.metrics.ClientMetrics;
 import schemakeeper.client.protocol.SchemaMetadataDeserializer;
 import schemakeeper.client.protocol.SchemaTextSerializer;
 import schemakeeper.exception.SchemaKeeperException;
@@ -19,8 +22,13 @@ import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.SerDeConfig;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
+    // error code of the subject without schemas
+    private static final int SUBJECT_HAS_NO_REGISTERED_SCHEMAS_CODE = 1003;
     private static final ObjectMapper mapper;
 
     static {
@@ -34,10 +42,19 @@ public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
     }
 
     private UnirestInstance clientInstance;
+    private final boolean binaryProtocol;
+    protected final ClientMetrics metrics;
 
     public DefaultSchemaKeeperClient(SerDeConfig config) {
+        this(config, ClientMetrics.create(config));
+    }
+
+    public DefaultSchemaKeeperClient(SerDeConfig config, ClientMetrics metrics) {
         super(config);
 
+        this.metrics = metrics;
+        binaryProtocol = config.clientBinaryProtocol();
+
         clientInstance = Unirest.spawnInstance();
         Config clientInstanceConfig = clientInstance.config();
 
@@ -46,6 +63,7 @@ public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
                 .connectTimeout(config.clientConnectTimeout())
                 .concurrency(config.clientMaxConnections(), config.clientConnectionsPerRoute())
                 .setDefaultHeader("Accept", "application/json")
+                .requestCompression(config.clientRequestCompression())
                 .followRedirects(false)
                 .enableCookieManagement(false)
                 .addShutdownHook(true);
@@ -64,8 +82,19 @@ public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
     public Schema getSchemaById(int id) {
         logger.debug("Get schema by id: {}", id);
 
-        HttpResponse<String> response = clientInstance.get(String.format("%s/%s/schemas/%s", SCHEMAKEEPER_URL, API_VERSION, id))
-                .asString()
+        if (binaryProtocol) {
+            HttpResponse<byte[]> response = execute(() -> clientInstance.get(String.format("%s/%s/schemas/%s", SCHEMAKEEPER_URL, API_VERSION, id))
+                    .header("Accept", BinaryProtocol.CONTENT_TYPE)
+                    .asBytes())
+                    .ifFailure(DefaultSchemaKeeperClient::onBinaryFailure);
+
+            SchemaMetadata schemaMetadata = readBinaryOrJson(response, BinaryProtocol::decodeSchemaMetadata, SchemaMetadata.class);
+            logger.debug("Result of getting schema by id {}: {}", id, schemaMetadata);
+            return schemaMetadata.getSchema();
+        }
+
+        HttpResponse<String> response = execute(() -> clientInstance.get(String.format("%s/%s/schemas/%s", SCHEMAKEEPER_URL, API_VERSION, id))
+                .asString())
                 .ifFailure(res -> {
                     logger.error("Error: {}. Status: {}", res.getBody(), res.getStatus());
                     throw new SchemaKeeperException(res.getBody());
@@ -85,10 +114,23 @@ public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
     public int registerNewSchema(String subject, Schema schema, SchemaType schemaType, CompatibilityType compatibilityType) {
         logger.debug("Get schema id ({}) or register new schema and add to subject: {}", schema.toString(), subject);
 
-           HttpResponse<String> response = clientInstance.post(String.format("%s/%s/subjects/%s/schemas", SCHEMAKEEPER_URL, API_VERSION, subject))
+        if (binaryProtocol) {
+            HttpResponse<byte[]> response = execute(() -> clientInstance.post(String.format("%s/%s/subjects/%s/schemas", SCHEMAKEEPER_URL, API_VERSION, subject))
+                    .header("Content-Type", BinaryProtocol.CONTENT_TYPE)
+                    .header("Accept", BinaryProtocol.CONTENT_TYPE)
+                    .body(BinaryProtocol.encodeSubjectAndSchemaRequest(SubjectAndSchemaRequest.instance(schema, schemaType, compatibilityType)))
+                    .asBytes())
+                    .ifFailure(DefaultSchemaKeeperClient::onBinaryFailure);
+
+            SchemaId schemaId = readBinaryOrJson(response, BinaryProtocol::decodeSchemaId, SchemaId.class);
+            logger.debug("Result of registering schema {} for subject {}: {}", schema.toString(), subject, schemaId);
+            return schemaId.getSchemaId();
+        }
+
+        HttpResponse<String> response = execute(() -> clientInstance.post(String.format("%s/%s/subjects/%s/schemas", SCHEMAKEEPER_URL, API_VERSION, subject))
                 .header("Content-Type", "application/json")
                 .body(SubjectAndSchemaRequest.instance(schema, schemaType, compatibilityType))
-                .asString()
+                .asString())
                 .ifFailure(res -> {
                     logger.error("Error: {}. Status: {}", res.getBody(), res.getStatus());
                     throw new SchemaKeeperException(res.getBody());
@@ -108,10 +150,23 @@ public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
     public int getSchemaId(String subject, Schema schema, SchemaType schemaType) {
         logger.debug("Get schema id ({}) subject: {}", schema.toString(), subject);
 
-        HttpResponse<String> response = clientInstance.post(String.format("%s/%s/subjects/%s/schemas/id", SCHEMAKEEPER_URL, API_VERSION, subject))
+        if (binaryProtocol) {
+            HttpResponse<byte[]> response = execute(() -> clientInstance.post(String.format("%s/%s/subjects/%s/schemas/id", SCHEMAKEEPER_URL, API_VERSION, subject))
+                    .header("Content-Type", BinaryProtocol.CONTENT_TYPE)
+                    .header("Accept", BinaryProtocol.CONTENT_TYPE)
+                    .body(BinaryProtocol.encodeSchemaText(SchemaText.instance(schema, schemaType)))
+                    .asBytes())
+                    .ifFailure(DefaultSchemaKeeperClient::onBinaryFailure);
+
+            SchemaId schemaId = readBinaryOrJson(response, BinaryProtocol::decodeSchemaId, SchemaId.class);
+            logger.debug("Result of getting schema id {} for subject {}: {}", schema.toString(), subject, schemaId);
+            return schemaId.getSchemaId();
+        }
+
+        HttpResponse<String> response = execute(() -> clientInstance.post(String.format("%s/%s/subjects/%s/schemas/id", SCHEMAKEEPER_URL, API_VERSION, subject))
                 .header("Content-Type", "application/json")
                 .body(SchemaText.instance(schema, schemaType))
-                .asString()
+                .asString())
                 .ifFailure(res -> {
                     logger.error("Error: {}. Status: {}", res.getBody(), res.getStatus());
                     throw new SchemaKeeperException(res.getBody());
@@ -127,8 +182,88 @@ public class DefaultSchemaKeeperClient extends SchemaKeeperClient {
         }
     }
 
+    @Override
+    public int getLastSchemaId(String subject) {
+        logger.debug("Get last schema id of subject: {}", subject);
+
+        HttpResponse<String> response = execute(() -> clientInstance.get(String.format("%s/%s/subjects/%s/schemas", SCHEMAKEEPER_URL, API_VERSION, subject))
+                .asString());
+
+        try {
+            if (isSubjectWithoutSchemas(response)) {
+                return NO_SCHEMA_ID;
+            }
+
+            if (!response.isSuccess()) {
+                logger.error("Error: {}. Status: {}", response.getBody(), response.getStatus());
+                throw new SchemaKeeperException(response.getBody());
+            }
+
+            int version = 0;
+            int schemaId = NO_SCHEMA_ID;
+
+            for (JsonNode schema : mapper.readTree(response.getBody())) {
+                if (schema.path("version").asInt() > version) {
+                    version = schema.path("version").asInt();
+                    schemaId = schema.path("schemaId").asInt();
+                }
+            }
+
+            logger.debug("Result of getting last schema id of subject {}: {}", subject, schemaId);
+            return schemaId;
+        } catch (IOException e) {
+            logger.error("Error while getting last schema id of subject: {}. Error: {}", subject, e.getLocalizedMessage());
+            throw new SchemaKeeperException(e);
+        }
+    }
+
+    private static boolean isSubjectWithoutSchemas(HttpResponse<String> response) throws IOException {
+        if (response.getStatus() == 404) {
+            return true;
+        }
+
+        return response.getStatus() == 400 && mapper.readTree(response.getBody()).path("code").asInt() == SUBJECT_HAS_NO_REGISTERED_SCHEMAS_CODE;
+    }
+
+    private <T> HttpResponse<T> execute(Supplier<HttpResponse<T>> request) {
+        metrics.requestStarted();
+        long start = System.nanoTime();
+        int status = ClientMetrics.NO_RESPONSE_STATUS;
+
+        try {
+            HttpResponse<T> response = request.get();
+            status = response.getStatus();
+            return response;
+        } finally {
+            metrics.requestCompleted(status, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Server may ignore Accept header (e.g. older versions), so the response is decoded depending on its Content-Type.
+     */
+    private static <T> T readBinaryOrJson(HttpResponse<byte[]> response, Function<byte[], T> binaryDecoder, Class<T> jsonType) {
+        if (BinaryProtocol.isBinary(response.getHeaders().getFirst("Content-Type"))) {
+            return binaryDecoder.apply(response.getBody());
+        }
+
+        try {
+            return mapper.readValue(response.getBody(), jsonType);
+        } catch (IOException e) {
+            logger.error("Error while reading response. Error: {}", e.getLocalizedMessage());
+            throw new SchemaKeeperException(e);
+        }
+    }
+
+    private static void onBinaryFailure(HttpResponse<byte[]> response) {
+        String body = response.getBody() == null ? "" : new String(response.getBody(), StandardCharsets.UTF_8);
+        logger.error("Error: {}. Status: {}", body, response.getStatus());
+        throw new SchemaKeeperException(body);
+    }
+
     @Override
     public void close() {
         clientInstance.shutDown();
+        metrics.close();
     }
 }
@@ -4,6 +4,7 @@ import org.apache.avro.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.schema.AvroSchemaCompatibility;
+import schemakeeper.schema.CompatibilityCheckResult;
 import schemakeeper.schema.CompatibilityType;
 import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.SerDeConfig;
@@ -46,29 +47,7 @@ public class MockSchemaKeeperClient extends SchemaKeeperClient {
         this.schemaId = new HashMap<>();
         this.subjectSchemas = new HashMap<>();
 
-        switch (compatibilityType) {
-            case NONE:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.NONE_VALIDATOR;
-                break;
-            case BACKWARD:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.BACKWARD_VALIDATOR;
-                break;
-            case FORWARD:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.FORWARD_VALIDATOR;
-                break;
-            case FULL:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.FULL_VALIDATOR;
-                break;
-            case BACKWARD_TRANSITIVE:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.BACKWARD_TRANSITIVE_VALIDATOR;
-                break;
-            case FORWARD_TRANSITIVE:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.FORWARD_TRANSITIVE_VALIDATOR;
-                break;
-            case FULL_TRANSITIVE:
-                this.avroSchemaCompatibility = AvroSchemaCompatibility.FULL_TRANSITIVE_VALIDATOR;
-                break;
-        }
+        this.avroSchemaCompatibility = AvroSchemaCompatibility.forCompatibilityType(compatibilityType);
     }
 
     @Override
@@ -77,7 +56,8 @@ public class MockSchemaKeeperClient extends SchemaKeeperClient {
 
         logger.debug("New schema: {}", schema);
         logger.debug("Old schema: {}", getLastSubjectSchema(subject));
-        if (avroSchemaCompatibility.isCompatible(schema, getLastSubjectSchema(subject))) {
+        CompatibilityCheckResult checkResult = avroSchemaCompatibility.check(schema, getLastSubjectSchema(subject));
+        if (checkResult.isCompatible()) {
             id++;
             idSchema.put(id, schema);
             schemaId.put(schema, id);
@@ -85,7 +65,7 @@ public class MockSchemaKeeperClient extends SchemaKeeperClient {
             subjectSchemas.putIfAbsent(subject, new HashMap<>());
             subjectSchemas.get(subject).put(id, schema);
         } else {
-            throw new RuntimeException("New schema is not compatible");
+            throw new RuntimeException("New schema is not compatible: " + checkResult.getIncompatibilities());
         }
 
         return id;
@@ -103,6 +83,14 @@ public class MockSchemaKeeperClient extends SchemaKeeperClient {
         return idSchema.get(id);
     }
 
+    @Override
+    public synchronized int getLastSchemaId(String subject) {
+        logger.debug("Get last schema id of subject: {}", subject);
+
+        Map<Integer, Schema> schemas = subjectSchemas.get(subject);
+        return schemas == null ? NO_SCHEMA_ID : schemas.keySet().stream().max(Integer::compare).orElse(NO_SCHEMA_ID);
+    }
+
     @Override
     public void close() {}
 
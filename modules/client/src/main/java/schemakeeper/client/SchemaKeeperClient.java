@@ -12,6 +12,8 @@ public abstract class SchemaKeeperClient {
 
     protected final static String API_VERSION = "v2";
 
+    public final static int NO_SCHEMA_ID = -1;
+
     protected final String SCHEMAKEEPER_URL;
 
     protected SerDeConfig config;
@@ -48,6 +50,17 @@ public abstract class SchemaKeeperClient {
      */
     public abstract int getSchemaId(String subject, Schema schema, SchemaType schemaType);
 
+    /**
+     * Default implementation does not look up the registry, so the compression dictionaries are trained again
+     * by every serializer instance.
+     *
+     * @param subject - subject name
+     * @return - id of the last schema version of the subject or {@link #NO_SCHEMA_ID} if subject does not exist or has no schemas
+     */
+    public int getLastSchemaId(String subject) {
+        return NO_SCHEMA_ID;
+    }
+
     /**
      * Close opened resources
      */
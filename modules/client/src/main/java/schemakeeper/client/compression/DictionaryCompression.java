@@ -0,0 +1,310 @@
+package schemakeeper.client.compression;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import schemakeeper.api.SubjectMetadata;
+import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Payload compression (raw deflate from the jdk) with dictionaries trained per schema id.
+ * <p>
+ * Serializer side: the last dictionary registered for the schema is used if it exists. Otherwise the first
+ * {@link SerDeConfig#COMPRESSION_TRAINING_SAMPLES_CONFIG} payloads of the schema are sent uncompressed and used to train
+ * the dictionary. The dictionary is registered in the registry as a `bytes` schema with the {@link #DICTIONARY_PROP}
+ * property under the {@link #DICTIONARY_SUBJECT_PREFIX}schemaId subject, so the dictionary id is a schema id and all
+ * serializer instances share it. Dictionary subjects are excluded from the subject list of the registry. Compressed message is used only if it is smaller than the original one.
+ * <p>
+ * Deserializer side: dictionary is fetched from the registry by the id written in the message.
+ */
+public class DictionaryCompression {
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryCompression.class);
+
+    public static final String DICTIONARY_PROP = "schemakeeper.dictionary";
+    public static final String DICTIONARY_SUBJECT_PREFIX = SubjectMetadata.DICTIONARY_SUBJECT_PREFIX;
+
+    private final SchemaKeeperClient client;
+    private final int trainingSamples;
+    private final int dictionarySize;
+    private final int level;
+    // schema id -> dictionary state (serializer)
+    private final Map<Integer, SchemaDictionary> schemaDictionaries;
+    // dictionary id -> dictionary (deserializer)
+    private final Map<Integer, byte[]> dictionaries;
+    // pooled instead of thread local: native memory of the pooled instances is released by close
+    private final Queue<Deflater> deflaters;
+    private final Queue<Inflater> inflaters;
+    private volatile boolean closed;
+
+    public DictionaryCompression(SchemaKeeperClient client) {
+        this(client, new SerDeConfig(Collections.emptyMap()));
+    }
+
+    public DictionaryCompression(SchemaKeeperClient client, SerDeConfig config) {
+        this.client = client;
+        this.trainingSamples = config.compressionTrainingSamples();
+        this.dictionarySize = config.compressionDictionarySize();
+        this.level = config.compressionLevel();
+        this.schemaDictionaries = new ConcurrentHashMap<>();
+        this.dictionaries = new ConcurrentHashMap<>();
+        this.deflaters = new ConcurrentLinkedQueue<>();
+        this.inflaters = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Compressed message always has 4-byte schema id, so compact protocol byte is replaced with the default one.
+     *
+     * @param message - serialized message (protocol byte, schema id and payload)
+     * @return compressed message or the same message if dictionary is not trained yet or compression is not effective
+     */
+    public byte[] compress(int schemaId, byte[] message) {
+        SchemaDictionary schemaDictionary = schemaDictionaries.computeIfAbsent(schemaId, id -> new SchemaDictionary());
+        MessageHeader header = MessageHeader.parse(message);
+
+        if (schemaDictionary.dictionary == null && !schemaDictionary.load(schemaId)) {
+            schemaDictionary.sample(schemaId, message, header.getPayloadOffset(), header.getPayloadLength());
+            return message;
+        }
+
+        if (schemaDictionary.dictionaryId <= 0 || message.length <= MessageHeader.COMPRESSED_HEADER_LENGTH) {
+            return message;
+        }
+
+        Deflater deflater = deflater();
+        // compressed message is used only if it is smaller than the original one
+        byte[] buffer = new byte[message.length];
+        int offset = MessageHeader.COMPRESSED_HEADER_LENGTH;
+
+        try {
+            deflater.setDictionary(schemaDictionary.dictionary);
+            deflater.setInput(message, header.getPayloadOffset(), header.getPayloadLength());
+            deflater.finish();
+
+            ByteBuffer.wrap(buffer)
+                    .put(MessageHeader.COMPRESSED_BYTE)
+                    .put(header.isCompact() ? MessageHeader.protocolByteOf(header.getFormat()) : header.getProtocolByte())
+                    .putInt(schemaId)
+                    .putInt(schemaDictionary.dictionaryId);
+
+            while (!deflater.finished() && offset < buffer.length) {
+                offset += deflater.deflate(buffer, offset, buffer.length - offset);
+            }
+
+            if (!deflater.finished() || offset >= message.length) {
+                return message;
+            }
+        } finally {
+            release(deflater);
+        }
+
+        byte[] result = new byte[offset];
+        System.arraycopy(buffer, 0, result, 0, offset);
+        return result;
+    }
+
+    /**
+     * @param buffer - compressed message, position is at the dictionary id
+     * @return buffer with the decompressed payload
+     */
+    public ByteBuffer decompress(ByteBuffer buffer) throws DeserializationException {
+        if (buffer.remaining() < 4) {
+            throw new DeserializationException("Compressed message does not contain dictionary id");
+        }
+
+        int dictionaryId = buffer.getInt();
+        return ByteBuffer.wrap(decompress(dictionaryId, buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+    }
+
+    /**
+     * @param dictionaryId - dictionary id written in the message
+     * @param data         - compressed payload
+     * @return decompressed payload
+     */
+    public byte[] decompress(int dictionaryId, byte[] data, int offset, int length) throws DeserializationException {
+        byte[] dictionary = dictionaries.computeIfAbsent(dictionaryId, this::fetchDictionary);
+
+        Inflater inflater = inflater();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+        byte[] buffer = new byte[Math.max(length * 4, 256)];
+
+        try {
+            inflater.setDictionary(dictionary);
+            inflater.setInput(data, offset, length);
+
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DeserializationException("Compressed payload is truncated");
+                }
+
+                out.write(buffer, 0, read);
+            }
+        } catch (DataFormatException e) {
+            throw new DeserializationException(e);
+        } finally {
+            release(inflater);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Releases native memory of the pooled deflaters and inflaters. Instances in use are released when returned.
+     */
+    public void close() {
+        closed = true;
+        schemaDictionaries.clear();
+        dictionaries.clear();
+
+        for (Deflater deflater = deflaters.poll(); deflater != null; deflater = deflaters.poll()) {
+            deflater.end();
+        }
+
+        for (Inflater inflater = inflaters.poll(); inflater != null; inflater = inflaters.poll()) {
+            inflater.end();
+        }
+    }
+
+    private Deflater deflater() {
+        Deflater deflater = deflaters.poll();
+        return deflater == null ? new Deflater(level, true) : deflater;
+    }
+
+    private void release(Deflater deflater) {
+        deflater.reset();
+
+        if (closed || !deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private Inflater inflater() {
+        Inflater inflater = inflaters.poll();
+        return inflater == null ? new Inflater(true) : inflater;
+    }
+
+    private void release(Inflater inflater) {
+        inflater.reset();
+
+        if (closed || !inflaters.offer(inflater)) {
+            inflater.end();
+        }
+    }
+
+    private byte[] fetchDictionary(int dictionaryId) {
+        Schema schema = client.getSchemaById(dictionaryId);
+
+        if (schema == null || schema.getProp(DICTIONARY_PROP) == null) {
+            throw new DeserializationException(String.format("Dictionary with id: %s does not exist", dictionaryId));
+        }
+
+        return Base64.getDecoder().decode(schema.getProp(DICTIONARY_PROP));
+    }
+
+    /**
+     * @return id of the last dictionary registered for the schema or {@link SchemaKeeperClient#NO_SCHEMA_ID}
+     */
+    private int findDictionary(int schemaId) {
+        return client.getLastSchemaId(DICTIONARY_SUBJECT_PREFIX + schemaId);
+    }
+
+    private int registerDictionary(int schemaId, byte[] dictionary) {
+        Schema schema = Schema.create(Schema.Type.BYTES);
+        schema.addProp(DICTIONARY_PROP, Base64.getEncoder().encodeToString(dictionary));
+
+        return client.registerNewSchema(DICTIONARY_SUBJECT_PREFIX + schemaId, schema, SchemaType.AVRO, CompatibilityType.NONE);
+    }
+
+    private final class SchemaDictionary {
+        private final List<byte[]> samples = new ArrayList<>();
+        private volatile byte[] dictionary;
+        // <= 0 if dictionary was not registered
+        private volatile int dictionaryId;
+        private boolean lookedUp;
+
+        /**
+         * Looks up the dictionary registered by other serializers once, so it is not trained and registered again.
+         *
+         * @return true if dictionary is available
+         */
+        private synchronized boolean load(int schemaId) {
+            if (dictionary != null) {
+                return true;
+            }
+
+            if (lookedUp) {
+                return false;
+            }
+
+            lookedUp = true;
+
+            try {
+                int id = findDictionary(schemaId);
+
+                if (id > 0) {
+                    byte[] registered = dictionaries.computeIfAbsent(id, DictionaryCompression.this::fetchDictionary);
+                    dictionaryId = id;
+                    // dictionary is published after id
+                    dictionary = registered;
+                    logger.info("Dictionary {} is used for the schema {}", id, schemaId);
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Dictionary for the schema {} was not found, it will be trained", schemaId, e);
+            }
+
+            return false;
+        }
+
+        private synchronized void sample(int schemaId, byte[] message, int offset, int length) {
+            if (dictionary != null) {
+                return;
+            }
+
+            byte[] payload = new byte[length];
+            System.arraycopy(message, offset, payload, 0, length);
+            samples.add(payload);
+
+            if (samples.size() < trainingSamples) {
+                return;
+            }
+
+            byte[] trained = DictionaryTrainer.train(samples, dictionarySize);
+            samples.clear();
+
+            if (trained.length == 0) {
+                logger.info("Payloads of the schema {} have no common sequences, compression is disabled", schemaId);
+            } else {
+                try {
+                    dictionaryId = registerDictionary(schemaId, trained);
+                    logger.info("Dictionary {} ({} bytes) was registered for the schema {}", dictionaryId, trained.length, schemaId);
+                } catch (RuntimeException e) {
+                    logger.warn("Dictionary for the schema {} was not registered, compression is disabled", schemaId, e);
+                }
+            }
+
+            // dictionary is published after id
+            dictionary = trained;
+        }
+    }
+}
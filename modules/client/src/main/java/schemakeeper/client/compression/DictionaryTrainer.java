@@ -0,0 +1,79 @@
+package schemakeeper.client.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds deflate dictionary from the sample payloads. Deflate finds matches in the dictionary as in the previous data,
+ * and closer matches are encoded with fewer bits, so byte sequences which occur in the most samples are placed at the end.
+ */
+public final class DictionaryTrainer {
+    // min length of the repeated sequence which deflate encodes as a match
+    private static final int SEGMENT_LENGTH = 8;
+
+    private DictionaryTrainer() {
+    }
+
+    /**
+     * @param samples - serialized payloads
+     * @param maxSize - max dictionary size in bytes
+     * @return dictionary or empty array if samples have no common sequences
+     */
+    public static byte[] train(List<byte[]> samples, int maxSize) {
+        Map<ByteBuffer, Integer> frequency = new HashMap<>();
+
+        for (byte[] sample : samples) {
+            // every segment is counted once per sample
+            Set<ByteBuffer> segments = new LinkedHashSet<>();
+
+            for (int i = 0; i + SEGMENT_LENGTH <= sample.length; i++) {
+                segments.add(ByteBuffer.wrap(sample, i, SEGMENT_LENGTH).slice());
+            }
+
+            for (ByteBuffer segment : segments) {
+                frequency.merge(segment, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<ByteBuffer, Integer>> common = new ArrayList<>();
+
+        for (Map.Entry<ByteBuffer, Integer> entry : frequency.entrySet()) {
+            if (entry.getValue() > 1) {
+                common.add(entry);
+            }
+        }
+
+        // most frequent first, so they are kept if dictionary is truncated
+        common.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+
+        List<byte[]> selected = new ArrayList<>();
+        int size = 0;
+
+        for (Map.Entry<ByteBuffer, Integer> entry : common) {
+            if (size + SEGMENT_LENGTH > maxSize) {
+                break;
+            }
+
+            byte[] segment = new byte[SEGMENT_LENGTH];
+            entry.getKey().duplicate().get(segment);
+            selected.add(segment);
+            size += SEGMENT_LENGTH;
+        }
+
+        // most frequent segments at the end of the dictionary
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            dictionary.write(selected.get(i), 0, SEGMENT_LENGTH);
+        }
+
+        return dictionary.toByteArray();
+    }
+}
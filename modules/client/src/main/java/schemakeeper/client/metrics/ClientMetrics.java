@@ -0,0 +1,78 @@
+package schemakeeper.client.metrics;
+
+import schemakeeper.configuration.Config;
+import schemakeeper.exception.ConfigurationException;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Client metrics listener. Implementations should be thread-safe and cheap: methods are called on every client call.
+ */
+public interface ClientMetrics extends AutoCloseable {
+    // CachedSchemaKeeperClient caches
+    String ID_TO_SCHEMA_CACHE = "idToSchema";
+    String SUBJECT_SCHEMAS_CACHE = "subjectSchemas";
+
+    // status used for requests failed without response (e.g. connection timeout)
+    int NO_RESPONSE_STATUS = 0;
+
+    ClientMetrics NOOP = new ClientMetrics() {
+    };
+
+    /**
+     * @param config - client config
+     * @return - metrics implementation configured by {@link schemakeeper.client.ClientConfig#CLIENT_METRICS}
+     */
+    static ClientMetrics create(Config config) {
+        String metrics = config.clientMetrics();
+
+        switch (metrics.toLowerCase()) {
+            case "none":
+                return NOOP;
+            case "jmx":
+                return new JmxClientMetrics(config.clientMetricsName());
+            default:
+                throw new ConfigurationException(String.format("Unknown client metrics: %s", metrics));
+        }
+    }
+
+    /**
+     * @param cache - cache name
+     */
+    default void cacheHit(String cache) {
+    }
+
+    /**
+     * @param cache - cache name
+     */
+    default void cacheMiss(String cache) {
+    }
+
+    /**
+     * @param cache         - cache name
+     * @param durationNanos - time spent to load missing value from the server
+     */
+    default void cacheLoad(String cache, long durationNanos) {
+    }
+
+    /**
+     * @param cache - cache name
+     * @param size  - current cache size supplier
+     */
+    default void cacheSize(String cache, LongSupplier size) {
+    }
+
+    default void requestStarted() {
+    }
+
+    /**
+     * @param status        - http status or {@link #NO_RESPONSE_STATUS}
+     * @param durationNanos - request duration
+     */
+    default void requestCompleted(int status, long durationNanos) {
+    }
+
+    @Override
+    default void close() {
+    }
+}
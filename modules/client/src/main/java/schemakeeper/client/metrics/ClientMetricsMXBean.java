@@ -0,0 +1,49 @@
+package schemakeeper.client.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the client metrics. Cache related attributes are maps with cache name as a key.
+ * Latencies are in nanoseconds.
+ */
+public interface ClientMetricsMXBean {
+    Map<String, Long> getCacheHits();
+
+    Map<String, Long> getCacheMisses();
+
+    Map<String, Double> getCacheHitRatio();
+
+    Map<String, Long> getCacheSize();
+
+    Map<String, Long> getCacheLoadCount();
+
+    Map<String, Double> getCacheLoadLatencyMean();
+
+    Map<String, Long> getCacheLoadLatencyP99();
+
+    Map<String, Long> getCacheLoadLatencyMax();
+
+    int getInFlightRequests();
+
+    long getRequestCount();
+
+    double getRequestLatencyMean();
+
+    long getRequestLatencyP50();
+
+    long getRequestLatencyP99();
+
+    long getRequestLatencyMax();
+
+    /**
+     * @return - http status -> number of responses. Status 0 - requests failed without response
+     */
+    Map<String, Long> getHttpStatusCounts();
+
+    /**
+     * @return - number of requests failed without response or with non-2xx status
+     */
+    long getRequestErrors();
+
+    void reset();
+}
@@ -0,0 +1,256 @@
+package schemakeeper.client.metrics;
+
+import schemakeeper.exception.SchemaKeeperException;
+import schemakeeper.metrics.LatencyHistogram;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Client metrics registered in the platform MBean server as {@code schemakeeper.client:type=ClientMetrics,name=<name>}.
+ * Every client registers its own MBean: a name that is already taken gets {@code -<n>} suffix.
+ */
+public class JmxClientMetrics implements ClientMetrics, ClientMetricsMXBean {
+    public static final String DOMAIN = "schemakeeper.client";
+
+    private static final AtomicInteger CLIENT_COUNTER = new AtomicInteger();
+
+    private final ObjectName objectName;
+
+    private final ConcurrentHashMap<String, LongAdder> cacheHits = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> cacheMisses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> cacheLoads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> cacheSizes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final ConcurrentHashMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder requestErrors = new LongAdder();
+
+    /**
+     * @param name - client name. If null then name will be generated.
+     *             If the name is already registered (e.g. several clients are created from the same config)
+     *             then {@code -<n>} suffix is added
+     */
+    public JmxClientMetrics(String name) {
+        String clientName = name == null ? "client-" + CLIENT_COUNTER.incrementAndGet() : name;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            objectName = register(server, clientName);
+        } catch (JMException e) {
+            throw new SchemaKeeperException(String.format("Can't register client metrics: %s", clientName), e);
+        }
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public void cacheHit(String cache) {
+        counter(cacheHits, cache).increment();
+    }
+
+    @Override
+    public void cacheMiss(String cache) {
+        counter(cacheMisses, cache).increment();
+    }
+
+    @Override
+    public void cacheLoad(String cache, long durationNanos) {
+        cacheLoads.computeIfAbsent(cache, c -> new LatencyHistogram()).record(durationNanos);
+    }
+
+    @Override
+    public void cacheSize(String cache, LongSupplier size) {
+        cacheSizes.put(cache, size);
+    }
+
+    @Override
+    public void requestStarted() {
+        inFlightRequests.incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(int status, long durationNanos) {
+        inFlightRequests.decrementAndGet();
+        requestLatency.record(durationNanos);
+        counter(statusCounts, status).increment();
+
+        if (status < 200 || status >= 300) {
+            requestErrors.increment();
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCacheHits() {
+        return sums(cacheHits);
+    }
+
+    @Override
+    public Map<String, Long> getCacheMisses() {
+        return sums(cacheMisses);
+    }
+
+    @Override
+    public Map<String, Double> getCacheHitRatio() {
+        Map<String, Long> hits = getCacheHits();
+        Map<String, Long> misses = getCacheMisses();
+        Map<String, Double> result = new TreeMap<>();
+
+        hits.forEach((cache, hit) -> result.put(cache, ratio(hit, misses.getOrDefault(cache, 0L))));
+        misses.forEach((cache, miss) -> result.putIfAbsent(cache, ratio(0, miss)));
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCacheSize() {
+        Map<String, Long> result = new TreeMap<>();
+        cacheSizes.forEach((cache, size) -> result.put(cache, size.getAsLong()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCacheLoadCount() {
+        return loads(LatencyHistogram::count);
+    }
+
+    @Override
+    public Map<String, Double> getCacheLoadLatencyMean() {
+        Map<String, Double> result = new TreeMap<>();
+        cacheLoads.forEach((cache, histogram) -> result.put(cache, histogram.mean()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCacheLoadLatencyP99() {
+        return loads(histogram -> histogram.percentile(0.99));
+    }
+
+    @Override
+    public Map<String, Long> getCacheLoadLatencyMax() {
+        return loads(LatencyHistogram::max);
+    }
+
+    @Override
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requestLatency.count();
+    }
+
+    @Override
+    public double getRequestLatencyMean() {
+        return requestLatency.mean();
+    }
+
+    @Override
+    public long getRequestLatencyP50() {
+        return requestLatency.percentile(0.5);
+    }
+
+    @Override
+    public long getRequestLatencyP99() {
+        return requestLatency.percentile(0.99);
+    }
+
+    @Override
+    public long getRequestLatencyMax() {
+        return requestLatency.max();
+    }
+
+    @Override
+    public Map<String, Long> getHttpStatusCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        statusCounts.forEach((status, count) -> result.put(String.valueOf(status), count.sum()));
+        return result;
+    }
+
+    @Override
+    public long getRequestErrors() {
+        return requestErrors.sum();
+    }
+
+    @Override
+    public void reset() {
+        cacheHits.clear();
+        cacheMisses.clear();
+        cacheLoads.clear();
+        requestLatency.reset();
+        statusCounts.clear();
+        requestErrors.reset();
+    }
+
+    @Override
+    public void close() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new SchemaKeeperException(String.format("Can't unregister client metrics: %s", objectName), e);
+        }
+    }
+
+    private ObjectName register(MBeanServer server, String clientName) throws JMException {
+        String name = clientName;
+
+        for (int suffix = 2; ; suffix++) {
+            ObjectName candidate = new ObjectName(DOMAIN, properties(name));
+
+            try {
+                server.registerMBean(this, candidate);
+                return candidate;
+            } catch (InstanceAlreadyExistsException e) {
+                name = clientName + "-" + suffix;
+            }
+        }
+    }
+
+    private static Hashtable<String, String> properties(String name) {
+        Hashtable<String, String> properties = new Hashtable<>();
+        properties.put("type", "ClientMetrics");
+        properties.put("name", ObjectName.quote(name));
+        return properties;
+    }
+
+    private static <K> LongAdder counter(ConcurrentHashMap<K, LongAdder> counters, K key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static Map<String, Long> sums(ConcurrentHashMap<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> result.put(key, counter.sum()));
+        return result;
+    }
+
+    private Map<String, Long> loads(Function<LatencyHistogram, Long> f) {
+        Map<String, Long> result = new TreeMap<>();
+        cacheLoads.forEach((cache, histogram) -> result.put(cache, f.apply(histogram)));
+        return result;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -11,10 +11,13 @@ import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.Wait;
+import schemakeeper.client.metrics.ClientMetrics;
+import schemakeeper.client.metrics.JmxClientMetrics;
 import schemakeeper.schema.CompatibilityType;
 import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.SerDeConfig;
 
+import java.lang.management.ManagementFactory;
 import java.util.Collections;
 import static org.junit.Assert.*;
 
@@ -148,6 +151,34 @@ public class CachedSchemaKeeperClientTest {
 
     }
 
+    @Test
+    public void collectMetrics() {
+        JmxClientMetrics metrics = new JmxClientMetrics("cached-client-test");
+        CachedSchemaKeeperClient client = new CachedSchemaKeeperClient(config, metrics);
+
+        int id = client.registerNewSchema("F", Schema.create(Schema.Type.STRING), SchemaType.AVRO, CompatibilityType.BACKWARD);
+        client.registerNewSchema("F", Schema.create(Schema.Type.STRING), SchemaType.AVRO, CompatibilityType.BACKWARD);
+        client.getSchemaById(id);
+        client.getSchemaById(id);
+        client.getSchemaById(id);
+
+        assertEquals(1, metrics.getCacheMisses().get(ClientMetrics.SUBJECT_SCHEMAS_CACHE).longValue());
+        assertEquals(1, metrics.getCacheHits().get(ClientMetrics.SUBJECT_SCHEMAS_CACHE).longValue());
+        assertEquals(1, metrics.getCacheMisses().get(ClientMetrics.ID_TO_SCHEMA_CACHE).longValue());
+        assertEquals(2, metrics.getCacheHits().get(ClientMetrics.ID_TO_SCHEMA_CACHE).longValue());
+        assertEquals(2.0 / 3, metrics.getCacheHitRatio().get(ClientMetrics.ID_TO_SCHEMA_CACHE), 0.001);
+        assertEquals(1, metrics.getCacheSize().get(ClientMetrics.ID_TO_SCHEMA_CACHE).longValue());
+        assertEquals(1, metrics.getCacheSize().get(ClientMetrics.SUBJECT_SCHEMAS_CACHE).longValue());
+        assertEquals(1, metrics.getCacheLoadCount().get(ClientMetrics.ID_TO_SCHEMA_CACHE).longValue());
+        assertEquals(2, metrics.getRequestCount());
+        assertEquals(2, metrics.getHttpStatusCounts().get("200").longValue());
+        assertEquals(0, metrics.getInFlightRequests());
+        assertEquals(0, metrics.getRequestErrors());
+
+        client.close();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(metrics.getObjectName()));
+    }
+
     private class CacheProxy extends CachedSchemaKeeperClient {
         public int restCallsCount = 0;
 
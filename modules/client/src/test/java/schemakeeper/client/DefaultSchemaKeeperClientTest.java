@@ -17,6 +17,8 @@ import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.SerDeConfig;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -91,6 +93,16 @@ public class DefaultSchemaKeeperClientTest {
         assertThrows(SchemaKeeperException.class, () -> client.getSchemaId("A5", Schema.create(Schema.Type.STRING), SchemaType.AVRO));
     }
 
+    @Test
+    public void getLastSchemaId() {
+        DefaultSchemaKeeperClient client = new DefaultSchemaKeeperClient(config);
+        client.registerNewSchema("A9", Schema.create(Schema.Type.STRING), SchemaType.AVRO, CompatibilityType.NONE);
+        int id = client.registerNewSchema("A9", Schema.create(Schema.Type.INT), SchemaType.AVRO, CompatibilityType.NONE);
+
+        assertEquals(id, client.getLastSchemaId("A9"));
+        assertEquals(SchemaKeeperClient.NO_SCHEMA_ID, client.getLastSchemaId("A123"));
+    }
+
     @Test
     public void registerSchema() {
         DefaultSchemaKeeperClient client = new DefaultSchemaKeeperClient(config);
@@ -106,4 +118,18 @@ public class DefaultSchemaKeeperClientTest {
         client.registerNewSchema("A7", Schema.create(Schema.Type.STRING), SchemaType.AVRO, CompatibilityType.BACKWARD);
         assertThrows(SchemaKeeperException.class, () -> client.registerNewSchema("A7", Schema.create(Schema.Type.INT), SchemaType.AVRO, CompatibilityType.BACKWARD));
     }
+
+    @Test
+    public void registerAndGetSchemaUsingBinaryProtocol() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(SerDeConfig.SCHEMAKEEPER_URL_CONFIG, "http://localhost:" + schemakeeperServer.getMappedPort(9081));
+        properties.put(ClientConfig.CLIENT_BINARY_PROTOCOL, true);
+
+        DefaultSchemaKeeperClient client = new DefaultSchemaKeeperClient(new SerDeConfig(properties));
+        int id = client.registerNewSchema("A8", Schema.create(Schema.Type.LONG), SchemaType.AVRO, CompatibilityType.BACKWARD);
+
+        assertEquals(id, client.getSchemaId("A8", Schema.create(Schema.Type.LONG), SchemaType.AVRO));
+        assertEquals(Schema.create(Schema.Type.LONG), client.getSchemaById(id));
+        assertThrows(SchemaKeeperException.class, () -> client.getSchemaById(Integer.MAX_VALUE));
+    }
 }
@@ -0,0 +1,131 @@
+package schemakeeper.client.compression;
+
+import org.junit.Before;
+import org.junit.Test;
+import schemakeeper.client.MockSchemaKeeperClient;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DictionaryCompressionTest {
+    private MockSchemaKeeperClient client;
+    private DictionaryCompression compression;
+
+    @Before
+    public void set() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(SerDeConfig.SCHEMAKEEPER_URL_CONFIG, "mock");
+        config.put(SerDeConfig.COMPRESSION_TRAINING_SAMPLES_CONFIG, 2);
+
+        this.client = new MockSchemaKeeperClient();
+        this.compression = new DictionaryCompression(client, new SerDeConfig(config));
+    }
+
+    @Test
+    public void trainCommonSegments() {
+        byte[] first = "some common prefix: 1".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "some common prefix: 2".getBytes(StandardCharsets.UTF_8);
+
+        byte[] dictionary = DictionaryTrainer.train(Arrays.asList(first, second), 1024);
+
+        assertTrue(dictionary.length > 0);
+        assertTrue(new String(dictionary, StandardCharsets.UTF_8).contains("some com"));
+    }
+
+    @Test
+    public void trainWithoutCommonSegments() {
+        byte[] first = "abcdefghijklmnop".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "0123456789012345".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(0, DictionaryTrainer.train(Arrays.asList(first, second), 1024).length);
+    }
+
+    @Test
+    public void trainRespectsMaxSize() {
+        byte[] first = "some common prefix with a long tail: 1".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "some common prefix with a long tail: 2".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(DictionaryTrainer.train(Arrays.asList(first, second), 16).length <= 16);
+    }
+
+    @Test
+    public void messagesAreCompressedAfterTraining() {
+        byte[] first = message(1, "the quick brown fox jumps over the lazy dog: 1");
+        byte[] second = message(1, "the quick brown fox jumps over the lazy dog: 2");
+        byte[] third = message(1, "the quick brown fox jumps over the lazy dog: 3");
+
+        assertSame(first, compression.compress(1, first));
+        assertSame(second, compression.compress(1, second));
+
+        byte[] compressed = compression.compress(1, third);
+        MessageHeader header = MessageHeader.parse(compressed);
+
+        assertTrue(header.isCompressed());
+        assertEquals(1, header.getSchemaId());
+        assertTrue(compressed.length < third.length);
+
+        ByteBuffer buffer = ByteBuffer.wrap(compressed);
+        buffer.position(MessageHeader.HEADER_LENGTH + 1);
+        ByteBuffer payload = compression.decompress(buffer);
+
+        assertEquals(ByteBuffer.wrap(third, MessageHeader.HEADER_LENGTH, third.length - MessageHeader.HEADER_LENGTH), payload);
+    }
+
+    @Test
+    public void dictionaryIsFetchedFromRegistry() {
+        byte[] message = message(1, "the quick brown fox jumps over the lazy dog: 3");
+
+        compression.compress(1, message(1, "the quick brown fox jumps over the lazy dog: 1"));
+        compression.compress(1, message(1, "the quick brown fox jumps over the lazy dog: 2"));
+        byte[] compressed = compression.compress(1, message);
+
+        ByteBuffer buffer = ByteBuffer.wrap(compressed);
+        buffer.position(MessageHeader.HEADER_LENGTH + 1);
+        ByteBuffer payload = new DictionaryCompression(client).decompress(buffer);
+
+        assertEquals(ByteBuffer.wrap(message, MessageHeader.HEADER_LENGTH, message.length - MessageHeader.HEADER_LENGTH), payload);
+    }
+
+    @Test
+    public void registeredDictionaryIsReused() {
+        compression.compress(1, message(1, "the quick brown fox jumps over the lazy dog: 1"));
+        compression.compress(1, message(1, "the quick brown fox jumps over the lazy dog: 2"));
+        compression.close();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(SerDeConfig.SCHEMAKEEPER_URL_CONFIG, "mock");
+        config.put(SerDeConfig.COMPRESSION_TRAINING_SAMPLES_CONFIG, 2);
+        DictionaryCompression other = new DictionaryCompression(client, new SerDeConfig(config));
+
+        // the first message is compressed without training
+        byte[] message = message(1, "the quick brown fox jumps over the lazy dog: 3");
+        assertTrue(MessageHeader.parse(other.compress(1, message)).isCompressed());
+        assertEquals(1, client.getSubjectSchemas().get(DictionaryCompression.DICTIONARY_SUBJECT_PREFIX + 1).size());
+    }
+
+    @Test
+    public void unknownDictionaryThrowsDeserializationException() {
+        ByteBuffer buffer = ByteBuffer.allocate(8).putInt(100).putInt(0);
+        buffer.flip();
+
+        assertThrows(DeserializationException.class, () -> compression.decompress(buffer));
+    }
+
+    private byte[] message(int schemaId, String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(MessageHeader.HEADER_LENGTH + bytes.length)
+                .put(MessageHeader.AVRO_BYTE)
+                .putInt(schemaId)
+                .put(bytes)
+                .array();
+    }
+}
@@ -0,0 +1,128 @@
+package schemakeeper.client.metrics;
+
+import org.junit.Test;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.client.ClientConfig;
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.serialization.SerDeConfig;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JmxClientMetricsTest {
+    @Test
+    public void registerAndUnregisterMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        JmxClientMetrics metrics = new JmxClientMetrics("register-test");
+
+        assertTrue(server.isRegistered(metrics.getObjectName()));
+
+        metrics.requestStarted();
+        assertEquals(1, server.getAttribute(metrics.getObjectName(), "InFlightRequests"));
+
+        metrics.close();
+        assertFalse(server.isRegistered(metrics.getObjectName()));
+    }
+
+    @Test
+    public void addSuffixToDuplicateName() throws Exception {
+        try (JmxClientMetrics first = new JmxClientMetrics("duplicate-test");
+             JmxClientMetrics second = new JmxClientMetrics("duplicate-test");
+             JmxClientMetrics third = new JmxClientMetrics("duplicate-test")) {
+            assertEquals(objectName("duplicate-test"), first.getObjectName());
+            assertEquals(objectName("duplicate-test-2"), second.getObjectName());
+            assertEquals(objectName("duplicate-test-3"), third.getObjectName());
+        }
+    }
+
+    @Test
+    public void createTwoClientsFromSameConfig() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, Object> map = new HashMap<>();
+        map.put(SerDeConfig.SCHEMAKEEPER_URL_CONFIG, "http://localhost:9081");
+        map.put(ClientConfig.CLIENT_METRICS, "jmx");
+        map.put(ClientConfig.CLIENT_METRICS_NAME, "same-config-test");
+        SerDeConfig config = new SerDeConfig(map);
+
+        CachedSchemaKeeperClient first = new CachedSchemaKeeperClient(config);
+        CachedSchemaKeeperClient second = new CachedSchemaKeeperClient(config);
+
+        assertTrue(server.isRegistered(objectName("same-config-test")));
+        assertTrue(server.isRegistered(objectName("same-config-test-2")));
+
+        first.close();
+        second.close();
+
+        assertFalse(server.isRegistered(objectName("same-config-test")));
+        assertFalse(server.isRegistered(objectName("same-config-test-2")));
+    }
+
+    @Test
+    public void collectRequestMetrics() {
+        try (JmxClientMetrics metrics = new JmxClientMetrics(null)) {
+            metrics.requestStarted();
+            metrics.requestStarted();
+            metrics.requestStarted();
+            metrics.requestCompleted(200, 100);
+            metrics.requestCompleted(404, 200);
+            metrics.requestCompleted(ClientMetrics.NO_RESPONSE_STATUS, 300);
+
+            assertEquals(0, metrics.getInFlightRequests());
+            assertEquals(3, metrics.getRequestCount());
+            assertEquals(300, metrics.getRequestLatencyMax());
+            assertEquals(200, metrics.getRequestLatencyMean(), 0.001);
+            assertEquals(2, metrics.getRequestErrors());
+            assertEquals(1, metrics.getHttpStatusCounts().get("200").longValue());
+            assertEquals(1, metrics.getHttpStatusCounts().get("404").longValue());
+            assertEquals(1, metrics.getHttpStatusCounts().get("0").longValue());
+        }
+    }
+
+    @Test
+    public void collectCacheMetrics() {
+        try (JmxClientMetrics metrics = new JmxClientMetrics(null)) {
+            metrics.cacheSize("cache", () -> 42);
+            metrics.cacheMiss("cache");
+            metrics.cacheLoad("cache", 1000);
+            metrics.cacheHit("cache");
+            metrics.cacheHit("cache");
+            metrics.cacheHit("cache");
+
+            assertEquals(3, metrics.getCacheHits().get("cache").longValue());
+            assertEquals(1, metrics.getCacheMisses().get("cache").longValue());
+            assertEquals(0.75, metrics.getCacheHitRatio().get("cache"), 0.001);
+            assertEquals(42, metrics.getCacheSize().get("cache").longValue());
+            assertEquals(1, metrics.getCacheLoadCount().get("cache").longValue());
+            assertEquals(1000, metrics.getCacheLoadLatencyMax().get("cache").longValue());
+
+            metrics.reset();
+            assertTrue(metrics.getCacheHits().isEmpty());
+            assertEquals(42, metrics.getCacheSize().get("cache").longValue());
+        }
+    }
+
+    @Test
+    public void createMetricsFromConfig() {
+        Map<String, Object> map = new HashMap<>();
+        assertSame(ClientMetrics.NOOP, ClientMetrics.create(new SerDeConfig(map)));
+
+        map.put(ClientConfig.CLIENT_METRICS, "jmx");
+        map.put(ClientConfig.CLIENT_METRICS_NAME, "config-test");
+        try (ClientMetrics metrics = ClientMetrics.create(new SerDeConfig(map))) {
+            assertTrue(metrics instanceof JmxClientMetrics);
+        }
+
+        map.put(ClientConfig.CLIENT_METRICS, "unknown");
+        assertThrows(ConfigurationException.class, () -> ClientMetrics.create(new SerDeConfig(map)));
+    }
+
+    private static ObjectName objectName(String name) throws MalformedObjectNameException {
+        return new ObjectName(JmxClientMetrics.DOMAIN + ":type=ClientMetrics,name=" + ObjectName.quote(name));
+    }
+}
@@ -0,0 +1,163 @@
+package schemakeeper.api;
+
+import schemakeeper.exception.SchemaKeeperException;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary representation of the core api models. Schema text is written as is (utf-8 bytes)
+ * without escaping it inside json string.
+ * <p>
+ * Format:
+ * <ul>
+ * <li>int - 4 bytes, big-endian</li>
+ * <li>string - int length followed by utf-8 bytes</li>
+ * <li>enum - string identifier</li>
+ * </ul>
+ */
+public final class BinaryProtocol {
+    public static final String CONTENT_TYPE = "application/vnd.schemakeeper.v2+binary";
+
+    private BinaryProtocol() {
+    }
+
+    public static byte[] encodeSchemaId(SchemaId schemaId) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(schemaId.getSchemaId()).array();
+    }
+
+    public static SchemaId decodeSchemaId(byte[] data) {
+        ByteBuffer buffer = wrap(data);
+
+        try {
+            return SchemaId.instance(buffer.getInt());
+        } catch (BufferUnderflowException e) {
+            throw new SchemaKeeperException("Malformed binary SchemaId", e);
+        }
+    }
+
+    public static byte[] encodeSchemaMetadata(SchemaMetadata schemaMetadata) {
+        byte[] schemaText = bytes(schemaMetadata.getSchemaText());
+        byte[] schemaHash = bytes(schemaMetadata.getSchemaHash());
+        byte[] schemaType = bytes(schemaMetadata.getSchemaType().identifier);
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + size(schemaText) + size(schemaHash) + size(schemaType));
+        buffer.putInt(schemaMetadata.getSchemaId());
+        put(buffer, schemaText);
+        put(buffer, schemaHash);
+        put(buffer, schemaType);
+
+        return buffer.array();
+    }
+
+    public static SchemaMetadata decodeSchemaMetadata(byte[] data) {
+        ByteBuffer buffer = wrap(data);
+
+        try {
+            int schemaId = buffer.getInt();
+            String schemaText = getString(buffer);
+            String schemaHash = getString(buffer);
+            SchemaType schemaType = SchemaType.findByName(getString(buffer));
+
+            return SchemaMetadata.instance(schemaId, schemaText, schemaHash, schemaType);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SchemaKeeperException("Malformed binary SchemaMetadata", e);
+        }
+    }
+
+    public static byte[] encodeSchemaText(SchemaText schemaText) {
+        byte[] text = bytes(schemaText.getSchemaText());
+        byte[] schemaType = bytes(schemaText.getSchemaType().identifier);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size(text) + size(schemaType));
+        put(buffer, text);
+        put(buffer, schemaType);
+
+        return buffer.array();
+    }
+
+    public static SchemaText decodeSchemaText(byte[] data) {
+        ByteBuffer buffer = wrap(data);
+
+        try {
+            String text = getString(buffer);
+            SchemaType schemaType = SchemaType.findByName(getString(buffer));
+
+            return SchemaText.instance(text, schemaType);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SchemaKeeperException("Malformed binary SchemaText", e);
+        }
+    }
+
+    public static byte[] encodeSubjectAndSchemaRequest(SubjectAndSchemaRequest request) {
+        byte[] text = bytes(request.getSchemaText());
+        byte[] schemaType = bytes(request.getSchemaType().identifier);
+        byte[] compatibilityType = bytes(request.getCompatibilityType().identifier);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size(text) + size(schemaType) + size(compatibilityType));
+        put(buffer, text);
+        put(buffer, schemaType);
+        put(buffer, compatibilityType);
+
+        return buffer.array();
+    }
+
+    public static SubjectAndSchemaRequest decodeSubjectAndSchemaRequest(byte[] data) {
+        ByteBuffer buffer = wrap(data);
+
+        try {
+            String text = getString(buffer);
+            SchemaType schemaType = SchemaType.findByName(getString(buffer));
+            CompatibilityType compatibilityType = CompatibilityType.findByName(getString(buffer));
+
+            return SubjectAndSchemaRequest.instance(text, schemaType, compatibilityType);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SchemaKeeperException("Malformed binary SubjectAndSchemaRequest", e);
+        }
+    }
+
+    /**
+     * @param contentType - value of Content-Type or Accept header. May be null
+     * @return true if header value contains binary protocol media type
+     */
+    public static boolean isBinary(String contentType) {
+        return contentType != null && contentType.contains(CONTENT_TYPE);
+    }
+
+    private static ByteBuffer wrap(byte[] data) {
+        if (data == null) {
+            throw new SchemaKeeperException("Binary payload is null");
+        }
+
+        return ByteBuffer.wrap(data);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int size(byte[] value) {
+        return Integer.BYTES + value.length;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException(String.format("Invalid string length: %d", length));
+        }
+
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+
+        return value;
+    }
+}
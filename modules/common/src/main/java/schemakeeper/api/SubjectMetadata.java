@@ -6,6 +6,9 @@ import schemakeeper.schema.SchemaType;
 import java.util.Objects;
 
 public class SubjectMetadata {
+    // subjects of the compression dictionaries (one per schema id). They are not returned by the subject list
+    public static final String DICTIONARY_SUBJECT_PREFIX = "schemakeeper.dictionary.";
+
     private String subject;
     private CompatibilityType compatibilityType;
     private boolean isLocked;
@@ -8,6 +8,13 @@ public abstract class ClientConfig {
     public static final String CLIENT_CONNECTIONS_PER_ROUTE = "client.connections.per.route";
     public static final String CLIENT_SOCKET_TIMEOUT = "client.socket.timeout";
     public static final String CLIENT_CONNECT_TIMEOUT = "client.connect.timeout";
+    public static final String CLIENT_REQUEST_COMPRESSION = "client.request.compression";
+    // use BinaryProtocol instead of json for schema lookup and registration. Requires server with binary protocol support
+    public static final String CLIENT_BINARY_PROTOCOL = "client.binary.protocol";
+    // none or jmx
+    public static final String CLIENT_METRICS = "client.metrics";
+    // name of the client in the metrics (e.g. jmx object name). Generated if not set
+    public static final String CLIENT_METRICS_NAME = "client.metrics.name";
 
     public static final String CLIENT_PROXY_HOST = "client.proxy.host";
     public static final String CLIENT_PROXY_PORT = "client.proxy.port";
@@ -21,4 +28,7 @@ public abstract class ClientConfig {
     public static final int DEFAULT_CONNECTIONS_PER_ROUTE = 5;
     public static final int DEFAULT_SOCKET_TIMEOUT = 60000;
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    public static final boolean DEFAULT_REQUEST_COMPRESSION = true;
+    public static final boolean DEFAULT_BINARY_PROTOCOL = false;
+    public static final String DEFAULT_METRICS = "none";
 }
@@ -29,6 +29,28 @@ public abstract class Config {
         return (int) config.getOrDefault(ClientConfig.CLIENT_CONNECT_TIMEOUT, ClientConfig.DEFAULT_CONNECT_TIMEOUT);
     }
 
+    /**
+     * @return true if http client should send Accept-Encoding: gzip and decompress responses
+     */
+    public boolean clientRequestCompression() {
+        return (boolean) config.getOrDefault(ClientConfig.CLIENT_REQUEST_COMPRESSION, ClientConfig.DEFAULT_REQUEST_COMPRESSION);
+    }
+
+    public boolean clientBinaryProtocol() {
+        return (boolean) config.getOrDefault(ClientConfig.CLIENT_BINARY_PROTOCOL, ClientConfig.DEFAULT_BINARY_PROTOCOL);
+    }
+
+    public String clientMetrics() {
+        return (String) config.getOrDefault(ClientConfig.CLIENT_METRICS, ClientConfig.DEFAULT_METRICS);
+    }
+
+    /**
+     * @return client name used in metrics or null
+     */
+    public String clientMetricsName() {
+        return (String) config.get(ClientConfig.CLIENT_METRICS_NAME);
+    }
+
     /**
      * @return true if http client should use proxy, otherwise - false.
      */
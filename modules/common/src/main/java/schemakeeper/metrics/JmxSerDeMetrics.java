@@ -0,0 +1,171 @@
+package schemakeeper.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serde metrics registered in the platform MBean server. Statistics of every subject and schema id are registered
+ * on first use as:
+ * <ul>
+ * <li>{@code schemakeeper.serde:type=<serializer|deserializer>,name=<name>,subject=<subject>}</li>
+ * <li>{@code schemakeeper.serde:type=<serializer|deserializer>,name=<name>,schemaId=<id>}</li>
+ * </ul>
+ * Every serde uses its own name: a name that is already used by an open serde of the same type gets {@code -<n>} suffix.
+ */
+public class JmxSerDeMetrics implements SerDeMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(JmxSerDeMetrics.class);
+
+    public static final String DOMAIN = "schemakeeper.serde";
+
+    private static final AtomicInteger SERDE_COUNTER = new AtomicInteger();
+    // type:name of the open serdes. MBeans are registered on first use, so the name is reserved on creation
+    private static final Set<String> NAMES = ConcurrentHashMap.newKeySet();
+
+    private final String name;
+    private final String type;
+    private final ConcurrentHashMap<String, SerDeStats> subjects = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, SerDeStats> schemaIds = new ConcurrentHashMap<>();
+
+    /**
+     * @param name - serde name. If null then name will be generated.
+     *             If the name is already used (e.g. several serdes are created from the same config) then {@code -<n>} suffix is added
+     * @param type - {@link #SERIALIZER} or {@link #DESERIALIZER}
+     */
+    public JmxSerDeMetrics(String name, String type) {
+        this.type = type;
+        this.name = reserve(name == null ? type + "-" + SERDE_COUNTER.incrementAndGet() : name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void serialized(String subject, int schemaId, int bytes, long durationNanos) {
+        subject(subject).record(bytes, durationNanos);
+        schemaId(schemaId).record(bytes, durationNanos);
+    }
+
+    @Override
+    public void serializationFailed(String subject, int schemaId) {
+        subject(subject).error();
+
+        if (schemaId > 0) {
+            schemaId(schemaId).error();
+        }
+    }
+
+    @Override
+    public void deserialized(int schemaId, int bytes, long durationNanos) {
+        schemaId(schemaId).record(bytes, durationNanos);
+    }
+
+    @Override
+    public void deserializationFailed(int schemaId) {
+        schemaId(schemaId).error();
+    }
+
+    /**
+     * @return - subject statistics or null
+     */
+    public SerDeStatsMXBean getSubjectStats(String subject) {
+        return subjects.get(subject);
+    }
+
+    /**
+     * @return - schema id statistics or null
+     */
+    public SerDeStatsMXBean getSchemaIdStats(int schemaId) {
+        return schemaIds.get(schemaId);
+    }
+
+    ObjectName objectName(String key, String value) throws JMException {
+        Hashtable<String, String> properties = new Hashtable<>();
+        properties.put("type", type);
+        properties.put("name", ObjectName.quote(name));
+        properties.put(key, ObjectName.quote(value));
+
+        return new ObjectName(DOMAIN, properties);
+    }
+
+    @Override
+    public void close() {
+        subjects.keySet().forEach(subject -> unregister("subject", subject));
+        schemaIds.keySet().forEach(schemaId -> unregister("schemaId", String.valueOf(schemaId)));
+        subjects.clear();
+        schemaIds.clear();
+        NAMES.remove(type + ":" + name);
+    }
+
+    private String reserve(String serdeName) {
+        String candidate = serdeName;
+
+        for (int suffix = 2; ; suffix++) {
+            if (NAMES.add(type + ":" + candidate)) {
+                if (!isRegistered(candidate)) {
+                    return candidate;
+                }
+
+                NAMES.remove(type + ":" + candidate);
+            }
+
+            candidate = serdeName + "-" + suffix;
+        }
+    }
+
+    // MBeans of the name may be registered by the serde loaded by another class loader
+    private boolean isRegistered(String candidate) {
+        try {
+            ObjectName pattern = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(candidate) + ",*");
+            return !ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).isEmpty();
+        } catch (JMException e) {
+            return false;
+        }
+    }
+
+    private SerDeStats subject(String subject) {
+        SerDeStats stats = subjects.get(subject);
+        return stats != null ? stats : subjects.computeIfAbsent(subject, s -> register("subject", s));
+    }
+
+    private SerDeStats schemaId(int schemaId) {
+        SerDeStats stats = schemaIds.get(schemaId);
+        return stats != null ? stats : schemaIds.computeIfAbsent(schemaId, id -> register("schemaId", String.valueOf(id)));
+    }
+
+    // metrics should not break serialization, so registration errors are only logged
+    private SerDeStats register(String key, String value) {
+        SerDeStats stats = new SerDeStats();
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName(key, value));
+        } catch (JMException e) {
+            logger.warn("Can't register serde metrics {}={} for {}", key, value, name, e);
+        }
+
+        return stats;
+    }
+
+    private void unregister(String key, String value) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            ObjectName objectName = objectName(key, value);
+
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            logger.warn("Can't unregister serde metrics {}={} for {}", key, value, name, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package schemakeeper.metrics;
+
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.serialization.SerDeConfig;
+
+/**
+ * Serializer/deserializer metrics listener. Serialization is recorded per subject and per schema id,
+ * deserialization - per schema id (subject is not a part of the message).
+ * Schema id is 0 if error occurred before it was resolved.
+ */
+public interface SerDeMetrics extends AutoCloseable {
+    String SERIALIZER = "serializer";
+    String DESERIALIZER = "deserializer";
+
+    SerDeMetrics NOOP = new SerDeMetrics() {
+        @Override
+        public long start() {
+            return 0;
+        }
+
+        @Override
+        public long elapsed(long start) {
+            return 0;
+        }
+    };
+
+    /**
+     * @return - start time which should be passed to {@link #elapsed(long)}. No-op implementation does not read the clock
+     * in both methods
+     */
+    default long start() {
+        return System.nanoTime();
+    }
+
+    default long elapsed(long start) {
+        return System.nanoTime() - start;
+    }
+
+    default void serialized(String subject, int schemaId, int bytes, long durationNanos) {
+    }
+
+    default void serializationFailed(String subject, int schemaId) {
+    }
+
+    default void deserialized(int schemaId, int bytes, long durationNanos) {
+    }
+
+    default void deserializationFailed(int schemaId) {
+    }
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @param config - serde config
+     * @param type   - {@link #SERIALIZER} or {@link #DESERIALIZER}
+     * @return - metrics implementation configured by {@link SerDeConfig#SERDE_METRICS_CONFIG}
+     */
+    static SerDeMetrics create(SerDeConfig config, String type) {
+        String metrics = config.serdeMetrics();
+
+        switch (metrics.toLowerCase()) {
+            case "none":
+                return NOOP;
+            case "jmx":
+                return new JmxSerDeMetrics(config.serdeMetricsName(), type);
+            default:
+                throw new ConfigurationException(String.format("Unknown serde metrics: %s", metrics));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package schemakeeper.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a single subject or schema id. All counters are striped ({@link LongAdder}),
+ * so concurrent updates from many threads do not contend on a single cache line.
+ */
+public final class SerDeStats implements SerDeStatsMXBean {
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram bytes = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public void record(int size, long durationNanos) {
+        bytes.record(size);
+        latency.record(durationNanos);
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return latency.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getBytesTotal() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getBytesMean() {
+        return bytes.mean();
+    }
+
+    @Override
+    public long getBytesMax() {
+        return bytes.max();
+    }
+
+    @Override
+    public double getLatencyMean() {
+        return latency.mean();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return latency.percentile(0.5);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return latency.percentile(0.99);
+    }
+
+    @Override
+    public long getLatencyMax() {
+        return latency.max();
+    }
+}
@@ -0,0 +1,24 @@
+package schemakeeper.metrics;
+
+/**
+ * JMX view of the serde statistics of a single subject or schema id. Latencies are in nanoseconds, sizes - in bytes.
+ */
+public interface SerDeStatsMXBean {
+    long getCount();
+
+    long getErrors();
+
+    long getBytesTotal();
+
+    double getBytesMean();
+
+    long getBytesMax();
+
+    double getLatencyMean();
+
+    long getLatencyP50();
+
+    long getLatencyP99();
+
+    long getLatencyMax();
+}
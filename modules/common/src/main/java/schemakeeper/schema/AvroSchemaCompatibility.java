@@ -1,43 +1,236 @@
 package schemakeeper.schema;
 
 import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
 import org.apache.avro.SchemaValidationException;
 import org.apache.avro.SchemaValidator;
-import org.apache.avro.SchemaValidatorBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 public class AvroSchemaCompatibility {
-    public static final AvroSchemaCompatibility NONE_VALIDATOR = new AvroSchemaCompatibility((toValidate, existing) -> {
-    });
-    public static final AvroSchemaCompatibility BACKWARD_VALIDATOR = new AvroSchemaCompatibility(new SchemaValidatorBuilder().canReadStrategy().validateLatest());
-    public static final AvroSchemaCompatibility FORWARD_VALIDATOR = new AvroSchemaCompatibility(new SchemaValidatorBuilder().canBeReadStrategy().validateLatest());
-    public static final AvroSchemaCompatibility FULL_VALIDATOR = new AvroSchemaCompatibility(new SchemaValidatorBuilder().mutualReadStrategy().validateLatest());
-    public static final AvroSchemaCompatibility BACKWARD_TRANSITIVE_VALIDATOR = new AvroSchemaCompatibility(new SchemaValidatorBuilder().canReadStrategy().validateAll());
-    public static final AvroSchemaCompatibility FORWARD_TRANSITIVE_VALIDATOR = new AvroSchemaCompatibility(new SchemaValidatorBuilder().canBeReadStrategy().validateAll());
-    public static final AvroSchemaCompatibility FULL_TRANSITIVE_VALIDATOR = new AvroSchemaCompatibility(new SchemaValidatorBuilder().mutualReadStrategy().validateAll());
+    public static final AvroSchemaCompatibility NONE_VALIDATOR = new AvroSchemaCompatibility(Strategy.NONE, false);
+    public static final AvroSchemaCompatibility BACKWARD_VALIDATOR = new AvroSchemaCompatibility(Strategy.CAN_READ, false);
+    public static final AvroSchemaCompatibility FORWARD_VALIDATOR = new AvroSchemaCompatibility(Strategy.CAN_BE_READ, false);
+    public static final AvroSchemaCompatibility FULL_VALIDATOR = new AvroSchemaCompatibility(Strategy.MUTUAL_READ, false);
+    public static final AvroSchemaCompatibility BACKWARD_TRANSITIVE_VALIDATOR = new AvroSchemaCompatibility(Strategy.CAN_READ, true);
+    public static final AvroSchemaCompatibility FORWARD_TRANSITIVE_VALIDATOR = new AvroSchemaCompatibility(Strategy.CAN_BE_READ, true);
+    public static final AvroSchemaCompatibility FULL_TRANSITIVE_VALIDATOR = new AvroSchemaCompatibility(Strategy.MUTUAL_READ, true);
 
+    private enum Strategy {
+        NONE,
+        // new schema can read data written with the previous ones
+        CAN_READ,
+        // previous schemas can read data written with the new one
+        CAN_BE_READ,
+        MUTUAL_READ
+    }
+
+    private final Strategy strategy;
+    private final boolean transitive;
+    // custom validator reports incompatibility only by exception, so it is used only when explicitly passed
     private final SchemaValidator validator;
 
     public AvroSchemaCompatibility(SchemaValidator validator) {
+        this.strategy = null;
+        this.transitive = false;
         this.validator = validator;
     }
 
+    private AvroSchemaCompatibility(Strategy strategy, boolean transitive) {
+        this.strategy = strategy;
+        this.transitive = transitive;
+        this.validator = null;
+    }
+
+    public static AvroSchemaCompatibility forCompatibilityType(CompatibilityType compatibilityType) {
+        switch (compatibilityType) {
+            case BACKWARD:
+                return BACKWARD_VALIDATOR;
+            case FORWARD:
+                return FORWARD_VALIDATOR;
+            case FULL:
+                return FULL_VALIDATOR;
+            case BACKWARD_TRANSITIVE:
+                return BACKWARD_TRANSITIVE_VALIDATOR;
+            case FORWARD_TRANSITIVE:
+                return FORWARD_TRANSITIVE_VALIDATOR;
+            case FULL_TRANSITIVE:
+                return FULL_TRANSITIVE_VALIDATOR;
+            default:
+                return NONE_VALIDATOR;
+        }
+    }
+
     public boolean isCompatible(Schema newSchema, Schema previousSchema) {
+        return check(newSchema, previousSchema).isCompatible();
+    }
+
+    public boolean isCompatible(Schema newSchema, Iterable<Schema> previousSchemas) {
+        return check(newSchema, previousSchemas).isCompatible();
+    }
+
+    public CompatibilityCheckResult check(Schema newSchema, Schema previousSchema) {
         if (previousSchema == null) {
-            return true;
+            return CompatibilityCheckResult.compatible();
         }
 
-        return isCompatible(newSchema, Collections.singletonList(previousSchema));
+        return check(newSchema, Collections.singletonList(previousSchema));
     }
 
-    public boolean isCompatible(Schema newSchema, Iterable<Schema> previousSchemas) {
+    /**
+     * @param newSchema       - schema to check
+     * @param previousSchemas - previous schemas, the latest one first. Non-transitive validators use only the latest schema
+     * @return - compatible result or all incompatibilities with the first incompatible previous schema
+     */
+    public CompatibilityCheckResult check(Schema newSchema, Iterable<Schema> previousSchemas) {
+        if (validator != null) {
+            return checkWithValidator(newSchema, previousSchemas);
+        }
+
+        if (strategy == Strategy.NONE) {
+            return CompatibilityCheckResult.compatible();
+        }
+
+        for (Schema previousSchema : previousSchemas) {
+            CompatibilityCheckResult result = checkPair(newSchema, previousSchema);
+
+            if (!result.isCompatible() || !transitive) {
+                return result;
+            }
+        }
+
+        return CompatibilityCheckResult.compatible();
+    }
+
+    private CompatibilityCheckResult checkPair(Schema newSchema, Schema previousSchema) {
+        List<SchemaIncompatibility> incompatibilities = new ArrayList<>();
+
+        switch (strategy) {
+            case CAN_READ:
+                collectIncompatibilities(newSchema, previousSchema, incompatibilities);
+                break;
+            case CAN_BE_READ:
+                collectIncompatibilities(previousSchema, newSchema, incompatibilities);
+                break;
+            case MUTUAL_READ:
+                collectIncompatibilities(newSchema, previousSchema, incompatibilities);
+                collectIncompatibilities(previousSchema, newSchema, incompatibilities);
+                break;
+            default:
+                break;
+        }
+
+        if (incompatibilities.isEmpty()) {
+            return CompatibilityCheckResult.compatible();
+        }
+
+        return CompatibilityCheckResult.incompatible(incompatibilities);
+    }
+
+    private static void collectIncompatibilities(Schema reader, Schema writer, List<SchemaIncompatibility> incompatibilities) {
+        SchemaCompatibility.SchemaCompatibilityResult result = SchemaCompatibility.checkReaderWriterCompatibility(reader, writer).getResult();
+
+        if (result.getCompatibility() == SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+            return;
+        }
+
+        for (SchemaCompatibility.Incompatibility incompatibility : result.getIncompatibilities()) {
+            /*
+             Named types are resolved by structure, not by name (generated thrift and protobuf classes usually have different names for each version).
+             This is the same behaviour as in avro's SchemaValidator.
+             */
+            if (incompatibility.getType() == SchemaCompatibility.SchemaIncompatibilityType.NAME_MISMATCH) {
+                continue;
+            }
+
+            incompatibilities.add(SchemaIncompatibility.instance(
+                    incompatibility.getLocation(),
+                    fieldPath(reader, incompatibility.getLocation()),
+                    incompatibility.getType().name(),
+                    incompatibility.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Resolve field names from the json pointer location produced by avro's SchemaCompatibility.
+     * Descends only into records, arrays, maps and optional (nullable) unions.
+     */
+    static String fieldPath(Schema reader, String location) {
+        List<String> names = new ArrayList<>();
+        String[] segments = location.split("/");
+        Schema current = reader;
+
+        for (int i = 0; i < segments.length; i++) {
+            Schema unwrapped = unwrapNullable(current);
+
+            switch (segments[i]) {
+                case "fields":
+                    if (unwrapped.getType() != Schema.Type.RECORD || i + 1 >= segments.length) {
+                        return String.join(".", names);
+                    }
+
+                    int position = Integer.parseInt(segments[++i]);
+                    if (position >= unwrapped.getFields().size()) {
+                        return String.join(".", names);
+                    }
+
+                    Schema.Field field = unwrapped.getFields().get(position);
+                    names.add(field.name());
+                    current = field.schema();
+                    break;
+                case "items":
+                    if (unwrapped.getType() != Schema.Type.ARRAY) {
+                        return String.join(".", names);
+                    }
+
+                    current = unwrapped.getElementType();
+                    break;
+                case "values":
+                    if (unwrapped.getType() != Schema.Type.MAP) {
+                        return String.join(".", names);
+                    }
+
+                    current = unwrapped.getValueType();
+                    break;
+                default:
+                    // type, union branch index, symbols, size, name
+                    break;
+            }
+        }
+
+        return String.join(".", names);
+    }
+
+    private static Schema unwrapNullable(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+
+        Schema nonNull = null;
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() != Schema.Type.NULL) {
+                if (nonNull != null) {
+                    return schema;
+                }
+
+                nonNull = branch;
+            }
+        }
+
+        return nonNull == null ? schema : nonNull;
+    }
+
+    private CompatibilityCheckResult checkWithValidator(Schema newSchema, Iterable<Schema> previousSchemas) {
         try {
             validator.validate(newSchema, previousSchemas);
-            return true;
+            return CompatibilityCheckResult.compatible();
         } catch (SchemaValidationException e) {
-            return false;
+            return CompatibilityCheckResult.incompatible(Collections.singletonList(
+                    SchemaIncompatibility.instance("/", "", "VALIDATION_ERROR", e.getMessage())
+            ));
         }
     }
 }
@@ -0,0 +1,62 @@
+package schemakeeper.schema;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of the schema compatibility check. Incompatible result always contains at least one incompatibility.
+ */
+public final class CompatibilityCheckResult {
+    private static final CompatibilityCheckResult COMPATIBLE = new CompatibilityCheckResult(true, Collections.emptyList());
+
+    private final boolean isCompatible;
+    private final List<SchemaIncompatibility> incompatibilities;
+
+    public static CompatibilityCheckResult compatible() {
+        return COMPATIBLE;
+    }
+
+    public static CompatibilityCheckResult incompatible(List<SchemaIncompatibility> incompatibilities) {
+        if (incompatibilities == null || incompatibilities.isEmpty()) {
+            throw new IllegalArgumentException("Incompatible result should contain at least one incompatibility");
+        }
+
+        return new CompatibilityCheckResult(false, Collections.unmodifiableList(incompatibilities));
+    }
+
+    private CompatibilityCheckResult(boolean isCompatible, List<SchemaIncompatibility> incompatibilities) {
+        this.isCompatible = isCompatible;
+        this.incompatibilities = incompatibilities;
+    }
+
+    public boolean isCompatible() {
+        return isCompatible;
+    }
+
+    public List<SchemaIncompatibility> getIncompatibilities() {
+        return incompatibilities;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompatibilityCheckResult that = (CompatibilityCheckResult) o;
+        return isCompatible == that.isCompatible &&
+                Objects.equals(incompatibilities, that.incompatibilities);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(isCompatible, incompatibilities);
+    }
+
+    @Override
+    public String toString() {
+        return "CompatibilityCheckResult{" +
+                "isCompatible=" + isCompatible +
+                ", incompatibilities=" + incompatibilities +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package schemakeeper.schema;
+
+import java.util.Objects;
+
+/**
+ * Single reason why the reader schema can not read data written with the writer schema.
+ */
+public final class SchemaIncompatibility {
+    // json pointer inside the reader schema, e.g. /fields/1/type
+    private final String location;
+    // dot-separated names of the fields leading to the incompatible part of the schema (empty for the root)
+    private final String fieldPath;
+    // name of the avro's SchemaIncompatibilityType, e.g. TYPE_MISMATCH
+    private final String type;
+    private final String message;
+
+    public static SchemaIncompatibility instance(String location, String fieldPath, String type, String message) {
+        return new SchemaIncompatibility(location, fieldPath, type, message);
+    }
+
+    public SchemaIncompatibility(String location, String fieldPath, String type, String message) {
+        this.location = location;
+        this.fieldPath = fieldPath;
+        this.type = type;
+        this.message = message;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getFieldPath() {
+        return fieldPath;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SchemaIncompatibility that = (SchemaIncompatibility) o;
+        return Objects.equals(location, that.location) &&
+                Objects.equals(fieldPath, that.fieldPath) &&
+                Objects.equals(type, that.type) &&
+                Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(location, fieldPath, type, message);
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaIncompatibility{" +
+                "location='" + location + '\'' +
+                ", fieldPath='" + fieldPath + '\'' +
+                ", type='" + type + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
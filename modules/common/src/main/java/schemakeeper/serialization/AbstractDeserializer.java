@@ -2,6 +2,7 @@ package schemakeeper.serialization;
 
 import schemakeeper.exception.DeserializationException;
 import schemakeeper.exception.SerializationException;
+import schemakeeper.metrics.SerDeMetrics;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -11,6 +12,37 @@ import java.nio.ByteBuffer;
 public abstract class AbstractDeserializer<T> implements Deserializer<T> {
     private static final byte AVRO_COMPATIBLE_MASK = 0b1111;
 
+    private final SerDeMetrics metrics;
+
+    protected AbstractDeserializer() {
+        this(SerDeMetrics.NOOP);
+    }
+
+    protected AbstractDeserializer(SerDeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SerDeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Records successful deserialization started at start (see {@link SerDeMetrics#start()}).
+     */
+    protected final void deserialized(int schemaId, int length, long start) {
+        metrics.deserialized(schemaId, length, metrics.elapsed(start));
+    }
+
+    /**
+     * Counts failed deserialization.
+     *
+     * @return exception to be thrown by the caller
+     */
+    protected final <E extends RuntimeException> E deserializationFailed(int schemaId, E e) {
+        metrics.deserializationFailed(schemaId);
+        return e;
+    }
+
     public byte readProtocolByte(InputStream in) throws DeserializationException {
         try {
             return (byte) in.read();
@@ -22,7 +54,19 @@ public abstract class AbstractDeserializer<T> implements Deserializer<T> {
     public int readSchemaId(InputStream in) throws DeserializationException {
         try {
             byte[] buffer = new byte[4];
-            in.read(buffer);
+            int offset = 0;
+
+            // stream may return less bytes than requested
+            while (offset < buffer.length) {
+                int read = in.read(buffer, offset, buffer.length - offset);
+
+                if (read < 0) {
+                    throw new DeserializationException("Unexpected end of stream while reading schema id");
+                }
+
+                offset += read;
+            }
+
             return ByteBuffer.wrap(buffer).getInt();
         } catch (IOException e) {
             throw new DeserializationException(e);
@@ -45,9 +89,66 @@ public abstract class AbstractDeserializer<T> implements Deserializer<T> {
         }
     }
 
+    /**
+     * @return schema id written as zigzag varint if protocol byte is compact, otherwise 4-byte schema id
+     */
+    public final int readSchemaId(ByteBuffer in, byte protocolByte) {
+        if (MessageHeader.isCompact(protocolByte)) {
+            return MessageHeader.readCompactSchemaId(in);
+        }
+
+        return readSchemaId(in);
+    }
+
+    /**
+     * @return length of the next record of the batch. Buffer position is moved to the start of the record
+     */
+    public final int readBatchRecordLength(ByteBuffer in) {
+        try {
+            int length = in.getInt();
+
+            if (length < 0 || length > in.remaining()) {
+                throw new DeserializationException(String.format("Invalid batch record length: %s", length));
+            }
+
+            return length;
+        } catch (BufferUnderflowException e) {
+            throw new DeserializationException(e);
+        }
+    }
+
+    /**
+     * Accepts protocol bytes of the avro encoded payload: default and compact headers of all formats. Compressed message
+     * should be decompressed before the check. Batches are rejected.
+     */
     public final void checkByte(byte b) {
-        if (((b >> 3) ^ AVRO_COMPATIBLE_MASK) != 0) {
+        if (b == MessageHeader.COMPRESSED_BYTE) {
+            throw new SerializationException("Compressed message is supported only by the single message deserialization");
+        }
+
+        if (MessageHeader.isBatch(b)) {
+            throw new SerializationException("Batch should be read by the batch deserialization");
+        }
+
+        if (!isAvroCompatible(b) && !MessageHeader.isCompact(b)) {
             throw new SerializationException("Schema type byte is not avro compatible");
         }
     }
+
+    /**
+     * Accepts batch protocol bytes of the avro encoded records: default and compact headers of all formats.
+     */
+    public final void checkBatchByte(byte b) {
+        if (!MessageHeader.isBatch(b)) {
+            throw new SerializationException("Message is not a batch: batch protocol byte is expected");
+        }
+
+        if (MessageHeader.isNative(b)) {
+            throw new SerializationException("Batch records are not avro encoded");
+        }
+    }
+
+    static boolean isAvroCompatible(byte b) {
+        return ((b >> 3) ^ AVRO_COMPATIBLE_MASK) == 0;
+    }
 }
@@ -1,12 +1,46 @@
 package schemakeeper.serialization;
 
+import org.apache.avro.io.BinaryData;
 import schemakeeper.exception.SerializationException;
+import schemakeeper.metrics.SerDeMetrics;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 public abstract class AbstractSerializer<T> implements Serializer<T> {
+    private final SerDeMetrics metrics;
+
+    protected AbstractSerializer() {
+        this(SerDeMetrics.NOOP);
+    }
+
+    protected AbstractSerializer(SerDeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SerDeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Records successful serialization started at start (see {@link SerDeMetrics#start()}).
+     */
+    protected final void serialized(String subject, int schemaId, int length, long start) {
+        metrics.serialized(subject, schemaId, length, metrics.elapsed(start));
+    }
+
+    /**
+     * Counts failed serialization.
+     *
+     * @return exception to be thrown by the caller
+     */
+    protected final <E extends RuntimeException> E serializationFailed(String subject, int schemaId, E e) {
+        metrics.serializationFailed(subject, schemaId);
+        return e;
+    }
+
     public void writeProtocolByte(OutputStream out, byte b) throws SerializationException {
         try {
             out.write(b);
@@ -22,4 +56,40 @@ public abstract class AbstractSerializer<T> implements Serializer<T> {
             throw new SerializationException(e);
         }
     }
+
+    /**
+     * Writes protocol byte and schema id: zigzag varint if protocol byte is compact (see {@link MessageHeader#isCompact(byte)}),
+     * otherwise 4 bytes.
+     */
+    public void writeHeader(OutputStream out, byte protocolByte, int id) throws SerializationException {
+        writeProtocolByte(out, protocolByte);
+
+        if (MessageHeader.isCompact(protocolByte)) {
+            writeCompactSchemaId(out, id);
+        } else {
+            writeSchemaId(out, id);
+        }
+    }
+
+    public void writeCompactSchemaId(OutputStream out, int id) throws SerializationException {
+        try {
+            byte[] buffer = new byte[5];
+            int length = BinaryData.encodeInt(id, buffer, 0);
+            out.write(buffer, 0, length);
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    /**
+     * Writes the record of the batch: 4-byte record length followed by the record bytes.
+     */
+    public void writeBatchRecord(OutputStream out, ByteArrayOutputStream record) throws SerializationException {
+        try {
+            out.write(ByteBuffer.allocate(4).putInt(record.size()).array());
+            record.writeTo(out);
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+    }
 }
@@ -0,0 +1,338 @@
+package schemakeeper.serialization;
+
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.schema.SchemaType;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Header of the serialized message: format (protocol byte) and schema id. Allows to route messages without
+ * deserialization. Payload offset is an absolute index of the first payload byte in the parsed array or buffer.
+ * <p>
+ * Compressed message: {@link #COMPRESSED_BYTE}, protocol byte of the format, schema id, dictionary id and compressed payload.
+ * <p>
+ * Compact message: compact protocol byte of the format and schema id as zigzag varint (1-5 bytes) followed by the payload.
+ * <p>
+ * Native message: payload is encoded by the format library itself instead of avro binary encoding, so native protocol bytes
+ * are not avro compatible.
+ * <p>
+ * Batch: batch protocol byte of the format (default, compact or native) and schema id followed by records prefixed with
+ * 4-byte length. Batch bytes are not avro compatible, so batches and single messages can't be read one as another.
+ */
+public final class MessageHeader {
+    public static final byte AVRO_BYTE = 0b1111001;
+    public static final byte THRIFT_BYTE = 0b1111010;
+    public static final byte PROTOBUF_BYTE = 0b1111011;
+    // not avro compatible: compressed payload can be read only by the single message deserialization
+    public static final byte COMPRESSED_BYTE = 0b1101100;
+    // compact bytes are not avro compatible: legacy deserializers reject them instead of reading varint as a 4-byte schema id
+    public static final byte COMPACT_AVRO_BYTE = 0b1101001;
+    public static final byte COMPACT_THRIFT_BYTE = 0b1101010;
+    public static final byte COMPACT_PROTOBUF_BYTE = 0b1101011;
+    public static final byte NATIVE_THRIFT_BYTE = 0b1110010;
+    public static final byte NATIVE_PROTOBUF_BYTE = 0b1110011;
+    public static final byte BATCH_AVRO_BYTE = 0b1100001;
+    public static final byte BATCH_THRIFT_BYTE = 0b1100010;
+    public static final byte BATCH_PROTOBUF_BYTE = 0b1100011;
+    public static final byte COMPACT_BATCH_AVRO_BYTE = 0b1100101;
+    public static final byte COMPACT_BATCH_THRIFT_BYTE = 0b1100110;
+    public static final byte COMPACT_BATCH_PROTOBUF_BYTE = 0b1100111;
+    public static final byte NATIVE_BATCH_THRIFT_BYTE = 0b1110110;
+    public static final byte NATIVE_BATCH_PROTOBUF_BYTE = 0b1110111;
+    // protocol byte and schema id
+    public static final int HEADER_LENGTH = 5;
+    // compressed byte, protocol byte, schema id and dictionary id
+    public static final int COMPRESSED_HEADER_LENGTH = 10;
+
+    private final SchemaType format;
+    private final byte protocolByte;
+    private final int schemaId;
+    private final int payloadOffset;
+    private final int payloadLength;
+
+    public MessageHeader(SchemaType format, byte protocolByte, int schemaId, int payloadOffset, int payloadLength) {
+        this.format = format;
+        this.protocolByte = protocolByte;
+        this.schemaId = schemaId;
+        this.payloadOffset = payloadOffset;
+        this.payloadLength = payloadLength;
+    }
+
+    public static MessageHeader parse(byte[] data) throws DeserializationException {
+        if (data == null) {
+            throw new DeserializationException("Message is null");
+        }
+
+        return parse(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Buffer position is not changed.
+     */
+    public static MessageHeader parse(ByteBuffer data) throws DeserializationException {
+        int position = data.position();
+
+        if (!data.hasRemaining()) {
+            throw new DeserializationException("Message is empty");
+        }
+
+        byte protocolByte = data.get(position);
+
+        if (isCompact(protocolByte)) {
+            SchemaType format = formatOf(protocolByte);
+            ByteBuffer header = data.duplicate();
+            header.position(position + 1);
+            int schemaId = readCompactSchemaId(header);
+
+            return new MessageHeader(format, protocolByte, schemaId, header.position(), header.remaining());
+        }
+
+        if (data.remaining() < HEADER_LENGTH) {
+            throw new DeserializationException(String.format("Message is too short: %s bytes", data.remaining()));
+        }
+
+        if (protocolByte == COMPRESSED_BYTE) {
+            if (data.remaining() < COMPRESSED_HEADER_LENGTH) {
+                throw new DeserializationException(String.format("Compressed message is too short: %s bytes", data.remaining()));
+            }
+
+            SchemaType format = formatOf(data.get(position + 1));
+            int schemaId = data.getInt(position + 2);
+
+            return new MessageHeader(format, protocolByte, schemaId, position + COMPRESSED_HEADER_LENGTH, data.remaining() - COMPRESSED_HEADER_LENGTH);
+        }
+
+        SchemaType format = formatOf(protocolByte);
+        int schemaId = data.getInt(position + 1);
+
+        return new MessageHeader(format, protocolByte, schemaId, position + HEADER_LENGTH, data.remaining() - HEADER_LENGTH);
+    }
+
+    /**
+     * @return format of the message written using protocol byte
+     */
+    public static SchemaType formatOf(byte protocolByte) throws DeserializationException {
+        switch (protocolByte) {
+            case AVRO_BYTE:
+            case COMPACT_AVRO_BYTE:
+            case BATCH_AVRO_BYTE:
+            case COMPACT_BATCH_AVRO_BYTE:
+                return SchemaType.AVRO;
+            case THRIFT_BYTE:
+            case COMPACT_THRIFT_BYTE:
+            case NATIVE_THRIFT_BYTE:
+            case BATCH_THRIFT_BYTE:
+            case COMPACT_BATCH_THRIFT_BYTE:
+            case NATIVE_BATCH_THRIFT_BYTE:
+                return SchemaType.THRIFT;
+            case PROTOBUF_BYTE:
+            case COMPACT_PROTOBUF_BYTE:
+            case NATIVE_PROTOBUF_BYTE:
+            case BATCH_PROTOBUF_BYTE:
+            case COMPACT_BATCH_PROTOBUF_BYTE:
+            case NATIVE_BATCH_PROTOBUF_BYTE:
+                return SchemaType.PROTOBUF;
+            default:
+                throw new DeserializationException(String.format("Unknown protocol byte: %s", protocolByte));
+        }
+    }
+
+    /**
+     * @return protocol byte of the default (not compact) header of the format
+     */
+    public static byte protocolByteOf(SchemaType format) {
+        switch (format) {
+            case AVRO:
+                return AVRO_BYTE;
+            case THRIFT:
+                return THRIFT_BYTE;
+            case PROTOBUF:
+                return PROTOBUF_BYTE;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown format: %s", format));
+        }
+    }
+
+    /**
+     * @return batch protocol byte of the same format and header as the single message protocol byte
+     */
+    public static byte batchByteOf(byte protocolByte) {
+        switch (protocolByte) {
+            case AVRO_BYTE:
+                return BATCH_AVRO_BYTE;
+            case THRIFT_BYTE:
+                return BATCH_THRIFT_BYTE;
+            case PROTOBUF_BYTE:
+                return BATCH_PROTOBUF_BYTE;
+            case COMPACT_AVRO_BYTE:
+                return COMPACT_BATCH_AVRO_BYTE;
+            case COMPACT_THRIFT_BYTE:
+                return COMPACT_BATCH_THRIFT_BYTE;
+            case COMPACT_PROTOBUF_BYTE:
+                return COMPACT_BATCH_PROTOBUF_BYTE;
+            case NATIVE_THRIFT_BYTE:
+                return NATIVE_BATCH_THRIFT_BYTE;
+            case NATIVE_PROTOBUF_BYTE:
+                return NATIVE_BATCH_PROTOBUF_BYTE;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown protocol byte: %s", protocolByte));
+        }
+    }
+
+    /**
+     * @return true if payload is encoded by the format library (protobuf wire format or thrift compact protocol) instead of avro binary encoding
+     */
+    public static boolean isNative(byte protocolByte) {
+        return protocolByte == NATIVE_THRIFT_BYTE || protocolByte == NATIVE_PROTOBUF_BYTE ||
+                protocolByte == NATIVE_BATCH_THRIFT_BYTE || protocolByte == NATIVE_BATCH_PROTOBUF_BYTE;
+    }
+
+    /**
+     * @return true if schema id is written as zigzag varint
+     */
+    public static boolean isCompact(byte protocolByte) {
+        return protocolByte == COMPACT_AVRO_BYTE || protocolByte == COMPACT_THRIFT_BYTE || protocolByte == COMPACT_PROTOBUF_BYTE ||
+                protocolByte == COMPACT_BATCH_AVRO_BYTE || protocolByte == COMPACT_BATCH_THRIFT_BYTE || protocolByte == COMPACT_BATCH_PROTOBUF_BYTE;
+    }
+
+    /**
+     * @return true if message is a batch of length-prefixed records
+     */
+    public static boolean isBatch(byte protocolByte) {
+        switch (protocolByte) {
+            case BATCH_AVRO_BYTE:
+            case BATCH_THRIFT_BYTE:
+            case BATCH_PROTOBUF_BYTE:
+            case COMPACT_BATCH_AVRO_BYTE:
+            case COMPACT_BATCH_THRIFT_BYTE:
+            case COMPACT_BATCH_PROTOBUF_BYTE:
+            case NATIVE_BATCH_THRIFT_BYTE:
+            case NATIVE_BATCH_PROTOBUF_BYTE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads schema id of the compact header (zigzag varint, the same encoding as avro int) at the buffer position.
+     * Position is moved after the schema id.
+     */
+    public static int readCompactSchemaId(ByteBuffer in) throws DeserializationException {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new DeserializationException("Message is too short: compact schema id is truncated");
+            }
+
+            int b = in.get() & 0xff;
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+
+        throw new DeserializationException("Invalid compact schema id");
+    }
+
+    /**
+     * @return number of bytes of the schema id in the compact header
+     */
+    public static int compactSchemaIdLength(int schemaId) {
+        int value = (schemaId << 1) ^ (schemaId >> 31);
+        int length = 1;
+
+        while ((value & ~0x7f) != 0) {
+            value >>>= 7;
+            length++;
+        }
+
+        return length;
+    }
+
+    /**
+     * @return true if payload is compressed (see {@link #COMPRESSED_BYTE})
+     */
+    public boolean isCompressed() {
+        return protocolByte == COMPRESSED_BYTE;
+    }
+
+    /**
+     * @return true if payload is encoded by the format library
+     */
+    public boolean isNative() {
+        return isNative(protocolByte);
+    }
+
+    /**
+     * @return true if schema id is written as zigzag varint
+     */
+    public boolean isCompact() {
+        return isCompact(protocolByte);
+    }
+
+    /**
+     * @return true if message is a batch of length-prefixed records
+     */
+    public boolean isBatch() {
+        return isBatch(protocolByte);
+    }
+
+    /**
+     * @return index of the schema id relative to the message start
+     */
+    int schemaIdIndex() {
+        return isCompressed() ? 2 : 1;
+    }
+
+    public SchemaType getFormat() {
+        return format;
+    }
+
+    public byte getProtocolByte() {
+        return protocolByte;
+    }
+
+    public int getSchemaId() {
+        return schemaId;
+    }
+
+    public int getPayloadOffset() {
+        return payloadOffset;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MessageHeader that = (MessageHeader) o;
+        return protocolByte == that.protocolByte &&
+                schemaId == that.schemaId &&
+                payloadOffset == that.payloadOffset &&
+                payloadLength == that.payloadLength &&
+                format == that.format;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(format, protocolByte, schemaId, payloadOffset, payloadLength);
+    }
+
+    @Override
+    public String toString() {
+        return "MessageHeader{" +
+                "format=" + format +
+                ", protocolByte=" + protocolByte +
+                ", schemaId=" + schemaId +
+                ", payloadOffset=" + payloadOffset +
+                ", payloadLength=" + payloadLength +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package schemakeeper.serialization;
+
+import org.apache.avro.io.BinaryData;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.exception.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pass-through operations on the serialized messages: payload is copied as is without deserialization,
+ * e.g. to move messages between registries with different schema ids.
+ */
+public final class MessageReframer {
+    private MessageReframer() {
+    }
+
+    /**
+     * @return message with the given protocol byte and schema id followed by the payload
+     */
+    public static byte[] frame(byte protocolByte, int schemaId, byte[] payload, int offset, int length) throws SerializationException {
+        try {
+            MessageHeader.formatOf(protocolByte);
+        } catch (DeserializationException e) {
+            throw new SerializationException(e.getMessage(), e);
+        }
+
+        if (MessageHeader.isCompact(protocolByte)) {
+            byte[] result = new byte[1 + MessageHeader.compactSchemaIdLength(schemaId) + length];
+            result[0] = protocolByte;
+            int idLength = BinaryData.encodeInt(schemaId, result, 1);
+            System.arraycopy(payload, offset, result, 1 + idLength, length);
+
+            return result;
+        }
+
+        return ByteBuffer.allocate(MessageHeader.HEADER_LENGTH + length)
+                .put(protocolByte)
+                .putInt(schemaId)
+                .put(payload, offset, length)
+                .array();
+    }
+
+    /**
+     * @return copy of the message with the new schema id
+     */
+    public static byte[] reframe(byte[] data, int schemaId) throws DeserializationException {
+        MessageHeader header = MessageHeader.parse(data);
+
+        // length of the compact schema id depends on its value
+        if (header.isCompact()) {
+            return frame(header.getProtocolByte(), schemaId, data, header.getPayloadOffset(), header.getPayloadLength());
+        }
+
+        byte[] result = data.clone();
+        ByteBuffer.wrap(result).putInt(header.schemaIdIndex(), schemaId);
+
+        return result;
+    }
+
+    /**
+     * Message starts at the buffer position. Buffer position is not changed.
+     *
+     * @return copy of the message with the new schema id
+     */
+    public static byte[] reframe(ByteBuffer data, int schemaId) throws DeserializationException {
+        MessageHeader header = MessageHeader.parse(data);
+
+        if (header.isCompact()) {
+            byte[] payload = new byte[header.getPayloadLength()];
+            ByteBuffer duplicate = data.duplicate();
+            duplicate.position(header.getPayloadOffset());
+            duplicate.get(payload);
+
+            return frame(header.getProtocolByte(), schemaId, payload, 0, payload.length);
+        }
+
+        byte[] result = new byte[data.remaining()];
+        data.duplicate().get(result);
+        ByteBuffer.wrap(result).putInt(header.schemaIdIndex(), schemaId);
+
+        return result;
+    }
+
+    /**
+     * @return read-only view of the message payload
+     */
+    public static ByteBuffer payload(byte[] data) throws DeserializationException {
+        MessageHeader header = MessageHeader.parse(data);
+
+        return ByteBuffer.wrap(data, header.getPayloadOffset(), header.getPayloadLength()).slice().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,117 @@
+package schemakeeper.serialization;
+
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import schemakeeper.exception.DeserializationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over a continuous stream of length-delimited records. Every record is a 4-byte length of the serialized
+ * message followed by the message itself (protocol byte, schema id and data) as written by the serializers, with
+ * either default or compact header. Compressed messages and batches are not supported.
+ * One buffered decoder is used for the whole stream, so messages are not copied into separate arrays.
+ * Not thread-safe.
+ *
+ * @param <T> - type of the deserialized records
+ */
+public class RecordStreamReader<T> implements Iterator<T>, Closeable {
+    /**
+     * Reads data of the single record. Exactly dataLength bytes should be consumed from the decoder.
+     * messageLength is the length of the whole serialized message (header and data), the header length depends on
+     * the protocol byte (default or compact).
+     */
+    @FunctionalInterface
+    public interface RecordReader<T> {
+        T read(byte protocolByte, int schemaId, int messageLength, int dataLength, BinaryDecoder decoder) throws IOException;
+    }
+
+    // protocol byte and schema id
+    private static final int HEADER_LENGTH = 5;
+    // compact protocol byte and one byte of schema id
+    private static final int COMPACT_HEADER_MIN_LENGTH = 2;
+
+    private final InputStream in;
+    private final BinaryDecoder decoder;
+    private final RecordReader<T> reader;
+    private final byte[] header = new byte[HEADER_LENGTH];
+
+    public RecordStreamReader(InputStream in, RecordReader<T> reader) {
+        this.in = in;
+        this.decoder = DecoderFactory.get().binaryDecoder(in, null);
+        this.reader = reader;
+    }
+
+    public RecordStreamReader(ReadableByteChannel channel, RecordReader<T> reader) {
+        this(Channels.newInputStream(channel), reader);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return !decoder.isEnd();
+        } catch (IOException e) {
+            throw new DeserializationException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            decoder.readFixed(header, 0, 4);
+            int length = ByteBuffer.wrap(header, 0, 4).getInt();
+
+            if (length < COMPACT_HEADER_MIN_LENGTH) {
+                throw new DeserializationException(String.format("Invalid record length: %s", length));
+            }
+
+            decoder.readFixed(header, 0, 1);
+            byte protocolByte = header[0];
+
+            if (protocolByte == MessageHeader.COMPRESSED_BYTE) {
+                throw new DeserializationException("Compressed messages are not supported in streams: disable compression of the stream serializer");
+            }
+
+            if (MessageHeader.isBatch(protocolByte)) {
+                throw new DeserializationException("Batches are not supported in streams");
+            }
+
+            int schemaId;
+            int dataLength;
+
+            // compact schema id is zigzag varint, the same encoding as avro int
+            if (MessageHeader.isCompact(protocolByte)) {
+                schemaId = decoder.readInt();
+                dataLength = length - 1 - MessageHeader.compactSchemaIdLength(schemaId);
+            } else {
+                decoder.readFixed(header, 1, HEADER_LENGTH - 1);
+                schemaId = ByteBuffer.wrap(header, 1, 4).getInt();
+                dataLength = length - HEADER_LENGTH;
+            }
+
+            if (dataLength < 0) {
+                throw new DeserializationException(String.format("Invalid record length: %s", length));
+            }
+
+            return reader.read(protocolByte, schemaId, length, dataLength, decoder);
+        } catch (IOException e) {
+            throw new DeserializationException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
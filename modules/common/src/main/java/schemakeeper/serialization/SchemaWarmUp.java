@@ -0,0 +1,211 @@
+package schemakeeper.serialization;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import schemakeeper.exception.ConfigurationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Schemas of the {@link SerDeConfig#WARMUP_CLASSES_CONFIG} classes are derived and resolved when serde is created,
+ * so the first messages do not wait for the schema derivation and registry calls.
+ * Warm-up never registers schemas: classes may share a package with the classes of other subjects.
+ */
+public final class SchemaWarmUp {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaWarmUp.class);
+    private static final String PACKAGE_SUFFIX = ".*";
+    private static final String CLASS_SUFFIX = ".class";
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private SchemaWarmUp() {
+    }
+
+    /**
+     * @param names - class names or packages (com.example.*). Classes of the subpackages are included
+     * @param type  - base type of the classes supported by serde. Other classes of the packages are skipped
+     * @return concrete classes in the order of names
+     */
+    public static List<Class<?>> resolveClasses(List<String> names, Class<?> type) throws ConfigurationException {
+        ClassLoader classLoader = classLoader();
+        Set<Class<?>> result = new LinkedHashSet<>();
+
+        for (String name : names) {
+            if (name.endsWith(PACKAGE_SUFFIX)) {
+                for (String className : packageClasses(classLoader, name.substring(0, name.length() - PACKAGE_SUFFIX.length()))) {
+                    Class<?> clazz = loadClass(classLoader, className, false);
+
+                    if (isSupported(clazz, type)) {
+                        result.add(clazz);
+                    }
+                }
+            } else {
+                Class<?> clazz = loadClass(classLoader, name, true);
+
+                if (!isSupported(clazz, type)) {
+                    throw new ConfigurationException(String.format("Class %s is not a %s", name, type.getName()));
+                }
+
+                result.add(clazz);
+            }
+        }
+
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * @return subject of the schema on serde creation: fully qualified record name, like the record naming strategy
+     */
+    public static List<String> recordNameSubject(Schema schema) {
+        return schema.getType() == Schema.Type.RECORD ? Collections.singletonList(schema.getFullName()) : Collections.emptyList();
+    }
+
+    /**
+     * @return copy of the config without {@link SerDeConfig#WARMUP_CLASSES_CONFIG}, for serdes warmed up by the caller
+     * under other subjects (e.g. kafka serdes use the subjects of the warm-up topics)
+     */
+    public static Map<String, Object> withoutWarmUp(Map<String, ?> config) {
+        Map<String, Object> result = new HashMap<>(config);
+        result.remove(SerDeConfig.WARMUP_CLASSES_CONFIG);
+        return result;
+    }
+
+    /**
+     * Runs the task for every class in parallel and waits for the completion. Failures are logged and skipped, so serde
+     * is created even if registry is not available: schemas are resolved again by the first messages.
+     *
+     * @param parallelism - max number of concurrent tasks
+     */
+    public static void run(List<Class<?>> classes, int parallelism, Consumer<Class<?>> task) {
+        if (classes.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, classes.size())), runnable -> {
+            Thread thread = new Thread(runnable, "schemakeeper-warmup-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(classes.size());
+
+            for (Class<?> clazz : classes) {
+                futures.add(executor.submit(() -> task.accept(clazz)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    logger.warn("Warm-up of the class {} failed", classes.get(i).getName(), e.getCause());
+                }
+            }
+
+            logger.info("Warm-up of {} classes is completed", classes.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Warm-up was interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isSupported(Class<?> clazz, Class<?> type) {
+        return type.isAssignableFrom(clazz) && !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers());
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader == null ? SchemaWarmUp.class.getClassLoader() : classLoader;
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String name, boolean initialize) throws ConfigurationException {
+        try {
+            return Class.forName(name, initialize, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new ConfigurationException(String.format("Class %s does not exist", name), e);
+        }
+    }
+
+    private static List<String> packageClasses(ClassLoader classLoader, String packageName) throws ConfigurationException {
+        String path = packageName.replace('.', '/');
+        List<String> result = new ArrayList<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+
+                if ("file".equals(url.getProtocol())) {
+                    directoryClasses(new File(URLDecoder.decode(url.getPath(), "UTF-8")), packageName, result);
+                } else if ("jar".equals(url.getProtocol())) {
+                    jarClasses(((JarURLConnection) url.openConnection()).getJarFile(), path, result);
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException(String.format("Classes of the package %s can't be listed", packageName), e);
+        }
+
+        if (result.isEmpty()) {
+            throw new ConfigurationException(String.format("Package %s does not contain classes", packageName));
+        }
+
+        return result;
+    }
+
+    private static void directoryClasses(File directory, String packageName, List<String> result) {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                directoryClasses(file, packageName + "." + file.getName(), result);
+            } else if (isClass(file.getName())) {
+                result.add(packageName + "." + file.getName().substring(0, file.getName().length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    private static void jarClasses(JarFile jar, String path, List<String> result) {
+        Enumeration<JarEntry> entries = jar.entries();
+
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+
+            if (name.startsWith(path + "/") && isClass(name.substring(name.lastIndexOf('/') + 1))) {
+                result.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+            }
+        }
+    }
+
+    // nested classes are included: protobuf messages are nested in the outer class
+    private static boolean isClass(String fileName) {
+        return fileName.endsWith(CLASS_SUFFIX) && !fileName.equals("package-info.class") && !fileName.equals("module-info.class");
+    }
+}
@@ -4,12 +4,36 @@ import schemakeeper.configuration.Config;
 import schemakeeper.exception.ConfigurationException;
 import schemakeeper.schema.CompatibilityType;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public class SerDeConfig extends Config {
     public static final String SCHEMAKEEPER_URL_CONFIG = "schemakeeper.url";
     public static final String ALLOW_FORCE_SCHEMA_REGISTER_CONFIG = "allow.force.schema.register";
     public static final String COMPATIBILITY_TYPE = "compatibility.type";
+    // none, jmx or kafka (only for kafka serdes)
+    public static final String SERDE_METRICS_CONFIG = "serde.metrics";
+    // name of the serde in the metrics. Generated if not set
+    public static final String SERDE_METRICS_NAME_CONFIG = "serde.metrics.name";
+    // compress payloads using dictionaries trained per schema id and stored in the registry
+    public static final String COMPRESSION_ENABLED_CONFIG = "compression.enabled";
+    // number of serialized payloads used to train the dictionary of the schema
+    public static final String COMPRESSION_TRAINING_SAMPLES_CONFIG = "compression.training.samples";
+    // max dictionary size in bytes (deflate uses up to 32kb)
+    public static final String COMPRESSION_DICTIONARY_SIZE_CONFIG = "compression.dictionary.size";
+    // deflate level: 0-9 or -1 (default level)
+    public static final String COMPRESSION_LEVEL_CONFIG = "compression.level";
+
+    // write schema id as zigzag varint with the compact protocol byte. Deserializers read both headers
+    public static final String COMPACT_HEADER_CONFIG = "compact.header";
+
+    // classes or packages (com.example.*) which schemas are resolved under their record names when serde is created.
+    // List or comma-separated string
+    public static final String WARMUP_CLASSES_CONFIG = "warmup.classes";
 
     public SerDeConfig(Map<String, Object> config) {
         super(config);
@@ -36,4 +60,63 @@ public class SerDeConfig extends Config {
     public CompatibilityType compatibilityType() {
         return (CompatibilityType) config.getOrDefault(COMPATIBILITY_TYPE, CompatibilityType.BACKWARD);
     }
+
+    public String serdeMetrics() {
+        return (String) config.getOrDefault(SERDE_METRICS_CONFIG, "none");
+    }
+
+    /**
+     * @return serde name used in metrics or null
+     */
+    public String serdeMetricsName() {
+        return (String) config.get(SERDE_METRICS_NAME_CONFIG);
+    }
+
+    public boolean compactHeader() {
+        return (boolean) config.getOrDefault(COMPACT_HEADER_CONFIG, false);
+    }
+
+    public boolean compressionEnabled() {
+        return (boolean) config.getOrDefault(COMPRESSION_ENABLED_CONFIG, false);
+    }
+
+    public int compressionTrainingSamples() {
+        return (int) config.getOrDefault(COMPRESSION_TRAINING_SAMPLES_CONFIG, 100);
+    }
+
+    public int compressionDictionarySize() {
+        return (int) config.getOrDefault(COMPRESSION_DICTIONARY_SIZE_CONFIG, 16 * 1024);
+    }
+
+    public int compressionLevel() {
+        return (int) config.getOrDefault(COMPRESSION_LEVEL_CONFIG, -1);
+    }
+
+    public List<String> warmupClasses() {
+        return stringList(WARMUP_CLASSES_CONFIG);
+    }
+
+    /**
+     * @return values of the list or comma-separated string setting, empty list if setting is not set
+     */
+    protected List<String> stringList(String key) {
+        Object value = config.get(key);
+
+        if (value == null) {
+            return Collections.emptyList();
+        }
+
+        Collection<?> values = value instanceof Collection ? (Collection<?>) value : Arrays.asList(((String) value).split(","));
+        List<String> result = new ArrayList<>();
+
+        for (Object v : values) {
+            String s = ((String) v).trim();
+
+            if (!s.isEmpty()) {
+                result.add(s);
+            }
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,56 @@
+package schemakeeper.serialization;
+
+import org.apache.avro.Schema;
+
+import java.util.Objects;
+
+/**
+ * Schema resolved for the subject: schema id is registered or found in the registry. Allows callers to resolve
+ * the schema once and serialize many values with it.
+ */
+public final class SubjectSchema {
+    private final String subject;
+    private final Schema schema;
+    private final int schemaId;
+
+    public SubjectSchema(String subject, Schema schema, int schemaId) {
+        this.subject = subject;
+        this.schema = schema;
+        this.schemaId = schemaId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public int getSchemaId() {
+        return schemaId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SubjectSchema that = (SubjectSchema) o;
+        return schemaId == that.schemaId &&
+                Objects.equals(subject, that.subject) &&
+                Objects.equals(schema, that.schema);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(subject, schema, schemaId);
+    }
+
+    @Override
+    public String toString() {
+        return "SubjectSchema{" +
+                "subject='" + subject + '\'' +
+                ", schemaId=" + schemaId +
+                '}';
+    }
+}
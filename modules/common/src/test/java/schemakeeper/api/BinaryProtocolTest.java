@@ -0,0 +1,55 @@
+package schemakeeper.api;
+
+import org.junit.Test;
+import schemakeeper.exception.SchemaKeeperException;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+
+import static org.junit.Assert.*;
+
+public class BinaryProtocolTest {
+    private static final String SCHEMA = "{\"type\":\"record\",\"name\":\"test\",\"fields\":[{\"name\":\"f1\",\"type\":\"string\",\"doc\":\"ünïcödé\"}]}";
+
+    @Test
+    public void schemaIdShouldBeEncodedAndDecodedCorrectly() {
+        SchemaId schemaId = SchemaId.instance(123);
+
+        assertEquals(schemaId, BinaryProtocol.decodeSchemaId(BinaryProtocol.encodeSchemaId(schemaId)));
+    }
+
+    @Test
+    public void schemaMetadataShouldBeEncodedAndDecodedCorrectly() {
+        SchemaMetadata schemaMetadata = SchemaMetadata.instance(1, SCHEMA, "hash", SchemaType.THRIFT);
+
+        assertEquals(schemaMetadata, BinaryProtocol.decodeSchemaMetadata(BinaryProtocol.encodeSchemaMetadata(schemaMetadata)));
+    }
+
+    @Test
+    public void schemaTextShouldBeEncodedAndDecodedCorrectly() {
+        SchemaText schemaText = SchemaText.instance(SCHEMA, SchemaType.PROTOBUF);
+
+        assertEquals(schemaText, BinaryProtocol.decodeSchemaText(BinaryProtocol.encodeSchemaText(schemaText)));
+    }
+
+    @Test
+    public void subjectAndSchemaRequestShouldBeEncodedAndDecodedCorrectly() {
+        SubjectAndSchemaRequest request = SubjectAndSchemaRequest.instance(SCHEMA, SchemaType.AVRO, CompatibilityType.FULL_TRANSITIVE);
+
+        assertEquals(request, BinaryProtocol.decodeSubjectAndSchemaRequest(BinaryProtocol.encodeSubjectAndSchemaRequest(request)));
+    }
+
+    @Test
+    public void throwErrorOnMalformedData() {
+        assertThrows(SchemaKeeperException.class, () -> BinaryProtocol.decodeSchemaId(new byte[]{1, 2}));
+        assertThrows(SchemaKeeperException.class, () -> BinaryProtocol.decodeSchemaText(new byte[]{0, 0, 0, 100, 1}));
+        assertThrows(SchemaKeeperException.class, () -> BinaryProtocol.decodeSchemaMetadata(null));
+    }
+
+    @Test
+    public void shouldDetectBinaryContentType() {
+        assertTrue(BinaryProtocol.isBinary(BinaryProtocol.CONTENT_TYPE));
+        assertTrue(BinaryProtocol.isBinary(BinaryProtocol.CONTENT_TYPE + ", application/json"));
+        assertFalse(BinaryProtocol.isBinary("application/json"));
+        assertFalse(BinaryProtocol.isBinary(null));
+    }
+}
@@ -0,0 +1,99 @@
+package schemakeeper.metrics;
+
+import org.junit.Test;
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.serialization.SerDeConfig;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JmxSerDeMetricsTest {
+    @Test
+    public void recordSerialization() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        JmxSerDeMetrics metrics = new JmxSerDeMetrics("serialization-test", SerDeMetrics.SERIALIZER);
+
+        metrics.serialized("subject", 1, 10, 100);
+        metrics.serialized("subject", 2, 30, 300);
+        metrics.serializationFailed("subject", 0);
+
+        SerDeStatsMXBean subject = metrics.getSubjectStats("subject");
+        assertEquals(2, subject.getCount());
+        assertEquals(1, subject.getErrors());
+        assertEquals(40, subject.getBytesTotal());
+        assertEquals(30, subject.getBytesMax());
+        assertEquals(200, subject.getLatencyMean(), 0.001);
+        assertEquals(300, subject.getLatencyMax());
+
+        assertEquals(1, metrics.getSchemaIdStats(1).getCount());
+        assertEquals(1, metrics.getSchemaIdStats(2).getCount());
+        assertNull(metrics.getSchemaIdStats(0));
+
+        assertTrue(server.isRegistered(metrics.objectName("subject", "subject")));
+        assertEquals(2L, server.getAttribute(metrics.objectName("subject", "subject"), "Count"));
+        assertTrue(server.isRegistered(metrics.objectName("schemaId", "1")));
+
+        metrics.close();
+        assertFalse(server.isRegistered(metrics.objectName("subject", "subject")));
+        assertFalse(server.isRegistered(metrics.objectName("schemaId", "1")));
+    }
+
+    @Test
+    public void recordDeserialization() {
+        try (JmxSerDeMetrics metrics = new JmxSerDeMetrics(null, SerDeMetrics.DESERIALIZER)) {
+            metrics.deserialized(1, 10, 100);
+            metrics.deserializationFailed(1);
+
+            assertEquals(1, metrics.getSchemaIdStats(1).getCount());
+            assertEquals(1, metrics.getSchemaIdStats(1).getErrors());
+            assertEquals(10, metrics.getSchemaIdStats(1).getBytesTotal());
+        }
+    }
+
+    @Test
+    public void sameNameShouldGetSuffix() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        JmxSerDeMetrics first = new JmxSerDeMetrics("same-name-test", SerDeMetrics.SERIALIZER);
+
+        try (JmxSerDeMetrics second = new JmxSerDeMetrics("same-name-test", SerDeMetrics.SERIALIZER)) {
+            assertEquals("same-name-test", first.getName());
+            assertEquals("same-name-test-2", second.getName());
+
+            first.serialized("subject", 1, 10, 100);
+            second.serialized("subject", 1, 10, 100);
+            first.close();
+
+            // closing one serde does not unregister MBeans of another one
+            assertFalse(server.isRegistered(first.objectName("subject", "subject")));
+            assertTrue(server.isRegistered(second.objectName("subject", "subject")));
+
+            try (JmxSerDeMetrics third = new JmxSerDeMetrics("same-name-test", SerDeMetrics.SERIALIZER)) {
+                assertEquals("same-name-test", third.getName());
+            }
+        }
+    }
+
+    @Test
+    public void createMetricsFromConfig() {
+        Map<String, Object> map = new HashMap<>();
+        assertSame(SerDeMetrics.NOOP, SerDeMetrics.create(new SerDeConfig(map), SerDeMetrics.SERIALIZER));
+
+        map.put(SerDeConfig.SERDE_METRICS_CONFIG, "jmx");
+        try (SerDeMetrics metrics = SerDeMetrics.create(new SerDeConfig(map), SerDeMetrics.SERIALIZER)) {
+            assertTrue(metrics instanceof JmxSerDeMetrics);
+        }
+
+        map.put(SerDeConfig.SERDE_METRICS_CONFIG, "unknown");
+        assertThrows(ConfigurationException.class, () -> SerDeMetrics.create(new SerDeConfig(map), SerDeMetrics.SERIALIZER));
+    }
+
+    @Test
+    public void noopMetricsShouldNotReadClock() {
+        assertEquals(0, SerDeMetrics.NOOP.start());
+        assertEquals(0, SerDeMetrics.NOOP.elapsed(System.nanoTime()));
+    }
+}
@@ -0,0 +1,54 @@
+package schemakeeper.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0, histogram.mean(), 0);
+    }
+
+    @Test
+    public void recordValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(5050, histogram.sum());
+        assertEquals(100, histogram.max());
+        assertEquals(50.5, histogram.mean(), 0.001);
+        // 50 is in bucket [32, 64)
+        assertEquals(63, histogram.percentile(0.5));
+        // 99 is in bucket [64, 128) but upper bound is limited by max value
+        assertEquals(100, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-10);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.sum());
+    }
+
+    @Test
+    public void resetHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+}
@@ -5,6 +5,8 @@ import org.apache.avro.SchemaBuilder;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 
@@ -366,4 +368,115 @@ public class AvroSchemaCompatibilityTest {
 
         assertFalse(AvroSchemaCompatibility.FULL_TRANSITIVE_VALIDATOR.isCompatible(newSchema, Arrays.asList(previousSchema1, previousSchema2)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void checkShouldReturnCompatibleResultWithoutIncompatibilities() {
+        Schema previousSchema = SchemaBuilder
+                .builder()
+                .record("test")
+                .fields()
+                .requiredString("f1")
+                .endRecord();
+
+        Schema newSchema = SchemaBuilder
+                .builder()
+                .record("test")
+                .fields()
+                .requiredString("f1")
+                .optionalString("f2")
+                .endRecord();
+
+        CompatibilityCheckResult result = AvroSchemaCompatibility.BACKWARD_VALIDATOR.check(newSchema, previousSchema);
+
+        assertTrue(result.isCompatible());
+        assertTrue(result.getIncompatibilities().isEmpty());
+    }
+
+    @Test
+    public void checkShouldReturnMissingDefaultValueIncompatibility() {
+        Schema previousSchema = SchemaBuilder
+                .builder()
+                .record("test")
+                .fields()
+                .requiredString("f1")
+                .endRecord();
+
+        Schema newSchema = SchemaBuilder
+                .builder()
+                .record("test")
+                .fields()
+                .requiredString("f1")
+                .requiredString("f2")
+                .endRecord();
+
+        CompatibilityCheckResult result = AvroSchemaCompatibility.BACKWARD_VALIDATOR.check(newSchema, previousSchema);
+
+        assertFalse(result.isCompatible());
+        assertEquals(1, result.getIncompatibilities().size());
+
+        SchemaIncompatibility incompatibility = result.getIncompatibilities().get(0);
+        assertEquals("READER_FIELD_MISSING_DEFAULT_VALUE", incompatibility.getType());
+        assertEquals("/fields/1", incompatibility.getLocation());
+        assertEquals("f2", incompatibility.getFieldPath());
+    }
+
+    @Test
+    public void checkShouldResolveNestedFieldPath() {
+        Schema previousSchema = SchemaBuilder
+                .builder()
+                .record("test")
+                .fields()
+                .name("nested").type().record("nested").fields().requiredString("f1").endRecord().noDefault()
+                .endRecord();
+
+        Schema newSchema = SchemaBuilder
+                .builder()
+                .record("test")
+                .fields()
+                .name("nested").type().record("nested").fields().requiredInt("f1").endRecord().noDefault()
+                .endRecord();
+
+        List<SchemaIncompatibility> incompatibilities = AvroSchemaCompatibility.FULL_VALIDATOR
+                .check(newSchema, previousSchema)
+                .getIncompatibilities();
+
+        assertFalse(incompatibilities.isEmpty());
+        for (SchemaIncompatibility incompatibility : incompatibilities) {
+            assertEquals("TYPE_MISMATCH", incompatibility.getType());
+            assertEquals("nested.f1", incompatibility.getFieldPath());
+        }
+    }
+
+    @Test
+    public void checkShouldIgnoreRecordNameMismatch() {
+        Schema previousSchema = SchemaBuilder
+                .builder()
+                .record("test1")
+                .fields()
+                .requiredString("f1")
+                .endRecord();
+
+        Schema newSchema = SchemaBuilder
+                .builder()
+                .record("test2")
+                .fields()
+                .requiredString("f1")
+                .endRecord();
+
+        assertTrue(AvroSchemaCompatibility.FULL_VALIDATOR.check(newSchema, previousSchema).isCompatible());
+    }
+
+    @Test
+    public void transitiveCheckShouldReturnIncompatibilitiesOfTheFirstIncompatibleSchema() {
+        Schema previousSchema1 = Schema.create(Schema.Type.STRING);
+        Schema previousSchema2 = Schema.create(Schema.Type.INT);
+        Schema newSchema = Schema.create(Schema.Type.STRING);
+
+        CompatibilityCheckResult result = AvroSchemaCompatibility.BACKWARD_TRANSITIVE_VALIDATOR
+                .check(newSchema, Arrays.asList(previousSchema1, previousSchema2));
+
+        assertFalse(result.isCompatible());
+        assertEquals("TYPE_MISMATCH", result.getIncompatibilities().get(0).getType());
+        assertTrue(AvroSchemaCompatibility.BACKWARD_VALIDATOR.check(newSchema, Arrays.asList(previousSchema1, previousSchema2)).isCompatible());
+    }
+}
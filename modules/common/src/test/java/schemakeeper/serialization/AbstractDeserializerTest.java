@@ -4,6 +4,10 @@ import org.junit.Test;
 import schemakeeper.exception.DeserializationException;
 import schemakeeper.exception.SerializationException;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 import static org.junit.Assert.*;
@@ -27,6 +31,44 @@ public class AbstractDeserializerTest {
         deserializer.checkByte((byte) 0b1111001);
         deserializer.checkByte((byte) 0b1111011);
         deserializer.checkByte((byte) 0b1111010);
+        deserializer.checkByte(MessageHeader.COMPACT_AVRO_BYTE);
+        deserializer.checkByte(MessageHeader.COMPACT_THRIFT_BYTE);
+        deserializer.checkByte(MessageHeader.COMPACT_PROTOBUF_BYTE);
+        assertThrows(SerializationException.class, () -> deserializer.checkByte(MessageHeader.COMPRESSED_BYTE));
+        assertFalse(AbstractDeserializer.isAvroCompatible(MessageHeader.COMPRESSED_BYTE));
+        assertThrows(SerializationException.class, () -> deserializer.checkByte(MessageHeader.BATCH_AVRO_BYTE));
+        assertThrows(SerializationException.class, () -> deserializer.checkByte(MessageHeader.COMPACT_BATCH_AVRO_BYTE));
+        assertFalse(AbstractDeserializer.isAvroCompatible(MessageHeader.BATCH_THRIFT_BYTE));
+    }
+
+    @Test
+    public void checkBatchByteTest() {
+        deserializer.checkBatchByte(MessageHeader.BATCH_AVRO_BYTE);
+        deserializer.checkBatchByte(MessageHeader.COMPACT_BATCH_PROTOBUF_BYTE);
+        assertThrows(SerializationException.class, () -> deserializer.checkBatchByte(MessageHeader.AVRO_BYTE));
+        assertThrows(SerializationException.class, () -> deserializer.checkBatchByte(MessageHeader.COMPACT_AVRO_BYTE));
+        assertThrows(SerializationException.class, () -> deserializer.checkBatchByte(MessageHeader.NATIVE_BATCH_THRIFT_BYTE));
+    }
+
+    @Test
+    public void legacyCheckRejectsCompactMessage() {
+        byte[] payload = new byte[] {1, 2, 3};
+
+        for (byte protocolByte : new byte[] {MessageHeader.COMPACT_AVRO_BYTE, MessageHeader.COMPACT_THRIFT_BYTE, MessageHeader.COMPACT_PROTOBUF_BYTE}) {
+            byte[] message = MessageReframer.frame(protocolByte, 1, payload, 0, payload.length);
+
+            // deserializers without compact header support read the protocol byte and the 4-byte schema id
+            assertThrows(SerializationException.class, () -> {
+                ByteBuffer in = ByteBuffer.wrap(message);
+                byte b = deserializer.readProtocolByte(in);
+
+                if (!AbstractDeserializer.isAvroCompatible(b)) {
+                    throw new SerializationException("Schema type byte is not avro compatible");
+                }
+
+                deserializer.readSchemaId(in);
+            });
+        }
     }
 
     @Test
@@ -59,4 +101,32 @@ public class AbstractDeserializerTest {
         ByteBuffer byteBuffer = ByteBuffer.allocate(0);
         assertThrows(DeserializationException.class, () -> deserializer.readProtocolByte(byteBuffer));
     }
+
+    @Test
+    public void readSchemaIdFromStreamWithShortReads() {
+        InputStream in = new FilterInputStream(new ByteArrayInputStream(ByteBuffer.allocate(4).putInt(123).array())) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+
+        assertEquals(123, deserializer.readSchemaId(in));
+    }
+
+    @Test
+    public void readSchemaIdFromStreamThrowsDeserializationException() {
+        InputStream in = new ByteArrayInputStream(new byte[]{1, 2});
+
+        assertThrows(DeserializationException.class, () -> deserializer.readSchemaId(in));
+    }
+
+    @Test
+    public void readCompactSchemaId() {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[] {(byte) 0xf6, (byte) 1, (byte) 0, (byte) 0, (byte) 0, (byte) 123});
+
+        assertEquals(123, deserializer.readSchemaId(byteBuffer, MessageHeader.COMPACT_THRIFT_BYTE));
+        assertEquals(123, deserializer.readSchemaId(byteBuffer, MessageHeader.THRIFT_BYTE));
+        assertThrows(DeserializationException.class, () -> deserializer.readSchemaId(ByteBuffer.wrap(new byte[] {(byte) 0xf6}), MessageHeader.COMPACT_THRIFT_BYTE));
+    }
 }
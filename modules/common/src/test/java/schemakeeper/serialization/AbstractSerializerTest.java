@@ -35,4 +35,21 @@ public class AbstractSerializerTest {
 
         assertArrayEquals(new byte[] {(byte) 0, (byte) 0, (byte) 0, (byte) 123}, out.toByteArray());
     }
+
+    @Test
+    public void writeCompactSchemaId() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.writeCompactSchemaId(out, 123);
+
+        assertArrayEquals(new byte[] {(byte) 0xf6, (byte) 1}, out.toByteArray());
+    }
+
+    @Test
+    public void writeHeader() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.writeHeader(out, MessageHeader.COMPACT_AVRO_BYTE, 1);
+        serializer.writeHeader(out, MessageHeader.AVRO_BYTE, 1);
+
+        assertArrayEquals(new byte[] {MessageHeader.COMPACT_AVRO_BYTE, (byte) 2, MessageHeader.AVRO_BYTE, (byte) 0, (byte) 0, (byte) 0, (byte) 1}, out.toByteArray());
+    }
 }
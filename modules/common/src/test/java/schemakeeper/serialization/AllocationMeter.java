@@ -0,0 +1,76 @@
+package schemakeeper.serialization;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures heap bytes allocated by the current thread per call after warmup (so JIT optimizations, e.g. escape analysis,
+ * are applied). Tests are skipped if jvm does not support thread allocation counters.
+ * Budgets are checked only on {@link #BUDGET_JAVA_VERSION}: allocations of the jdk classes (e.g. streams and buffers)
+ * and the escape analysis results differ between the major versions.
+ */
+public final class AllocationMeter {
+    /**
+     * Budgets are measured bytes per call plus this margin: it covers small differences between jvm versions and
+     * options (e.g. compressed oops), while any new per-message allocation of an object or array fails the test.
+     */
+    public static final long MARGIN = 128;
+    /**
+     * Major java version (java.specification.version) the budgets were measured on.
+     */
+    public static final String BUDGET_JAVA_VERSION = "17";
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASUREMENT_ITERATIONS = 10_000;
+
+    private static volatile Object sink;
+
+    private AllocationMeter() {
+    }
+
+    public static long bytesPerCall(Callable<?> call) throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue("Thread allocation counters are not supported", bean instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue("Thread allocation counters are not supported", threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = call.call();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            sink = call.call();
+        }
+
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+
+        return (after - before) / MEASUREMENT_ITERATIONS;
+    }
+
+    /**
+     * @param name   - measured operation name
+     * @param budget - max allowed bytes per call
+     * @param call   - measured operation
+     */
+    public static void assertBudget(String name, long budget, Callable<?> call) throws Exception {
+        assumeTrue(
+                String.format("Budgets are measured on java %s", BUDGET_JAVA_VERSION),
+                BUDGET_JAVA_VERSION.equals(System.getProperty("java.specification.version"))
+        );
+
+        long allocated = bytesPerCall(call);
+
+        assertTrue(
+                String.format("%s allocates %d bytes per call, budget is %d bytes", name, allocated, budget),
+                allocated <= budget
+        );
+    }
+}
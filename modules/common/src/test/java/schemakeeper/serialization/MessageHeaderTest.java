@@ -0,0 +1,88 @@
+package schemakeeper.serialization;
+
+import org.junit.Test;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.schema.SchemaType;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class MessageHeaderTest {
+    @Test
+    public void parseByteArray() {
+        byte[] data = ByteBuffer.allocate(8).put(MessageHeader.THRIFT_BYTE).putInt(123).put(new byte[]{1, 2, 3}).array();
+
+        MessageHeader header = MessageHeader.parse(data);
+
+        assertEquals(new MessageHeader(SchemaType.THRIFT, MessageHeader.THRIFT_BYTE, 123, 5, 3), header);
+    }
+
+    @Test
+    public void parseByteBuffer() {
+        ByteBuffer data = ByteBuffer.allocate(10).put(new byte[]{9, 9}).put(MessageHeader.PROTOBUF_BYTE).putInt(7).put(new byte[]{1, 2, 3});
+        data.position(2);
+
+        MessageHeader header = MessageHeader.parse(data);
+
+        assertEquals(new MessageHeader(SchemaType.PROTOBUF, MessageHeader.PROTOBUF_BYTE, 7, 7, 3), header);
+        assertEquals(2, data.position());
+    }
+
+    @Test
+    public void parseCompressed() {
+        byte[] data = ByteBuffer.allocate(13).put(MessageHeader.COMPRESSED_BYTE).put(MessageHeader.AVRO_BYTE).putInt(5).putInt(6).put(new byte[]{1, 2, 3}).array();
+
+        MessageHeader header = MessageHeader.parse(data);
+
+        assertEquals(new MessageHeader(SchemaType.AVRO, MessageHeader.COMPRESSED_BYTE, 5, 10, 3), header);
+        assertTrue(header.isCompressed());
+        assertThrows(DeserializationException.class, () -> MessageHeader.parse(new byte[]{MessageHeader.COMPRESSED_BYTE, MessageHeader.AVRO_BYTE, 0, 0, 0, 1}));
+    }
+
+    @Test
+    public void parseCompact() {
+        byte[] data = new byte[]{MessageHeader.COMPACT_THRIFT_BYTE, (byte) 0xf6, 1, 1, 2, 3};
+
+        MessageHeader header = MessageHeader.parse(data);
+
+        assertEquals(new MessageHeader(SchemaType.THRIFT, MessageHeader.COMPACT_THRIFT_BYTE, 123, 3, 3), header);
+        assertTrue(header.isCompact());
+        assertEquals(2, MessageHeader.compactSchemaIdLength(123));
+        assertThrows(DeserializationException.class, () -> MessageHeader.parse(new byte[]{MessageHeader.COMPACT_THRIFT_BYTE, (byte) 0xf6}));
+    }
+
+    @Test
+    public void parseBatch() {
+        byte[] data = ByteBuffer.allocate(9).put(MessageHeader.BATCH_AVRO_BYTE).putInt(5).putInt(0).array();
+        byte[] compact = new byte[]{MessageHeader.COMPACT_BATCH_THRIFT_BYTE, (byte) 0xf6, 1, 0, 0, 0, 0};
+
+        assertEquals(new MessageHeader(SchemaType.AVRO, MessageHeader.BATCH_AVRO_BYTE, 5, 5, 4), MessageHeader.parse(data));
+        assertEquals(new MessageHeader(SchemaType.THRIFT, MessageHeader.COMPACT_BATCH_THRIFT_BYTE, 123, 3, 4), MessageHeader.parse(compact));
+        assertTrue(MessageHeader.parse(data).isBatch());
+        assertTrue(MessageHeader.parse(compact).isCompact());
+        assertEquals(MessageHeader.NATIVE_BATCH_PROTOBUF_BYTE, MessageHeader.batchByteOf(MessageHeader.NATIVE_PROTOBUF_BYTE));
+        assertTrue(MessageHeader.isNative(MessageHeader.NATIVE_BATCH_PROTOBUF_BYTE));
+        assertFalse(MessageHeader.isBatch(MessageHeader.AVRO_BYTE));
+    }
+
+    @Test
+    public void formatOf() {
+        assertEquals(SchemaType.AVRO, MessageHeader.formatOf(MessageHeader.AVRO_BYTE));
+        assertEquals(SchemaType.THRIFT, MessageHeader.formatOf(MessageHeader.THRIFT_BYTE));
+        assertEquals(SchemaType.PROTOBUF, MessageHeader.formatOf(MessageHeader.PROTOBUF_BYTE));
+        assertEquals(SchemaType.AVRO, MessageHeader.formatOf(MessageHeader.COMPACT_AVRO_BYTE));
+        assertEquals(SchemaType.THRIFT, MessageHeader.formatOf(MessageHeader.COMPACT_THRIFT_BYTE));
+        assertEquals(SchemaType.PROTOBUF, MessageHeader.formatOf(MessageHeader.COMPACT_PROTOBUF_BYTE));
+        assertEquals(SchemaType.THRIFT, MessageHeader.formatOf(MessageHeader.NATIVE_THRIFT_BYTE));
+        assertEquals(SchemaType.PROTOBUF, MessageHeader.formatOf(MessageHeader.NATIVE_PROTOBUF_BYTE));
+    }
+
+    @Test
+    public void invalidMessagesThrowDeserializationException() {
+        assertThrows(DeserializationException.class, () -> MessageHeader.parse((byte[]) null));
+        assertThrows(DeserializationException.class, () -> MessageHeader.parse(new byte[]{MessageHeader.AVRO_BYTE, 0, 0}));
+        assertThrows(DeserializationException.class, () -> MessageHeader.parse(new byte[]{1, 0, 0, 0, 1}));
+        assertThrows(DeserializationException.class, () -> MessageHeader.parse(new byte[]{0b1111000, 0, 0, 0, 1}));
+    }
+}
@@ -0,0 +1,57 @@
+package schemakeeper.serialization;
+
+import org.junit.Test;
+import schemakeeper.exception.SerializationException;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class MessageReframerTest {
+    private final byte[] payload = new byte[]{1, 2, 3};
+
+    @Test
+    public void frame() {
+        byte[] message = MessageReframer.frame(MessageHeader.AVRO_BYTE, 123, payload, 0, payload.length);
+
+        assertArrayEquals(new byte[]{MessageHeader.AVRO_BYTE, 0, 0, 0, 123, 1, 2, 3}, message);
+        assertThrows(SerializationException.class, () -> MessageReframer.frame((byte) 1, 123, payload, 0, payload.length));
+    }
+
+    @Test
+    public void reframeByteArray() {
+        byte[] message = MessageReframer.frame(MessageHeader.THRIFT_BYTE, 1, payload, 0, payload.length);
+        byte[] result = MessageReframer.reframe(message, 2);
+
+        assertArrayEquals(new byte[]{MessageHeader.THRIFT_BYTE, 0, 0, 0, 2, 1, 2, 3}, result);
+        assertEquals(1, MessageHeader.parse(message).getSchemaId());
+    }
+
+    @Test
+    public void reframeByteBuffer() {
+        byte[] message = MessageReframer.frame(MessageHeader.PROTOBUF_BYTE, 1, payload, 0, payload.length);
+        ByteBuffer buffer = ByteBuffer.wrap(message);
+
+        assertArrayEquals(new byte[]{MessageHeader.PROTOBUF_BYTE, 0, 0, 0, 2, 1, 2, 3}, MessageReframer.reframe(buffer, 2));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void payload() {
+        byte[] message = MessageReframer.frame(MessageHeader.AVRO_BYTE, 1, payload, 0, payload.length);
+        ByteBuffer result = MessageReframer.payload(message);
+
+        assertEquals(ByteBuffer.wrap(payload), result);
+        assertTrue(result.isReadOnly());
+    }
+
+    @Test
+    public void compactFrame() {
+        byte[] message = MessageReframer.frame(MessageHeader.COMPACT_AVRO_BYTE, 63, payload, 0, payload.length);
+
+        assertArrayEquals(new byte[]{MessageHeader.COMPACT_AVRO_BYTE, 126, 1, 2, 3}, message);
+        // schema id length is changed
+        assertArrayEquals(new byte[]{MessageHeader.COMPACT_AVRO_BYTE, (byte) 0x80, 1, 1, 2, 3}, MessageReframer.reframe(message, 64));
+        assertArrayEquals(new byte[]{MessageHeader.COMPACT_AVRO_BYTE, 2, 1, 2, 3}, MessageReframer.reframe(ByteBuffer.wrap(message), 1));
+    }
+}
@@ -0,0 +1,131 @@
+package schemakeeper.serialization;
+
+import org.junit.Test;
+import schemakeeper.exception.DeserializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class RecordStreamReaderTest {
+    private static final RecordStreamReader.RecordReader<String> READER = (protocolByte, schemaId, messageLength, dataLength, decoder) -> {
+        byte[] data = new byte[dataLength];
+        decoder.readFixed(data);
+        return protocolByte + ":" + schemaId + ":" + new String(data, StandardCharsets.UTF_8);
+    };
+
+    @Test
+    public void readRecords() throws IOException {
+        byte[] stream = stream(record(1, 10, "first"), record(2, 20, ""), record(3, 30, "third"));
+        List<String> result = new ArrayList<>();
+
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(new ByteArrayInputStream(stream), READER)) {
+            reader.forEachRemaining(result::add);
+
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+
+        assertEquals(Arrays.asList("1:10:first", "2:20:", "3:30:third"), result);
+    }
+
+    @Test
+    public void readRecordsFromChannel() throws IOException {
+        byte[] stream = stream(record(1, 10, "first"));
+
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(Channels.newChannel(new ByteArrayInputStream(stream)), READER)) {
+            assertEquals("1:10:first", reader.next());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void emptyStream() throws IOException {
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(new ByteArrayInputStream(new byte[0]), READER)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void passMessageLengthOfDefaultAndCompactRecords() throws IOException {
+        byte[] stream = stream(record(MessageHeader.AVRO_BYTE, 10, "first"), compactRecord(MessageHeader.COMPACT_AVRO_BYTE, 10, "first"));
+        List<String> result = new ArrayList<>();
+        RecordStreamReader.RecordReader<String> lengthReader = (protocolByte, schemaId, messageLength, dataLength, decoder) -> {
+            decoder.skipFixed(dataLength);
+            return messageLength + ":" + dataLength;
+        };
+
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(new ByteArrayInputStream(stream), lengthReader)) {
+            reader.forEachRemaining(result::add);
+        }
+
+        assertEquals(Arrays.asList("10:5", "7:5"), result);
+    }
+
+    @Test
+    public void truncatedRecordThrowsDeserializationException() throws IOException {
+        byte[] stream = stream(record(1, 10, "first"));
+        byte[] truncated = Arrays.copyOf(stream, stream.length - 2);
+
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(new ByteArrayInputStream(truncated), READER)) {
+            assertThrows(DeserializationException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void compressedRecordThrowsDeserializationException() throws IOException {
+        byte[] stream = stream(record(MessageHeader.COMPRESSED_BYTE, 10, "first"));
+
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(new ByteArrayInputStream(stream), READER)) {
+            assertThrows(DeserializationException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void batchRecordThrowsDeserializationException() throws IOException {
+        byte[] stream = stream(record(MessageHeader.BATCH_AVRO_BYTE, 10, "first"));
+
+        try (RecordStreamReader<String> reader = new RecordStreamReader<>(new ByteArrayInputStream(stream), READER)) {
+            assertThrows(DeserializationException.class, reader::next);
+        }
+    }
+
+    private static byte[] record(int protocolByte, int schemaId, String data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeByte(protocolByte);
+        dataOut.writeInt(schemaId);
+        dataOut.write(data.getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    // schema id < 64 is a single zigzag varint byte
+    private static byte[] compactRecord(int protocolByte, int schemaId, String data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(protocolByte);
+        out.write(schemaId << 1);
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static byte[] stream(byte[]... records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+
+        for (byte[] record : records) {
+            dataOut.writeInt(record.length);
+            dataOut.write(record);
+        }
+
+        return out.toByteArray();
+    }
+}
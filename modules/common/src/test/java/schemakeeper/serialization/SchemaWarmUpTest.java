@@ -0,0 +1,58 @@
+package schemakeeper.serialization;
+
+import org.junit.Test;
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.exception.SchemaKeeperException;
+import schemakeeper.exception.SerializationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class SchemaWarmUpTest {
+    @Test
+    public void resolveClass() {
+        List<Class<?>> classes = SchemaWarmUp.resolveClasses(Collections.singletonList(SerializationException.class.getName()), SchemaKeeperException.class);
+
+        assertEquals(Collections.singletonList(SerializationException.class), classes);
+    }
+
+    @Test
+    public void resolvePackage() {
+        List<Class<?>> classes = SchemaWarmUp.resolveClasses(Collections.singletonList("schemakeeper.exception.*"), SchemaKeeperException.class);
+
+        assertTrue(classes.containsAll(Arrays.asList(SerializationException.class, DeserializationException.class, ConfigurationException.class)));
+        // classes of the other types are skipped
+        assertFalse(classes.stream().anyMatch(c -> !SchemaKeeperException.class.isAssignableFrom(c)));
+    }
+
+    @Test
+    public void throwErrorForUnknownClass() {
+        assertThrows(ConfigurationException.class, () -> SchemaWarmUp.resolveClasses(Collections.singletonList("schemakeeper.Unknown"), Object.class));
+        assertThrows(ConfigurationException.class, () -> SchemaWarmUp.resolveClasses(Collections.singletonList("schemakeeper.unknown.*"), Object.class));
+        assertThrows(ConfigurationException.class, () -> SchemaWarmUp.resolveClasses(Collections.singletonList(String.class.getName()), SchemaKeeperException.class));
+    }
+
+    @Test
+    public void runTasks() {
+        Set<Class<?>> warmed = ConcurrentHashMap.newKeySet();
+        List<Class<?>> classes = Arrays.asList(SerializationException.class, DeserializationException.class, ConfigurationException.class);
+
+        // failed task does not fail the others
+        SchemaWarmUp.run(classes, 2, clazz -> {
+            if (clazz == DeserializationException.class) {
+                throw new IllegalStateException("registry is not available");
+            }
+
+            warmed.add(clazz);
+        });
+
+        assertEquals(2, warmed.size());
+        assertFalse(warmed.contains(DeserializationException.class));
+    }
+}
@@ -5,6 +5,7 @@ import schemakeeper.schema.CompatibilityType;
 import schemakeeper.client.ClientConfig;
 import schemakeeper.exception.ConfigurationException;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -168,6 +169,88 @@ public class SerDeConfigTest {
         assertEquals(ClientConfig.DEFAULT_CONNECTIONS_PER_ROUTE, config.clientConnectionsPerRoute());
     }
 
+    @Test
+    public void shouldReturnRequestCompression() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(ClientConfig.CLIENT_REQUEST_COMPRESSION, false);
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertFalse(config.clientRequestCompression());
+    }
+
+    @Test
+    public void shouldReturnDefaultRequestCompression() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals(ClientConfig.DEFAULT_REQUEST_COMPRESSION, config.clientRequestCompression());
+    }
+
+    @Test
+    public void shouldReturnBinaryProtocol() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(ClientConfig.CLIENT_BINARY_PROTOCOL, true);
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertTrue(config.clientBinaryProtocol());
+    }
+
+    @Test
+    public void shouldReturnDefaultBinaryProtocol() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals(ClientConfig.DEFAULT_BINARY_PROTOCOL, config.clientBinaryProtocol());
+    }
+
+    @Test
+    public void shouldReturnMetrics() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(ClientConfig.CLIENT_METRICS, "jmx");
+        map.put(ClientConfig.CLIENT_METRICS_NAME, "name");
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals("jmx", config.clientMetrics());
+        assertEquals("name", config.clientMetricsName());
+    }
+
+    @Test
+    public void shouldReturnDefaultMetrics() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals(ClientConfig.DEFAULT_METRICS, config.clientMetrics());
+        assertNull(config.clientMetricsName());
+    }
+
+    @Test
+    public void shouldReturnSerDeMetrics() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(SerDeConfig.SERDE_METRICS_CONFIG, "jmx");
+        map.put(SerDeConfig.SERDE_METRICS_NAME_CONFIG, "name");
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals("jmx", config.serdeMetrics());
+        assertEquals("name", config.serdeMetricsName());
+    }
+
+    @Test
+    public void shouldReturnDefaultSerDeMetrics() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals("none", config.serdeMetrics());
+        assertNull(config.serdeMetricsName());
+    }
+
     @Test
     public void shouldReturnFalse() {
         Map<String, Object> map = new HashMap<>();
@@ -219,4 +302,70 @@ public class SerDeConfigTest {
         assertThrows(ConfigurationException.class, config::clientProxyHost);
         assertThrows(ConfigurationException.class, config::clientProxyPort);
     }
+
+    @Test
+    public void shouldReturnCompressionSettings() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(SerDeConfig.COMPRESSION_ENABLED_CONFIG, true);
+        map.put(SerDeConfig.COMPRESSION_TRAINING_SAMPLES_CONFIG, 10);
+        map.put(SerDeConfig.COMPRESSION_DICTIONARY_SIZE_CONFIG, 1024);
+        map.put(SerDeConfig.COMPRESSION_LEVEL_CONFIG, 9);
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertTrue(config.compressionEnabled());
+        assertEquals(10, config.compressionTrainingSamples());
+        assertEquals(1024, config.compressionDictionarySize());
+        assertEquals(9, config.compressionLevel());
+    }
+
+    @Test
+    public void shouldReturnDefaultCompressionSettings() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertFalse(config.compressionEnabled());
+        assertEquals(100, config.compressionTrainingSamples());
+        assertEquals(16 * 1024, config.compressionDictionarySize());
+        assertEquals(-1, config.compressionLevel());
+    }
+
+    @Test
+    public void shouldReturnCompactHeader() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(SerDeConfig.COMPACT_HEADER_CONFIG, true);
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertTrue(config.compactHeader());
+    }
+
+    @Test
+    public void shouldReturnDefaultCompactHeader() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertFalse(config.compactHeader());
+    }
+
+    @Test
+    public void shouldReturnWarmupSettings() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(SerDeConfig.WARMUP_CLASSES_CONFIG, "com.example.Msg, com.example.events.*,");
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertEquals(Arrays.asList("com.example.Msg", "com.example.events.*"), config.warmupClasses());
+    }
+
+    @Test
+    public void shouldReturnDefaultWarmupSettings() {
+        Map<String, Object> map = new HashMap<>();
+
+        SerDeConfig config = new SerDeConfig(map);
+
+        assertTrue(config.warmupClasses().isEmpty());
+    }
 }
@@ -1,11 +1,22 @@
 package schemakeeper.kafka.serialization.avro;
 
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
+import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.serialization.SchemaIdHeaders;
+import schemakeeper.kafka.serialization.SchemaPreloader;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.kafka.metrics.KafkaSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SchemaWarmUp;
 import schemakeeper.serialization.avro.AvroDeserializer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
-public class KafkaAvroDeserializer implements Deserializer<Object> {
+public class KafkaAvroDeserializer implements Deserializer<Object>, SchemaPreloader {
     private AvroDeserializer deserializer;
     private boolean isKey;
 
@@ -21,7 +32,16 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
     public void configure(Map<String, ?> configs, boolean isKey) {
         KafkaAvroSerDeConfig config = new KafkaAvroSerDeConfig((Map<String, Object>) configs);
         this.isKey = isKey;
-        this.deserializer = new AvroDeserializer(config);
+        // warm-up classes are resolved once below under the subjects of the warm-up topics, not under the record names
+        this.deserializer = new AvroDeserializer(
+                new CachedSchemaKeeperClient(config),
+                new KafkaAvroSerDeConfig(SchemaWarmUp.withoutWarmUp(configs)),
+                KafkaSerDeMetrics.create(config, configs, SerDeMetrics.DESERIALIZER, isKey)
+        );
+
+        List<String> topics = config.getWarmupTopics();
+        NamingStrategy namingStrategy = isKey ? config.getKeyNamingStrategy() : config.getValueNamingStrategy();
+        deserializer.warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), SpecificRecord.class), schema -> namingStrategy.resolveSubjectNames(topics, isKey, schema));
     }
 
     @Override
@@ -29,6 +49,19 @@ public class KafkaAvroDeserializer implements Deserializer<Object> {
         return deserializer.deserialize(data);
     }
 
+    /**
+     * Reads message header from the record header if it is present, otherwise payload should be prefixed by the message header.
+     */
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, SchemaIdHeaders.fromHeaders(headers, data, isKey));
+    }
+
+    @Override
+    public void preloadSchemas(Collection<Integer> schemaIds) {
+        deserializer.preloadSchemas(schemaIds);
+    }
+
     @Override
     public void close() {
         deserializer.close();
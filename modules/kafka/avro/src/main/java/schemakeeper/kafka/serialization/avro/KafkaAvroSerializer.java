@@ -1,17 +1,31 @@
 package schemakeeper.kafka.serialization.avro;
 
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Serializer;
 import schemakeeper.kafka.naming.TopicNamingStrategy;
 import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.serialization.SchemaIdHeaders;
+import schemakeeper.kafka.serialization.SubjectSchemaCache;
 import schemakeeper.schema.AvroSchemaUtils;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.kafka.metrics.KafkaSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SchemaWarmUp;
+import schemakeeper.serialization.SubjectSchema;
 import schemakeeper.serialization.avro.AvroSerializer;
 
+import java.util.List;
 import java.util.Map;
 
 public class KafkaAvroSerializer implements Serializer<Object> {
     private AvroSerializer serializer;
     private NamingStrategy namingStrategy;
     private boolean isKey;
+    private boolean useSchemaIdHeader;
+    // subject and schema id per topic and schema
+    private final SubjectSchemaCache<Schema> subjectSchemas = new SubjectSchemaCache<>(this::resolveSchema);
 
     public KafkaAvroSerializer() {
     }
@@ -27,16 +41,45 @@ public class KafkaAvroSerializer implements Serializer<Object> {
         KafkaAvroSerDeConfig config = new KafkaAvroSerDeConfig((Map<String, Object>) configs);
         this.isKey = isKey;
         this.namingStrategy = isKey ? config.getKeyNamingStrategy() : config.getValueNamingStrategy();
-        this.serializer = new AvroSerializer(config);
+        SchemaIdHeaders.validate(config);
+        this.useSchemaIdHeader = config.useSchemaIdHeader();
+        // warm-up classes are resolved once below under the subjects of the warm-up topics, not under the record names
+        this.serializer = new AvroSerializer(
+                new CachedSchemaKeeperClient(config),
+                new KafkaAvroSerDeConfig(SchemaWarmUp.withoutWarmUp(configs)),
+                KafkaSerDeMetrics.create(config, configs, SerDeMetrics.SERIALIZER, isKey)
+        );
+
+        List<String> topics = config.getWarmupTopics();
+        serializer.warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), SpecificRecord.class), schema -> namingStrategy.resolveSubjectNames(topics, isKey, schema));
     }
 
     @Override
     public byte[] serialize(String topic, Object data) {
-        return serializer.serialize(namingStrategy.resolveSubjectName(topic, isKey, AvroSchemaUtils.getSchema(data)), data);
+        if (data == null) {
+            return null;
+        }
+
+        return serializer.serialize(subjectSchemas.get(topic, AvroSchemaUtils.getSchema(data)), data);
+    }
+
+    /**
+     * Message header is written into the record header if {@link KafkaAvroSerDeConfig#SCHEMA_ID_HEADER_CONFIG} is enabled,
+     * so the record contains the bare encoded payload.
+     */
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        byte[] message = serialize(topic, data);
+        return useSchemaIdHeader ? SchemaIdHeaders.moveToHeaders(message, headers, isKey) : message;
     }
 
     @Override
     public void close() {
+        subjectSchemas.clear();
         serializer.close();
     }
+
+    private SubjectSchema resolveSchema(String topic, Schema schema) {
+        return serializer.resolveSchema(namingStrategy.resolveSubjectName(topic, isKey, schema), schema);
+    }
 }
@@ -0,0 +1,205 @@
+package schemakeeper.kafka.metrics;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.KafkaMetricsContext;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+import org.apache.kafka.common.utils.Time;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serde metrics exposed via kafka {@link Metrics}: jmx ({@code schemakeeper.serde:type=schemakeeper-serde-metrics,...})
+ * and reporters configured by {@link CommonClientConfigs#METRIC_REPORTER_CLASSES_CONFIG}.
+ * <p>
+ * Kafka sensors are synchronized, so under high contention {@link schemakeeper.metrics.JmxSerDeMetrics}
+ * (striped counters) is cheaper.
+ */
+public class KafkaSerDeMetrics implements SerDeMetrics {
+    public static final String KAFKA = "kafka";
+    public static final String NAMESPACE = "schemakeeper.serde";
+    public static final String GROUP = "schemakeeper-serde-metrics";
+
+    // latency histogram: 1000 linear buckets (4 bytes each) up to 10ms, larger latencies fall into the last bucket
+    private static final int LATENCY_HISTOGRAM_SIZE_BYTES = 4 * 1000;
+    private static final double LATENCY_HISTOGRAM_MAX_NS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final AtomicInteger SERDE_COUNTER = new AtomicInteger();
+
+    private final Metrics metrics;
+    private final String clientId;
+    private final String type;
+    private final String target;
+    private final ConcurrentHashMap<String, Sensors> subjects = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Sensors> schemaIds = new ConcurrentHashMap<>();
+
+    /**
+     * @param metrics  - kafka metrics registry
+     * @param clientId - client id tag
+     * @param type     - {@link #SERIALIZER} or {@link #DESERIALIZER}
+     * @param isKey    - true for key serde (key and value serdes of the same kafka client share client id)
+     */
+    public KafkaSerDeMetrics(Metrics metrics, String clientId, String type, boolean isKey) {
+        this.metrics = metrics;
+        this.clientId = clientId;
+        this.type = type;
+        this.target = isKey ? "key" : "value";
+    }
+
+    /**
+     * @param config  - serde config
+     * @param configs - raw kafka client configs
+     * @param type    - {@link #SERIALIZER} or {@link #DESERIALIZER}
+     * @param isKey   - true for key serde
+     * @return - kafka metrics if {@link SerDeConfig#SERDE_METRICS_CONFIG} is kafka, otherwise - {@link SerDeMetrics#create(SerDeConfig, String)}
+     */
+    public static SerDeMetrics create(SerDeConfig config, Map<String, ?> configs, String type, boolean isKey) {
+        if (!KAFKA.equalsIgnoreCase(config.serdeMetrics())) {
+            return SerDeMetrics.create(config, type);
+        }
+
+        String clientId = config.serdeMetricsName();
+
+        if (clientId == null) {
+            Object kafkaClientId = configs.get(CommonClientConfigs.CLIENT_ID_CONFIG);
+            clientId = kafkaClientId == null || kafkaClientId.toString().isEmpty() ? type + "-" + SERDE_COUNTER.incrementAndGet() : kafkaClientId.toString();
+        }
+
+        List<MetricsReporter> reporters = new ArrayList<>(reporters(configs));
+        reporters.add(new JmxReporter());
+
+        Metrics metrics = new Metrics(
+                new MetricConfig(),
+                reporters,
+                Time.SYSTEM,
+                new KafkaMetricsContext(NAMESPACE, Collections.singletonMap("client-id", clientId))
+        );
+
+        return new KafkaSerDeMetrics(metrics, clientId, type, isKey);
+    }
+
+    @Override
+    public void serialized(String subject, int schemaId, int bytes, long durationNanos) {
+        subject(subject).record(bytes, durationNanos);
+        schemaId(schemaId).record(bytes, durationNanos);
+    }
+
+    @Override
+    public void serializationFailed(String subject, int schemaId) {
+        subject(subject).errors.record();
+
+        if (schemaId > 0) {
+            schemaId(schemaId).errors.record();
+        }
+    }
+
+    @Override
+    public void deserialized(int schemaId, int bytes, long durationNanos) {
+        schemaId(schemaId).record(bytes, durationNanos);
+    }
+
+    @Override
+    public void deserializationFailed(int schemaId) {
+        schemaId(schemaId).errors.record();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
+    private Sensors subject(String subject) {
+        Sensors sensors = subjects.get(subject);
+        return sensors != null ? sensors : subjects.computeIfAbsent(subject, s -> new Sensors("subject", s));
+    }
+
+    private Sensors schemaId(int schemaId) {
+        Sensors sensors = schemaIds.get(schemaId);
+        return sensors != null ? sensors : schemaIds.computeIfAbsent(schemaId, id -> new Sensors("schema-id", String.valueOf(id)));
+    }
+
+    private static List<MetricsReporter> reporters(Map<String, ?> configs) {
+        ConfigDef definition = new ConfigDef().define(
+                CommonClientConfigs.METRIC_REPORTER_CLASSES_CONFIG,
+                ConfigDef.Type.LIST,
+                "",
+                ConfigDef.Importance.LOW,
+                CommonClientConfigs.METRIC_REPORTER_CLASSES_DOC
+        );
+
+        return new AbstractConfig(definition, configs, false)
+                .getConfiguredInstances(CommonClientConfigs.METRIC_REPORTER_CLASSES_CONFIG, MetricsReporter.class);
+    }
+
+    private final class Sensors {
+        private final Sensor latency;
+        private final Sensor bytes;
+        private final Sensor errors;
+
+        private Sensors(String tag, String value) {
+            Map<String, String> tags = new HashMap<>();
+            tags.put("client-id", clientId);
+            tags.put("serde", type);
+            tags.put("target", target);
+            tags.put(tag, value);
+
+            String prefix = String.join(".", type, target, clientId, tag, value);
+
+            latency = metrics.sensor(prefix + ".latency");
+            latency.add(metrics.metricName("latency-avg-ns", GROUP, "Average latency in nanoseconds", tags), new Avg());
+            latency.add(metrics.metricName("latency-max-ns", GROUP, "Max latency in nanoseconds", tags), new Max());
+            latency.add(new Percentiles(
+                    LATENCY_HISTOGRAM_SIZE_BYTES,
+                    0,
+                    LATENCY_HISTOGRAM_MAX_NS,
+                    Percentiles.BucketSizing.LINEAR,
+                    new Percentile(metrics.metricName("latency-p50-ns", GROUP, "50th percentile latency in nanoseconds", tags), 50),
+                    new Percentile(metrics.metricName("latency-p99-ns", GROUP, "99th percentile latency in nanoseconds", tags), 99),
+                    new Percentile(metrics.metricName("latency-p999-ns", GROUP, "99.9th percentile latency in nanoseconds", tags), 99.9)
+            ));
+
+            bytes = metrics.sensor(prefix + ".bytes");
+            bytes.add(metrics.metricName("record-total", GROUP, "Total number of records", tags), new CumulativeCount());
+            bytes.add(metrics.metricName("record-rate", GROUP, "Number of records per second", tags), new Rate(new WindowedCount()));
+            bytes.add(metrics.metricName("bytes-total", GROUP, "Total number of bytes", tags), new CumulativeSum());
+            bytes.add(metrics.metricName("bytes-rate", GROUP, "Number of bytes per second", tags), new Rate());
+            bytes.add(metrics.metricName("record-size-avg", GROUP, "Average record size in bytes", tags), new Avg());
+            bytes.add(metrics.metricName("record-size-max", GROUP, "Max record size in bytes", tags), new Max());
+
+            errors = metrics.sensor(prefix + ".errors");
+            errors.add(metrics.metricName("error-total", GROUP, "Total number of errors", tags), new CumulativeCount());
+            errors.add(metrics.metricName("error-rate", GROUP, "Number of errors per second", tags), new Rate(new WindowedCount()));
+        }
+
+        private void record(int size, long durationNanos) {
+            latency.record(durationNanos);
+            bytes.record(size);
+        }
+    }
+}
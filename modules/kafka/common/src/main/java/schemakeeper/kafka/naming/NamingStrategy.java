@@ -3,6 +3,9 @@ package schemakeeper.kafka.naming;
 
 import org.apache.avro.Schema;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface NamingStrategy {
     /**
      *
@@ -12,4 +15,22 @@ public interface NamingStrategy {
      * @return - subject name
      */
     String resolveSubjectName(String topicName, boolean isKey, Schema schema);
+
+    /**
+     * @param topicNames - kafka's topic names
+     * @return - distinct subject names of the topics
+     */
+    default List<String> resolveSubjectNames(List<String> topicNames, boolean isKey, Schema schema) {
+        List<String> subjects = new ArrayList<>();
+
+        for (String topicName : topicNames) {
+            String subject = resolveSubjectName(topicName, isKey, schema);
+
+            if (subject != null && !subjects.contains(subject)) {
+                subjects.add(subject);
+            }
+        }
+
+        return subjects;
+    }
 }
@@ -2,11 +2,22 @@ package schemakeeper.kafka.serialization;
 
 import schemakeeper.kafka.naming.NamingStrategy;
 
+import java.util.List;
+
 public interface KafkaSerDeConfig {
     String KEY_NAMING_STRATEGY_CONFIG = "key.naming.strategy";
     String VALUE_NAMING_STRATEGY_CONFIG = "value.naming.strategy";
+    // topics which subjects of the warm-up classes are resolved by the naming strategy. List or comma-separated string
+    String WARMUP_TOPICS_CONFIG = "warmup.topics";
+    // write message header (protocol byte and schema id) into the record header instead of the payload prefix.
+    // Serializers reject it together with compression
+    String SCHEMA_ID_HEADER_CONFIG = "schema.id.header";
 
     NamingStrategy getKeyNamingStrategy();
 
     NamingStrategy getValueNamingStrategy();
+
+    List<String> getWarmupTopics();
+
+    boolean useSchemaIdHeader();
 }
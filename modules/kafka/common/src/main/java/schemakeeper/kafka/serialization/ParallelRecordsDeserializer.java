@@ -0,0 +1,143 @@
+package schemakeeper.kafka.serialization;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.Deserializer;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.serialization.MessageHeader;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Deserializes keys and values of the polled records in parallel, so a single consumer uses all cores instead of
+ * the poll thread only. Deserializers should be configured and thread-safe (schemakeeper kafka deserializers are).
+ * <p>
+ * Schema ids of the batch are collected first and loaded once per id by the {@link SchemaPreloader} deserializers,
+ * so parallel tasks do not request the same schema from the registry. Records keep the partition order.
+ *
+ * @param <K> - key type
+ * @param <V> - value type
+ */
+public class ParallelRecordsDeserializer<K, V> implements Closeable {
+    private final Deserializer<K> keyDeserializer;
+    private final Deserializer<V> valueDeserializer;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    /**
+     * @param pool - pool of the deserialization tasks. Pool is not shut down by {@link #close()}
+     */
+    public ParallelRecordsDeserializer(Deserializer<K> keyDeserializer, Deserializer<V> valueDeserializer, ForkJoinPool pool) {
+        this(keyDeserializer, valueDeserializer, pool, false);
+    }
+
+    /**
+     * @param parallelism - parallelism of the pool created for this deserializer
+     */
+    public ParallelRecordsDeserializer(Deserializer<K> keyDeserializer, Deserializer<V> valueDeserializer, int parallelism) {
+        this(keyDeserializer, valueDeserializer, new ForkJoinPool(parallelism), true);
+    }
+
+    private ParallelRecordsDeserializer(Deserializer<K> keyDeserializer, Deserializer<V> valueDeserializer, ForkJoinPool pool, boolean ownsPool) {
+        this.keyDeserializer = keyDeserializer;
+        this.valueDeserializer = valueDeserializer;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Deserialization errors are thrown as is, the first failed record fails the batch.
+     */
+    public ConsumerRecords<K, V> deserialize(ConsumerRecords<byte[], byte[]> records) {
+        if (records.isEmpty()) {
+            return ConsumerRecords.empty();
+        }
+
+        List<ConsumerRecord<byte[], byte[]>> serialized = new ArrayList<>(records.count());
+        records.forEach(serialized::add);
+
+        preloadSchemas(keyDeserializer, serialized, true);
+        preloadSchemas(valueDeserializer, serialized, false);
+
+        @SuppressWarnings("unchecked")
+        ConsumerRecord<K, V>[] deserialized = new ConsumerRecord[serialized.size()];
+
+        pool.submit(() -> IntStream.range(0, deserialized.length)
+                .parallel()
+                .forEach(i -> deserialized[i] = deserialize(serialized.get(i))))
+                .join();
+
+        // records of the partition are contiguous in the iteration order of the batch
+        Map<TopicPartition, List<ConsumerRecord<K, V>>> result = new LinkedHashMap<>();
+
+        for (ConsumerRecord<K, V> record : deserialized) {
+            result.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), tp -> new ArrayList<>()).add(record);
+        }
+
+        return new ConsumerRecords<>(result);
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private ConsumerRecord<K, V> deserialize(ConsumerRecord<byte[], byte[]> record) {
+        K key = keyDeserializer.deserialize(record.topic(), record.headers(), record.key());
+        V value = valueDeserializer.deserialize(record.topic(), record.headers(), record.value());
+
+        return new ConsumerRecord<>(
+                record.topic(),
+                record.partition(),
+                record.offset(),
+                record.timestamp(),
+                record.timestampType(),
+                record.serializedKeySize(),
+                record.serializedValueSize(),
+                key,
+                value,
+                record.headers(),
+                record.leaderEpoch()
+        );
+    }
+
+    private static void preloadSchemas(Deserializer<?> deserializer, List<ConsumerRecord<byte[], byte[]>> records, boolean isKey) {
+        if (!(deserializer instanceof SchemaPreloader)) {
+            return;
+        }
+
+        Set<Integer> schemaIds = new LinkedHashSet<>();
+
+        for (ConsumerRecord<byte[], byte[]> record : records) {
+            byte[] data = isKey ? record.key() : record.value();
+
+            if (data == null) {
+                continue;
+            }
+
+            Header header = record.headers().lastHeader(SchemaIdHeaders.headerName(isKey));
+
+            try {
+                schemaIds.add(MessageHeader.parse(header == null ? data : header.value()).getSchemaId());
+            } catch (DeserializationException e) {
+                // invalid message fails on deserialization
+            }
+        }
+
+        if (!schemaIds.isEmpty()) {
+            ((SchemaPreloader) deserializer).preloadSchemas(schemaIds);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package schemakeeper.kafka.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.util.Arrays;
+
+/**
+ * Message header (protocol byte and schema id) in the kafka record header instead of the payload prefix, so the record
+ * contains the bare encoded payload. See {@link KafkaSerDeConfig#SCHEMA_ID_HEADER_CONFIG}.
+ */
+public final class SchemaIdHeaders {
+    public static final String KEY_SCHEMA_ID_HEADER = "schemakeeper.key.schema.id";
+    public static final String VALUE_SCHEMA_ID_HEADER = "schemakeeper.value.schema.id";
+
+    private SchemaIdHeaders() {
+    }
+
+    /**
+     * Schema id header can't be used with {@link SerDeConfig#COMPRESSION_ENABLED_CONFIG}: only the compression header
+     * would be moved, so the record would contain the deflate output instead of the bare encoded payload.
+     */
+    public static <C extends SerDeConfig & KafkaSerDeConfig> void validate(C config) throws ConfigurationException {
+        if (config.useSchemaIdHeader() && config.compressionEnabled()) {
+            throw new ConfigurationException(String.format(
+                    "%s can't be used with %s", KafkaSerDeConfig.SCHEMA_ID_HEADER_CONFIG, SerDeConfig.COMPRESSION_ENABLED_CONFIG
+            ));
+        }
+    }
+
+    public static String headerName(boolean isKey) {
+        return isKey ? KEY_SCHEMA_ID_HEADER : VALUE_SCHEMA_ID_HEADER;
+    }
+
+    /**
+     * Moves message header of the serialized message into the record headers.
+     *
+     * @param message - serialized message
+     * @return payload of the message
+     */
+    public static byte[] moveToHeaders(byte[] message, Headers headers, boolean isKey) {
+        if (message == null) {
+            return null;
+        }
+
+        String name = headerName(isKey);
+        int payloadOffset = MessageHeader.parse(message).getPayloadOffset();
+        headers.remove(name);
+        headers.add(name, Arrays.copyOfRange(message, 0, payloadOffset));
+
+        return Arrays.copyOfRange(message, payloadOffset, message.length);
+    }
+
+    /**
+     * Messages without the schema id header are returned as is: they are prefixed by the message header.
+     *
+     * @param data - record payload
+     * @return serialized message with the message header
+     */
+    public static byte[] fromHeaders(Headers headers, byte[] data, boolean isKey) throws DeserializationException {
+        if (data == null || headers == null) {
+            return data;
+        }
+
+        Header header = headers.lastHeader(headerName(isKey));
+
+        if (header == null) {
+            return data;
+        }
+
+        byte[] messageHeader = header.value();
+
+        if (messageHeader == null || messageHeader.length == 0) {
+            throw new DeserializationException(String.format("Header %s is empty", header.key()));
+        }
+
+        byte[] message = new byte[messageHeader.length + data.length];
+        System.arraycopy(messageHeader, 0, message, 0, messageHeader.length);
+        System.arraycopy(data, 0, message, messageHeader.length, data.length);
+
+        return message;
+    }
+}
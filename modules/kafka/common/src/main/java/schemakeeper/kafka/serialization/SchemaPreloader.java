@@ -0,0 +1,14 @@
+package schemakeeper.kafka.serialization;
+
+import java.util.Collection;
+
+/**
+ * Deserializer which can load the schemas of a batch before the messages are deserialized.
+ * See {@link ParallelRecordsDeserializer}.
+ */
+public interface SchemaPreloader {
+    /**
+     * @param schemaIds - distinct schema ids of the batch messages
+     */
+    void preloadSchemas(Collection<Integer> schemaIds);
+}
@@ -0,0 +1,51 @@
+package schemakeeper.kafka.serialization;
+
+import schemakeeper.serialization.SubjectSchema;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Subject names and schema ids resolved per topic and schema identity (schema or message class), so the naming strategy
+ * and registry client are called once per pair instead of once per message.
+ *
+ * @param <K> - schema identity
+ */
+public final class SubjectSchemaCache<K> {
+    private final Map<String, Map<K, SubjectSchema>> topics = new ConcurrentHashMap<>();
+    private final BiFunction<String, K, SubjectSchema> resolver;
+
+    /**
+     * @param resolver - resolves subject and schema id by topic and schema identity
+     */
+    public SubjectSchemaCache(BiFunction<String, K, SubjectSchema> resolver) {
+        this.resolver = resolver;
+    }
+
+    public SubjectSchema get(String topic, K key) {
+        Map<K, SubjectSchema> schemas = topics.get(topic);
+
+        if (schemas == null) {
+            schemas = topics.computeIfAbsent(topic, t -> new ConcurrentHashMap<>());
+        }
+
+        SubjectSchema subjectSchema = schemas.get(key);
+
+        // registry is called outside of the map lock, so concurrent misses of the same key may resolve it twice
+        if (subjectSchema == null) {
+            subjectSchema = resolver.apply(topic, key);
+            schemas.putIfAbsent(key, subjectSchema);
+        }
+
+        return subjectSchema;
+    }
+
+    public int size() {
+        return topics.values().stream().mapToInt(Map::size).sum();
+    }
+
+    public void clear() {
+        topics.clear();
+    }
+}
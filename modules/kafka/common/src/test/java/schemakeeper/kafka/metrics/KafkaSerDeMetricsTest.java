@@ -0,0 +1,68 @@
+package schemakeeper.kafka.metrics;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.Test;
+import schemakeeper.metrics.JmxSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class KafkaSerDeMetricsTest {
+    @Test
+    public void recordSerialization() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(SerDeConfig.SERDE_METRICS_CONFIG, "kafka");
+        configs.put("client.id", "producer-test");
+
+        try (SerDeMetrics serdeMetrics = KafkaSerDeMetrics.create(new SerDeConfig(configs), configs, SerDeMetrics.SERIALIZER, false)) {
+            assertTrue(serdeMetrics instanceof KafkaSerDeMetrics);
+
+            serdeMetrics.serialized("subject", 1, 10, 100);
+            serdeMetrics.serialized("subject", 1, 30, 300);
+            serdeMetrics.serializationFailed("subject", 1);
+
+            Metrics metrics = ((KafkaSerDeMetrics) serdeMetrics).getMetrics();
+            Map<String, String> tags = tags("producer-test", "subject", "subject");
+
+            assertEquals(2.0, value(metrics, "record-total", tags), 0.001);
+            assertEquals(40.0, value(metrics, "bytes-total", tags), 0.001);
+            assertEquals(30.0, value(metrics, "record-size-max", tags), 0.001);
+            assertEquals(200.0, value(metrics, "latency-avg-ns", tags), 0.001);
+            assertTrue(value(metrics, "latency-p50-ns", tags) > 0);
+            assertTrue(value(metrics, "latency-p99-ns", tags) >= value(metrics, "latency-p50-ns", tags));
+            assertTrue(value(metrics, "latency-p999-ns", tags) >= value(metrics, "latency-p99-ns", tags));
+            assertEquals(1.0, value(metrics, "error-total", tags), 0.001);
+            assertEquals(2.0, value(metrics, "record-total", tags("producer-test", "schema-id", "1")), 0.001);
+        }
+    }
+
+    @Test
+    public void delegateToCommonMetrics() {
+        Map<String, Object> configs = new HashMap<>();
+        assertSame(SerDeMetrics.NOOP, KafkaSerDeMetrics.create(new SerDeConfig(configs), configs, SerDeMetrics.DESERIALIZER, true));
+
+        configs.put(SerDeConfig.SERDE_METRICS_CONFIG, "jmx");
+        try (SerDeMetrics metrics = KafkaSerDeMetrics.create(new SerDeConfig(configs), configs, SerDeMetrics.DESERIALIZER, true)) {
+            assertTrue(metrics instanceof JmxSerDeMetrics);
+        }
+    }
+
+    private static Map<String, String> tags(String clientId, String key, String value) {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("client-id", clientId);
+        tags.put("serde", SerDeMetrics.SERIALIZER);
+        tags.put("target", "value");
+        tags.put(key, value);
+        return tags;
+    }
+
+    private static double value(Metrics metrics, String name, Map<String, String> tags) {
+        MetricName metricName = metrics.metricName(name, KafkaSerDeMetrics.GROUP, tags);
+        return (double) metrics.metric(metricName).metricValue();
+    }
+}
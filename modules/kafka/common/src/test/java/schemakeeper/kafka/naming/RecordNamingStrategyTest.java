@@ -5,6 +5,9 @@ import org.apache.avro.SchemaBuilder;
 import org.apache.kafka.common.errors.SerializationException;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 
 public class RecordNamingStrategyTest {
@@ -28,4 +31,13 @@ public class RecordNamingStrategyTest {
                 .endRecord();
         assertEquals("test", strategy.resolveSubjectName("topic", false, schema));
     }
+
+    @Test
+    public void topicsSubjects() {
+        Schema schema = SchemaBuilder.record("test")
+                .fields()
+                .requiredString("f1")
+                .endRecord();
+        assertEquals(Collections.singletonList("test"), strategy.resolveSubjectNames(Arrays.asList("a", "b"), false, schema));
+    }
 }
@@ -4,6 +4,8 @@ import org.junit.Test;
 import schemakeeper.kafka.naming.TopicNamingStrategy;
 import schemakeeper.kafka.naming.NamingStrategy;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 public class TopicNamingStrategyTest {
@@ -18,4 +20,9 @@ public class TopicNamingStrategyTest {
     public void valueSchema() {
         assertEquals(strategy.resolveSubjectName("topic", false, null), "topic-value");
     }
+
+    @Test
+    public void topicsSubjects() {
+        assertEquals(Arrays.asList("a-value", "b-value"), strategy.resolveSubjectNames(Arrays.asList("a", "b", "a"), false, null));
+    }
 }
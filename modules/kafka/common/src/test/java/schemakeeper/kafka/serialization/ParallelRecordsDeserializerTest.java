@@ -0,0 +1,137 @@
+package schemakeeper.kafka.serialization;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.Test;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.MessageReframer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ParallelRecordsDeserializerTest {
+    private static final String TOPIC = "test";
+
+    @Test
+    public void keepPartitionOrder() {
+        Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> partitions = new HashMap<>();
+
+        for (int partition = 0; partition < 3; partition++) {
+            List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+
+            for (int offset = 0; offset < 100; offset++) {
+                records.add(new ConsumerRecord<>(TOPIC, partition, offset, message(offset % 2 + 1, offset), message(partition + 10, offset)));
+            }
+
+            partitions.put(new TopicPartition(TOPIC, partition), records);
+        }
+
+        SchemaIdDeserializer keyDeserializer = new SchemaIdDeserializer(true);
+        SchemaIdDeserializer valueDeserializer = new SchemaIdDeserializer(false);
+
+        try (ParallelRecordsDeserializer<String, String> deserializer = new ParallelRecordsDeserializer<>(keyDeserializer, valueDeserializer, 4)) {
+            ConsumerRecords<String, String> result = deserializer.deserialize(new ConsumerRecords<>(partitions));
+
+            assertEquals(300, result.count());
+
+            for (int partition = 0; partition < 3; partition++) {
+                List<ConsumerRecord<String, String>> records = result.records(new TopicPartition(TOPIC, partition));
+
+                for (int offset = 0; offset < records.size(); offset++) {
+                    ConsumerRecord<String, String> record = records.get(offset);
+                    assertEquals(offset, record.offset());
+                    assertEquals((offset % 2 + 1) + ":" + offset, record.key());
+                    assertEquals((partition + 10) + ":" + offset, record.value());
+                }
+            }
+        }
+
+        // schemas are loaded once per batch before deserialization
+        assertEquals(Arrays.asList(Arrays.asList(1, 2)), keyDeserializer.preloaded);
+        assertEquals(Arrays.asList(Arrays.asList(10, 11, 12)), valueDeserializer.preloaded);
+    }
+
+    @Test
+    public void readSchemaIdHeaders() {
+        Headers headers = new RecordHeaders();
+        byte[] payload = SchemaIdHeaders.moveToHeaders(message(7, 1), headers, false);
+        ConsumerRecord<byte[], byte[]> headerRecord = new ConsumerRecord<>(TOPIC, 0, 1, ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE,
+                ConsumerRecord.NULL_SIZE, payload.length, null, payload, headers, Optional.empty());
+
+        Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> partitions = new HashMap<>();
+        partitions.put(new TopicPartition(TOPIC, 0), Arrays.asList(new ConsumerRecord<>(TOPIC, 0, 0, null, message(5, 0)), headerRecord));
+        SchemaIdDeserializer valueDeserializer = new SchemaIdDeserializer(false);
+
+        try (ParallelRecordsDeserializer<String, String> deserializer = new ParallelRecordsDeserializer<>(new SchemaIdDeserializer(true), valueDeserializer, ForkJoinPool.commonPool())) {
+            List<String> values = new ArrayList<>();
+            deserializer.deserialize(new ConsumerRecords<>(partitions)).forEach(r -> values.add(r.value()));
+
+            assertEquals(Arrays.asList("5:0", "7:1"), values);
+        }
+
+        assertEquals(Arrays.asList(Arrays.asList(5, 7)), valueDeserializer.preloaded);
+    }
+
+    @Test
+    public void emptyRecords() {
+        try (ParallelRecordsDeserializer<String, String> deserializer = new ParallelRecordsDeserializer<>(new SchemaIdDeserializer(true), new SchemaIdDeserializer(false), 1)) {
+            assertTrue(deserializer.deserialize(ConsumerRecords.empty()).isEmpty());
+        }
+    }
+
+    private static byte[] message(int schemaId, int value) {
+        return MessageReframer.frame(MessageHeader.AVRO_BYTE, schemaId, new byte[] {(byte) value}, 0, 1);
+    }
+
+    /**
+     * Deserializes message to "schemaId:payload" and checks that the schema is preloaded.
+     */
+    private static class SchemaIdDeserializer implements Deserializer<String>, SchemaPreloader {
+        private final List<List<Integer>> preloaded = new ArrayList<>();
+        private final Set<Integer> schemas = ConcurrentHashMap.newKeySet();
+        private final boolean isKey;
+
+        private SchemaIdDeserializer(boolean isKey) {
+            this.isKey = isKey;
+        }
+
+        @Override
+        public String deserialize(String topic, byte[] data) {
+            if (data == null) {
+                return null;
+            }
+
+            MessageHeader header = MessageHeader.parse(data);
+            assertTrue(schemas.contains(header.getSchemaId()));
+
+            return header.getSchemaId() + ":" + data[header.getPayloadOffset()];
+        }
+
+        @Override
+        public String deserialize(String topic, Headers headers, byte[] data) {
+            return deserialize(topic, SchemaIdHeaders.fromHeaders(headers, data, isKey));
+        }
+
+        @Override
+        public void preloadSchemas(Collection<Integer> schemaIds) {
+            preloaded.add(schemaIds.stream().sorted().collect(Collectors.toList()));
+            schemas.addAll(schemaIds);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package schemakeeper.kafka.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.Test;
+import schemakeeper.exception.ConfigurationException;
+import schemakeeper.exception.DeserializationException;
+import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.naming.TopicNamingStrategy;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.MessageReframer;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SchemaIdHeadersTest {
+    private final byte[] payload = new byte[] {1, 2, 3};
+
+    @Test
+    public void moveMessageHeader() {
+        byte[] message = MessageReframer.frame(MessageHeader.AVRO_BYTE, 5, payload, 0, payload.length);
+        Headers headers = new RecordHeaders();
+
+        byte[] result = SchemaIdHeaders.moveToHeaders(message, headers, false);
+
+        assertArrayEquals(payload, result);
+        assertArrayEquals(new byte[] {MessageHeader.AVRO_BYTE, 0, 0, 0, 5}, headers.lastHeader(SchemaIdHeaders.VALUE_SCHEMA_ID_HEADER).value());
+        assertNull(headers.lastHeader(SchemaIdHeaders.KEY_SCHEMA_ID_HEADER));
+        assertArrayEquals(message, SchemaIdHeaders.fromHeaders(headers, result, false));
+    }
+
+    @Test
+    public void replaceMessageHeader() {
+        Headers headers = new RecordHeaders();
+
+        SchemaIdHeaders.moveToHeaders(MessageReframer.frame(MessageHeader.AVRO_BYTE, 5, payload, 0, payload.length), headers, true);
+        SchemaIdHeaders.moveToHeaders(MessageReframer.frame(MessageHeader.COMPACT_AVRO_BYTE, 6, payload, 0, payload.length), headers, true);
+
+        assertEquals(1, headers.toArray().length);
+        assertEquals(6, MessageHeader.parse(SchemaIdHeaders.fromHeaders(headers, payload, true)).getSchemaId());
+    }
+
+    @Test
+    public void readPrefixedMessage() {
+        byte[] message = MessageReframer.frame(MessageHeader.AVRO_BYTE, 5, payload, 0, payload.length);
+
+        assertSame(message, SchemaIdHeaders.fromHeaders(new RecordHeaders(), message, false));
+        assertSame(message, SchemaIdHeaders.fromHeaders(null, message, false));
+        assertNull(SchemaIdHeaders.fromHeaders(new RecordHeaders(), null, false));
+        assertNull(SchemaIdHeaders.moveToHeaders(null, new RecordHeaders(), false));
+    }
+
+    @Test
+    public void throwErrorForEmptyHeader() {
+        Headers headers = new RecordHeaders().add(SchemaIdHeaders.VALUE_SCHEMA_ID_HEADER, new byte[0]);
+
+        assertThrows(DeserializationException.class, () -> SchemaIdHeaders.fromHeaders(headers, payload, false));
+    }
+
+    @Test
+    public void rejectCompression() {
+        Map<String, Object> map = new HashMap<>();
+        map.put(KafkaSerDeConfig.SCHEMA_ID_HEADER_CONFIG, true);
+        SchemaIdHeaders.validate(new TestConfig(map));
+
+        map.put(SerDeConfig.COMPRESSION_ENABLED_CONFIG, true);
+        assertThrows(ConfigurationException.class, () -> SchemaIdHeaders.validate(new TestConfig(map)));
+
+        map.put(KafkaSerDeConfig.SCHEMA_ID_HEADER_CONFIG, false);
+        SchemaIdHeaders.validate(new TestConfig(map));
+    }
+
+    private static final class TestConfig extends SerDeConfig implements KafkaSerDeConfig {
+        private TestConfig(Map<String, Object> config) {
+            super(config);
+        }
+
+        @Override
+        public NamingStrategy getKeyNamingStrategy() {
+            return TopicNamingStrategy.INSTANCE;
+        }
+
+        @Override
+        public NamingStrategy getValueNamingStrategy() {
+            return TopicNamingStrategy.INSTANCE;
+        }
+
+        @Override
+        public List<String> getWarmupTopics() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean useSchemaIdHeader() {
+            return (boolean) config.getOrDefault(SCHEMA_ID_HEADER_CONFIG, false);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package schemakeeper.kafka.serialization;
+
+import org.apache.avro.Schema;
+import org.junit.Test;
+import schemakeeper.serialization.SubjectSchema;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SubjectSchemaCacheTest {
+    private final Schema schema = Schema.create(Schema.Type.STRING);
+
+    @Test
+    public void resolveOncePerTopicAndSchema() {
+        AtomicInteger calls = new AtomicInteger();
+        SubjectSchemaCache<Schema> cache = new SubjectSchemaCache<>((topic, schema) -> new SubjectSchema(topic + "-value", schema, calls.incrementAndGet()));
+
+        SubjectSchema a = cache.get("a", schema);
+
+        assertSame(a, cache.get("a", schema));
+        assertEquals(new SubjectSchema("a-value", schema, 1), a);
+        assertEquals(new SubjectSchema("b-value", schema, 2), cache.get("b", schema));
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.size());
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void failedResolutionIsNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        SubjectSchemaCache<Schema> cache = new SubjectSchemaCache<>((topic, schema) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalArgumentException("Schema was not registered in registry");
+            }
+
+            return new SubjectSchema(topic, schema, 1);
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("a", schema));
+        assertEquals(new SubjectSchema("a", schema, 1), cache.get("a", schema));
+    }
+}
@@ -1,12 +1,22 @@
 package schemakeeper.kafka.serialization.protobuf;
 
 import com.google.protobuf.GeneratedMessageV3;
+import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.serialization.SchemaIdHeaders;
+import schemakeeper.kafka.serialization.SchemaPreloader;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.kafka.metrics.KafkaSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SchemaWarmUp;
 import schemakeeper.serialization.protobuf.ProtobufDeserializer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
-public class KafkaProtobufDeserializer implements Deserializer<com.google.protobuf.GeneratedMessageV3> {
+public class KafkaProtobufDeserializer implements Deserializer<com.google.protobuf.GeneratedMessageV3>, SchemaPreloader {
     private ProtobufDeserializer deserializer;
     boolean isKey;
 
@@ -22,7 +32,16 @@ public class KafkaProtobufDeserializer implements Deserializer<com.google.protob
     public void configure(Map<String, ?> configs, boolean isKey) {
         KafkaProtobufSerDeConfig config = new KafkaProtobufSerDeConfig((Map<String, Object>) configs);
         this.isKey = isKey;
-        this.deserializer = new ProtobufDeserializer(config);
+        // warm-up classes are resolved once below under the subjects of the warm-up topics, not under the record names
+        this.deserializer = new ProtobufDeserializer(
+                new CachedSchemaKeeperClient(config),
+                new KafkaProtobufSerDeConfig(SchemaWarmUp.withoutWarmUp(configs)),
+                KafkaSerDeMetrics.create(config, configs, SerDeMetrics.DESERIALIZER, isKey)
+        );
+
+        List<String> topics = config.getWarmupTopics();
+        NamingStrategy namingStrategy = isKey ? config.getKeyNamingStrategy() : config.getValueNamingStrategy();
+        deserializer.warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), com.google.protobuf.GeneratedMessageV3.class), schema -> namingStrategy.resolveSubjectNames(topics, isKey, schema));
     }
 
     @Override
@@ -30,6 +49,19 @@ public class KafkaProtobufDeserializer implements Deserializer<com.google.protob
         return deserializer.deserialize(data);
     }
 
+    /**
+     * Reads message header from the record header if it is present, otherwise payload should be prefixed by the message header.
+     */
+    @Override
+    public GeneratedMessageV3 deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, SchemaIdHeaders.fromHeaders(headers, data, isKey));
+    }
+
+    @Override
+    public void preloadSchemas(Collection<Integer> schemaIds) {
+        deserializer.preloadSchemas(schemaIds);
+    }
+
     @Override
     public void close() {
         deserializer.close();
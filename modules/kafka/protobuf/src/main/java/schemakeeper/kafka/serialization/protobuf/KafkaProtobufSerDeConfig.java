@@ -5,6 +5,7 @@ import schemakeeper.kafka.naming.NamingStrategy;
 import schemakeeper.kafka.serialization.KafkaSerDeConfig;
 import schemakeeper.serialization.protobuf.ProtobufSerDeConfig;
 
+import java.util.List;
 import java.util.Map;
 
 public class KafkaProtobufSerDeConfig extends ProtobufSerDeConfig implements KafkaSerDeConfig {
@@ -19,4 +20,12 @@ public class KafkaProtobufSerDeConfig extends ProtobufSerDeConfig implements Kaf
     public NamingStrategy getValueNamingStrategy() {
         return (NamingStrategy) config.getOrDefault(VALUE_NAMING_STRATEGY_CONFIG, TopicNamingStrategy.INSTANCE);
     }
-}
\ No newline at end of file
+
+    public List<String> getWarmupTopics() {
+        return stringList(WARMUP_TOPICS_CONFIG);
+    }
+
+    public boolean useSchemaIdHeader() {
+        return (boolean) config.getOrDefault(SCHEMA_ID_HEADER_CONFIG, false);
+    }
+}
@@ -1,18 +1,31 @@
 package schemakeeper.kafka.serialization.protobuf;
 
 import com.google.protobuf.GeneratedMessageV3;
+import org.apache.avro.Schema;
 import org.apache.avro.protobuf.ProtobufData;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Serializer;
 import schemakeeper.kafka.naming.TopicNamingStrategy;
 import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.serialization.SchemaIdHeaders;
+import schemakeeper.kafka.serialization.SubjectSchemaCache;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.kafka.metrics.KafkaSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SchemaWarmUp;
+import schemakeeper.serialization.SubjectSchema;
 import schemakeeper.serialization.protobuf.ProtobufSerializer;
 
+import java.util.List;
 import java.util.Map;
 
 public class KafkaProtobufSerializer implements Serializer<com.google.protobuf.GeneratedMessageV3> {
     private ProtobufSerializer serializer;
     private NamingStrategy namingStrategy;
     private boolean isKey;
+    private boolean useSchemaIdHeader;
+    // subject and schema id per topic and message class
+    private final SubjectSchemaCache<Class<?>> subjectSchemas = new SubjectSchemaCache<>(this::resolveSchema);
 
     public KafkaProtobufSerializer() {
     }
@@ -28,16 +41,46 @@ public class KafkaProtobufSerializer implements Serializer<com.google.protobuf.G
         KafkaProtobufSerDeConfig config = new KafkaProtobufSerDeConfig((Map<String, Object>) configs);
         this.isKey = isKey;
         this.namingStrategy = isKey ? config.getKeyNamingStrategy() : config.getValueNamingStrategy();
-        this.serializer = new ProtobufSerializer(config);
+        SchemaIdHeaders.validate(config);
+        this.useSchemaIdHeader = config.useSchemaIdHeader();
+        // warm-up classes are resolved once below under the subjects of the warm-up topics, not under the record names
+        this.serializer = new ProtobufSerializer(
+                new CachedSchemaKeeperClient(config),
+                new KafkaProtobufSerDeConfig(SchemaWarmUp.withoutWarmUp(configs)),
+                KafkaSerDeMetrics.create(config, configs, SerDeMetrics.SERIALIZER, isKey)
+        );
+
+        List<String> topics = config.getWarmupTopics();
+        serializer.warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), com.google.protobuf.GeneratedMessageV3.class), schema -> namingStrategy.resolveSubjectNames(topics, isKey, schema));
     }
 
     @Override
     public byte[] serialize(String topic, GeneratedMessageV3 data) {
-        return serializer.serialize(namingStrategy.resolveSubjectName(topic, isKey, ProtobufData.get().getSchema(data.getClass())), data);
+        if (data == null) {
+            return null;
+        }
+
+        return serializer.serialize(subjectSchemas.get(topic, data.getClass()), data);
+    }
+
+    /**
+     * Message header is written into the record header if {@link KafkaProtobufSerDeConfig#SCHEMA_ID_HEADER_CONFIG} is enabled,
+     * so the record contains the bare encoded payload.
+     */
+    @Override
+    public byte[] serialize(String topic, Headers headers, GeneratedMessageV3 data) {
+        byte[] message = serialize(topic, data);
+        return useSchemaIdHeader ? SchemaIdHeaders.moveToHeaders(message, headers, isKey) : message;
     }
 
     @Override
     public void close() {
+        subjectSchemas.clear();
         serializer.close();
     }
+
+    private SubjectSchema resolveSchema(String topic, Class<?> clazz) {
+        Schema schema = ProtobufData.get().getSchema(clazz);
+        return serializer.resolveSchema(namingStrategy.resolveSubjectName(topic, isKey, schema), schema);
+    }
 }
@@ -1,13 +1,23 @@
 package schemakeeper.kafka.serialization.thrift;
 
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
+import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.serialization.SchemaIdHeaders;
+import schemakeeper.kafka.serialization.SchemaPreloader;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TFieldIdEnum;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.kafka.metrics.KafkaSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SchemaWarmUp;
 import schemakeeper.serialization.thrift.ThriftDeserializer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
-public class KafkaThriftDeserializer implements Deserializer<TBase<? extends TBase, ? extends TFieldIdEnum>> {
+public class KafkaThriftDeserializer implements Deserializer<TBase<? extends TBase, ? extends TFieldIdEnum>>, SchemaPreloader {
     private ThriftDeserializer deserializer;
     private boolean isKey;
 
@@ -23,7 +33,16 @@ public class KafkaThriftDeserializer implements Deserializer<TBase<? extends TBa
     public void configure(Map<String, ?> configs, boolean isKey) {
         KafkaThriftSerDeConfig config = new KafkaThriftSerDeConfig((Map<String, Object>) configs);
         this.isKey = isKey;
-        this.deserializer = new ThriftDeserializer(config);
+        // warm-up classes are resolved once below under the subjects of the warm-up topics, not under the record names
+        this.deserializer = new ThriftDeserializer(
+                new CachedSchemaKeeperClient(config),
+                new KafkaThriftSerDeConfig(SchemaWarmUp.withoutWarmUp(configs)),
+                KafkaSerDeMetrics.create(config, configs, SerDeMetrics.DESERIALIZER, isKey)
+        );
+
+        List<String> topics = config.getWarmupTopics();
+        NamingStrategy namingStrategy = isKey ? config.getKeyNamingStrategy() : config.getValueNamingStrategy();
+        deserializer.warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), TBase.class), schema -> namingStrategy.resolveSubjectNames(topics, isKey, schema));
     }
 
     @Override
@@ -31,6 +50,19 @@ public class KafkaThriftDeserializer implements Deserializer<TBase<? extends TBa
         return deserializer.deserialize(data);
     }
 
+    /**
+     * Reads message header from the record header if it is present, otherwise payload should be prefixed by the message header.
+     */
+    @Override
+    public TBase<? extends TBase, ? extends TFieldIdEnum> deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, SchemaIdHeaders.fromHeaders(headers, data, isKey));
+    }
+
+    @Override
+    public void preloadSchemas(Collection<Integer> schemaIds) {
+        deserializer.preloadSchemas(schemaIds);
+    }
+
     @Override
     public void close() {
         deserializer.close();
@@ -5,6 +5,7 @@ import schemakeeper.kafka.naming.NamingStrategy;
 import schemakeeper.kafka.serialization.KafkaSerDeConfig;
 import schemakeeper.serialization.thrift.ThriftSerDeConfig;
 
+import java.util.List;
 import java.util.Map;
 
 public class KafkaThriftSerDeConfig extends ThriftSerDeConfig implements KafkaSerDeConfig {
@@ -19,4 +20,12 @@ public class KafkaThriftSerDeConfig extends ThriftSerDeConfig implements KafkaSe
     public NamingStrategy getValueNamingStrategy() {
         return (NamingStrategy) config.getOrDefault(VALUE_NAMING_STRATEGY_CONFIG, TopicNamingStrategy.INSTANCE);
     }
+
+    public List<String> getWarmupTopics() {
+        return stringList(WARMUP_TOPICS_CONFIG);
+    }
+
+    public boolean useSchemaIdHeader() {
+        return (boolean) config.getOrDefault(SCHEMA_ID_HEADER_CONFIG, false);
+    }
 }
@@ -1,19 +1,32 @@
 package schemakeeper.kafka.serialization.thrift;
 
+import org.apache.avro.Schema;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TFieldIdEnum;
 import schemakeeper.kafka.naming.TopicNamingStrategy;
 import schemakeeper.kafka.naming.NamingStrategy;
+import schemakeeper.kafka.serialization.SchemaIdHeaders;
+import schemakeeper.kafka.serialization.SubjectSchemaCache;
 import schemakeeper.schema.thrift.SchemaKeeperThriftData;
+import schemakeeper.client.CachedSchemaKeeperClient;
+import schemakeeper.kafka.metrics.KafkaSerDeMetrics;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.serialization.SchemaWarmUp;
+import schemakeeper.serialization.SubjectSchema;
 import schemakeeper.serialization.thrift.ThriftSerializer;
 
+import java.util.List;
 import java.util.Map;
 
 public class KafkaThriftSerializer implements Serializer<TBase<? extends TBase, ? extends TFieldIdEnum>> {
     private ThriftSerializer serializer;
     private NamingStrategy namingStrategy;
     private boolean isKey;
+    private boolean useSchemaIdHeader;
+    // subject and schema id per topic and message class
+    private final SubjectSchemaCache<Class<?>> subjectSchemas = new SubjectSchemaCache<>(this::resolveSchema);
 
     public KafkaThriftSerializer() {
     }
@@ -29,16 +42,46 @@ public class KafkaThriftSerializer implements Serializer<TBase<? extends TBase,
         KafkaThriftSerDeConfig config = new KafkaThriftSerDeConfig((Map<String, Object>) configs);
         this.isKey = isKey;
         this.namingStrategy = isKey ? config.getKeyNamingStrategy() : config.getValueNamingStrategy();
-        this.serializer = new ThriftSerializer(config);
+        SchemaIdHeaders.validate(config);
+        this.useSchemaIdHeader = config.useSchemaIdHeader();
+        // warm-up classes are resolved once below under the subjects of the warm-up topics, not under the record names
+        this.serializer = new ThriftSerializer(
+                new CachedSchemaKeeperClient(config),
+                new KafkaThriftSerDeConfig(SchemaWarmUp.withoutWarmUp(configs)),
+                KafkaSerDeMetrics.create(config, configs, SerDeMetrics.SERIALIZER, isKey)
+        );
+
+        List<String> topics = config.getWarmupTopics();
+        serializer.warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), TBase.class), schema -> namingStrategy.resolveSubjectNames(topics, isKey, schema));
     }
 
     @Override
     public byte[] serialize(String topic, TBase<? extends TBase, ? extends TFieldIdEnum> data) {
-        return serializer.serialize(namingStrategy.resolveSubjectName(topic, isKey, SchemaKeeperThriftData.get().getSchema(data.getClass())), data);
+        if (data == null) {
+            return null;
+        }
+
+        return serializer.serialize(subjectSchemas.get(topic, data.getClass()), data);
+    }
+
+    /**
+     * Message header is written into the record header if {@link KafkaThriftSerDeConfig#SCHEMA_ID_HEADER_CONFIG} is enabled,
+     * so the record contains the bare encoded payload.
+     */
+    @Override
+    public byte[] serialize(String topic, Headers headers, TBase<? extends TBase, ? extends TFieldIdEnum> data) {
+        byte[] message = serialize(topic, data);
+        return useSchemaIdHeader ? SchemaIdHeaders.moveToHeaders(message, headers, isKey) : message;
     }
 
     @Override
     public void close() {
+        subjectSchemas.clear();
         serializer.close();
     }
+
+    private SubjectSchema resolveSchema(String topic, Class<?> clazz) {
+        Schema schema = SchemaKeeperThriftData.get().getSchema(clazz);
+        return serializer.resolveSchema(namingStrategy.resolveSubjectName(topic, isKey, schema), schema);
+    }
 }
@@ -1,31 +1,54 @@
 package schemakeeper.serialization.protobuf;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import org.apache.avro.Schema;
 import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.protobuf.ProtobufData;
 import org.apache.avro.protobuf.ProtobufDatumReader;
+import org.apache.avro.specific.SpecificData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.client.CachedSchemaKeeperClient;
 import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.client.compression.DictionaryCompression;
 import schemakeeper.exception.ProtobufDeserializationException;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.AbstractDeserializer;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.RecordStreamReader;
+import schemakeeper.serialization.SchemaWarmUp;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class ProtobufDeserializer extends AbstractDeserializer<com.google.protobuf.GeneratedMessageV3> implements ProtobufSerDe {
     private static final Logger logger = LoggerFactory.getLogger(ProtobufDeserializer.class);
     private final DecoderFactory decoderFactory;
     private final SchemaKeeperClient client;
-
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+    private final DictionaryCompression compression;
+    // datum readers per expected class (GeneratedMessageV3.class - read with the writer schema) and writer schema id
+    private final Map<Class<?>, Map<Integer, ProtobufDatumReader<?>>> readers = new ConcurrentHashMap<>();
+    // parsers of the generated classes for the native messages
+    private final Map<Class<?>, Parser<?>> parsers = new ConcurrentHashMap<>();
+    // max number of concurrent registry calls on warm-up
+    private final int warmUpParallelism;
 
     public ProtobufDeserializer(ProtobufSerDeConfig config) {
-        this.client = new CachedSchemaKeeperClient(config);
-        this.decoderFactory = DecoderFactory.get();
+        this(new CachedSchemaKeeperClient(config), config);
     }
 
     public ProtobufDeserializer(SchemaKeeperClient client) {
@@ -33,8 +56,20 @@ public class ProtobufDeserializer extends AbstractDeserializer<com.google.protob
     }
 
     public ProtobufDeserializer(SchemaKeeperClient client, ProtobufSerDeConfig config) {
+        this(client, config, config == null ? SerDeMetrics.NOOP : SerDeMetrics.create(config, SerDeMetrics.DESERIALIZER));
+    }
+
+    public ProtobufDeserializer(SchemaKeeperClient client, ProtobufSerDeConfig config, SerDeMetrics metrics) {
+        super(metrics);
+
         this.decoderFactory = DecoderFactory.get();
         this.client = client;
+        this.compression = new DictionaryCompression(client);
+        this.warmUpParallelism = config == null ? 1 : config.clientConnectionsPerRoute();
+
+        if (config != null) {
+            warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), com.google.protobuf.GeneratedMessageV3.class), SchemaWarmUp::recordNameSubject);
+        }
     }
 
     public ProtobufDeserializer(Map<String, Object> config) {
@@ -51,36 +86,270 @@ public class ProtobufDeserializer extends AbstractDeserializer<com.google.protob
             return null;
         }
 
+        long start = getMetrics().start();
+        int schemaId = 0;
+
         try {
             ByteBuffer buffer = ByteBuffer.wrap(data);
             byte protocol = readProtocolByte(buffer);
+            boolean compressed = protocol == MessageHeader.COMPRESSED_BYTE;
 
-            if (protocol != PROTOBUF_BYTE) {
-                throw new ProtobufDeserializationException("This is not protobuf-serialized data");
+            if (compressed) {
+                protocol = readProtocolByte(buffer);
             }
 
-            int schemaId = readSchemaId(buffer);
+            checkProtocolByte(protocol);
+
+            schemaId = readSchemaId(buffer, protocol);
             Schema schema = client.getSchemaById(schemaId);
 
             if (schema == null) {
                 throw new ProtobufDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
             }
 
-            int dataLength = buffer.limit() - 5;
-            int start = buffer.position() + buffer.arrayOffset();
-            BinaryDecoder binaryDecoder = decoderFactory.binaryDecoder(buffer.array(), start, dataLength, null);
-            ProtobufDatumReader<T> reader = createReader(schema, clazz);
-            T result = reader.read(null, binaryDecoder);
+            if (compressed) {
+                buffer = compression.decompress(buffer);
+            }
+
+            int dataLength = buffer.remaining();
+            int offset = buffer.position() + buffer.arrayOffset();
+            T result;
+
+            if (protocol == NATIVE_PROTOBUF_BYTE) {
+                result = parseNative(schema, clazz, buffer.array(), offset, dataLength);
+            } else {
+                BinaryDecoder binaryDecoder = binaryDecoder(buffer.array(), offset, dataLength);
+                result = reader(schemaId, schema, clazz).read(null, binaryDecoder);
+            }
 
+            deserialized(schemaId, data.length, start);
             return result;
         } catch (IOException e) {
-            throw new ProtobufDeserializationException(e);
+            throw deserializationFailed(schemaId, new ProtobufDeserializationException(e));
+        } catch (RuntimeException e) {
+            throw deserializationFailed(schemaId, e);
+        }
+    }
+
+    public List<com.google.protobuf.GeneratedMessageV3> deserializeBatch(byte[] data) throws ProtobufDeserializationException {
+        return deserializeBatch(data, null);
+    }
+
+    /**
+     * Deserializes messages written by {@link ProtobufSerializer#serializeBatch(String, List)}. Schema is resolved once per batch.
+     *
+     * @return messages in the same order or null if data is null
+     */
+    public <T extends com.google.protobuf.GeneratedMessageV3> List<T> deserializeBatch(byte[] data, Class<T> clazz) throws ProtobufDeserializationException {
+        if (data == null) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+        int schemaId = 0;
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte protocol = readProtocolByte(buffer);
+
+            checkBatchProtocolByte(protocol);
+
+            schemaId = readSchemaId(buffer, protocol);
+            Schema schema = client.getSchemaById(schemaId);
+
+            if (schema == null) {
+                throw new ProtobufDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
+            }
+
+            List<T> result = new ArrayList<>();
+            BinaryDecoder binaryDecoder = null;
+            boolean nativeEncoding = protocol == MessageHeader.NATIVE_BATCH_PROTOBUF_BYTE;
+            ProtobufDatumReader<T> reader = nativeEncoding ? null : reader(schemaId, schema, clazz);
+
+            while (buffer.hasRemaining()) {
+                int dataLength = readBatchRecordLength(buffer);
+                int offset = buffer.position() + buffer.arrayOffset();
+
+                if (nativeEncoding) {
+                    result.add(parseNative(schema, clazz, buffer.array(), offset, dataLength));
+                } else {
+                    binaryDecoder = decoderFactory.binaryDecoder(buffer.array(), offset, dataLength, binaryDecoder);
+                    result.add(reader.read(null, binaryDecoder));
+                }
+
+                buffer.position(buffer.position() + dataLength);
+            }
+
+            deserialized(schemaId, data.length, start);
+            return result;
+        } catch (IOException e) {
+            throw deserializationFailed(schemaId, new ProtobufDeserializationException(e));
+        } catch (RuntimeException e) {
+            throw deserializationFailed(schemaId, e);
+        }
+    }
+
+    public RecordStreamReader<com.google.protobuf.GeneratedMessageV3> deserializeStream(InputStream in) {
+        return deserializeStream(in, null);
+    }
+
+    /**
+     * Reads messages from the stream of length-delimited records (see {@link RecordStreamReader}).
+     * Datum readers are created once per schema id and shared with the other methods.
+     */
+    public <T extends com.google.protobuf.GeneratedMessageV3> RecordStreamReader<T> deserializeStream(InputStream in, Class<T> clazz) {
+        return new RecordStreamReader<>(in, streamRecordReader(clazz));
+    }
+
+    public RecordStreamReader<com.google.protobuf.GeneratedMessageV3> deserializeStream(ReadableByteChannel channel) {
+        return deserializeStream(channel, null);
+    }
+
+    public <T extends com.google.protobuf.GeneratedMessageV3> RecordStreamReader<T> deserializeStream(ReadableByteChannel channel, Class<T> clazz) {
+        return new RecordStreamReader<>(channel, streamRecordReader(clazz));
+    }
+
+    /**
+     * Derives schemas of the generated classes, resolves schema ids of the subjects and loads the schemas by id in parallel,
+     * so the first messages of these classes do not wait for the registry. Schemas are never registered.
+     * Called on creation for {@link ProtobufSerDeConfig#WARMUP_CLASSES_CONFIG} with the record names as subjects.
+     *
+     * @param subjects - subjects of the class schema
+     */
+    public void warmUp(List<Class<?>> classes, Function<Schema, List<String>> subjects) {
+        SchemaWarmUp.run(classes, warmUpParallelism, clazz -> {
+            Schema schema = ProtobufData.get().getSchema(clazz);
+            parsers.computeIfAbsent(clazz, ProtobufDeserializer::createParser);
+
+            for (String subject : subjects.apply(schema)) {
+                int id = client.getSchemaId(subject, schema, SchemaType.PROTOBUF);
+
+                if (id > 0) {
+                    client.getSchemaById(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the schemas by id, so the messages of a batch deserialized in parallel do not request the same schema concurrently.
+     */
+    public void preloadSchemas(Collection<Integer> schemaIds) {
+        for (int id : schemaIds) {
+            client.getSchemaById(id);
         }
     }
 
     @Override
     public void close() {
         client.close();
+        getMetrics().close();
+        compression.close();
+    }
+
+    /**
+     * Decoder is reused by the subsequent calls in the same thread.
+     */
+    private BinaryDecoder binaryDecoder(byte[] data, int offset, int length) {
+        BinaryDecoder reuse = decoders.get();
+        BinaryDecoder decoder = decoderFactory.binaryDecoder(data, offset, length, reuse);
+
+        if (decoder != reuse) {
+            decoders.set(decoder);
+        }
+
+        return decoder;
+    }
+
+    private <T extends com.google.protobuf.GeneratedMessageV3> RecordStreamReader.RecordReader<T> streamRecordReader(Class<T> clazz) {
+        return (protocolByte, schemaId, messageLength, dataLength, decoder) -> {
+            long start = getMetrics().start();
+
+            try {
+                checkProtocolByte(protocolByte);
+
+                Schema schema = client.getSchemaById(schemaId);
+
+                if (schema == null) {
+                    throw new ProtobufDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
+                }
+
+                T result;
+
+                if (protocolByte == NATIVE_PROTOBUF_BYTE) {
+                    byte[] bytes = new byte[dataLength];
+                    decoder.readFixed(bytes);
+                    result = parseNative(schema, clazz, bytes, 0, dataLength);
+                } else {
+                    result = reader(schemaId, schema, clazz).read(null, decoder);
+                }
+
+                deserialized(schemaId, messageLength, start);
+                return result;
+            } catch (IOException e) {
+                throw deserializationFailed(schemaId, new ProtobufDeserializationException(e));
+            } catch (RuntimeException e) {
+                throw deserializationFailed(schemaId, e);
+            }
+        };
+    }
+
+    private void checkProtocolByte(byte protocolByte) throws ProtobufDeserializationException {
+        if (MessageHeader.isBatch(protocolByte)) {
+            throw new ProtobufDeserializationException("Batch should be read by deserializeBatch");
+        }
+
+        if (protocolByte != PROTOBUF_BYTE && protocolByte != COMPACT_PROTOBUF_BYTE && protocolByte != NATIVE_PROTOBUF_BYTE) {
+            throw new ProtobufDeserializationException("This is not protobuf-serialized data");
+        }
+    }
+
+    private void checkBatchProtocolByte(byte protocolByte) throws ProtobufDeserializationException {
+        if (protocolByte != MessageHeader.BATCH_PROTOBUF_BYTE && protocolByte != MessageHeader.COMPACT_BATCH_PROTOBUF_BYTE &&
+                protocolByte != MessageHeader.NATIVE_BATCH_PROTOBUF_BYTE) {
+            throw new ProtobufDeserializationException("This is not a protobuf-serialized batch");
+        }
+    }
+
+    /**
+     * Parses protobuf wire format using parser of the generated class. Generated class is resolved by the writer schema
+     * if class is not specified.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends com.google.protobuf.GeneratedMessageV3> T parseNative(Schema schema, Class<T> clazz, byte[] data, int offset, int length) throws InvalidProtocolBufferException {
+        Class<?> messageClass = clazz == null ? SpecificData.get().getClass(schema) : clazz;
+
+        if (messageClass == null) {
+            throw new ProtobufDeserializationException(String.format("Class for schema %s does not exist", schema.getFullName()));
+        }
+
+        Parser<?> parser = parsers.computeIfAbsent(messageClass, ProtobufDeserializer::createParser);
+        return (T) parser.parseFrom(data, offset, length);
+    }
+
+    private static Parser<?> createParser(Class<?> clazz) {
+        try {
+            Message defaultInstance = (Message) clazz.getMethod("getDefaultInstance").invoke(null);
+            return defaultInstance.getParserForType();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ProtobufDeserializationException(String.format("Class %s is not a generated protobuf message", clazz.getName()), e);
+        }
+    }
+
+    /**
+     * @return datum reader cached per expected class and writer schema id, so the schemas are not resolved per message
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends com.google.protobuf.GeneratedMessageV3> ProtobufDatumReader<T> reader(int schemaId, Schema schema, Class<T> clazz) {
+        Class<?> key = clazz == null ? com.google.protobuf.GeneratedMessageV3.class : clazz;
+        Map<Integer, ProtobufDatumReader<?>> classReaders = readers.get(key);
+
+        if (classReaders == null) {
+            classReaders = readers.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+
+        ProtobufDatumReader<?> reader = classReaders.get(schemaId);
+        return (ProtobufDatumReader<T>) (reader != null ? reader : classReaders.computeIfAbsent(schemaId, id -> createReader(schema, clazz)));
     }
 
     private <T extends com.google.protobuf.GeneratedMessageV3> ProtobufDatumReader<T> createReader(Schema schema, Class<T> clazz) {
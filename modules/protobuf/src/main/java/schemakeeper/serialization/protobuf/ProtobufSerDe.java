@@ -1,5 +1,9 @@
 package schemakeeper.serialization.protobuf;
 
+import schemakeeper.serialization.MessageHeader;
+
 public interface ProtobufSerDe {
-    byte PROTOBUF_BYTE = 0b1111011;
+    byte PROTOBUF_BYTE = MessageHeader.PROTOBUF_BYTE;
+    byte COMPACT_PROTOBUF_BYTE = MessageHeader.COMPACT_PROTOBUF_BYTE;
+    byte NATIVE_PROTOBUF_BYTE = MessageHeader.NATIVE_PROTOBUF_BYTE;
 }
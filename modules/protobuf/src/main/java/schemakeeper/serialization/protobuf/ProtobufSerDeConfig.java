@@ -5,8 +5,14 @@ import schemakeeper.serialization.SerDeConfig;
 import java.util.Map;
 
 public class ProtobufSerDeConfig extends SerDeConfig {
+    // write protobuf wire format using generated code instead of avro binary encoding
+    public static final String USE_NATIVE_ENCODING_CONFIG = "use.native.encoding";
+
     public ProtobufSerDeConfig(Map<String, Object> config) {
         super(config);
     }
 
+    public boolean useNativeEncoding() {
+        return (boolean) config.getOrDefault(USE_NATIVE_ENCODING_CONFIG, false);
+    }
 }
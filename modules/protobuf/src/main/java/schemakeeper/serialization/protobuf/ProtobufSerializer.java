@@ -1,5 +1,6 @@
 package schemakeeper.serialization.protobuf;
 
+import com.google.protobuf.CodedOutputStream;
 import org.apache.avro.Schema;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.EncoderFactory;
@@ -9,16 +10,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.client.CachedSchemaKeeperClient;
 import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.client.compression.DictionaryCompression;
 import schemakeeper.exception.ProtobufSerializationException;
+import schemakeeper.metrics.SerDeMetrics;
 import schemakeeper.exception.SerializationException;
 import schemakeeper.schema.CompatibilityType;
 import schemakeeper.schema.SchemaType;
 import schemakeeper.serialization.AbstractSerializer;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.SchemaWarmUp;
+import schemakeeper.serialization.SubjectSchema;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class ProtobufSerializer extends AbstractSerializer<com.google.protobuf.GeneratedMessageV3> implements ProtobufSerDe {
     private static final Logger logger = LoggerFactory.getLogger(ProtobufSerializer.class);
@@ -26,26 +36,46 @@ public class ProtobufSerializer extends AbstractSerializer<com.google.protobuf.G
     private final SchemaKeeperClient client;
     private final boolean allowForceSchemaRegister;
     private final CompatibilityType compatibilityType;
+    private final DictionaryCompression compression;
+    // default or compact protocol byte
+    private final byte protocolByte;
+    private final boolean useNativeEncoding;
+    private final Map<Schema, ProtobufDatumWriter<com.google.protobuf.GeneratedMessageV3>> writers = new ConcurrentHashMap<>();
+    // max number of concurrent registry calls on warm-up
+    private final int warmUpParallelism;
 
     public ProtobufSerializer(SchemaKeeperClient client) {
         this.client = client;
         this.allowForceSchemaRegister = true;
         this.encoderFactory = EncoderFactory.get();
         this.compatibilityType = CompatibilityType.BACKWARD;
+        this.compression = null;
+        this.protocolByte = PROTOBUF_BYTE;
+        this.useNativeEncoding = false;
+        this.warmUpParallelism = 1;
     }
 
     public ProtobufSerializer(SchemaKeeperClient client, ProtobufSerDeConfig config) {
+        this(client, config, SerDeMetrics.create(config, SerDeMetrics.SERIALIZER));
+    }
+
+    public ProtobufSerializer(SchemaKeeperClient client, ProtobufSerDeConfig config, SerDeMetrics metrics) {
+        super(metrics);
+
         this.client = client;
         this.encoderFactory = EncoderFactory.get();
         this.allowForceSchemaRegister = config.allowForceSchemaRegister();
         this.compatibilityType = config.compatibilityType();
+        this.compression = config.compressionEnabled() ? new DictionaryCompression(client, config) : null;
+        this.protocolByte = config.compactHeader() ? COMPACT_PROTOBUF_BYTE : PROTOBUF_BYTE;
+        this.useNativeEncoding = config.useNativeEncoding();
+        this.warmUpParallelism = config.clientConnectionsPerRoute();
+
+        warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), com.google.protobuf.GeneratedMessageV3.class), SchemaWarmUp::recordNameSubject);
     }
 
     public ProtobufSerializer(ProtobufSerDeConfig config) {
-        this.client = new CachedSchemaKeeperClient(config);
-        this.encoderFactory = EncoderFactory.get();
-        this.allowForceSchemaRegister = config.allowForceSchemaRegister();
-        this.compatibilityType = config.compatibilityType();
+        this(new CachedSchemaKeeperClient(config), config);
     }
 
     public ProtobufSerializer(Map<String, Object> config) {
@@ -58,38 +88,216 @@ public class ProtobufSerializer extends AbstractSerializer<com.google.protobuf.G
             return null;
         }
 
+        long start = getMetrics().start();
+        int id = 0;
+
         try {
             Schema schema = ProtobufData.get().getSchema(data.getClass());
-            int id;
+            id = getSchemaId(subject, schema);
+
+            return write(subject, schema, id, data, start);
+        } catch (IOException | SerializationException e) {
+            throw serializationFailed(subject, id, new ProtobufSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, id, e);
+        }
+    }
+
+    /**
+     * Serializes message with the schema resolved by {@link #resolveSchema(String, Schema)}: schema is not derived from
+     * the message class and registry is not called.
+     *
+     * @param subjectSchema - resolved schema of the message class
+     */
+    public byte[] serialize(SubjectSchema subjectSchema, com.google.protobuf.GeneratedMessageV3 data) throws ProtobufSerializationException {
+        if (data == null) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+
+        try {
+            return write(subjectSchema.getSubject(), subjectSchema.getSchema(), subjectSchema.getSchemaId(), data, start);
+        } catch (IOException | SerializationException e) {
+            throw serializationFailed(subjectSchema.getSubject(), subjectSchema.getSchemaId(), new ProtobufSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subjectSchema.getSubject(), subjectSchema.getSchemaId(), e);
+        }
+    }
+
+    /**
+     * Registers (or finds) the schema of the subject, so messages with this schema can be serialized without lookups
+     * by {@link #serialize(SubjectSchema, com.google.protobuf.GeneratedMessageV3)}.
+     */
+    public SubjectSchema resolveSchema(String subject, Schema schema) throws ProtobufSerializationException {
+        try {
+            return new SubjectSchema(subject, schema, getSchemaId(subject, schema));
+        } catch (SerializationException e) {
+            throw serializationFailed(subject, 0, new ProtobufSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, 0, e);
+        }
+    }
+
+    /**
+     * Serializes messages of the same type into one buffer: batch protocol byte and schema id are written once and followed by
+     * length-prefixed records. Schema is resolved once per batch. Result should be read by
+     * {@link ProtobufDeserializer#deserializeBatch(byte[])}.
+     *
+     * @return serialized batch or null if data is null or empty
+     */
+    public byte[] serializeBatch(String subject, List<? extends com.google.protobuf.GeneratedMessageV3> data) throws ProtobufSerializationException {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+        int id = 0;
 
-            if (allowForceSchemaRegister) {
-                id = client.registerNewSchema(subject, schema, SchemaType.PROTOBUF, compatibilityType);
+        try {
+            com.google.protobuf.GeneratedMessageV3 first = data.get(0);
+
+            if (first == null) {
+                throw new IllegalArgumentException("Batch can't contain null values");
+            }
+
+            Schema schema = ProtobufData.get().getSchema(first.getClass());
+            id = getSchemaId(subject, schema);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            if (useNativeEncoding) {
+                writeHeader(out, MessageHeader.NATIVE_BATCH_PROTOBUF_BYTE, id);
             } else {
-                id = client.getSchemaId(subject, schema, SchemaType.PROTOBUF);
+                writeHeader(out, MessageHeader.batchByteOf(protocolByte), id);
             }
 
-            if (id <= 0) {
-                throw new IllegalArgumentException(String.format("Schema %s was not registered in registry", schema.toString()));
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            BinaryEncoder encoder = null;
+            ProtobufDatumWriter<com.google.protobuf.GeneratedMessageV3> writer = useNativeEncoding ? null : createWriter(schema);
+
+            for (com.google.protobuf.GeneratedMessageV3 value : data) {
+                if (value == null) {
+                    throw new IllegalArgumentException("Batch can't contain null values");
+                }
+
+                if (value.getClass() != first.getClass()) {
+                    throw new IllegalArgumentException("All messages of the batch should have the same type");
+                }
+
+                record.reset();
+
+                if (useNativeEncoding) {
+                    value.writeTo(record);
+                } else {
+                    encoder = encoderFactory.directBinaryEncoder(record, encoder);
+                    writer.write(value, encoder);
+                    encoder.flush();
+                }
+
+                writeBatchRecord(out, record);
             }
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            writeProtocolByte(out, PROTOBUF_BYTE);
-            writeSchemaId(out, id);
-            BinaryEncoder encoder = encoderFactory.directBinaryEncoder(out, null);
-            ProtobufDatumWriter<com.google.protobuf.GeneratedMessageV3> writer = new ProtobufDatumWriter<>(schema);
-            writer.write(data, encoder);
-            encoder.flush();
             byte[] bytes = out.toByteArray();
             out.close();
+            serialized(subject, id, bytes.length, start);
             return bytes;
-
         } catch (IOException | SerializationException e) {
-            throw new ProtobufSerializationException(e);
+            throw serializationFailed(subject, id, new ProtobufSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, id, e);
         }
     }
 
+    /**
+     * Derives schemas of the generated classes, prebuilds their writers and resolves schema ids of the subjects
+     * in parallel, so the first messages of these classes do not wait for the registry. Schemas are never registered:
+     * the first message registers the schema if {@link ProtobufSerDeConfig#ALLOW_FORCE_SCHEMA_REGISTER_CONFIG} is enabled.
+     * Called on creation for {@link ProtobufSerDeConfig#WARMUP_CLASSES_CONFIG} with the record names as subjects.
+     *
+     * @param subjects - subjects of the class schema
+     */
+    public void warmUp(List<Class<?>> classes, Function<Schema, List<String>> subjects) {
+        SchemaWarmUp.run(classes, warmUpParallelism, clazz -> {
+            Schema schema = ProtobufData.get().getSchema(clazz);
+
+            if (!useNativeEncoding) {
+                createWriter(schema);
+            }
+
+            for (String subject : subjects.apply(schema)) {
+                client.getSchemaId(subject, schema, SchemaType.PROTOBUF);
+            }
+        });
+    }
+
     @Override
     public void close() {
         client.close();
+        getMetrics().close();
+
+        if (compression != null) {
+            compression.close();
+        }
+    }
+
+    /**
+     * Writes protobuf wire format using generated code into the single array. Schema id is always 4 bytes.
+     */
+    private byte[] writeNative(int id, com.google.protobuf.GeneratedMessageV3 data) throws IOException {
+        int size = data.getSerializedSize();
+        byte[] bytes = new byte[MessageHeader.HEADER_LENGTH + size];
+        ByteBuffer.wrap(bytes).put(NATIVE_PROTOBUF_BYTE).putInt(id);
+
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, MessageHeader.HEADER_LENGTH, size);
+        data.writeTo(out);
+        out.checkNoSpaceLeft();
+
+        return bytes;
+    }
+
+    private byte[] write(String subject, Schema schema, int id, com.google.protobuf.GeneratedMessageV3 data, long start) throws IOException {
+        byte[] bytes;
+
+        if (useNativeEncoding) {
+            bytes = writeNative(id, data);
+        } else {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeHeader(out, protocolByte, id);
+            BinaryEncoder encoder = encoderFactory.directBinaryEncoder(out, null);
+            ProtobufDatumWriter<com.google.protobuf.GeneratedMessageV3> writer = createWriter(schema);
+            writer.write(data, encoder);
+            encoder.flush();
+            bytes = out.toByteArray();
+            out.close();
+        }
+
+        if (compression != null) {
+            bytes = compression.compress(id, bytes);
+        }
+
+        serialized(subject, id, bytes.length, start);
+        return bytes;
+    }
+
+    private int getSchemaId(String subject, Schema schema) {
+        int id;
+
+        if (allowForceSchemaRegister) {
+            id = client.registerNewSchema(subject, schema, SchemaType.PROTOBUF, compatibilityType);
+        } else {
+            id = client.getSchemaId(subject, schema, SchemaType.PROTOBUF);
+        }
+
+        if (id <= 0) {
+            throw new IllegalArgumentException(String.format("Schema %s was not registered in registry", schema.toString()));
+        }
+
+        return id;
+    }
+
+    // writers are thread-safe, so writer is created once per schema
+    private ProtobufDatumWriter<com.google.protobuf.GeneratedMessageV3> createWriter(Schema schema) {
+        return writers.computeIfAbsent(schema, s -> new ProtobufDatumWriter<>(s));
     }
 }
@@ -0,0 +1,51 @@
+package schemakeeper.serialization.protobuf;
+
+import org.apache.avro.protobuf.ProtobufData;
+import org.junit.Test;
+import schemakeeper.client.MockSchemaKeeperClient;
+import schemakeeper.generated.protobuf.Message;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+import schemakeeper.serialization.AllocationMeter;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static schemakeeper.serialization.AllocationMeter.MARGIN;
+import static schemakeeper.serialization.AllocationMeter.assertBudget;
+
+/**
+ * Allocation budgets (bytes per message) of the serde hot path: measured value (openjdk 17) plus
+ * {@link AllocationMeter#MARGIN}. Budgets should only be decreased. Tests are skipped on other java versions.
+ */
+public class ProtobufAllocationTest {
+    // measured 392 bytes
+    private static final long SERIALIZE_BUDGET = 392 + MARGIN;
+    // measured 696 bytes
+    private static final long DESERIALIZE_BUDGET = 696 + MARGIN;
+
+    @Test
+    public void record() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        // schema is registered once, so the mock client does not affect measurements
+        config.put(SerDeConfig.ALLOW_FORCE_SCHEMA_REGISTER_CONFIG, false);
+
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ProtobufSerializer serializer = new ProtobufSerializer(client, new ProtobufSerDeConfig(config));
+        ProtobufDeserializer deserializer = new ProtobufDeserializer(client, new ProtobufSerDeConfig(config));
+
+        Message.ProtoMsgV4 message = Message.ProtoMsgV4
+                .newBuilder()
+                .setF1("f1")
+                .setF3("f3")
+                .setF4("f4")
+                .build();
+
+        client.registerNewSchema("test", ProtobufData.get().getSchema(Message.ProtoMsgV4.class), SchemaType.PROTOBUF, CompatibilityType.NONE);
+        byte[] data = serializer.serialize("test", message);
+
+        assertBudget("protobuf serialization", SERIALIZE_BUDGET, () -> serializer.serialize("test", message));
+        assertBudget("protobuf deserialization", DESERIALIZE_BUDGET, () -> deserializer.deserialize(data, Message.ProtoMsgV4.class));
+    }
+}
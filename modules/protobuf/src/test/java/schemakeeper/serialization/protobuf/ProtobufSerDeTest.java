@@ -6,6 +6,12 @@ import schemakeeper.exception.ProtobufDeserializationException;
 import schemakeeper.exception.ProtobufSerializationException;
 import schemakeeper.generated.protobuf.Message;
 import schemakeeper.schema.CompatibilityType;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.MessageReframer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -107,4 +113,72 @@ public class ProtobufSerDeTest {
         assertEquals(d.getClass(), Message.ProtoMsgV4.class);
         assertEquals(msgV4, d);
     }
+
+    @Test
+    public void batchSerializationTest() throws ProtobufSerializationException, ProtobufDeserializationException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ProtobufSerializer serializer = new ProtobufSerializer(client);
+        ProtobufDeserializer deserializer = new ProtobufDeserializer(client);
+
+        List<Message.ProtoMsgV1> messages = Arrays.asList(
+                Message.ProtoMsgV1.newBuilder().setF1("f1").setF2("f2").build(),
+                Message.ProtoMsgV1.newBuilder().setF1("f3").build(),
+                Message.ProtoMsgV1.newBuilder().setF1("f4").setF2("f5").build()
+        );
+
+        byte[] result = serializer.serializeBatch("test", messages);
+
+        assertEquals(messages, deserializer.deserializeBatch(result));
+        assertEquals(messages, deserializer.deserializeBatch(result, Message.ProtoMsgV1.class));
+    }
+
+    @Test
+    public void batchWithDifferentTypes() {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ProtobufSerializer serializer = new ProtobufSerializer(client);
+
+        Message.ProtoMsgV1 msgV1 = Message.ProtoMsgV1.newBuilder().setF1("f1").build();
+        Message.ProtoMsgV2 msgV2 = Message.ProtoMsgV2.newBuilder().setF1(1).build();
+
+        assertThrows(IllegalArgumentException.class, () -> serializer.serializeBatch("test", Arrays.asList(msgV1, msgV2)));
+    }
+
+    @Test
+    public void batchAndSingleMessageCanNotBeReadOneAsAnother() throws ProtobufSerializationException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ProtobufSerializer serializer = new ProtobufSerializer(client);
+        ProtobufDeserializer deserializer = new ProtobufDeserializer(client);
+
+        Message.ProtoMsgV1 message = Message.ProtoMsgV1.newBuilder().setF1("f1").build();
+        byte[] batch = serializer.serializeBatch("test", Arrays.asList(message, message));
+        byte[] single = serializer.serialize("test", message);
+
+        assertThrows(ProtobufDeserializationException.class, () -> deserializer.deserialize(batch));
+        assertThrows(ProtobufDeserializationException.class, () -> deserializer.deserializeBatch(single));
+    }
+
+    @Test
+    public void nativeEncoding() throws Exception {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ProtobufSerializer serializer = new ProtobufSerializer(client, new ProtobufSerDeConfig(Collections.singletonMap(ProtobufSerDeConfig.USE_NATIVE_ENCODING_CONFIG, true)));
+        ProtobufDeserializer deserializer = new ProtobufDeserializer(client);
+
+        Message.ProtoMsgV1 msgV1 = Message.ProtoMsgV1
+                .newBuilder()
+                .setF1("f1")
+                .setF2("f2")
+                .build();
+
+        byte[] result = serializer.serialize("test", msgV1);
+        MessageHeader header = MessageHeader.parse(result);
+
+        // payload is readable by any protobuf consumer
+        assertTrue(header.isNative());
+        assertEquals(msgV1, Message.ProtoMsgV1.parseFrom(MessageReframer.payload(result)));
+        assertEquals(msgV1, deserializer.deserialize(result));
+        assertEquals(msgV1, deserializer.deserialize(result, Message.ProtoMsgV1.class));
+        assertEquals(Arrays.asList(msgV1, msgV1), deserializer.deserializeBatch(serializer.serializeBatch("test", Arrays.asList(msgV1, msgV1))));
+        // default encoding is still readable
+        assertEquals(msgV1, deserializer.deserialize(new ProtobufSerializer(client).serialize("test", msgV1)));
+    }
 }
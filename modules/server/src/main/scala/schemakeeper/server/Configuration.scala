@@ -26,13 +26,32 @@ final case class Cors(
   exposedHeaders: Option[String] = None
 )
 
-final case class Server(port: Int = 9090, host: String = "0.0.0.0", cors: Option[Cors] = None)
+/**
+ * @param enabled
+ *   - compress responses if client accepts gzip encoding
+ * @param threshold
+ *   - minimum response size in bytes to be compressed. Responses with unknown size are always compressed
+ * @param level
+ *   - deflater compression level (-1 - default, 0 - 9)
+ */
+final case class Compression(enabled: Boolean = true, threshold: Long = 1024, level: Int = -1)
+
+final case class Server(
+  port: Int = 9090,
+  host: String = "0.0.0.0",
+  cors: Option[Cors] = None,
+  compression: Compression = Compression()
+)
 
 final case class Configuration(storage: Storage, server: Server = Server())
 
 object Configuration {
   private implicit val storageConfigReader: ConfigReader[Storage] = deriveReader[Storage]
   private implicit val corsConfigReader: ConfigReader[Cors] = deriveReader[Cors]
+  private implicit val compressionConfigReader: ConfigReader[Compression] = deriveReader[Compression].ensure(
+    compression => compression.level >= -1 && compression.level <= 9,
+    compression => s"Compression level should be in range -1..9, got: ${compression.level}"
+  )
   private implicit val serverConfigReader: ConfigReader[Server] = deriveReader[Server]
   private implicit val configReader: ConfigReader[Configuration] = deriveReader[Configuration]
 
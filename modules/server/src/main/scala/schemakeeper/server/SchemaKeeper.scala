@@ -9,9 +9,11 @@ import doobie.quill.DoobieContextBase
 import io.getquill.NamingStrategy
 import io.getquill.context.sql.idiom.SqlIdiom
 import org.http4s.blaze.server.BlazeServerBuilder
+import org.http4s.server.{Server => HttpServer}
 import schemakeeper.server.datasource.DataSource
 import schemakeeper.server.datasource.migration.FlywayMigrationTool
-import schemakeeper.server.http.{SchemaKeeperApi, SchemaKeeperRouter, SwaggerApi}
+import schemakeeper.server.http.{BinaryApi, SchemaKeeperApi, SchemaKeeperRouter, SwaggerApi}
+import schemakeeper.server.metrics.{MeteredSchemaStorage, ServerMetrics}
 import schemakeeper.server.service.DBBackedService
 import schemakeeper.server.storage.DatabaseStorage
 import schemakeeper.server.storage.exception.StorageExceptionHandler
@@ -20,22 +22,38 @@ import schemakeeper.server.storage.lock.StorageLock
 object SchemaKeeper extends IOApp {
 
   override def run(args: List[String]): IO[ExitCode] =
-    commonSettings[IO]()
+    Resource
+      .eval(Configuration.create[IO])
+      .flatMap(cfg => commonSettings[IO](cfg))
       .evalTap(common => migrate[IO](common.cfg))
       .flatMap(common => applicationServer[IO](common))
       .use { server =>
         server.serve.compile.drain.as(ExitCode.Success)
       }
 
+  /**
+   * Migrates the storage and starts the server in the current jvm (e.g. for load tests). The server is stopped when
+   * the resource is released.
+   */
+  def resource[F[_]: ConcurrentEffect: ContextShift: Timer](cfg: Configuration): Resource[F, HttpServer] =
+    commonSettings[F](cfg)
+      .evalTap(common => migrate[F](common.cfg))
+      .flatMap(common => applicationServer[F](common))
+      .flatMap(_.resource)
+
   private def applicationServer[F[_]: Async: ContextShift: ConcurrentEffect: Timer](
     common: Common
   ): Resource[F, BlazeServerBuilder[F]] = for {
-    transact <- DataSource.resource(common.cfg)
-    storage <- Resource.pure(DatabaseStorage.create(common.context, common.exceptionHandler))
-    service <- Resource.pure(DBBackedService.create(storage, transact, common.lock))
+    metrics <- ServerMetrics.resource[F]
+    transact <- DataSource.resource(common.cfg, Some(metrics.hikariMetricsTrackerFactory))
+    storage <- Resource.pure(
+      MeteredSchemaStorage.create(DatabaseStorage.create(common.context, common.exceptionHandler), metrics.storage)
+    )
+    service <- Resource.pure(DBBackedService.create(storage, transact, common.lock, metrics.storage))
     schemakeeperApi <- Resource.pure(SchemaKeeperApi.create(service))
+    binaryApi <- Resource.pure(BinaryApi.create(service, schemakeeperApi))
     swaggerApi <- Resource.pure(SwaggerApi.create(schemakeeperApi))
-    server <- Resource.pure(SchemaKeeperRouter.build(schemakeeperApi, swaggerApi, common.cfg))
+    server <- Resource.pure(SchemaKeeperRouter.build(schemakeeperApi, binaryApi, swaggerApi, metrics, common.cfg))
   } yield server
 
   private def migrate[F[_]: Sync](configuration: Configuration): F[Unit] = for {
@@ -43,8 +61,7 @@ object SchemaKeeper extends IOApp {
     _ <- Sync[F].delay(flyway.migrate())
   } yield ()
 
-  private def commonSettings[F[_]: Sync](): Resource[F, Common] = for {
-    cfg <- Resource.eval(Configuration.create[F])
+  private def commonSettings[F[_]: Sync](cfg: Configuration): Resource[F, Common] = for {
     context <- Resource.pure(DataSource.context(cfg))
     lock <- Resource.pure(StorageLock(cfg))
     exceptionHandler <- Resource.pure(StorageExceptionHandler(cfg))
@@ -1,6 +1,6 @@
 package schemakeeper.server
 
-import schemakeeper.schema.CompatibilityType
+import schemakeeper.schema.{CompatibilityType, SchemaIncompatibility}
 
 import scala.util.control.NoStackTrace
 
@@ -36,8 +36,12 @@ object SchemaKeeperError {
   final case class SubjectIsNotConnectedToSchema(subject: String, schemaId: Int)
       extends SchemaKeeperError(s"Subject: $subject is not connected to schema: $schemaId")
 
-  final case class SchemaIsNotCompatible(subject: String, schemaText: String, compatibilityType: CompatibilityType)
-      extends SchemaKeeperError(
+  final case class SchemaIsNotCompatible(
+    subject: String,
+    schemaText: String,
+    compatibilityType: CompatibilityType,
+    incompatibilities: List[SchemaIncompatibility] = List.empty
+  ) extends SchemaKeeperError(
         s"New schema: $schemaText is not compatible with previous for subject: $subject with compatibility type: ${compatibilityType.identifier}"
       )
 
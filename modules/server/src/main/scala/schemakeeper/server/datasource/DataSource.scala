@@ -3,6 +3,7 @@ package schemakeeper.server.datasource
 import cats.arrow.FunctionK
 import cats.effect.{Async, Blocker, ContextShift, Resource}
 import com.zaxxer.hikari.HikariConfig
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory
 import doobie.ExecutionContexts
 import doobie.hikari.HikariTransactor
 import doobie.quill.{DoobieContext, DoobieContextBase}
@@ -24,8 +25,11 @@ object DataSource {
       case SupportedDatabaseProvider.Oracle  => new DoobieContext.Oracle(SnakeCase)
     }
 
-  def resource[F[_]: Async: ContextShift](config: Configuration): Resource[F, FunctionK[doobie.ConnectionIO, F]] = {
-    val transactor: Resource[F, Transactor[F]] = hikariTransactor(config)
+  def resource[F[_]: Async: ContextShift](
+    config: Configuration,
+    metricsTrackerFactory: Option[MetricsTrackerFactory] = None
+  ): Resource[F, FunctionK[doobie.ConnectionIO, F]] = {
+    val transactor: Resource[F, Transactor[F]] = hikariTransactor(config, metricsTrackerFactory)
 
     transactor.map { tx =>
       def transact[A](tx: Transactor[F])(sql: doobie.ConnectionIO[A]): F[A] =
@@ -37,11 +41,14 @@ object DataSource {
     }
   }
 
-  private def hikariTransactor[F[_]: Async: ContextShift](config: Configuration): Resource[F, Transactor[F]] =
+  private def hikariTransactor[F[_]: Async: ContextShift](
+    config: Configuration,
+    metricsTrackerFactory: Option[MetricsTrackerFactory]
+  ): Resource[F, Transactor[F]] =
     for {
       connectionExecutionPool <- ExecutionContexts.fixedThreadPool[F](Runtime.getRuntime.availableProcessors())
       transactionExecutionPool <- Blocker[F]
-      cfg = hikariConfig(config.storage)
+      cfg = hikariConfig(config.storage, metricsTrackerFactory)
       xa <- HikariTransactor.fromHikariConfig[F](
         cfg,
         connectionExecutionPool,
@@ -49,8 +56,9 @@ object DataSource {
       )
     } yield xa
 
-  private def hikariConfig(storage: Storage): HikariConfig = {
+  private def hikariConfig(storage: Storage, metricsTrackerFactory: Option[MetricsTrackerFactory]): HikariConfig = {
     val cfg = new HikariConfig()
+    cfg.setPoolName("schemakeeper")
     cfg.setMaximumPoolSize(storage.maxConnections)
     cfg.setDriverClassName(storage.driver)
     cfg.setJdbcUrl(storage.url)
@@ -58,6 +66,7 @@ object DataSource {
     cfg.setPassword(storage.password)
     cfg.setSchema(storage.schema)
     cfg.setMinimumIdle(1)
+    metricsTrackerFactory.foreach(cfg.setMetricsTrackerFactory)
 
     cfg
   }
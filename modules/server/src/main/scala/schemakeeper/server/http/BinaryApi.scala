@@ -0,0 +1,75 @@
+package schemakeeper.server.http
+
+import cats.effect.Concurrent
+import cats.syntax.applicative._
+import cats.syntax.applicativeError._
+import cats.syntax.flatMap._
+import cats.syntax.functor._
+import io.circe.syntax._
+import org.http4s._
+import org.http4s.dsl.Http4sDsl
+import org.http4s.headers.`Content-Type`
+import org.typelevel.ci.CIString
+import sttp.model.StatusCode
+import schemakeeper.api.BinaryProtocol
+import schemakeeper.server.http.SchemaKeeperApi.apiVersion
+import schemakeeper.server.http.protocol.{ErrorCode, ErrorInfo}
+import schemakeeper.server.http.protocol.JsonProtocol._
+import schemakeeper.server.service.Service
+
+/**
+ * Binary ([[BinaryProtocol]]) versions of the core endpoints used by the client: schema by id, schema id by subject
+ * and schema, register schema and subject.
+ *
+ * Request is handled only if binary content type is requested using Accept (response) or Content-Type (request)
+ * header, otherwise it is passed to the json api. Errors are always returned as json.
+ */
+class BinaryApi[F[_]: Concurrent](storage: Service[F], api: SchemaKeeperApi[F]) extends Http4sDsl[F] {
+  private val binaryMediaType: MediaType = MediaType.unsafeParse(BinaryProtocol.CONTENT_TYPE)
+  private val AcceptHeader = CIString("Accept")
+  private val ContentTypeHeader = CIString("Content-Type")
+
+  val route: HttpRoutes[F] = HttpRoutes.of[F] {
+    case req @ GET -> Root / `apiVersion` / "schemas" / IntVar(schemaId) if schemaId > 0 && accepts(req) =>
+      respond(storage.schemaById(schemaId))(BinaryProtocol.encodeSchemaMetadata)
+    case req @ POST -> Root / `apiVersion` / "subjects" / subject / "schemas" / "id" if sends(req) =>
+      decode(req)(BinaryProtocol.decodeSchemaText) { schemaText =>
+        respond(storage.schemaIdBySubjectAndSchema(subject, schemaText.getSchemaText))(BinaryProtocol.encodeSchemaId)
+      }
+    case req @ POST -> Root / `apiVersion` / "subjects" / subject / "schemas" if sends(req) =>
+      decode(req)(BinaryProtocol.decodeSubjectAndSchemaRequest) { request =>
+        respond(api.registerSchemaAndSubject(subject, request))(BinaryProtocol.encodeSchemaId)
+      }
+  }
+
+  private def accepts(req: Request[F]): Boolean = hasBinaryHeader(req, AcceptHeader)
+
+  private def sends(req: Request[F]): Boolean = hasBinaryHeader(req, ContentTypeHeader)
+
+  private def hasBinaryHeader(req: Request[F], name: CIString): Boolean =
+    req.headers.headers.exists(header => header.name == name && BinaryProtocol.isBinary(header.value))
+
+  private def decode[A](req: Request[F])(decoder: Array[Byte] => A)(f: A => F[Response[F]]): F[Response[F]] =
+    req.as[Array[Byte]].map(decoder).attempt.flatMap {
+      case Left(error) =>
+        errorResponse(StatusCode.BadRequest, ErrorInfo(error.getLocalizedMessage, ErrorCode.SchemaIsNotValidCode)).pure[F]
+      case Right(value) => f(value)
+    }
+
+  private def respond[A](fa: F[A])(encoder: A => Array[Byte]): F[Response[F]] =
+    api.toRoute(fa).map {
+      case Right(value) =>
+        Response[F](Status.Ok).withEntity(encoder(value)).withContentType(`Content-Type`(binaryMediaType))
+      case Left((statusCode, errorInfo)) => errorResponse(statusCode, errorInfo)
+    }
+
+  // same json body as the tapir routes return
+  private def errorResponse(statusCode: StatusCode, errorInfo: ErrorInfo): Response[F] =
+    Response[F](Status.fromInt(statusCode.code).getOrElse(Status.InternalServerError))
+      .withEntity(errorInfo.asJson.noSpaces)
+      .withContentType(`Content-Type`(MediaType.application.json))
+}
+
+object BinaryApi {
+  def create[F[_]: Concurrent](service: Service[F], api: SchemaKeeperApi[F]): BinaryApi[F] = new BinaryApi(service, api)
+}
@@ -7,6 +7,7 @@ import cats.syntax.functor._
 import cats.syntax.either._
 import cats.syntax.semigroupk._
 import schemakeeper.api._
+import schemakeeper.schema.CompatibilityCheckResult
 import schemakeeper.server.http.protocol.{ErrorCode, ErrorInfo}
 import schemakeeper.server.service._
 import schemakeeper.server.SchemaKeeperError._
@@ -110,13 +111,14 @@ class SchemaKeeperApi[F[_]: Timer: Concurrent: ContextShift](storage: Service[F]
       toRoute(storage.deleteSubjectSchemaByVersion(subject, version))
     }
 
-  val checkSubjectSchemaCompatibilityEndpoint: Endpoint[(String, SchemaText), (StatusCode, ErrorInfo), Boolean, Any] =
+  val checkSubjectSchemaCompatibilityEndpoint
+    : Endpoint[(String, SchemaText), (StatusCode, ErrorInfo), CompatibilityCheckResult, Any] =
     baseEndpoint.post
       .in("subjects")
       .in(path[String])
       .in("compatibility" / "schemas")
       .in(jsonBody[SchemaText])
-      .out(jsonBody[Boolean])
+      .out(jsonBody[CompatibilityCheckResult])
 
   val checkSubjectSchemaCompatibilityRoute: HttpRoutes[F] =
     Http4sServerInterpreter[F].toRoutes(checkSubjectSchemaCompatibilityEndpoint) { case (subject, schemaText) =>
@@ -141,14 +143,7 @@ class SchemaKeeperApi[F[_]: Timer: Concurrent: ContextShift](storage: Service[F]
 
   val registerSchemaAndSubjectRoute: HttpRoutes[F] =
     Http4sServerInterpreter[F].toRoutes(registerSchemaAndSubjectEndpoint) { case (subject, request) =>
-      toRoute(
-        storage
-          .registerSchema(subject, request.getSchemaText, request.getCompatibilityType, request.getSchemaType)
-          .handleErrorWith {
-            case SubjectIsAlreadyConnectedToSchema(_, id) => SchemaId.instance(id).pure
-            case e                                        => e.raiseError
-          }
-      )
+      toRoute(registerSchemaAndSubject(subject, request))
     }
 
   val registerSubjectEndpoint: Endpoint[SubjectMetadata, (StatusCode, ErrorInfo), SubjectMetadata, Any] =
@@ -190,6 +185,14 @@ class SchemaKeeperApi[F[_]: Timer: Concurrent: ContextShift](storage: Service[F]
     .combineK(registerSubjectRoute)
     .combineK(addSchemaToSubjectRoute)
 
+  private[http] def registerSchemaAndSubject(subject: String, request: SubjectAndSchemaRequest): F[SchemaId] =
+    storage
+      .registerSchema(subject, request.getSchemaText, request.getCompatibilityType, request.getSchemaType)
+      .handleErrorWith {
+        case SubjectIsAlreadyConnectedToSchema(_, id) => SchemaId.instance(id).pure
+        case e                                        => e.raiseError
+      }
+
   def toRoute[A](fa: F[A]): F[Either[(StatusCode, ErrorInfo), A]] =
     fa.map(_.asRight[(StatusCode, ErrorInfo)]).handleError(err => handleError(err).asLeft[A])
 
@@ -209,7 +212,8 @@ class SchemaKeeperApi[F[_]: Timer: Concurrent: ContextShift](storage: Service[F]
       (StatusCode.BadRequest, ErrorInfo(e.msg, ErrorCode.SubjectIsAlreadyConnectedToSchemaCode))
     case e: SubjectIsNotConnectedToSchema =>
       (StatusCode.BadRequest, ErrorInfo(e.msg, ErrorCode.SubjectIsNotConnectedToSchemaCode))
-    case e: SchemaIsNotCompatible => (StatusCode.BadRequest, ErrorInfo(e.msg, ErrorCode.SchemaIsNotCompatibleCode))
+    case e: SchemaIsNotCompatible =>
+      (StatusCode.BadRequest, ErrorInfo(e.msg, ErrorCode.SchemaIsNotCompatibleCode, e.incompatibilities))
     case e: SubjectIsLocked       => (StatusCode.BadRequest, ErrorInfo(e.msg, ErrorCode.SubjectIsLockedErrorCode))
     case _ => (StatusCode.InternalServerError, ErrorInfo(err.getLocalizedMessage, ErrorCode.BackendErrorCode))
   }
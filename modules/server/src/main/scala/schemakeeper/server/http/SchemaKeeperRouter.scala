@@ -2,12 +2,13 @@ package schemakeeper.server.http
 
 import cats.effect.{Async, ConcurrentEffect, Timer}
 import cats.implicits._
-import org.http4s.Method
+import org.http4s.{HttpApp, Method, Response}
 import org.http4s.blaze.server.BlazeServerBuilder
 import org.http4s.server.middleware._
 import org.http4s.server.Router
 import org.http4s.syntax.kleisli._
 import schemakeeper.server.{Configuration, Cors}
+import schemakeeper.server.metrics.ServerMetrics
 
 import scala.concurrent.duration._
 import scala.concurrent.ExecutionContext
@@ -15,22 +16,51 @@ import scala.concurrent.ExecutionContext
 object SchemaKeeperRouter {
   def build[F[_]: Async: ConcurrentEffect: Timer](
     api: SchemaKeeperApi[F],
+    binaryApi: BinaryApi[F],
     swaggerApi: SwaggerApi[F],
+    metrics: ServerMetrics[F],
     configuration: Configuration
   ): BlazeServerBuilder[F] =
     BlazeServerBuilder
       .apply[F](ExecutionContext.global)
       .bindHttp(configuration.server.port, configuration.server.host)
-      .withHttpApp(Router("/" -> service(api, swaggerApi, configuration)).orNotFound)
+      .withHttpApp(
+        compressed(Router("/" -> service(api, binaryApi, swaggerApi, metrics, configuration)).orNotFound, configuration)
+      )
+
+  private[http] def compressed[F[_]: Async](app: HttpApp[F], configuration: Configuration): HttpApp[F] = {
+    val compression = configuration.server.compression
+
+    if (compression.enabled) {
+      GZip(
+        app,
+        level = compression.level,
+        isZippable = (response: Response[F]) =>
+          GZip.defaultIsZippable(response) && response.contentLength.forall(_ >= compression.threshold)
+      )
+    } else {
+      app
+    }
+  }
 
   private def service[F[_]: Async: ConcurrentEffect: Timer](
     api: SchemaKeeperApi[F],
+    binaryApi: BinaryApi[F],
     swaggerApi: SwaggerApi[F],
+    metrics: ServerMetrics[F],
     configuration: Configuration
-  ) =
+  ) = {
+    // binary routes should be checked first: they handle only requests with binary content type.
+    // Requests not matched by the api fall through to swagger and /metrics without being recorded as 404
+    val apiRoutes = Metrics[F](metrics.httpOps, emptyResponseHandler = None, classifierF = ServerMetrics.routeName[F])(
+      binaryApi.route.combineK(api.route)
+    )
+    val routes = apiRoutes.combineK(swaggerApi.route).combineK(metrics.route)
+
     configuration.server.cors
-      .map(cors => CORS(api.route.combineK(swaggerApi.route), corsConfig(cors)))
-      .getOrElse(api.route.combineK(swaggerApi.route))
+      .map(cors => CORS(routes, corsConfig(cors)))
+      .getOrElse(routes)
+  }
 
   private def corsConfig(cors: Cors): CORSConfig = {
     val allowedOrigins = cors.allowsOrigins.map(_.split(",").toSet)
@@ -1,3 +1,5 @@
 package schemakeeper.server.http.protocol
 
-final case class ErrorInfo(reason: String, code: ErrorCode)
+import schemakeeper.schema.SchemaIncompatibility
+
+final case class ErrorInfo(reason: String, code: ErrorCode, incompatibilities: List[SchemaIncompatibility] = List.empty)
@@ -3,21 +3,53 @@ package schemakeeper.server.http.protocol
 import io.circe._
 import cats.syntax.either._
 import schemakeeper.api._
-import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.schema.{CompatibilityCheckResult, CompatibilityType, SchemaIncompatibility, SchemaType}
 import schemakeeper.server.http.internal.SubjectSettings
 
+import scala.collection.JavaConverters._
+
 object JsonProtocol {
+  implicit val schemaIncompatibilityEncoder: Encoder[SchemaIncompatibility] = (a: SchemaIncompatibility) =>
+    Json.obj(
+      ("location", Json.fromString(a.getLocation)),
+      ("fieldPath", Json.fromString(a.getFieldPath)),
+      ("type", Json.fromString(a.getType)),
+      ("message", Json.fromString(a.getMessage))
+    )
+  implicit val schemaIncompatibilityDecoder: Decoder[SchemaIncompatibility] = (c: HCursor) =>
+    for {
+      location <- c.downField("location").as[String]
+      fieldPath <- c.downField("fieldPath").as[String]
+      incompatibilityType <- c.downField("type").as[String]
+      message <- c.downField("message").as[String]
+    } yield SchemaIncompatibility.instance(location, fieldPath, incompatibilityType, message)
+
+  implicit val compatibilityCheckResultEncoder: Encoder[CompatibilityCheckResult] = (a: CompatibilityCheckResult) =>
+    Json.obj(
+      ("isCompatible", Json.fromBoolean(a.isCompatible)),
+      ("incompatibilities", Json.fromValues(a.getIncompatibilities.asScala.map(schemaIncompatibilityEncoder(_))))
+    )
+  implicit val compatibilityCheckResultDecoder: Decoder[CompatibilityCheckResult] = (c: HCursor) =>
+    for {
+      isCompatible <- c.downField("isCompatible").as[Boolean]
+      incompatibilities <- c.downField("incompatibilities").as[List[SchemaIncompatibility]]
+    } yield
+      if (isCompatible) CompatibilityCheckResult.compatible()
+      else CompatibilityCheckResult.incompatible(incompatibilities.asJava)
+
   implicit val errorInfoEncoder: Encoder[ErrorInfo] = (a: ErrorInfo) =>
     Json.obj(
       ("reason", Json.fromString(a.reason)),
-      ("code", Json.fromInt(a.code.code))
+      ("code", Json.fromInt(a.code.code)),
+      ("incompatibilities", Json.fromValues(a.incompatibilities.map(schemaIncompatibilityEncoder(_))))
     )
 
   implicit val errorInfoDecoder: Decoder[ErrorInfo] = (c: HCursor) =>
     for {
       reason <- c.downField("reason").as[String]
       code <- c.downField("code").as[Int]
-    } yield ErrorInfo(reason, ErrorCode.fromCode(code))
+      incompatibilities <- c.downField("incompatibilities").as[Option[List[SchemaIncompatibility]]]
+    } yield ErrorInfo(reason, ErrorCode.fromCode(code), incompatibilities.getOrElse(List.empty))
 
   implicit val schemaMetadataEncoder: Encoder[SchemaMetadata] = (a: SchemaMetadata) =>
     Json.obj(
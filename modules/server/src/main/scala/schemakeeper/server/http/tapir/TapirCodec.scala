@@ -6,7 +6,7 @@ import sttp.tapir.CodecFormat.Json
 import sttp.tapir.{Codec, DecodeResult, Schema, SchemaType => TapirSchemaType}
 import schemakeeper.api._
 import schemakeeper.server.http.protocol.JsonProtocol._
-import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.schema.{CompatibilityCheckResult, CompatibilityType, SchemaType}
 import schemakeeper.server.http.internal.SubjectSettings
 import schemakeeper.server.http.protocol.ErrorInfo
 import sttp.tapir.json.circe.TapirJsonCirce
@@ -36,4 +36,6 @@ object TapirCodec extends TapirJsonCirce {
   implicit val subjectAndSchemaRequestCodec: Codec[String, SubjectAndSchemaRequest, Json] =
     codec[SubjectAndSchemaRequest]
   implicit val schemaTypeCodec: Codec[String, SchemaType, Json] = codec[SchemaType]
+  implicit val compatibilityCheckResultCodec: Codec[String, CompatibilityCheckResult, Json] =
+    codec[CompatibilityCheckResult]
 }
@@ -0,0 +1,92 @@
+package schemakeeper.server.metrics
+
+import cats.syntax.applicativeError._
+import doobie.ConnectionIO
+import doobie.free.connection
+import doobie.implicits._
+import schemakeeper.api.{SchemaMetadata, SubjectMetadata, SubjectSchemaMetadata}
+import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.server.storage.SchemaStorage
+
+/**
+ * Records duration of every storage method call. Duration is measured inside the transaction, so it does not include
+ * time spent waiting for a connection from the pool.
+ */
+class MeteredSchemaStorage(underlying: SchemaStorage[ConnectionIO], metrics: StorageMetrics)
+    extends SchemaStorage[ConnectionIO] {
+  override def subjects(): ConnectionIO[List[String]] = timed("subjects")(underlying.subjects())
+
+  override def subjectMetadata(subject: String): ConnectionIO[Option[SubjectMetadata]] =
+    timed("subjectMetadata")(underlying.subjectMetadata(subject))
+
+  override def subjectVersions(subject: String): ConnectionIO[List[Int]] =
+    timed("subjectVersions")(underlying.subjectVersions(subject))
+
+  override def updateSubjectSettings(
+    subject: String,
+    compatibilityType: CompatibilityType,
+    isLocked: Boolean
+  ): ConnectionIO[SubjectMetadata] =
+    timed("updateSubjectSettings")(underlying.updateSubjectSettings(subject, compatibilityType, isLocked))
+
+  override def subjectSchemasMetadata(subject: String): ConnectionIO[List[SubjectSchemaMetadata]] =
+    timed("subjectSchemasMetadata")(underlying.subjectSchemasMetadata(subject))
+
+  override def subjectSchemaByVersion(subject: String, version: Int): ConnectionIO[Option[SubjectSchemaMetadata]] =
+    timed("subjectSchemaByVersion")(underlying.subjectSchemaByVersion(subject, version))
+
+  override def schemaById(id: Int): ConnectionIO[Option[SchemaMetadata]] =
+    timed("schemaById")(underlying.schemaById(id))
+
+  override def schemaByHash(schemaHash: String): ConnectionIO[Option[SchemaMetadata]] =
+    timed("schemaByHash")(underlying.schemaByHash(schemaHash))
+
+  override def deleteSubject(subject: String): ConnectionIO[Boolean] =
+    timed("deleteSubject")(underlying.deleteSubject(subject))
+
+  override def deleteSubjectSchemaByVersion(subject: String, version: Int): ConnectionIO[Boolean] =
+    timed("deleteSubjectSchemaByVersion")(underlying.deleteSubjectSchemaByVersion(subject, version))
+
+  override def getSubjectCompatibility(subject: String): ConnectionIO[Option[CompatibilityType]] =
+    timed("getSubjectCompatibility")(underlying.getSubjectCompatibility(subject))
+
+  override def getLastSubjectSchema(subject: String): ConnectionIO[Option[SchemaMetadata]] =
+    timed("getLastSubjectSchema")(underlying.getLastSubjectSchema(subject))
+
+  override def getSubjectSchemas(subject: String): ConnectionIO[List[SchemaMetadata]] =
+    timed("getSubjectSchemas")(underlying.getSubjectSchemas(subject))
+
+  override def registerSchema(schema: String, schemaHash: String, schemaType: SchemaType): ConnectionIO[Int] =
+    timed("registerSchema")(underlying.registerSchema(schema, schemaHash, schemaType))
+
+  override def registerSubject(
+    subject: String,
+    compatibilityType: CompatibilityType,
+    isLocked: Boolean
+  ): ConnectionIO[SubjectMetadata] =
+    timed("registerSubject")(underlying.registerSubject(subject, compatibilityType, isLocked))
+
+  override def addSchemaToSubject(subject: String, schemaId: Int, version: Int): ConnectionIO[Unit] =
+    timed("addSchemaToSubject")(underlying.addSchemaToSubject(subject, schemaId, version))
+
+  override def isSubjectExist(subject: String): ConnectionIO[Boolean] =
+    timed("isSubjectExist")(underlying.isSubjectExist(subject))
+
+  override def getNextVersionNumber(subject: String): ConnectionIO[Int] =
+    timed("getNextVersionNumber")(underlying.getNextVersionNumber(subject))
+
+  override def isSubjectConnectedToSchema(subject: String, schemaId: Int): ConnectionIO[Boolean] =
+    timed("isSubjectConnectedToSchema")(underlying.isSubjectConnectedToSchema(subject, schemaId))
+
+  private def timed[A](method: String)(fa: ConnectionIO[A]): ConnectionIO[A] = for {
+    start <- connection.delay(System.nanoTime())
+    result <- fa.attempt
+    _ <- connection.delay(metrics.storageCall(method, System.nanoTime() - start, result.isLeft))
+    value <- result.fold(connection.raiseError[A], connection.pure[A])
+  } yield value
+}
+
+object MeteredSchemaStorage {
+  def create(underlying: SchemaStorage[ConnectionIO], metrics: StorageMetrics): MeteredSchemaStorage =
+    new MeteredSchemaStorage(underlying, metrics)
+}
@@ -0,0 +1,67 @@
+package schemakeeper.server.metrics
+
+import cats.effect.{Resource, Sync}
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory
+import com.zaxxer.hikari.metrics.prometheus.PrometheusMetricsTrackerFactory
+import io.prometheus.client.CollectorRegistry
+import org.http4s.{HttpRoutes, Method, Request}
+import org.http4s.metrics.MetricsOps
+import org.http4s.metrics.prometheus.{Prometheus, PrometheusExportService}
+import schemakeeper.server.http.SchemaKeeperApi.apiVersion
+
+/**
+ * Prometheus metrics of the server:
+ *   - http: request count and duration per api endpoint (`schemakeeper_http_*`)
+ *   - storage: see [[StorageMetrics]] (`schemakeeper_storage_*`)
+ *   - connection pool: hikari gauges and timings (`hikaricp_*`)
+ */
+final class ServerMetrics[F[_]: Sync](
+  val registry: CollectorRegistry,
+  val httpOps: MetricsOps[F],
+  val storage: StorageMetrics
+) {
+  val hikariMetricsTrackerFactory: MetricsTrackerFactory = new PrometheusMetricsTrackerFactory(registry)
+
+  /**
+   * GET /metrics - registry in the prometheus text format
+   */
+  val route: HttpRoutes[F] = PrometheusExportService[F](registry).routes
+}
+
+object ServerMetrics {
+  val HttpPrefix: String = "schemakeeper_http"
+
+  def resource[F[_]: Sync]: Resource[F, ServerMetrics[F]] = for {
+    registry <- Resource.eval(Sync[F].delay(new CollectorRegistry()))
+    httpOps <- Prometheus.metricsOps[F](registry, HttpPrefix)
+    storage <- Resource.eval(Sync[F].delay(StorageMetrics.prometheus(registry)))
+  } yield new ServerMetrics[F](registry, httpOps, storage)
+
+  /**
+   * @return
+   *   - name of the api endpoint (the same as in the swagger docs) or none for unknown paths (e.g. swagger)
+   */
+  def routeName[F[_]](request: Request[F]): Option[String] = {
+    val segments = request.pathInfo.segments.map(_.decoded()).toList
+
+    (request.method, segments) match {
+      case (Method.GET, `apiVersion` :: "subjects" :: Nil)                                  => Some("subjects")
+      case (Method.POST, `apiVersion` :: "subjects" :: Nil)                                 => Some("registerSubject")
+      case (Method.GET, `apiVersion` :: "subjects" :: _ :: Nil)                             => Some("subjectMetadata")
+      case (Method.PUT, `apiVersion` :: "subjects" :: _ :: Nil)                             => Some("updateSubjectSettings")
+      case (Method.DELETE, `apiVersion` :: "subjects" :: _ :: Nil)                          => Some("deleteSubject")
+      case (Method.GET, `apiVersion` :: "subjects" :: _ :: "versions" :: Nil)               => Some("subjectVersions")
+      case (Method.GET, `apiVersion` :: "subjects" :: _ :: "versions" :: _ :: Nil)          => Some("subjectSchemaByVersion")
+      case (Method.DELETE, `apiVersion` :: "subjects" :: _ :: "versions" :: _ :: Nil)       => Some("deleteSubjectSchemaByVersion")
+      case (Method.GET, `apiVersion` :: "subjects" :: _ :: "schemas" :: Nil)                => Some("subjectSchemasMetadata")
+      case (Method.POST, `apiVersion` :: "subjects" :: _ :: "schemas" :: Nil)               => Some("registerSchemaAndSubject")
+      case (Method.POST, `apiVersion` :: "subjects" :: _ :: "schemas" :: "id" :: Nil)       => Some("schemaIdBySubjectAndSchema")
+      case (Method.POST, `apiVersion` :: "subjects" :: _ :: "schemas" :: _ :: Nil)          => Some("addSchemaToSubject")
+      case (Method.POST, `apiVersion` :: "subjects" :: _ :: "compatibility" :: "schemas" :: Nil) =>
+        Some("checkSubjectSchemaCompatibility")
+      case (Method.GET, `apiVersion` :: "schemas" :: _ :: Nil) => Some("schemaById")
+      case (Method.POST, `apiVersion` :: "schemas" :: Nil)     => Some("registerSchema")
+      case _                                                   => None
+    }
+  }
+}
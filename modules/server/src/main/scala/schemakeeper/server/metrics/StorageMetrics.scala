@@ -0,0 +1,70 @@
+package schemakeeper.server.metrics
+
+import io.prometheus.client.{CollectorRegistry, Counter, Histogram}
+
+/**
+ * Storage level metrics: duration of every [[schemakeeper.server.storage.SchemaStorage]] method and
+ * [[schemakeeper.server.storage.lock.StorageLock]] wait (time to acquire the lock) and hold (time from acquiring the
+ * lock till the end of the transaction) durations. All durations are in nanoseconds.
+ */
+trait StorageMetrics {
+  def storageCall(method: String, durationNanos: Long, failed: Boolean): Unit
+
+  def lockWait(durationNanos: Long): Unit
+
+  def lockHold(durationNanos: Long): Unit
+}
+
+object StorageMetrics {
+  val noop: StorageMetrics = new StorageMetrics {
+    override def storageCall(method: String, durationNanos: Long, failed: Boolean): Unit = ()
+
+    override def lockWait(durationNanos: Long): Unit = ()
+
+    override def lockHold(durationNanos: Long): Unit = ()
+  }
+
+  def prometheus(registry: CollectorRegistry): StorageMetrics = new PrometheusStorageMetrics(registry)
+
+  private final class PrometheusStorageMetrics(registry: CollectorRegistry) extends StorageMetrics {
+    private val NanosInSecond: Double = 1e9
+
+    private val storageDuration: Histogram = Histogram
+      .build()
+      .name("schemakeeper_storage_duration_seconds")
+      .help("Duration of the storage method calls")
+      .labelNames("method")
+      .register(registry)
+
+    private val storageErrors: Counter = Counter
+      .build()
+      .name("schemakeeper_storage_errors_total")
+      .help("Number of failed storage method calls")
+      .labelNames("method")
+      .register(registry)
+
+    private val lockWaitDuration: Histogram = Histogram
+      .build()
+      .name("schemakeeper_storage_lock_wait_seconds")
+      .help("Time spent waiting for the storage lock")
+      .register(registry)
+
+    private val lockHoldDuration: Histogram = Histogram
+      .build()
+      .name("schemakeeper_storage_lock_hold_seconds")
+      .help("Time the storage lock was held")
+      .register(registry)
+
+    override def storageCall(method: String, durationNanos: Long, failed: Boolean): Unit = {
+      storageDuration.labels(method).observe(durationNanos / NanosInSecond)
+
+      if (failed) {
+        storageErrors.labels(method).inc()
+      }
+    }
+
+    override def lockWait(durationNanos: Long): Unit = lockWaitDuration.observe(durationNanos / NanosInSecond)
+
+    override def lockHold(durationNanos: Long): Unit = lockHoldDuration.observe(durationNanos / NanosInSecond)
+  }
+}
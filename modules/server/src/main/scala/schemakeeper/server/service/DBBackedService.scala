@@ -18,16 +18,26 @@ import org.typelevel.log4cats.{Logger, SelfAwareStructuredLogger}
 import schemakeeper.server.util.Utils
 import schemakeeper.server.storage.SchemaStorage
 import schemakeeper.api.{SchemaId, SchemaMetadata, SubjectMetadata, SubjectSchemaMetadata}
-import schemakeeper.schema.{AvroSchemaCompatibility, AvroSchemaUtils, CompatibilityType, SchemaType}
+import schemakeeper.schema.{
+  AvroSchemaCompatibility,
+  AvroSchemaUtils,
+  CompatibilityCheckResult,
+  CompatibilityType,
+  SchemaType
+}
 import schemakeeper.server.SchemaKeeperError._
 import schemakeeper.server.storage.lock.StorageLock
+import schemakeeper.server.metrics.StorageMetrics
+
+import java.util.concurrent.atomic.AtomicLong
 
 import scala.collection.JavaConverters._
 
 class DBBackedService[F[_]](
   storage: SchemaStorage[ConnectionIO],
   transact: ConnectionIO ~> F,
-  storageLock: StorageLock[ConnectionIO]
+  storageLock: StorageLock[ConnectionIO],
+  metrics: StorageMetrics
 )(implicit F: Sync[F])
     extends Service[F] {
   implicit def unsafeLogger: SelfAwareStructuredLogger[F] = Slf4jLogger.getLogger[F]
@@ -35,7 +45,7 @@ class DBBackedService[F[_]](
   override def subjects(): F[List[String]] = for {
     _ <- Logger[F].info("Get subjects list")
     result <- transact(storage.subjects())
-  } yield result
+  } yield result.filterNot(_.startsWith(SubjectMetadata.DICTIONARY_SUBJECT_PREFIX))
 
   override def subjectMetadata(subject: String): F[SubjectMetadata] = for {
     _ <- Logger[F].info(s"Get subject metadata: $subject")
@@ -110,7 +120,7 @@ class DBBackedService[F[_]](
     }
   } yield result
 
-  override def checkSubjectSchemaCompatibility(subject: String, schemaText: String): F[Boolean] = for {
+  override def checkSubjectSchemaCompatibility(subject: String, schemaText: String): F[CompatibilityCheckResult] = for {
     _ <- Logger[F].info(s"Check subject schema compatibility: $subject - $schemaText")
     newSchema <- validateSchema(schemaText)
     result <- transact {
@@ -119,8 +129,8 @@ class DBBackedService[F[_]](
           .getSubjectCompatibility(subject)
           .ensure(SubjectDoesNotExist(subject))(_.isDefined)
           .map(_.get)
-        isCompatible <- isSchemaCompatible(subject, newSchema, compatibilityType)
-      } yield isCompatible
+        checkResult <- checkSchemaCompatibility(subject, newSchema, compatibilityType)
+      } yield checkResult
     }
   } yield result
 
@@ -164,8 +174,15 @@ class DBBackedService[F[_]](
           case Some(meta)                  => pure(meta)
           case None                        => storage.registerSubject(subject, compatibilityType, isLocked = false)
         }
-        _ <- isSchemaCompatible(subject, schema, subjectMeta.getCompatibilityType)
-          .ensure(SchemaIsNotCompatible(subject, schemaText, subjectMeta.getCompatibilityType))(identity)
+        _ <- checkSchemaCompatibility(subject, schema, subjectMeta.getCompatibilityType)
+          .ensureOr(result =>
+            SchemaIsNotCompatible(
+              subject,
+              schemaText,
+              subjectMeta.getCompatibilityType,
+              result.getIncompatibilities.asScala.toList
+            )
+          )(_.isCompatible)
         _ <- storage
           .isSubjectConnectedToSchema(subject, schemaId)
           .ensure(SubjectIsAlreadyConnectedToSchema(subject, schemaId))(f => !f)
@@ -200,8 +217,15 @@ class DBBackedService[F[_]](
         _ <- storage
           .isSubjectConnectedToSchema(subject, schemaId)
           .ensure(SubjectIsAlreadyConnectedToSchema(subject, schemaId))(f => !f)
-        _ <- isSchemaCompatible(subject, schemaMeta.getSchema, meta.getCompatibilityType)
-          .ensure(SchemaIsNotCompatible(subject, schemaMeta.getSchemaText, meta.getCompatibilityType))(identity)
+        _ <- checkSchemaCompatibility(subject, schemaMeta.getSchema, meta.getCompatibilityType)
+          .ensureOr(result =>
+            SchemaIsNotCompatible(
+              subject,
+              schemaMeta.getSchemaText,
+              meta.getCompatibilityType,
+              result.getIncompatibilities.asScala.toList
+            )
+          )(_.isCompatible)
         nextVersion <- storage.getNextVersionNumber(subject)
         _ <- storage.addSchemaToSubject(subject, schemaId, nextVersion)
       } yield nextVersion
@@ -213,40 +237,35 @@ class DBBackedService[F[_]](
       SchemaIsNotValid(schemaText)
     }
 
-  private def isSchemaCompatible(
+  private def checkSchemaCompatibility(
     subject: String,
     newSchema: Schema,
     compatibilityType: CompatibilityType
-  ): ConnectionIO[Boolean] = compatibilityType match {
-    case CompatibilityType.NONE => Free.pure[connection.ConnectionOp, Boolean](true)
-    case CompatibilityType.BACKWARD =>
-      getLastSchemaParsed(subject).map(
-        _.forall(previousSchema => AvroSchemaCompatibility.BACKWARD_VALIDATOR.isCompatible(newSchema, previousSchema))
-      )
-    case CompatibilityType.FORWARD =>
-      getLastSchemaParsed(subject).map(
-        _.forall(previousSchema => AvroSchemaCompatibility.FORWARD_VALIDATOR.isCompatible(newSchema, previousSchema))
-      )
-    case CompatibilityType.FULL =>
-      getLastSchemaParsed(subject).map(
-        _.forall(previousSchema => AvroSchemaCompatibility.FULL_VALIDATOR.isCompatible(newSchema, previousSchema))
-      )
-    case CompatibilityType.BACKWARD_TRANSITIVE =>
-      getLastSchemasParsed(subject).map(previousSchemas =>
-        AvroSchemaCompatibility.BACKWARD_TRANSITIVE_VALIDATOR.isCompatible(newSchema, previousSchemas.asJava)
-      )
-    case CompatibilityType.FORWARD_TRANSITIVE =>
-      getLastSchemasParsed(subject).map(previousSchemas =>
-        AvroSchemaCompatibility.FORWARD_TRANSITIVE_VALIDATOR.isCompatible(newSchema, previousSchemas.asJava)
-      )
-    case CompatibilityType.FULL_TRANSITIVE =>
-      getLastSchemasParsed(subject).map(previousSchemas =>
-        AvroSchemaCompatibility.FULL_TRANSITIVE_VALIDATOR.isCompatible(newSchema, previousSchemas.asJava)
-      )
+  ): ConnectionIO[CompatibilityCheckResult] = {
+    val validator = AvroSchemaCompatibility.forCompatibilityType(compatibilityType)
+
+    compatibilityType match {
+      case CompatibilityType.NONE => pure(CompatibilityCheckResult.compatible())
+      case CompatibilityType.BACKWARD | CompatibilityType.FORWARD | CompatibilityType.FULL =>
+        getLastSchemaParsed(subject).map(previousSchema => validator.check(newSchema, previousSchema.orNull))
+      case _ =>
+        getLastSchemasParsed(subject).map(previousSchemas => validator.check(newSchema, previousSchemas.asJava))
+    }
   }
 
-  private def lock[A](fa: ConnectionIO[A]): F[A] =
-    transact(storageLock.lockForUpdate() *> fa <* storageLock.unlock()).onSqlException(transact(storageLock.unlock()))
+  // lock is released only at the end of transaction, so hold time is measured till the transaction completes
+  private def lock[A](fa: ConnectionIO[A]): F[A] = F.delay((System.nanoTime(), new AtomicLong(0L))).flatMap {
+    case (start, acquiredAt) =>
+      val acquire = storageLock.lockForUpdate() *> connection.delay {
+        val now = System.nanoTime()
+        acquiredAt.set(now)
+        metrics.lockWait(now - start)
+      }
+
+      F.guarantee(
+        transact(acquire *> fa <* storageLock.unlock()).onSqlException(transact(storageLock.unlock()))
+      )(F.delay(if (acquiredAt.get() != 0L) metrics.lockHold(System.nanoTime() - acquiredAt.get())))
+  }
 
   private def isSubjectExists(subject: String): ConnectionIO[Boolean] =
     storage.isSubjectExist(subject).ensure(SubjectDoesNotExist(subject))(identity)
@@ -266,7 +285,8 @@ object DBBackedService {
   def create[F[_]: Sync](
     storage: SchemaStorage[ConnectionIO],
     transact: ConnectionIO ~> F,
-    storageLock: StorageLock[ConnectionIO]
+    storageLock: StorageLock[ConnectionIO],
+    metrics: StorageMetrics = StorageMetrics.noop
   ): DBBackedService[F] =
-    new DBBackedService(storage, transact, storageLock)
+    new DBBackedService(storage, transact, storageLock, metrics)
 }
@@ -1,13 +1,13 @@
 package schemakeeper.server.service
 
 import schemakeeper.api.{SchemaId, SchemaMetadata, SubjectMetadata, SubjectSchemaMetadata}
-import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.schema.{CompatibilityCheckResult, CompatibilityType, SchemaType}
 
 trait Service[F[_]] {
 
   /**
    * @return
-   *   - registered subjects name list
+   *   - registered subjects name list without the compression dictionary subjects
    */
   def subjects(): F[List[String]]
 
@@ -106,9 +106,9 @@ trait Service[F[_]] {
    * @param schema
    *   - schema string
    * @return
-   *   - true if schema is compatible, otherwise false
+   *   - compatibility check result with the list of found incompatibilities
    */
-  def checkSubjectSchemaCompatibility(subject: String, schema: String): F[Boolean]
+  def checkSubjectSchemaCompatibility(subject: String, schema: String): F[CompatibilityCheckResult]
 
   /**
    * @param subject
@@ -31,4 +31,50 @@ class ConfigurationSpec extends IOSpec {
     } yield assertEquals(expected, cfg))
   }
 
+  test("load compression config") {
+    runF(for {
+      cfg <- Configuration.create[F]("""
+                                       |schemakeeper {
+                                       |storage {
+                                       |url = url
+                                       |driver = driver
+                                       |username = username
+                                       |schema = schema
+                                       |}
+                                       |
+                                       |server {
+                                       |compression {
+                                       |enabled = false
+                                       |threshold = 2048
+                                       |level = 6
+                                       |}
+                                       |}
+                                       |}
+                                       |""".stripMargin)
+    } yield assertEquals(Compression(enabled = false, threshold = 2048, level = 6), cfg.server.compression))
+  }
+
+  test("reject compression level out of range") {
+    runF(for {
+      cfg <- Configuration
+               .create[F]("""
+                            |schemakeeper {
+                            |storage {
+                            |url = url
+                            |driver = driver
+                            |username = username
+                            |schema = schema
+                            |}
+                            |
+                            |server {
+                            |compression {
+                            |level = 10
+                            |}
+                            |}
+                            |}
+                            |""".stripMargin)
+               .attempt
+    } yield assert(cfg.isLeft))
+  }
+
 }
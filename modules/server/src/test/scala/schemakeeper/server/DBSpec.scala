@@ -4,11 +4,13 @@ import java.util.concurrent.Executors
 
 import cats.effect.{ContextShift, IO}
 import com.typesafe.config.Config
+import doobie.ConnectionIO
 import org.flywaydb.core.Flyway
 import schemakeeper.server.datasource.DataSource
 import schemakeeper.server.datasource.migration.FlywayMigrationTool
+import schemakeeper.server.metrics.{MeteredSchemaStorage, ServerMetrics, StorageMetrics}
 import schemakeeper.server.service.DBBackedService
-import schemakeeper.server.storage.DatabaseStorage
+import schemakeeper.server.storage.{DatabaseStorage, SchemaStorage}
 import schemakeeper.server.storage.exception.StorageExceptionHandler
 import schemakeeper.server.storage.lock.StorageLock
 
@@ -28,19 +30,25 @@ trait DBSpec extends IOSpec {
 
   private def migrate(): F[Unit] = IO.delay(flyway.clean()) *> IO.delay(flyway.migrate()).void
 
-  def createService(config: Config): DBBackedService[F] = createService0(config).unsafeRunSync()
+  def createService(config: Config): DBBackedService[F] = createService0(config, None).unsafeRunSync()
 
-  private def createService0(config: Config): F[DBBackedService[F]] = for {
+  def createService(config: Config, metrics: ServerMetrics[F]): DBBackedService[F] =
+    createService0(config, Some(metrics)).unsafeRunSync()
+
+  private def createService0(config: Config, metrics: Option[ServerMetrics[F]]): F[DBBackedService[F]] = for {
     cfg <- Configuration.create[F](config)
     context = DataSource.context(cfg)
-    storage = DatabaseStorage.create(context, StorageExceptionHandler(cfg))
+    databaseStorage = DatabaseStorage.create(context, StorageExceptionHandler(cfg))
+    storage = metrics.fold[SchemaStorage[ConnectionIO]](databaseStorage)(m =>
+      MeteredSchemaStorage.create(databaseStorage, m.storage)
+    )
     flyway = FlywayMigrationTool.build(cfg)
     lock = StorageLock(cfg)
     _ <- IO.delay(flyway.migrate())
-    resource <- DataSource.resource[F](cfg).allocated
+    resource <- DataSource.resource[F](cfg, metrics.map(_.hikariMetricsTrackerFactory)).allocated
   } yield {
     this.finalizer = resource._2
     this.flyway = flyway
-    DBBackedService.create[F](storage, resource._1, lock)
+    DBBackedService.create[F](storage, resource._1, lock, metrics.fold(StorageMetrics.noop)(_.storage))
   }
 }
@@ -0,0 +1,179 @@
+package schemakeeper.server.http
+
+import cats.effect.{IO, Timer}
+import cats.syntax.semigroupk._
+import com.typesafe.config.{Config, ConfigFactory}
+import io.circe.syntax._
+import org.apache.avro.Schema
+import org.http4s._
+import org.http4s.circe._
+import org.http4s.headers.`Content-Type`
+import org.http4s.implicits._
+import org.typelevel.ci.CIString
+import schemakeeper.api._
+import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.server.DBSpec
+import schemakeeper.server.SchemaKeeperError._
+import schemakeeper.server.http.protocol.{ErrorCode, ErrorInfo}
+import schemakeeper.server.http.protocol.JsonProtocol._
+import schemakeeper.server.service._
+
+import scala.concurrent.ExecutionContext
+
+class BinaryApiTest extends DBSpec {
+  implicit val ctx = IO.contextShift(ExecutionContext.global)
+  implicit val timer: Timer[IO] = IO.timer(ExecutionContext.global)
+
+  var service: DBBackedService[F] = {
+    val map: java.util.Map[String, AnyRef] = new java.util.HashMap[String, AnyRef]
+    map.put("schemakeeper.storage.username", "")
+    map.put("schemakeeper.storage.password", "")
+    map.put("schemakeeper.storage.schema", "schemakeeper")
+    map.put("schemakeeper.storage.driver", "org.h2.Driver")
+    map.put("schemakeeper.storage.maxConnections", "1")
+    map.put("schemakeeper.storage.url", "jdbc:h2:mem:schemakeeper_binary;DB_CLOSE_DELAY=-1")
+
+    val config: Config = ConfigFactory.parseMap(map)
+    createService(config)
+  }
+
+  val schemaKeeperApi = SchemaKeeperApi.create[IO](service)
+  val api = BinaryApi.create[IO](service, schemaKeeperApi).route.combineK(schemaKeeperApi.route)
+
+  implicit val errorInfoEntityDecoder: EntityDecoder[IO, ErrorInfo] = jsonOf[IO, ErrorInfo]
+  implicit val schemaMetadataEntityDecoder: EntityDecoder[IO, SchemaMetadata] = jsonOf[IO, SchemaMetadata]
+
+  private val binaryContentType = `Content-Type`(MediaType.unsafeParse(BinaryProtocol.CONTENT_TYPE))
+  private val acceptBinary = Header.Raw(CIString("Accept"), BinaryProtocol.CONTENT_TYPE)
+
+  def runRequest(request: Request[IO]): IO[Response[IO]] =
+    api.run(request).value.map(_.getOrElse(throw new IllegalStateException("None")))
+
+  def body(response: Response[IO]): Array[Byte] = response.as[Array[Byte]].unsafeRunSync()
+
+  test("SchemaById endpoint should return binary schema metadata") {
+    runF {
+      val schema = Schema.create(Schema.Type.STRING).toString
+      val request = Request[IO](method = Method.GET, uri = uri"/v2/schemas/1").putHeaders(acceptBinary)
+
+      for {
+        _ <- service.registerSchema(schema, SchemaType.AVRO)
+        response <- runRequest(request)
+      } yield {
+        assertEquals(Status.Ok, response.status)
+        assertEquals(Some(binaryContentType), response.contentType)
+
+        val result = BinaryProtocol.decodeSchemaMetadata(body(response))
+        assertEquals(1, result.getSchemaId)
+        assertEquals(schema, result.getSchemaText)
+        assertEquals(SchemaType.AVRO, result.getSchemaType)
+      }
+    }
+  }
+
+  test("SchemaById endpoint should return json if binary content type is not requested") {
+    runF {
+      val schema = Schema.create(Schema.Type.STRING).toString
+      val request = Request[IO](method = Method.GET, uri = uri"/v2/schemas/1")
+
+      for {
+        _ <- service.registerSchema(schema, SchemaType.AVRO)
+        response <- runRequest(request)
+      } yield {
+        assertEquals(Status.Ok, response.status)
+        assertEquals(schema, response.as[SchemaMetadata].unsafeRunSync().getSchemaText)
+      }
+    }
+  }
+
+  test("SchemaById endpoint should return json error") {
+    runF {
+      val request = Request[IO](method = Method.GET, uri = uri"/v2/schemas/123").putHeaders(acceptBinary)
+
+      for {
+        response <- runRequest(request)
+      } yield {
+        assertEquals(Status.NotFound, response.status)
+        assertEquals(
+          ErrorInfo(SchemaIdDoesNotExist(123).msg, ErrorCode.SchemaIdDoesNotExistCode),
+          response.as[ErrorInfo].unsafeRunSync()
+        )
+      }
+    }
+  }
+
+  test("RegisterSchemaAndSubject endpoint should accept and return binary") {
+    runF {
+      val request = SubjectAndSchemaRequest.instance(
+        Schema.create(Schema.Type.STRING).toString,
+        SchemaType.AVRO,
+        CompatibilityType.BACKWARD
+      )
+
+      def registerRequest = Request[IO](method = Method.POST, uri = uri"/v2/subjects/A1/schemas")
+        .withEntity(BinaryProtocol.encodeSubjectAndSchemaRequest(request))
+        .withContentType(binaryContentType)
+        .putHeaders(acceptBinary)
+
+      for {
+        response <- runRequest(registerRequest)
+        // already registered schema should return the same id
+        secondResponse <- runRequest(registerRequest)
+      } yield {
+        assertEquals(Status.Ok, response.status)
+        assertEquals(SchemaId.instance(1), BinaryProtocol.decodeSchemaId(body(response)))
+        assertEquals(Status.Ok, secondResponse.status)
+        assertEquals(SchemaId.instance(1), BinaryProtocol.decodeSchemaId(body(secondResponse)))
+      }
+    }
+  }
+
+  test("SchemaIdBySubjectAndSchema endpoint should accept and return binary") {
+    runF {
+      val schema = Schema.create(Schema.Type.STRING).toString
+      val request = Request[IO](method = Method.POST, uri = uri"/v2/subjects/A1/schemas/id")
+        .withEntity(BinaryProtocol.encodeSchemaText(SchemaText.instance(schema, SchemaType.AVRO)))
+        .withContentType(binaryContentType)
+        .putHeaders(acceptBinary)
+
+      for {
+        _ <- service.registerSchema("A1", schema, CompatibilityType.BACKWARD, SchemaType.AVRO)
+        response <- runRequest(request)
+      } yield {
+        assertEquals(Status.Ok, response.status)
+        assertEquals(SchemaId.instance(1), BinaryProtocol.decodeSchemaId(body(response)))
+      }
+    }
+  }
+
+  test("SchemaIdBySubjectAndSchema endpoint should return BadRequest - malformed binary body") {
+    runF {
+      val request = Request[IO](method = Method.POST, uri = uri"/v2/subjects/A1/schemas/id")
+        .withEntity(Array[Byte](1, 2))
+        .withContentType(binaryContentType)
+
+      for {
+        response <- runRequest(request)
+      } yield {
+        assertEquals(Status.BadRequest, response.status)
+        assertEquals(Some(MediaType.application.json), response.contentType.map(_.mediaType))
+        assertEquals(ErrorCode.SchemaIsNotValidCode, response.as[ErrorInfo].unsafeRunSync().code)
+      }
+    }
+  }
+
+  test("RegisterSchemaAndSubject endpoint should still accept json") {
+    runF {
+      val body = SubjectAndSchemaRequest.instance(
+        Schema.create(Schema.Type.STRING).toString,
+        SchemaType.AVRO,
+        CompatibilityType.BACKWARD
+      )
+      val request = Request[IO](method = Method.POST, uri = uri"/v2/subjects/A1/schemas").withEntity(body.asJson)
+
+      for {
+        response <- runRequest(request)
+      } yield assertEquals(Status.Ok, response.status)
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package schemakeeper.server.http
+
+import cats.effect.IO
+import org.http4s._
+import org.http4s.dsl.io._
+import org.http4s.headers.{`Accept-Encoding`, `Content-Encoding`}
+import org.http4s.implicits._
+import schemakeeper.server.{Compression, Configuration, IOSpec, Server, Storage}
+
+import java.io.ByteArrayInputStream
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPInputStream
+import scala.io.Source
+
+class CompressionTest extends IOSpec {
+  private val small = "a" * 100
+  private val large = "a" * 2048
+
+  private val routes = HttpRoutes.of[IO] {
+    case GET -> Root / "small" => Ok(small)
+    case GET -> Root / "large" => Ok(large)
+  }
+
+  private def configuration(compression: Compression): Configuration =
+    Configuration(
+      Storage(url = "url", driver = "driver", username = "username", schema = "schema"),
+      Server(compression = compression)
+    )
+
+  private def runRequest(compression: Compression, uri: Uri): IO[Response[IO]] =
+    SchemaKeeperRouter
+      .compressed[IO](routes.orNotFound, configuration(compression))
+      .run(Request[IO](method = Method.GET, uri = uri).putHeaders(`Accept-Encoding`(ContentCoding.gzip)))
+
+  private def contentEncoding(response: Response[IO]): Option[ContentCoding] =
+    response.headers.get[`Content-Encoding`].map(_.contentCoding)
+
+  private def gunzip(data: Array[Byte]): String =
+    Source.fromInputStream(new GZIPInputStream(new ByteArrayInputStream(data)), StandardCharsets.UTF_8.name()).mkString
+
+  test("response above threshold should be gzip compressed") {
+    runF(for {
+      response <- runRequest(Compression(threshold = 1024), uri"/large")
+      body <- response.as[Array[Byte]]
+    } yield {
+      assertEquals(Status.Ok, response.status)
+      assertEquals(Some(ContentCoding.gzip), contentEncoding(response))
+      assertEquals(large, gunzip(body))
+    })
+  }
+
+  test("response below threshold should not be compressed") {
+    runF(for {
+      response <- runRequest(Compression(threshold = 1024), uri"/small")
+      body <- response.as[String]
+    } yield {
+      assertEquals(Status.Ok, response.status)
+      assertEquals(None, contentEncoding(response))
+      assertEquals(small, body)
+    })
+  }
+
+  test("response should not be compressed if compression is disabled") {
+    runF(for {
+      response <- runRequest(Compression(enabled = false), uri"/large")
+      body <- response.as[String]
+    } yield {
+      assertEquals(None, contentEncoding(response))
+      assertEquals(large, body)
+    })
+  }
+}
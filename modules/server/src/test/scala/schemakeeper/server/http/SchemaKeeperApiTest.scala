@@ -2,7 +2,7 @@ package schemakeeper.server.http
 
 import cats.effect.{IO, Timer}
 import com.typesafe.config.{Config, ConfigFactory}
-import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.schema.{AvroSchemaCompatibility, CompatibilityCheckResult, CompatibilityType, SchemaType}
 import schemakeeper.server.DBSpec
 import schemakeeper.server.service._
 import io.circe.syntax._
@@ -16,6 +16,7 @@ import schemakeeper.server.http.internal.SubjectSettings
 import schemakeeper.server.http.protocol.{ErrorCode, ErrorInfo}
 import schemakeeper.server.http.protocol.JsonProtocol._
 
+import scala.collection.JavaConverters._
 import scala.concurrent.ExecutionContext
 
 class SchemaKeeperApiTest extends DBSpec {
@@ -51,6 +52,8 @@ class SchemaKeeperApiTest extends DBSpec {
   implicit val schemaIdEntityDecoder: EntityDecoder[IO, SchemaId] = jsonOf[IO, SchemaId]
   implicit val booleanEntityDecoder: EntityDecoder[IO, Boolean] = jsonOf[IO, Boolean]
   implicit val intEntityDecoder: EntityDecoder[IO, Int] = jsonOf[IO, Int]
+  implicit val compatibilityCheckResultEntityDecoder: EntityDecoder[IO, CompatibilityCheckResult] =
+    jsonOf[IO, CompatibilityCheckResult]
 
   def checkPredicate[A](actualResp: Response[IO], expectedStatus: Status, predicate: A => Boolean)(implicit
     ev: EntityDecoder[IO, A]
@@ -442,7 +445,12 @@ class SchemaKeeperApiTest extends DBSpec {
 
       for {
         response <- runRequest(request)
-      } yield checkPredicate[Boolean](response, Status.Ok, r => !r)
+      } yield check[CompatibilityCheckResult](
+        response,
+        Status.Ok,
+        AvroSchemaCompatibility.BACKWARD_VALIDATOR
+          .check(Schema.create(Schema.Type.INT), Schema.create(Schema.Type.STRING))
+      )
     }
   }
 
@@ -527,7 +535,7 @@ class SchemaKeeperApiTest extends DBSpec {
           SchemaType.AVRO
         )
         response <- runRequest(request)
-      } yield checkPredicate[Boolean](response, Status.Ok, r => r)
+      } yield checkPredicate[CompatibilityCheckResult](response, Status.Ok, r => r.isCompatible)
     }
   }
 
@@ -545,7 +553,12 @@ class SchemaKeeperApiTest extends DBSpec {
           SchemaType.AVRO
         )
         response <- runRequest(request)
-      } yield checkPredicate[Boolean](response, Status.Ok, r => !r)
+      } yield check[CompatibilityCheckResult](
+        response,
+        Status.Ok,
+        AvroSchemaCompatibility.BACKWARD_VALIDATOR
+          .check(Schema.create(Schema.Type.INT), Schema.create(Schema.Type.STRING))
+      )
     }
   }
 
@@ -735,7 +748,12 @@ class SchemaKeeperApiTest extends DBSpec {
         Status.BadRequest,
         ErrorInfo(
           SchemaIsNotCompatible("A1", Schema.create(Schema.Type.STRING).toString, CompatibilityType.BACKWARD).msg,
-          ErrorCode.SchemaIsNotCompatibleCode
+          ErrorCode.SchemaIsNotCompatibleCode,
+          AvroSchemaCompatibility.BACKWARD_VALIDATOR
+            .check(Schema.create(Schema.Type.STRING), Schema.create(Schema.Type.INT))
+            .getIncompatibilities
+            .asScala
+            .toList
         )
       )
     }
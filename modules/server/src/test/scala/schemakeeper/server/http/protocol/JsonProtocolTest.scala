@@ -2,9 +2,10 @@ package schemakeeper.server.http.protocol
 
 import munit._
 import schemakeeper.api._
+import io.circe.Json
 import io.circe.syntax._
 import JsonProtocol._
-import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.schema.{CompatibilityCheckResult, CompatibilityType, SchemaIncompatibility, SchemaType}
 import schemakeeper.server.http.internal.SubjectSettings
 
 class JsonProtocolTest extends FunSuite {
@@ -75,4 +76,21 @@ class JsonProtocolTest extends FunSuite {
 
     assert(json.as[SchemaId].contains(meta))
   }
+
+  test("CompatibilityCheckResult should be encoded and decoded correctly") {
+    val meta = CompatibilityCheckResult.incompatible(
+      java.util.Collections.singletonList(
+        SchemaIncompatibility.instance("/fields/0/type", "f1", "TYPE_MISMATCH", "reader type is not compatible")
+      )
+    )
+    val json = meta.asJson
+
+    assert(json.as[CompatibilityCheckResult].contains(meta))
+  }
+
+  test("ErrorInfo without incompatibilities should be decoded correctly") {
+    val json = Json.obj(("reason", Json.fromString("error")), ("code", Json.fromInt(1010)))
+
+    assert(json.as[ErrorInfo].contains(ErrorInfo("error", ErrorCode.SchemaIsNotCompatibleCode)))
+  }
 }
@@ -0,0 +1,120 @@
+package schemakeeper.server.metrics
+
+import cats.effect.{IO, Timer}
+import cats.syntax.semigroupk._
+import com.typesafe.config.{Config, ConfigFactory}
+import org.apache.avro.Schema
+import org.http4s._
+import org.http4s.implicits._
+import org.http4s.server.middleware.Metrics
+import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.server.DBSpec
+import schemakeeper.server.http.SchemaKeeperApi
+import schemakeeper.server.service._
+
+import scala.concurrent.ExecutionContext
+
+class ServerMetricsTest extends DBSpec {
+  implicit val ctx = IO.contextShift(ExecutionContext.global)
+  implicit val timer: Timer[IO] = IO.timer(ExecutionContext.global)
+
+  val metrics: ServerMetrics[F] = ServerMetrics.resource[F].allocated.unsafeRunSync()._1
+
+  var service: DBBackedService[F] = {
+    val map: java.util.Map[String, AnyRef] = new java.util.HashMap[String, AnyRef]
+    map.put("schemakeeper.storage.username", "")
+    map.put("schemakeeper.storage.password", "")
+    map.put("schemakeeper.storage.schema", "schemakeeper")
+    map.put("schemakeeper.storage.driver", "org.h2.Driver")
+    map.put("schemakeeper.storage.maxConnections", "1")
+    map.put("schemakeeper.storage.url", "jdbc:h2:mem:schemakeeper_metrics;DB_CLOSE_DELAY=-1")
+
+    val config: Config = ConfigFactory.parseMap(map)
+    createService(config, metrics)
+  }
+
+  val api = Metrics[IO](metrics.httpOps, emptyResponseHandler = None, classifierF = ServerMetrics.routeName[IO])(
+    SchemaKeeperApi.create[IO](service).route
+  ).combineK(metrics.route)
+
+  def runRequest(request: Request[IO]): IO[Response[IO]] =
+    api.run(request).value.map(_.getOrElse(throw new IllegalStateException("None")))
+
+  def scrape(): IO[String] = runRequest(Request[IO](method = Method.GET, uri = uri"/metrics")).flatMap(_.as[String])
+
+  def sample(name: String, labels: (String, String)*): Double =
+    Option(metrics.registry.getSampleValue(name, labels.map(_._1).toArray, labels.map(_._2).toArray))
+      .map(_.doubleValue())
+      .getOrElse(0.0)
+
+  test("route name should be resolved for api endpoints") {
+    def routeName(method: Method, uri: Uri): Option[String] = ServerMetrics.routeName(Request[IO](method, uri))
+
+    assertEquals(routeName(Method.GET, uri"/v2/subjects"), Some("subjects"))
+    assertEquals(routeName(Method.GET, uri"/v2/subjects/A1"), Some("subjectMetadata"))
+    assertEquals(routeName(Method.GET, uri"/v2/subjects/A1/versions/1"), Some("subjectSchemaByVersion"))
+    assertEquals(routeName(Method.POST, uri"/v2/subjects/A1/schemas"), Some("registerSchemaAndSubject"))
+    assertEquals(routeName(Method.POST, uri"/v2/subjects/A1/schemas/id"), Some("schemaIdBySubjectAndSchema"))
+    assertEquals(routeName(Method.POST, uri"/v2/subjects/A1/schemas/1"), Some("addSchemaToSubject"))
+    assertEquals(
+      routeName(Method.POST, uri"/v2/subjects/A1/compatibility/schemas"),
+      Some("checkSubjectSchemaCompatibility")
+    )
+    assertEquals(routeName(Method.GET, uri"/v2/schemas/1"), Some("schemaById"))
+    assertEquals(routeName(Method.GET, uri"/docs"), None)
+  }
+
+  test("metrics endpoint should return per-route http metrics") {
+    runF {
+      val schema = Schema.create(Schema.Type.STRING).toString
+
+      for {
+        _ <- service.registerSchema(schema, SchemaType.AVRO)
+        response <- runRequest(Request[IO](method = Method.GET, uri = uri"/v2/schemas/1"))
+        body <- scrape()
+      } yield {
+        assertEquals(response.status, Status.Ok)
+        assert(body.contains(s"""${ServerMetrics.HttpPrefix}_response_total{classifier="schemaById""""), body)
+        assert(body.contains(s"""${ServerMetrics.HttpPrefix}_response_duration_seconds"""), body)
+      }
+    }
+  }
+
+  test("requests passed to the routes after the api should not be recorded as 404") {
+    runF {
+      for {
+        _ <- scrape()
+        body <- scrape()
+      } yield assert(!body.contains("""code="4xx""""), body)
+    }
+  }
+
+  test("storage method and lock timings should be recorded") {
+    runF {
+      val schema = Schema.create(Schema.Type.STRING).toString
+
+      for {
+        _ <- service.registerSchema("A1", schema, CompatibilityType.BACKWARD, SchemaType.AVRO)
+        _ <- service.schemaById(1)
+      } yield {
+        assert(sample("schemakeeper_storage_duration_seconds_count", "method" -> "schemaById") >= 1)
+        assert(sample("schemakeeper_storage_duration_seconds_count", "method" -> "registerSchema") >= 1)
+        assert(sample("schemakeeper_storage_lock_wait_seconds_count") >= 1)
+        assert(sample("schemakeeper_storage_lock_hold_seconds_count") >= 1)
+      }
+    }
+  }
+
+  test("connection pool gauges should be exported") {
+    runF {
+      for {
+        _ <- service.subjects()
+        body <- scrape()
+      } yield {
+        assert(body.contains("hikaricp_active_connections"), body)
+        assert(body.contains("hikaricp_idle_connections"), body)
+        assert(body.contains("hikaricp_pending_threads"), body)
+      }
+    }
+  }
+}
@@ -2,11 +2,13 @@ package schemakeeper.server.service
 
 import org.apache.avro.{Schema, SchemaBuilder}
 import schemakeeper.api.{SchemaMetadata, SubjectMetadata}
-import schemakeeper.schema.{CompatibilityType, SchemaType}
+import schemakeeper.schema.{AvroSchemaCompatibility, CompatibilityType, SchemaIncompatibility, SchemaType}
 import schemakeeper.server.SchemaKeeperError._
 import schemakeeper.server.IOSpec
 import schemakeeper.server.util.Utils
 
+import scala.collection.JavaConverters._
+
 abstract class ServiceSpec extends IOSpec {
   var schemaStorage: DBBackedService[F]
 
@@ -27,6 +29,16 @@ abstract class ServiceSpec extends IOSpec {
     }
   }
 
+  test("Subjects should not return dictionary subjects") {
+    runF {
+      for {
+        _ <- schemaStorage.registerSubject("A1", CompatibilityType.BACKWARD, isLocked = false)
+        _ <- schemaStorage.registerSubject(s"${SubjectMetadata.DICTIONARY_SUBJECT_PREFIX}1", CompatibilityType.NONE, isLocked = false)
+        result <- schemaStorage.subjects()
+      } yield assertEquals(List("A1"), result)
+    }
+  }
+
   test("SubjectMetadata should return SubjectDoesNotExist") {
     runF {
       for {
@@ -363,7 +375,10 @@ abstract class ServiceSpec extends IOSpec {
       for {
         _ <- schemaStorage.registerSchema("A1", schema1.toString(), CompatibilityType.BACKWARD, SchemaType.AVRO)
         result <- schemaStorage.checkSubjectSchemaCompatibility("A1", schema2.toString())
-      } yield assert(result)
+      } yield {
+        assert(result.isCompatible)
+        assert(result.getIncompatibilities.isEmpty)
+      }
     }
   }
 
@@ -375,7 +390,13 @@ abstract class ServiceSpec extends IOSpec {
       for {
         _ <- schemaStorage.registerSchema("A1", schema1.toString(), CompatibilityType.FORWARD, SchemaType.AVRO)
         result <- schemaStorage.checkSubjectSchemaCompatibility("A1", schema2.toString())
-      } yield assert(!result)
+      } yield {
+        assert(!result.isCompatible)
+        assertEquals(
+          List("READER_FIELD_MISSING_DEFAULT_VALUE" -> "f1"),
+          result.getIncompatibilities.asScala.toList.map(i => i.getType -> i.getFieldPath)
+        )
+      }
     }
   }
 
@@ -572,7 +593,12 @@ abstract class ServiceSpec extends IOSpec {
       } yield {
         assert(result.isLeft)
         assertEquals(
-          SchemaIsNotCompatible("A1", Schema.create(Schema.Type.INT).toString, CompatibilityType.BACKWARD),
+          SchemaIsNotCompatible(
+            "A1",
+            Schema.create(Schema.Type.INT).toString,
+            CompatibilityType.BACKWARD,
+            incompatibilities(CompatibilityType.BACKWARD, Schema.Type.INT, Schema.Type.STRING)
+          ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
       }
@@ -647,7 +673,12 @@ abstract class ServiceSpec extends IOSpec {
       } yield {
         assert(result.isLeft)
         assertEquals(
-          SchemaIsNotCompatible("A1", Schema.create(Schema.Type.STRING).toString(), CompatibilityType.BACKWARD),
+          SchemaIsNotCompatible(
+            "A1",
+            Schema.create(Schema.Type.STRING).toString(),
+            CompatibilityType.BACKWARD,
+            incompatibilities(CompatibilityType.BACKWARD, Schema.Type.STRING, Schema.Type.INT)
+          ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
       }
@@ -669,7 +700,12 @@ abstract class ServiceSpec extends IOSpec {
       } yield {
         assert(result.isLeft)
         assertEquals(
-          SchemaIsNotCompatible("A1", Schema.create(Schema.Type.STRING).toString(), CompatibilityType.FORWARD),
+          SchemaIsNotCompatible(
+            "A1",
+            Schema.create(Schema.Type.STRING).toString(),
+            CompatibilityType.FORWARD,
+            incompatibilities(CompatibilityType.FORWARD, Schema.Type.STRING, Schema.Type.INT)
+          ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
       }
@@ -691,7 +727,12 @@ abstract class ServiceSpec extends IOSpec {
       } yield {
         assert(result.isLeft)
         assertEquals(
-          SchemaIsNotCompatible("A1", Schema.create(Schema.Type.STRING).toString(), CompatibilityType.FULL),
+          SchemaIsNotCompatible(
+            "A1",
+            Schema.create(Schema.Type.STRING).toString(),
+            CompatibilityType.FULL,
+            incompatibilities(CompatibilityType.FULL, Schema.Type.STRING, Schema.Type.INT)
+          ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
       }
@@ -716,7 +757,8 @@ abstract class ServiceSpec extends IOSpec {
           SchemaIsNotCompatible(
             "A1",
             Schema.create(Schema.Type.STRING).toString(),
-            CompatibilityType.BACKWARD_TRANSITIVE
+            CompatibilityType.BACKWARD_TRANSITIVE,
+            incompatibilities(CompatibilityType.BACKWARD_TRANSITIVE, Schema.Type.STRING, Schema.Type.INT)
           ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
@@ -742,7 +784,8 @@ abstract class ServiceSpec extends IOSpec {
           SchemaIsNotCompatible(
             "A1",
             Schema.create(Schema.Type.STRING).toString(),
-            CompatibilityType.FORWARD_TRANSITIVE
+            CompatibilityType.FORWARD_TRANSITIVE,
+            incompatibilities(CompatibilityType.FORWARD_TRANSITIVE, Schema.Type.STRING, Schema.Type.INT)
           ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
@@ -765,7 +808,12 @@ abstract class ServiceSpec extends IOSpec {
       } yield {
         assert(result.isLeft)
         assertEquals(
-          SchemaIsNotCompatible("A1", Schema.create(Schema.Type.STRING).toString(), CompatibilityType.FULL_TRANSITIVE),
+          SchemaIsNotCompatible(
+            "A1",
+            Schema.create(Schema.Type.STRING).toString(),
+            CompatibilityType.FULL_TRANSITIVE,
+            incompatibilities(CompatibilityType.FULL_TRANSITIVE, Schema.Type.STRING, Schema.Type.INT)
+          ),
           result.left.get.asInstanceOf[SchemaIsNotCompatible]
         )
       }
@@ -824,4 +872,17 @@ abstract class ServiceSpec extends IOSpec {
       }
     }
   }
+
+  private def incompatibilities(
+    compatibilityType: CompatibilityType,
+    newSchemaType: Schema.Type,
+    previousSchemaType: Schema.Type
+  ): List[SchemaIncompatibility] = {
+    val result = AvroSchemaCompatibility
+      .forCompatibilityType(compatibilityType)
+      .check(Schema.create(newSchemaType), Schema.create(previousSchemaType))
+
+    assert(!result.isCompatible)
+    result.getIncompatibilities.asScala.toList
+  }
 }
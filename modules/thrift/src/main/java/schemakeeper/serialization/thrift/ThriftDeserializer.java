@@ -3,41 +3,81 @@ package schemakeeper.serialization.thrift;
 import org.apache.avro.Schema;
 import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificData;
 import org.apache.avro.thrift.ThriftDatumReader;
 import org.apache.thrift.TBase;
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TException;
 import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.TCompactProtocol;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.client.CachedSchemaKeeperClient;
 import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.client.compression.DictionaryCompression;
 import schemakeeper.exception.DeserializationException;
 import schemakeeper.exception.ThriftDeserializationException;
+import schemakeeper.metrics.SerDeMetrics;
+import schemakeeper.schema.SchemaType;
 import schemakeeper.schema.thrift.SchemaKeeperThriftData;
 import schemakeeper.serialization.AbstractDeserializer;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.RecordStreamReader;
+import schemakeeper.serialization.SchemaWarmUp;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class ThriftDeserializer extends AbstractDeserializer<TBase<? extends TBase, ? extends TFieldIdEnum>> implements ThriftSerDe {
     private static final Logger logger = LoggerFactory.getLogger(ThriftDeserializer.class);
     private final DecoderFactory decoderFactory;
     private final SchemaKeeperClient client;
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+    private final DictionaryCompression compression;
+    // compact protocol readers for the native messages
+    private final ThreadLocal<TDeserializer> nativeReaders = ThreadLocal.withInitial(ThriftDeserializer::createNativeReader);
+    // datum readers per expected class (TBase.class - read with the writer schema) and writer schema id
+    private final Map<Class<?>, Map<Integer, ThriftDatumReader<?>>> readers = new ConcurrentHashMap<>();
+    // empty messages of the generated classes, copied to create new messages without reflection
+    private final Map<Class<?>, TBase<?, ?>> prototypes = new ConcurrentHashMap<>();
+    // max number of concurrent registry calls on warm-up
+    private final int warmUpParallelism;
 
     public ThriftDeserializer(SchemaKeeperClient client, ThriftSerDeConfig config) {
+        this(client, config, config == null ? SerDeMetrics.NOOP : SerDeMetrics.create(config, SerDeMetrics.DESERIALIZER));
+    }
+
+    public ThriftDeserializer(SchemaKeeperClient client, ThriftSerDeConfig config, SerDeMetrics metrics) {
+        super(metrics);
+
         this.decoderFactory = DecoderFactory.get();
         this.client = client;
+        this.compression = new DictionaryCompression(client);
+        this.warmUpParallelism = config == null ? 1 : config.clientConnectionsPerRoute();
+
+        if (config != null) {
+            warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), TBase.class), SchemaWarmUp::recordNameSubject);
+        }
     }
 
     public ThriftDeserializer(SchemaKeeperClient client) {
         this.decoderFactory = DecoderFactory.get();
         this.client = client;
+        this.compression = new DictionaryCompression(client);
+        this.warmUpParallelism = 1;
     }
 
     public ThriftDeserializer(ThriftSerDeConfig config) {
-        this.client = new CachedSchemaKeeperClient(config);
-        this.decoderFactory = DecoderFactory.get();
+        this(new CachedSchemaKeeperClient(config), config);
     }
 
     public ThriftDeserializer(Map<String, Object> config) {
@@ -50,39 +90,308 @@ public class ThriftDeserializer extends AbstractDeserializer<TBase<? extends TBa
     }
 
     public <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> T deserialize(byte[] data, Class<T> clazz) throws ThriftDeserializationException {
+        return deserialize(data, clazz, null);
+    }
+
+    /**
+     * Decodes data into the given message if it has the same type as the deserialized one, otherwise new message is created.
+     *
+     * @param clazz - class of the reader schema or null to use the writer schema
+     * @param reuse - previously deserialized message or null
+     */
+    public <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> T deserialize(byte[] data, Class<T> clazz, T reuse) throws ThriftDeserializationException {
         if (data == null) {
             return null;
         }
 
+        long start = getMetrics().start();
+        int schemaId = 0;
+
         try {
             ByteBuffer buffer = ByteBuffer.wrap(data);
             byte protocolByte = readProtocolByte(buffer);
-            if (protocolByte != THRIFT_BYTE) {
-                throw new ThriftDeserializationException("This is not thrift-serialized data");
+            boolean compressed = protocolByte == MessageHeader.COMPRESSED_BYTE;
+
+            if (compressed) {
+                protocolByte = readProtocolByte(buffer);
             }
 
-            int schemaId = readSchemaId(buffer);
+            checkProtocolByte(protocolByte);
+
+            schemaId = readSchemaId(buffer, protocolByte);
             Schema schema = client.getSchemaById(schemaId);
 
             if (schema == null) {
                 throw new ThriftDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
             }
 
-            int dataLength = buffer.limit() - 5;
-            int start = buffer.position() + buffer.arrayOffset();
-            BinaryDecoder binaryDecoder = decoderFactory.binaryDecoder(buffer.array(), start, dataLength, null);
-            ThriftDatumReader<T> reader = createReader(schema, clazz);
-            T result = reader.read(null, binaryDecoder);
+            if (compressed) {
+                buffer = compression.decompress(buffer);
+            }
+
+            int dataLength = buffer.remaining();
+            int offset = buffer.position() + buffer.arrayOffset();
+            T result;
+
+            if (protocolByte == NATIVE_THRIFT_BYTE) {
+                result = readNative(schema, clazz, reuse, buffer.array(), offset, dataLength);
+            } else {
+                BinaryDecoder binaryDecoder = binaryDecoder(buffer.array(), offset, dataLength);
+                result = reader(schemaId, schema, clazz).read(reuse, binaryDecoder);
+            }
 
+            deserialized(schemaId, data.length, start);
             return result;
         } catch (DeserializationException | IOException e) {
-            throw new ThriftDeserializationException(e);
+            throw deserializationFailed(schemaId, new ThriftDeserializationException(e));
+        } catch (RuntimeException e) {
+            throw deserializationFailed(schemaId, e);
+        }
+    }
+
+    public List<TBase<? extends TBase, ? extends TFieldIdEnum>> deserializeBatch(byte[] data) throws ThriftDeserializationException {
+        return deserializeBatch(data, null);
+    }
+
+    /**
+     * Deserializes messages written by {@link ThriftSerializer#serializeBatch(String, List)}. Schema is resolved once per batch.
+     *
+     * @return messages in the same order or null if data is null
+     */
+    public <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> List<T> deserializeBatch(byte[] data, Class<T> clazz) throws ThriftDeserializationException {
+        if (data == null) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+        int schemaId = 0;
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte protocolByte = readProtocolByte(buffer);
+            checkBatchProtocolByte(protocolByte);
+
+            schemaId = readSchemaId(buffer, protocolByte);
+            Schema schema = client.getSchemaById(schemaId);
+
+            if (schema == null) {
+                throw new ThriftDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
+            }
+
+            List<T> result = new ArrayList<>();
+            BinaryDecoder binaryDecoder = null;
+            boolean nativeEncoding = protocolByte == MessageHeader.NATIVE_BATCH_THRIFT_BYTE;
+            ThriftDatumReader<T> reader = nativeEncoding ? null : reader(schemaId, schema, clazz);
+
+            while (buffer.hasRemaining()) {
+                int dataLength = readBatchRecordLength(buffer);
+                int offset = buffer.position() + buffer.arrayOffset();
+
+                if (nativeEncoding) {
+                    result.add(readNative(schema, clazz, null, buffer.array(), offset, dataLength));
+                } else {
+                    binaryDecoder = decoderFactory.binaryDecoder(buffer.array(), offset, dataLength, binaryDecoder);
+                    result.add(reader.read(null, binaryDecoder));
+                }
+
+                buffer.position(buffer.position() + dataLength);
+            }
+
+            deserialized(schemaId, data.length, start);
+            return result;
+        } catch (DeserializationException | IOException e) {
+            throw deserializationFailed(schemaId, new ThriftDeserializationException(e));
+        } catch (RuntimeException e) {
+            throw deserializationFailed(schemaId, e);
+        }
+    }
+
+    public RecordStreamReader<TBase<? extends TBase, ? extends TFieldIdEnum>> deserializeStream(InputStream in) {
+        return deserializeStream(in, null);
+    }
+
+    /**
+     * Reads messages from the stream of length-delimited records (see {@link RecordStreamReader}).
+     * Datum readers are created once per schema id and shared with the other methods.
+     */
+    public <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> RecordStreamReader<T> deserializeStream(InputStream in, Class<T> clazz) {
+        return new RecordStreamReader<>(in, streamRecordReader(clazz));
+    }
+
+    public RecordStreamReader<TBase<? extends TBase, ? extends TFieldIdEnum>> deserializeStream(ReadableByteChannel channel) {
+        return deserializeStream(channel, null);
+    }
+
+    public <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> RecordStreamReader<T> deserializeStream(ReadableByteChannel channel, Class<T> clazz) {
+        return new RecordStreamReader<>(channel, streamRecordReader(clazz));
+    }
+
+    /**
+     * Derives schemas of the generated classes, resolves schema ids of the subjects and loads the schemas by id in parallel,
+     * so the first messages of these classes do not wait for the registry. Schemas are never registered.
+     * Called on creation for {@link ThriftSerDeConfig#WARMUP_CLASSES_CONFIG} with the record names as subjects.
+     *
+     * @param subjects - subjects of the class schema
+     */
+    public void warmUp(List<Class<?>> classes, Function<Schema, List<String>> subjects) {
+        SchemaWarmUp.run(classes, warmUpParallelism, clazz -> {
+            Schema schema = SchemaKeeperThriftData.get().getSchema(clazz);
+            prototypes.computeIfAbsent(clazz, ThriftDeserializer::createPrototype);
+
+            for (String subject : subjects.apply(schema)) {
+                int id = client.getSchemaId(subject, schema, SchemaType.THRIFT);
+
+                if (id > 0) {
+                    client.getSchemaById(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the schemas by id, so the messages of a batch deserialized in parallel do not request the same schema concurrently.
+     */
+    public void preloadSchemas(Collection<Integer> schemaIds) {
+        for (int id : schemaIds) {
+            client.getSchemaById(id);
         }
     }
 
     @Override
     public void close() {
         client.close();
+        getMetrics().close();
+        compression.close();
+    }
+
+    /**
+     * Decoder is reused by the subsequent calls in the same thread.
+     */
+    private BinaryDecoder binaryDecoder(byte[] data, int offset, int length) {
+        BinaryDecoder reuse = decoders.get();
+        BinaryDecoder decoder = decoderFactory.binaryDecoder(data, offset, length, reuse);
+
+        if (decoder != reuse) {
+            decoders.set(decoder);
+        }
+
+        return decoder;
+    }
+
+    private <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> RecordStreamReader.RecordReader<T> streamRecordReader(Class<T> clazz) {
+        return (protocolByte, schemaId, messageLength, dataLength, decoder) -> {
+            long start = getMetrics().start();
+
+            try {
+                checkProtocolByte(protocolByte);
+
+                Schema schema = client.getSchemaById(schemaId);
+
+                if (schema == null) {
+                    throw new ThriftDeserializationException(String.format("Schema with id: %s does not exist", schemaId));
+                }
+
+                T result;
+
+                if (protocolByte == NATIVE_THRIFT_BYTE) {
+                    byte[] bytes = new byte[dataLength];
+                    decoder.readFixed(bytes);
+                    result = readNative(schema, clazz, null, bytes, 0, dataLength);
+                } else {
+                    result = reader(schemaId, schema, clazz).read(null, decoder);
+                }
+
+                deserialized(schemaId, messageLength, start);
+                return result;
+            } catch (IOException e) {
+                throw deserializationFailed(schemaId, new ThriftDeserializationException(e));
+            } catch (RuntimeException e) {
+                throw deserializationFailed(schemaId, e);
+            }
+        };
+    }
+
+    private void checkProtocolByte(byte protocolByte) throws ThriftDeserializationException {
+        if (MessageHeader.isBatch(protocolByte)) {
+            throw new ThriftDeserializationException("Batch should be read by deserializeBatch");
+        }
+
+        if (protocolByte != THRIFT_BYTE && protocolByte != COMPACT_THRIFT_BYTE && protocolByte != NATIVE_THRIFT_BYTE) {
+            throw new ThriftDeserializationException("This is not thrift-serialized data");
+        }
+    }
+
+    private void checkBatchProtocolByte(byte protocolByte) throws ThriftDeserializationException {
+        if (protocolByte != MessageHeader.BATCH_THRIFT_BYTE && protocolByte != MessageHeader.COMPACT_BATCH_THRIFT_BYTE &&
+                protocolByte != MessageHeader.NATIVE_BATCH_THRIFT_BYTE) {
+            throw new ThriftDeserializationException("This is not a thrift-serialized batch");
+        }
+    }
+
+    /**
+     * Reads thrift compact protocol using generated code. Generated class is resolved by the writer schema if class is
+     * not specified.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> T readNative(Schema schema, Class<T> clazz, T reuse, byte[] data, int offset, int length) throws ThriftDeserializationException {
+        Class<?> messageClass = clazz == null ? SpecificData.get().getClass(schema) : clazz;
+
+        if (messageClass == null) {
+            throw new ThriftDeserializationException(String.format("Class for schema %s does not exist", schema.getFullName()));
+        }
+
+        T result;
+
+        if (reuse != null && reuse.getClass() == messageClass) {
+            reuse.clear();
+            result = reuse;
+        } else {
+            result = (T) prototypes.computeIfAbsent(messageClass, ThriftDeserializer::createPrototype).deepCopy();
+        }
+
+        try {
+            nativeReaders.get().deserialize(result, data, offset, length);
+        } catch (TException e) {
+            throw new ThriftDeserializationException(e);
+        }
+
+        return result;
+    }
+
+    private static TBase<?, ?> createPrototype(Class<?> clazz) {
+        try {
+            return (TBase<?, ?>) clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ThriftDeserializationException(String.format("Class %s is not a generated thrift message", clazz.getName()), e);
+        }
+    }
+
+    private static TDeserializer createNativeReader() {
+        try {
+            return newNativeReader();
+        } catch (TException e) {
+            throw new ThriftDeserializationException(e);
+        }
+    }
+
+    private static TDeserializer newNativeReader() throws TException {
+        return new TDeserializer(new TCompactProtocol.Factory());
+    }
+
+    /**
+     * @return datum reader cached per expected class and writer schema id, so the schemas are not resolved per message
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> ThriftDatumReader<T> reader(int schemaId, Schema schema, Class<T> clazz) {
+        Class<?> key = clazz == null ? TBase.class : clazz;
+        Map<Integer, ThriftDatumReader<?>> classReaders = readers.get(key);
+
+        if (classReaders == null) {
+            classReaders = readers.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+
+        ThriftDatumReader<?> reader = classReaders.get(schemaId);
+        return (ThriftDatumReader<T>) (reader != null ? reader : classReaders.computeIfAbsent(schemaId, id -> createReader(schema, clazz)));
     }
 
     private <T extends TBase<? extends TBase, ? extends TFieldIdEnum>> ThriftDatumReader<T> createReader(Schema schema, Class<T> clazz) {
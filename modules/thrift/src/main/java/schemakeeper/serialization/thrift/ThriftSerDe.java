@@ -1,5 +1,9 @@
 package schemakeeper.serialization.thrift;
 
+import schemakeeper.serialization.MessageHeader;
+
 public interface ThriftSerDe {
-    byte THRIFT_BYTE = 0b1111010;
+    byte THRIFT_BYTE = MessageHeader.THRIFT_BYTE;
+    byte COMPACT_THRIFT_BYTE = MessageHeader.COMPACT_THRIFT_BYTE;
+    byte NATIVE_THRIFT_BYTE = MessageHeader.NATIVE_THRIFT_BYTE;
 }
@@ -5,7 +5,14 @@ import schemakeeper.serialization.SerDeConfig;
 import java.util.Map;
 
 public class ThriftSerDeConfig extends SerDeConfig {
+    // write thrift compact protocol using generated code instead of avro binary encoding
+    public static final String USE_NATIVE_ENCODING_CONFIG = "use.native.encoding";
+
     public ThriftSerDeConfig(Map<String, Object> config) {
         super(config);
     }
+
+    public boolean useNativeEncoding() {
+        return (boolean) config.getOrDefault(USE_NATIVE_ENCODING_CONFIG, false);
+    }
 }
@@ -5,22 +5,36 @@ import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.thrift.ThriftDatumWriter;
 import org.apache.thrift.TBase;
+import org.apache.thrift.TByteArrayOutputStream;
+import org.apache.thrift.TException;
 import org.apache.thrift.TFieldIdEnum;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TIOStreamTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import schemakeeper.client.CachedSchemaKeeperClient;
 import schemakeeper.client.SchemaKeeperClient;
+import schemakeeper.client.compression.DictionaryCompression;
 import schemakeeper.exception.SerializationException;
 import schemakeeper.exception.ThriftSerializationException;
+import schemakeeper.metrics.SerDeMetrics;
 import schemakeeper.schema.CompatibilityType;
 import schemakeeper.schema.SchemaType;
 import schemakeeper.schema.thrift.SchemaKeeperThriftData;
 import schemakeeper.serialization.AbstractSerializer;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.SchemaWarmUp;
+import schemakeeper.serialization.SubjectSchema;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class ThriftSerializer extends AbstractSerializer<TBase<? extends TBase, ? extends TFieldIdEnum>> implements ThriftSerDe {
     private static final Logger logger = LoggerFactory.getLogger(ThriftSerializer.class);
@@ -28,26 +42,47 @@ public class ThriftSerializer extends AbstractSerializer<TBase<? extends TBase,
     private final SchemaKeeperClient client;
     private final boolean allowForceSchemaRegister;
     private final CompatibilityType compatibilityType;
+    private final DictionaryCompression compression;
+    // default or compact protocol byte
+    private final byte protocolByte;
+    private final boolean useNativeEncoding;
+    private final Map<Schema, ThriftDatumWriter<TBase<? extends TBase, ? extends TFieldIdEnum>>> writers = new ConcurrentHashMap<>();
+    // max number of concurrent registry calls on warm-up
+    private final int warmUpParallelism;
+    private final ThreadLocal<NativeWriter> nativeWriters = ThreadLocal.withInitial(NativeWriter::create);
 
     public ThriftSerializer(SchemaKeeperClient client) {
         this.client = client;
         this.encoderFactory = EncoderFactory.get();
         this.allowForceSchemaRegister = true;
         this.compatibilityType = CompatibilityType.BACKWARD;
+        this.compression = null;
+        this.protocolByte = THRIFT_BYTE;
+        this.useNativeEncoding = false;
+        this.warmUpParallelism = 1;
     }
 
     public ThriftSerializer(SchemaKeeperClient client, ThriftSerDeConfig config) {
+        this(client, config, SerDeMetrics.create(config, SerDeMetrics.SERIALIZER));
+    }
+
+    public ThriftSerializer(SchemaKeeperClient client, ThriftSerDeConfig config, SerDeMetrics metrics) {
+        super(metrics);
+
         this.client = client;
         this.encoderFactory = EncoderFactory.get();
         this.allowForceSchemaRegister = config.allowForceSchemaRegister();
         this.compatibilityType = config.compatibilityType();
+        this.compression = config.compressionEnabled() ? new DictionaryCompression(client, config) : null;
+        this.protocolByte = config.compactHeader() ? COMPACT_THRIFT_BYTE : THRIFT_BYTE;
+        this.useNativeEncoding = config.useNativeEncoding();
+        this.warmUpParallelism = config.clientConnectionsPerRoute();
+
+        warmUp(SchemaWarmUp.resolveClasses(config.warmupClasses(), TBase.class), SchemaWarmUp::recordNameSubject);
     }
 
     public ThriftSerializer(ThriftSerDeConfig config) {
-        this.client = new CachedSchemaKeeperClient(config);
-        this.encoderFactory = EncoderFactory.get();
-        this.allowForceSchemaRegister = config.allowForceSchemaRegister();
-        this.compatibilityType = config.compatibilityType();
+        this(new CachedSchemaKeeperClient(config), config);
     }
 
     public ThriftSerializer(Map<String, Object> config) {
@@ -60,40 +95,247 @@ public class ThriftSerializer extends AbstractSerializer<TBase<? extends TBase,
             return null;
         }
 
-        ByteArrayOutputStream out;
+        long start = getMetrics().start();
+        int id = 0;
 
         try {
             Schema schema = SchemaKeeperThriftData.get().getSchema(data.getClass());
-            int id;
+            id = getSchemaId(subject, schema);
 
-            if (allowForceSchemaRegister) {
-                id = client.registerNewSchema(subject, schema, SchemaType.THRIFT, compatibilityType);
-            } else {
-                id = client.getSchemaId(subject, schema, SchemaType.THRIFT);
+            return write(subject, schema, id, data, start);
+        } catch (IOException | SerializationException | TException e) {
+            throw serializationFailed(subject, id, new ThriftSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, id, e);
+        }
+    }
+
+    /**
+     * Serializes message with the schema resolved by {@link #resolveSchema(String, Schema)}: schema is not derived from
+     * the message class and registry is not called.
+     *
+     * @param subjectSchema - resolved schema of the message class
+     */
+    public byte[] serialize(SubjectSchema subjectSchema, TBase<? extends TBase, ? extends TFieldIdEnum> data) throws ThriftSerializationException {
+        if (data == null) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+
+        try {
+            return write(subjectSchema.getSubject(), subjectSchema.getSchema(), subjectSchema.getSchemaId(), data, start);
+        } catch (IOException | SerializationException | TException e) {
+            throw serializationFailed(subjectSchema.getSubject(), subjectSchema.getSchemaId(), new ThriftSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subjectSchema.getSubject(), subjectSchema.getSchemaId(), e);
+        }
+    }
+
+    /**
+     * Registers (or finds) the schema of the subject, so messages with this schema can be serialized without lookups
+     * by {@link #serialize(SubjectSchema, TBase)}.
+     */
+    public SubjectSchema resolveSchema(String subject, Schema schema) throws ThriftSerializationException {
+        try {
+            return new SubjectSchema(subject, schema, getSchemaId(subject, schema));
+        } catch (SerializationException e) {
+            throw serializationFailed(subject, 0, new ThriftSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, 0, e);
+        }
+    }
+
+    /**
+     * Serializes messages of the same type into one buffer: batch protocol byte and schema id are written once and followed by
+     * length-prefixed records. Schema is resolved once per batch. Result should be read by
+     * {@link ThriftDeserializer#deserializeBatch(byte[])}.
+     *
+     * @return serialized batch or null if data is null or empty
+     */
+    public byte[] serializeBatch(String subject, List<? extends TBase<? extends TBase, ? extends TFieldIdEnum>> data) throws ThriftSerializationException {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+
+        long start = getMetrics().start();
+        int id = 0;
+
+        try {
+            TBase<? extends TBase, ? extends TFieldIdEnum> first = data.get(0);
+
+            if (first == null) {
+                throw new IllegalArgumentException("Batch can't contain null values");
             }
 
-            if (id <= 0) {
-                throw new IllegalArgumentException(String.format("Schema %s was not registered in registry", schema.toString()));
+            Schema schema = SchemaKeeperThriftData.get().getSchema(first.getClass());
+            id = getSchemaId(subject, schema);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            if (useNativeEncoding) {
+                writeHeader(out, MessageHeader.NATIVE_BATCH_THRIFT_BYTE, id);
+            } else {
+                writeHeader(out, MessageHeader.batchByteOf(protocolByte), id);
             }
 
-            out = new ByteArrayOutputStream();
-            writeProtocolByte(out, THRIFT_BYTE);
-            writeSchemaId(out, id);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            BinaryEncoder encoder = null;
+            ThriftDatumWriter<TBase<? extends TBase, ? extends TFieldIdEnum>> writer = useNativeEncoding ? null : createWriter(schema);
+            NativeWriter nativeWriter = useNativeEncoding ? nativeWriters.get() : null;
+
+            for (TBase<? extends TBase, ? extends TFieldIdEnum> value : data) {
+                if (value == null) {
+                    throw new IllegalArgumentException("Batch can't contain null values");
+                }
+
+                if (value.getClass() != first.getClass()) {
+                    throw new IllegalArgumentException("All messages of the batch should have the same type");
+                }
+
+                record.reset();
+
+                if (useNativeEncoding) {
+                    nativeWriter.writePayload(record, value);
+                } else {
+                    encoder = encoderFactory.directBinaryEncoder(record, encoder);
+                    writer.write(value, encoder);
+                    encoder.flush();
+                }
+
+                writeBatchRecord(out, record);
+            }
 
-            BinaryEncoder encoder = encoderFactory.directBinaryEncoder(out, null);
-            ThriftDatumWriter<TBase<? extends TBase, ? extends TFieldIdEnum>> writer = new ThriftDatumWriter<>(schema);
-            writer.write(data, encoder);
-            encoder.flush();
             byte[] bytes = out.toByteArray();
             out.close();
+            serialized(subject, id, bytes.length, start);
             return bytes;
-        } catch (IOException | SerializationException e) {
-            throw new ThriftSerializationException(e);
+        } catch (IOException | SerializationException | TException e) {
+            throw serializationFailed(subject, id, new ThriftSerializationException(e));
+        } catch (RuntimeException e) {
+            throw serializationFailed(subject, id, e);
         }
     }
 
+    /**
+     * Derives schemas of the generated classes, prebuilds their writers and resolves schema ids of the subjects
+     * in parallel, so the first messages of these classes do not wait for the registry. Schemas are never registered:
+     * the first message registers the schema if {@link ThriftSerDeConfig#ALLOW_FORCE_SCHEMA_REGISTER_CONFIG} is enabled.
+     * Called on creation for {@link ThriftSerDeConfig#WARMUP_CLASSES_CONFIG} with the record names as subjects.
+     *
+     * @param subjects - subjects of the class schema
+     */
+    public void warmUp(List<Class<?>> classes, Function<Schema, List<String>> subjects) {
+        SchemaWarmUp.run(classes, warmUpParallelism, clazz -> {
+            Schema schema = SchemaKeeperThriftData.get().getSchema(clazz);
+
+            if (!useNativeEncoding) {
+                createWriter(schema);
+            }
+
+            for (String subject : subjects.apply(schema)) {
+                client.getSchemaId(subject, schema, SchemaType.THRIFT);
+            }
+        });
+    }
+
     @Override
     public void close() {
         client.close();
+        getMetrics().close();
+
+        if (compression != null) {
+            compression.close();
+        }
+    }
+
+    private byte[] write(String subject, Schema schema, int id, TBase<? extends TBase, ? extends TFieldIdEnum> data, long start) throws IOException, TException {
+        byte[] bytes;
+
+        if (useNativeEncoding) {
+            bytes = nativeWriters.get().write(id, data);
+        } else {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeHeader(out, protocolByte, id);
+
+            BinaryEncoder encoder = encoderFactory.directBinaryEncoder(out, null);
+            ThriftDatumWriter<TBase<? extends TBase, ? extends TFieldIdEnum>> writer = createWriter(schema);
+            writer.write(data, encoder);
+            encoder.flush();
+            bytes = out.toByteArray();
+            out.close();
+        }
+
+        if (compression != null) {
+            bytes = compression.compress(id, bytes);
+        }
+
+        serialized(subject, id, bytes.length, start);
+        return bytes;
+    }
+
+    private int getSchemaId(String subject, Schema schema) {
+        int id;
+
+        if (allowForceSchemaRegister) {
+            id = client.registerNewSchema(subject, schema, SchemaType.THRIFT, compatibilityType);
+        } else {
+            id = client.getSchemaId(subject, schema, SchemaType.THRIFT);
+        }
+
+        if (id <= 0) {
+            throw new IllegalArgumentException(String.format("Schema %s was not registered in registry", schema.toString()));
+        }
+
+        return id;
+    }
+
+    // writers are thread-safe, so writer is created once per schema
+    private ThriftDatumWriter<TBase<? extends TBase, ? extends TFieldIdEnum>> createWriter(Schema schema) {
+        return writers.computeIfAbsent(schema, s -> new ThriftDatumWriter<>(s));
+    }
+
+    /**
+     * Thrift compact protocol over the reusable buffer. Not thread-safe, so every thread has its own writer.
+     */
+    private static final class NativeWriter {
+        private final TByteArrayOutputStream buffer;
+        private final TProtocol protocol;
+
+        private NativeWriter() throws TException {
+            this.buffer = new TByteArrayOutputStream();
+            this.protocol = new TCompactProtocol(new TIOStreamTransport(buffer));
+        }
+
+        private static NativeWriter create() {
+            try {
+                return new NativeWriter();
+            } catch (TException e) {
+                throw new ThriftSerializationException(e);
+            }
+        }
+
+        /**
+         * @return message with the native protocol byte and 4-byte schema id
+         */
+        private byte[] write(int id, TBase<? extends TBase, ? extends TFieldIdEnum> data) throws TException {
+            buffer.reset();
+            buffer.write(MessageHeader.NATIVE_THRIFT_BYTE);
+            buffer.write(id >>> 24);
+            buffer.write(id >>> 16);
+            buffer.write(id >>> 8);
+            buffer.write(id);
+            data.write(protocol);
+            protocol.getTransport().flush();
+
+            return Arrays.copyOf(buffer.get(), buffer.len());
+        }
+
+        private void writePayload(ByteArrayOutputStream out, TBase<? extends TBase, ? extends TFieldIdEnum> data) throws TException {
+            buffer.reset();
+            data.write(protocol);
+            protocol.getTransport().flush();
+            out.write(buffer.get(), 0, buffer.len());
+        }
     }
 }
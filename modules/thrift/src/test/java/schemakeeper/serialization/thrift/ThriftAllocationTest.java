@@ -0,0 +1,48 @@
+package schemakeeper.serialization.thrift;
+
+import org.junit.Test;
+import schemakeeper.client.MockSchemaKeeperClient;
+import schemakeeper.generated.thrift.ThriftMsgV5;
+import schemakeeper.schema.CompatibilityType;
+import schemakeeper.schema.SchemaType;
+import schemakeeper.schema.thrift.SchemaKeeperThriftData;
+import schemakeeper.serialization.AllocationMeter;
+import schemakeeper.serialization.SerDeConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static schemakeeper.serialization.AllocationMeter.MARGIN;
+import static schemakeeper.serialization.AllocationMeter.assertBudget;
+
+/**
+ * Allocation budgets (bytes per message) of the serde hot path: measured value (openjdk 17) plus
+ * {@link AllocationMeter#MARGIN}. Budgets should only be decreased. Tests are skipped on other java versions.
+ */
+public class ThriftAllocationTest {
+    // measured 376 bytes
+    private static final long SERIALIZE_BUDGET = 376 + MARGIN;
+    // measured 672 bytes
+    private static final long DESERIALIZE_BUDGET = 672 + MARGIN;
+
+    @Test
+    public void record() throws Exception {
+        Map<String, Object> config = new HashMap<>();
+        // schema is registered once, so the mock client does not affect measurements
+        config.put(SerDeConfig.ALLOW_FORCE_SCHEMA_REGISTER_CONFIG, false);
+
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client, new ThriftSerDeConfig(config));
+        ThriftDeserializer deserializer = new ThriftDeserializer(client, new ThriftSerDeConfig(config));
+
+        ThriftMsgV5 message = new ThriftMsgV5("f1");
+        message.setF3("f3");
+        message.setF4("f4");
+
+        client.registerNewSchema("test", SchemaKeeperThriftData.get().getSchema(ThriftMsgV5.class), SchemaType.THRIFT, CompatibilityType.NONE);
+        byte[] data = serializer.serialize("test", message);
+
+        assertBudget("thrift serialization", SERIALIZE_BUDGET, () -> serializer.serialize("test", message));
+        assertBudget("thrift deserialization", DESERIALIZE_BUDGET, () -> deserializer.deserialize(data, ThriftMsgV5.class));
+    }
+}
@@ -1,12 +1,26 @@
 package schemakeeper.serialization.thrift;
 
 
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.protocol.TCompactProtocol;
 import org.junit.Test;
 import schemakeeper.client.MockSchemaKeeperClient;
 import schemakeeper.exception.ThriftDeserializationException;
 import schemakeeper.exception.ThriftSerializationException;
 import schemakeeper.generated.thrift.*;
 import schemakeeper.schema.CompatibilityType;
+import schemakeeper.serialization.MessageHeader;
+import schemakeeper.serialization.MessageReframer;
+import schemakeeper.serialization.RecordStreamReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 
 import static org.junit.Assert.*;
@@ -75,4 +89,121 @@ public class ThriftSerDeTest {
         assertEquals(d.getClass(), ThriftMsgV5.class);
         assertEquals(msgV5, d);
     }
+
+    @Test
+    public void batchSerializationTest() throws ThriftSerializationException, ThriftDeserializationException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client);
+        ThriftDeserializer deserializer = new ThriftDeserializer(client);
+
+        List<ThriftMsgV1> messages = Arrays.asList(new ThriftMsgV1("f1"), new ThriftMsgV1("f2"), new ThriftMsgV1("f3"));
+        byte[] result = serializer.serializeBatch("test", messages);
+
+        assertEquals(messages, deserializer.deserializeBatch(result));
+        assertEquals(messages, deserializer.deserializeBatch(result, ThriftMsgV1.class));
+    }
+
+    @Test
+    public void batchWithDifferentTypes() {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client);
+
+        assertThrows(IllegalArgumentException.class, () -> serializer.serializeBatch("test", Arrays.asList(new ThriftMsgV1("f1"), new ThriftMsgV2(1))));
+    }
+
+    @Test
+    public void batchAndSingleMessageCanNotBeReadOneAsAnother() throws ThriftSerializationException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client);
+        ThriftDeserializer deserializer = new ThriftDeserializer(client);
+
+        byte[] batch = serializer.serializeBatch("test", Arrays.asList(new ThriftMsgV1("f1"), new ThriftMsgV1("f2")));
+        byte[] single = serializer.serialize("test", new ThriftMsgV1("f1"));
+
+        assertThrows(ThriftDeserializationException.class, () -> deserializer.deserialize(batch));
+        assertThrows(ThriftDeserializationException.class, () -> deserializer.deserializeBatch(single));
+    }
+
+    @Test
+    public void streamSerializationTest() throws ThriftSerializationException, ThriftDeserializationException, IOException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client);
+        ThriftDeserializer deserializer = new ThriftDeserializer(client);
+
+        List<ThriftMsgV1> messages = Arrays.asList(new ThriftMsgV1("f1"), new ThriftMsgV1("f2"), new ThriftMsgV1("f3"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(out);
+
+        for (ThriftMsgV1 message : messages) {
+            byte[] bytes = serializer.serialize("test", message);
+            dataOut.writeInt(bytes.length);
+            dataOut.write(bytes);
+        }
+
+        List<ThriftMsgV1> result = new ArrayList<>();
+
+        try (RecordStreamReader<ThriftMsgV1> reader = deserializer.deserializeStream(new ByteArrayInputStream(out.toByteArray()), ThriftMsgV1.class)) {
+            reader.forEachRemaining(result::add);
+        }
+
+        assertEquals(messages, result);
+    }
+
+    @Test
+    public void reuseMessage() throws ThriftSerializationException, ThriftDeserializationException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client);
+        ThriftDeserializer deserializer = new ThriftDeserializer(client);
+
+        ThriftMsgV1 reuse = deserializer.deserialize(serializer.serialize("test", new ThriftMsgV1("f1")), ThriftMsgV1.class);
+        ThriftMsgV1 result = deserializer.deserialize(serializer.serialize("test", new ThriftMsgV1("f2")), ThriftMsgV1.class, reuse);
+
+        assertSame(reuse, result);
+        assertEquals(new ThriftMsgV1("f2"), result);
+    }
+
+    @Test
+    public void compactHeader() throws ThriftSerializationException, ThriftDeserializationException {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client, new ThriftSerDeConfig(Collections.singletonMap(ThriftSerDeConfig.COMPACT_HEADER_CONFIG, true)));
+        ThriftSerializer defaultSerializer = new ThriftSerializer(client);
+        ThriftDeserializer deserializer = new ThriftDeserializer(client);
+
+        ThriftMsgV1 msgV1 = new ThriftMsgV1("f1");
+        byte[] compact = serializer.serialize("test", msgV1);
+        byte[] standard = defaultSerializer.serialize("test", msgV1);
+
+        assertEquals(MessageHeader.COMPACT_THRIFT_BYTE, compact[0]);
+        assertEquals(standard.length - 3, compact.length);
+        assertEquals(msgV1, deserializer.deserialize(compact));
+        assertEquals(msgV1, deserializer.deserialize(standard));
+    }
+
+    @Test
+    public void nativeEncoding() throws Exception {
+        MockSchemaKeeperClient client = new MockSchemaKeeperClient(CompatibilityType.NONE);
+        ThriftSerializer serializer = new ThriftSerializer(client, new ThriftSerDeConfig(Collections.singletonMap(ThriftSerDeConfig.USE_NATIVE_ENCODING_CONFIG, true)));
+        ThriftDeserializer deserializer = new ThriftDeserializer(client);
+
+        ThriftMsgV1 msgV1 = new ThriftMsgV1("f1");
+        byte[] result = serializer.serialize("test", msgV1);
+        MessageHeader header = MessageHeader.parse(result);
+
+        // payload is readable by any thrift consumer
+        ThriftMsgV1 parsed = new ThriftMsgV1();
+        new TDeserializer(new TCompactProtocol.Factory()).deserialize(parsed, result, header.getPayloadOffset(), header.getPayloadLength());
+
+        assertTrue(header.isNative());
+        assertEquals(MessageHeader.NATIVE_THRIFT_BYTE, result[0]);
+        assertEquals(msgV1, parsed);
+        assertEquals(msgV1, deserializer.deserialize(result));
+        assertEquals(msgV1, deserializer.deserialize(result, ThriftMsgV1.class));
+        assertEquals(Arrays.asList(msgV1, msgV1), deserializer.deserializeBatch(serializer.serializeBatch("test", Arrays.asList(msgV1, msgV1))));
+
+        ThriftMsgV1 reuse = new ThriftMsgV1("f2");
+        assertSame(reuse, deserializer.deserialize(result, ThriftMsgV1.class, reuse));
+        assertEquals(msgV1, reuse);
+        // default encoding is still readable
+        assertEquals(msgV1, deserializer.deserialize(new ThriftSerializer(client).serialize("test", msgV1)));
+    }
 }